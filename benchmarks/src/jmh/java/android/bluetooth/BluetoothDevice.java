@@ -0,0 +1,39 @@
+package android.bluetooth;
+
+/**
+ * A JVM stand-in for the framework {@link BluetoothDevice} which binds to the Bluetooth system service when constructed. Only the
+ * members used on the benchmarked paths are present.
+ */
+public class BluetoothDevice {
+
+    private final String address;
+    private final String name;
+
+    public BluetoothDevice(String address, String name) {
+        this.address = address;
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BluetoothDevice && address.equals(((BluetoothDevice) o).address);
+    }
+
+    @Override
+    public int hashCode() {
+        return address.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return address;
+    }
+}
@@ -0,0 +1,36 @@
+package android.bluetooth;
+
+/**
+ * A JVM stand-in for the framework {@link BluetoothGatt} which talks to the Bluetooth system service. Every started operation succeeds
+ * and its {@link BluetoothGattCallback} is called back immediately on the calling thread — the benchmarks measure the library and not
+ * the radio. Only the members used on the benchmarked paths are present.
+ */
+public class BluetoothGatt {
+
+    public static final int GATT_SUCCESS = 0;
+
+    private final BluetoothDevice device;
+    private BluetoothGattCallback callback;
+
+    public BluetoothGatt(BluetoothDevice device) {
+        this.device = device;
+    }
+
+    public void setCallback(BluetoothGattCallback callback) {
+        this.callback = callback;
+    }
+
+    public BluetoothDevice getDevice() {
+        return device;
+    }
+
+    public boolean readCharacteristic(BluetoothGattCharacteristic characteristic) {
+        callback.onCharacteristicRead(this, characteristic, GATT_SUCCESS);
+        return true;
+    }
+
+    public boolean writeCharacteristic(BluetoothGattCharacteristic characteristic) {
+        callback.onCharacteristicWrite(this, characteristic, GATT_SUCCESS);
+        return true;
+    }
+}
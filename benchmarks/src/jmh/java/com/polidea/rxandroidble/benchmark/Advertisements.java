@@ -0,0 +1,88 @@
+package com.polidea.rxandroidble.benchmark;
+
+import android.bluetooth.BluetoothDevice;
+
+import com.polidea.rxandroidble.internal.scan.RxBleInternalScanResult;
+import com.polidea.rxandroidble.internal.util.UUIDUtil;
+import com.polidea.rxandroidble.scan.ScanCallbackType;
+
+import java.util.UUID;
+
+/**
+ * Typical advertisements used as the input of the scan related benchmarks.
+ */
+public final class Advertisements {
+
+    public static final UUID HEART_RATE_SERVICE = UUID.fromString("0000180d-0000-1000-8000-00805f9b34fb");
+    public static final UUID BATTERY_SERVICE = UUID.fromString("0000180f-0000-1000-8000-00805f9b34fb");
+    public static final UUID CUSTOM_SERVICE = UUID.fromString("6e400001-b5a3-f393-e0a9-e50e24dcca9e");
+    public static final int APPLE_COMPANY_ID = 0x004C;
+    public static final String DEVICE_NAME = "Sensor";
+
+    /**
+     * Flags, two 16 bit service UUIDs, battery level service data and the complete local name.
+     */
+    public static final byte[] SERVICES_AND_NAME = bytes(
+            0x02, 0x01, 0x06,
+            0x05, 0x03, 0x0D, 0x18, 0x0F, 0x18,
+            0x04, 0x16, 0x0F, 0x18, 0x64,
+            0x07, 0x09, 'S', 'e', 'n', 's', 'o', 'r'
+    );
+
+    /**
+     * Flags and an iBeacon manufacturer specific data.
+     */
+    public static final byte[] IBEACON = bytes(
+            0x02, 0x01, 0x06,
+            0x1A, 0xFF, 0x4C, 0x00, 0x02, 0x15,
+            0xE2, 0xC5, 0x6D, 0xB5, 0xDF, 0xFB, 0x48, 0xD2, 0xB0, 0x60, 0xD0, 0xF5, 0xA7, 0x10, 0x96, 0xE0,
+            0x00, 0x01, 0x00, 0x02, 0xC5
+    );
+
+    /**
+     * Flags, a 128 bit service UUID and the complete local name.
+     */
+    public static final byte[] CUSTOM_SERVICE_AND_NAME = bytes(
+            0x02, 0x01, 0x06,
+            0x11, 0x07, 0x9E, 0xCA, 0xDC, 0x24, 0x0E, 0xE5, 0xA9, 0xE0, 0x93, 0xF3, 0xA3, 0xB5, 0x01, 0x00, 0x40, 0x6E,
+            0x07, 0x09, 'S', 'e', 'n', 's', 'o', 'r'
+    );
+
+    private Advertisements() {
+    }
+
+    public static byte[] advertisement(String name) {
+        switch (name) {
+            case "SERVICES_AND_NAME":
+                return SERVICES_AND_NAME;
+            case "IBEACON":
+                return IBEACON;
+            case "CUSTOM_SERVICE_AND_NAME":
+                return CUSTOM_SERVICE_AND_NAME;
+            default:
+                throw new IllegalArgumentException("Unknown advertisement: " + name);
+        }
+    }
+
+    public static String macAddress(int index) {
+        return String.format("AA:BB:CC:%02X:%02X:%02X", (index >> 16) & 0xFF, (index >> 8) & 0xFF, index & 0xFF);
+    }
+
+    public static RxBleInternalScanResult scanResult(int deviceIndex, byte[] advertisement) {
+        return new RxBleInternalScanResult(
+                new BluetoothDevice(macAddress(deviceIndex), DEVICE_NAME),
+                -60,
+                System.nanoTime(),
+                new UUIDUtil().parseFromBytes(advertisement),
+                ScanCallbackType.CALLBACK_TYPE_ALL_MATCHES
+        );
+    }
+
+    private static byte[] bytes(int... values) {
+        final byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.polidea.rxandroidble.internal.cache;
+
+import com.polidea.rxandroidble.RxBleDevice;
+import com.polidea.rxandroidble.benchmark.Advertisements;
+import com.polidea.rxandroidble.internal.DeviceComponent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the lookups of {@link DeviceComponentCache} which are done each time a device is retrieved from the client i.e. for every
+ * scan result. The cached components are strongly referenced by the benchmark so they are never evicted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeviceComponentCacheBenchmark {
+
+    @Param({"10", "1000"})
+    public int cachedDevicesCount;
+
+    private final DeviceComponentCache objectUnderTest = new DeviceComponentCache();
+    private DeviceComponent[] deviceComponents;
+    private String[] cachedMacAddresses;
+    private String[] missingMacAddresses;
+    private int nextDevice;
+
+    @Setup
+    public void setUp() {
+        deviceComponents = new DeviceComponent[cachedDevicesCount];
+        cachedMacAddresses = new String[cachedDevicesCount];
+        missingMacAddresses = new String[cachedDevicesCount];
+        for (int i = 0; i < cachedDevicesCount; i++) {
+            deviceComponents[i] = new StubDeviceComponent();
+            cachedMacAddresses[i] = Advertisements.macAddress(i);
+            missingMacAddresses[i] = Advertisements.macAddress(cachedDevicesCount + i);
+            objectUnderTest.put(cachedMacAddresses[i], deviceComponents[i]);
+        }
+    }
+
+    @Benchmark
+    public DeviceComponent getCached() {
+        final String macAddress = cachedMacAddresses[nextDevice];
+        nextDevice = (nextDevice + 1) % cachedDevicesCount;
+        return objectUnderTest.get(macAddress);
+    }
+
+    @Benchmark
+    public DeviceComponent getMissing() {
+        final String macAddress = missingMacAddresses[nextDevice];
+        nextDevice = (nextDevice + 1) % cachedDevicesCount;
+        return objectUnderTest.get(macAddress);
+    }
+
+    private static class StubDeviceComponent implements DeviceComponent {
+
+        @Override
+        public RxBleDevice provideDevice() {
+            return null;
+        }
+    }
+}
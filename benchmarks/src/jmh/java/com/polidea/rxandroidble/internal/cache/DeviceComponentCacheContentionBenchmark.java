@@ -0,0 +1,82 @@
+package com.polidea.rxandroidble.internal.cache;
+
+import com.polidea.rxandroidble.RxBleDevice;
+import com.polidea.rxandroidble.benchmark.Advertisements;
+import com.polidea.rxandroidble.internal.DeviceComponent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import rx.functions.Func1;
+
+/**
+ * Measures {@link DeviceComponentCache#getOrCreate(String, Func1)} called concurrently by several threads as when scan results of
+ * several scans are mapped to devices at the same time. Half of the devices are cached upfront and strongly referenced. The other half
+ * is created by the threads racing to cache them and, being only weakly referenced, is evicted and recreated after garbage collections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class DeviceComponentCacheContentionBenchmark {
+
+    @Param({"10", "1000"})
+    public int devicesCount;
+
+    private final DeviceComponentCache objectUnderTest = new DeviceComponentCache();
+    private final Func1<String, DeviceComponent> deviceComponentFactory = new Func1<String, DeviceComponent>() {
+        @Override
+        public DeviceComponent call(String macAddress) {
+            return new StubDeviceComponent();
+        }
+    };
+    private DeviceComponent[] preCachedDeviceComponents;
+    private String[] macAddresses;
+
+    @Setup
+    public void setUp() {
+        preCachedDeviceComponents = new DeviceComponent[devicesCount / 2];
+        macAddresses = new String[devicesCount];
+        for (int i = 0; i < devicesCount; i++) {
+            macAddresses[i] = Advertisements.macAddress(i);
+        }
+        for (int i = 0; i < preCachedDeviceComponents.length; i++) {
+            preCachedDeviceComponents[i] = new StubDeviceComponent();
+            objectUnderTest.put(macAddresses[i], preCachedDeviceComponents[i]);
+        }
+    }
+
+    @Benchmark
+    public DeviceComponent getOrCreate(ThreadCursor threadCursor) {
+        return objectUnderTest.getOrCreate(macAddresses[threadCursor.next(devicesCount)], deviceComponentFactory);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+
+        private int nextDevice;
+
+        int next(int devicesCount) {
+            final int device = nextDevice;
+            nextDevice = (nextDevice + 1) % devicesCount;
+            return device;
+        }
+    }
+
+    private static class StubDeviceComponent implements DeviceComponent {
+
+        @Override
+        public RxBleDevice provideDevice() {
+            return null;
+        }
+    }
+}
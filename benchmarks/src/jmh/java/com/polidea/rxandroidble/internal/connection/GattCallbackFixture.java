@@ -0,0 +1,33 @@
+package com.polidea.rxandroidble.internal.connection;
+
+import com.polidea.rxandroidble.RxBleAdapterStateObservable;
+import com.polidea.rxandroidble.internal.util.RxBleAdapterWrapper;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+/**
+ * Creates {@link RxBleGattCallback} instances of a connection that is never lost. The callbacks are emitted on the calling thread.
+ */
+public final class GattCallbackFixture {
+
+    public static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF";
+
+    private GattCallbackFixture() {
+    }
+
+    public static RxBleGattCallback newRxBleGattCallback() {
+        final DisconnectionRouter disconnectionRouter = new DisconnectionRouter(
+                MAC_ADDRESS,
+                new RxBleAdapterWrapper(null) {
+                    @Override
+                    public boolean isBluetoothEnabled() {
+                        return true;
+                    }
+                },
+                Observable.<RxBleAdapterStateObservable.BleAdapterState>never()
+        );
+        return new RxBleGattCallback(Schedulers.immediate(), new BluetoothGattProvider(), disconnectionRouter,
+                new NativeCallbackDispatcher());
+    }
+}
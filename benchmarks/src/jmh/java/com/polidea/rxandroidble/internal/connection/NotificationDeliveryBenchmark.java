@@ -0,0 +1,103 @@
+package com.polidea.rxandroidble.internal.connection;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble.NotificationBuffer;
+import com.polidea.rxandroidble.internal.util.CharacteristicNotificationId;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Compares the notification path of {@code setupNotification()} with the one of {@code setupPooledNotification()} — from
+ * {@link BluetoothGattCallback#onCharacteristicChanged(BluetoothGatt, BluetoothGattCharacteristic)} to the consumer. As Android
+ * allocates a new array for every notification each call sets a freshly allocated value on the characteristic, so the pooled path
+ * is measured together with the copy of that array into the pooled buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NotificationDeliveryBenchmark {
+
+    @Param({"20", "244"})
+    public int valueLength;
+
+    private final CompositeSubscription subscriptions = new CompositeSubscription();
+    private final BluetoothGatt bluetoothGatt = new BluetoothGatt(new BluetoothDevice(GattCallbackFixture.MAC_ADDRESS, null));
+    private BluetoothGattCallback byteArrayCallback;
+    private BluetoothGattCallback pooledCallback;
+    private BluetoothGattCharacteristic characteristic;
+    private long consumedBytes;
+
+    @Setup
+    public void setUp() {
+        characteristic = new BluetoothGattCharacteristic(UUID.randomUUID(),
+                BluetoothGattCharacteristic.PROPERTY_NOTIFY, BluetoothGattCharacteristic.PERMISSION_READ);
+        final CharacteristicNotificationId characteristicId
+                = new CharacteristicNotificationId(characteristic.getUuid(), characteristic.getInstanceId());
+
+        final RxBleGattCallback byteArrayRxBleGattCallback = GattCallbackFixture.newRxBleGattCallback();
+        byteArrayCallback = byteArrayRxBleGattCallback.getBluetoothGattCallback();
+        subscriptions.add(byteArrayRxBleGattCallback.getOnCharacteristicChanged(characteristicId)
+                .subscribe(new Action1<byte[]>() {
+                    @Override
+                    public void call(byte[] value) {
+                        consumedBytes += value.length;
+                    }
+                }));
+
+        final RxBleGattCallback pooledRxBleGattCallback = GattCallbackFixture.newRxBleGattCallback();
+        final NotificationBufferPool notificationBufferPool = new NotificationBufferPool();
+        pooledCallback = pooledRxBleGattCallback.getBluetoothGattCallback();
+        subscriptions.add(pooledRxBleGattCallback.getOnCharacteristicChanged(characteristicId)
+                // the same mapping as in RxBleConnectionImpl.setupPooledNotification()
+                .map(new Func1<byte[], NotificationBuffer>() {
+                    @Override
+                    public NotificationBuffer call(byte[] value) {
+                        return notificationBufferPool.obtain(value);
+                    }
+                })
+                .subscribe(new Action1<NotificationBuffer>() {
+                    @Override
+                    public void call(NotificationBuffer notificationBuffer) {
+                        consumedBytes += notificationBuffer.getValue().remaining();
+                        notificationBuffer.release();
+                    }
+                }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.clear();
+    }
+
+    @Benchmark
+    public long deliverByteArray() {
+        characteristic.setValue(new byte[valueLength]);
+        byteArrayCallback.onCharacteristicChanged(bluetoothGatt, characteristic);
+        return consumedBytes;
+    }
+
+    @Benchmark
+    public long deliverPooledBuffer() {
+        characteristic.setValue(new byte[valueLength]);
+        pooledCallback.onCharacteristicChanged(bluetoothGatt, characteristic);
+        return consumedBytes;
+    }
+}
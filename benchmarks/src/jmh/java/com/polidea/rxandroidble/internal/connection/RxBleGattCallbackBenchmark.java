@@ -0,0 +1,79 @@
+package com.polidea.rxandroidble.internal.connection;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble.internal.util.CharacteristicNotificationId;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Measures the dispatch of {@link BluetoothGattCallback#onCharacteristicChanged(BluetoothGatt, BluetoothGattCharacteristic)} to
+ * the observers of the notifications. Each call notifies one of the observed characteristics in turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RxBleGattCallbackBenchmark {
+
+    @Param({"1", "8"})
+    public int observedCharacteristicsCount;
+
+    private final CompositeSubscription subscriptions = new CompositeSubscription();
+    private final BluetoothGatt bluetoothGatt = new BluetoothGatt(new BluetoothDevice(GattCallbackFixture.MAC_ADDRESS, null));
+    private BluetoothGattCallback objectUnderTest;
+    private BluetoothGattCharacteristic[] characteristics;
+    private int nextCharacteristic;
+    private byte[] lastValue;
+
+    @Setup
+    public void setUp() {
+        final RxBleGattCallback rxBleGattCallback = GattCallbackFixture.newRxBleGattCallback();
+        objectUnderTest = rxBleGattCallback.getBluetoothGattCallback();
+        characteristics = new BluetoothGattCharacteristic[observedCharacteristicsCount];
+        for (int i = 0; i < observedCharacteristicsCount; i++) {
+            final BluetoothGattCharacteristic characteristic = new BluetoothGattCharacteristic(UUID.randomUUID(),
+                    BluetoothGattCharacteristic.PROPERTY_NOTIFY, BluetoothGattCharacteristic.PERMISSION_READ);
+            characteristic.setValue(new byte[20]);
+            characteristics[i] = characteristic;
+            final Subscription subscription = rxBleGattCallback
+                    .getOnCharacteristicChanged(new CharacteristicNotificationId(characteristic.getUuid(), characteristic.getInstanceId()))
+                    .subscribe(new Action1<byte[]>() {
+                        @Override
+                        public void call(byte[] value) {
+                            lastValue = value;
+                        }
+                    });
+            subscriptions.add(subscription);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.clear();
+    }
+
+    @Benchmark
+    public byte[] dispatchNotification() {
+        final BluetoothGattCharacteristic characteristic = characteristics[nextCharacteristic];
+        nextCharacteristic = (nextCharacteristic + 1) % characteristics.length;
+        objectUnderTest.onCharacteristicChanged(bluetoothGatt, characteristic);
+        return lastValue;
+    }
+}
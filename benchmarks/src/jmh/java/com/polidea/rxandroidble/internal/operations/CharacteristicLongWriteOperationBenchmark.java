@@ -0,0 +1,74 @@
+package com.polidea.rxandroidble.internal.operations;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble.internal.connection.GattCallbackFixture;
+import com.polidea.rxandroidble.internal.connection.ImmediateSerializedBatchAckStrategy;
+import com.polidea.rxandroidble.internal.connection.PayloadSizeLimitProvider;
+import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+
+/**
+ * Measures a whole {@link CharacteristicLongWriteOperation} — splitting the payload into batches and writing them one after another.
+ * Each batch is acknowledged by the {@link BluetoothGatt} stand-in right away so the results show the per batch overhead of the
+ * library. The ops/s are complete long writes per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CharacteristicLongWriteOperationBenchmark {
+
+    @Param({"20", "244"})
+    public int batchSize;
+
+    @Param({"512", "16384"})
+    public int payloadSize;
+
+    private CharacteristicLongWriteOperation objectUnderTest;
+
+    @Setup
+    public void setUp() {
+        final RxBleGattCallback rxBleGattCallback = GattCallbackFixture.newRxBleGattCallback();
+        final BluetoothGatt bluetoothGatt = new BluetoothGatt(new BluetoothDevice(GattCallbackFixture.MAC_ADDRESS, null));
+        bluetoothGatt.setCallback(rxBleGattCallback.getBluetoothGattCallback());
+        final BluetoothGattCharacteristic characteristic = new BluetoothGattCharacteristic(UUID.randomUUID(),
+                BluetoothGattCharacteristic.PROPERTY_WRITE, BluetoothGattCharacteristic.PERMISSION_WRITE);
+        objectUnderTest = new CharacteristicLongWriteOperation(
+                bluetoothGatt,
+                rxBleGattCallback,
+                Schedulers.immediate(),
+                // the timeouts never fire
+                new TimeoutConfiguration(30, TimeUnit.SECONDS, new TestScheduler()),
+                characteristic,
+                new PayloadSizeLimitProvider() {
+                    @Override
+                    public int getPayloadSizeLimit() {
+                        return batchSize;
+                    }
+                },
+                new ImmediateSerializedBatchAckStrategy(),
+                new byte[payloadSize]
+        );
+    }
+
+    @Benchmark
+    public byte[] longWrite() {
+        return objectUnderTest.run(QueueReleaseInterface.NO_OP).toBlocking().last();
+    }
+}
@@ -0,0 +1,83 @@
+package com.polidea.rxandroidble.internal.scan;
+
+import android.os.ParcelUuid;
+
+import com.polidea.rxandroidble.benchmark.Advertisements;
+import com.polidea.rxandroidble.scan.ScanFilter;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures matching of scan results against {@link ScanFilter}s which is done for every scan result when the filters are emulated.
+ * In {@link #emulatedScanFilterMatcher()} only the last of the filters matches — the worst case for checking the filters one by one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScanFilterBenchmark {
+
+    @Param({"DEVICE_ADDRESS", "DEVICE_NAME", "SERVICE_UUID", "SERVICE_DATA", "MANUFACTURER_DATA"})
+    public String filterType;
+
+    @Param({"1", "16", "512"})
+    public int filtersCount;
+
+    private RxBleInternalScanResult scanResult;
+    private ScanFilter scanFilter;
+    private EmulatedScanFilterMatcher emulatedScanFilterMatcher;
+
+    @Setup
+    public void setUp() {
+        scanResult = Advertisements.scanResult(0, isManufacturerDataFilter() ? Advertisements.IBEACON : Advertisements.SERVICES_AND_NAME);
+        scanFilter = matchingFilter();
+        final ScanFilter[] scanFilters = new ScanFilter[filtersCount];
+        for (int i = 0; i < filtersCount - 1; i++) {
+            scanFilters[i] = new ScanFilter.Builder().setServiceUuid(new ParcelUuid(UUID.randomUUID())).build();
+        }
+        scanFilters[filtersCount - 1] = scanFilter;
+        emulatedScanFilterMatcher = new EmulatedScanFilterMatcher(scanFilters);
+    }
+
+    @Benchmark
+    public boolean scanFilterMatches() {
+        return scanFilter.matches(scanResult);
+    }
+
+    @Benchmark
+    public boolean emulatedScanFilterMatcher() {
+        return emulatedScanFilterMatcher.matches(scanResult);
+    }
+
+    private boolean isManufacturerDataFilter() {
+        return "MANUFACTURER_DATA".equals(filterType);
+    }
+
+    private ScanFilter matchingFilter() {
+        final ScanFilter.Builder builder = new ScanFilter.Builder();
+        switch (filterType) {
+            case "DEVICE_ADDRESS":
+                return builder.setDeviceAddress(Advertisements.macAddress(0)).build();
+            case "DEVICE_NAME":
+                return builder.setDeviceName(Advertisements.DEVICE_NAME).build();
+            case "SERVICE_UUID":
+                return builder.setServiceUuid(new ParcelUuid(Advertisements.BATTERY_SERVICE)).build();
+            case "SERVICE_DATA":
+                return builder.setServiceData(new ParcelUuid(Advertisements.BATTERY_SERVICE), new byte[]{0x64}).build();
+            case "MANUFACTURER_DATA":
+                return builder.setManufacturerData(Advertisements.APPLE_COMPANY_ID, new byte[]{0x02, 0x15}, new byte[]{(byte) 0xFF, 0x00})
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unknown filter type: " + filterType);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.polidea.rxandroidble.internal.scan;
+
+import com.polidea.rxandroidble.benchmark.Advertisements;
+import com.polidea.rxandroidble.scan.ScanSettings;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+/**
+ * Measures the cost of passing a scan result through the callback type emulation of {@link ScanSettingsEmulator}. The scan results
+ * come from {@link #devicesCount} devices in turn. The emulator timers never fire so the steady state of a long running scan is
+ * measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScanSettingsEmulatorBenchmark {
+
+    @Param({"" + ScanSettings.CALLBACK_TYPE_ALL_MATCHES, "" + ScanSettings.CALLBACK_TYPE_FIRST_MATCH,
+            "" + ScanSettings.CALLBACK_TYPE_MATCH_LOST})
+    public int callbackType;
+
+    @Param({"1", "100", "5000"})
+    public int devicesCount;
+
+    private final PublishSubject<RxBleInternalScanResult> scanResults = PublishSubject.create();
+    private RxBleInternalScanResult[] devicesScanResults;
+    private int nextDevice;
+    private Subscription subscription;
+    private RxBleInternalScanResult lastEmitted;
+
+    @Setup
+    public void setUp() {
+        devicesScanResults = new RxBleInternalScanResult[devicesCount];
+        for (int i = 0; i < devicesCount; i++) {
+            devicesScanResults[i] = Advertisements.scanResult(i, Advertisements.SERVICES_AND_NAME);
+        }
+        subscription = scanResults
+                .compose(new ScanSettingsEmulator(new TestScheduler()).emulateCallbackType(callbackType))
+                .subscribe(new Action1<RxBleInternalScanResult>() {
+                    @Override
+                    public void call(RxBleInternalScanResult rxBleInternalScanResult) {
+                        lastEmitted = rxBleInternalScanResult;
+                    }
+                });
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscription.unsubscribe();
+    }
+
+    @Benchmark
+    public RxBleInternalScanResult emulateCallbackType() {
+        scanResults.onNext(devicesScanResults[nextDevice]);
+        nextDevice = (nextDevice + 1) % devicesCount;
+        return lastEmitted;
+    }
+}
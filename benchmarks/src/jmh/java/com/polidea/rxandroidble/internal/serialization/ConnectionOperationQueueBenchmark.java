@@ -0,0 +1,103 @@
+package com.polidea.rxandroidble.internal.serialization;
+
+import android.os.DeadObjectException;
+
+import com.polidea.rxandroidble.ClientSetup;
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble.exceptions.BleException;
+import com.polidea.rxandroidble.internal.QueueOperation;
+import com.polidea.rxandroidble.internal.connection.DisconnectionRouterOutput;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import rx.Emitter;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+/**
+ * Measures how quickly {@link ConnectionOperationQueueImpl} starts a queued operation. The operation finishes as soon as it is started so
+ * the results show the overhead of the queue itself.
+ */
+@State(Scope.Thread)
+public class ConnectionOperationQueueBenchmark {
+
+    private static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF";
+
+    @Param({"false", "true"})
+    public boolean operationHandOffOnRelease;
+
+    private final NoOpOperation operation = new NoOpOperation();
+    private ExecutorService executorService;
+    private ConnectionOperationQueueImpl objectUnderTest;
+
+    @Setup
+    public void setUp() {
+        executorService = Executors.newSingleThreadExecutor();
+        objectUnderTest = new ConnectionOperationQueueImpl(
+                MAC_ADDRESS,
+                new NeverDisconnectedRouterOutput(),
+                executorService,
+                Schedulers.immediate(),
+                new ClientSetup.Builder().setOperationHandOffOnRelease(operationHandOffOnRelease).build()
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        objectUnderTest.terminate(new BleDisconnectedException(MAC_ADDRESS));
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Boolean queueOperation() {
+        return objectUnderTest.queue(operation).toBlocking().first();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Boolean queueOperationLatency() {
+        return objectUnderTest.queue(operation).toBlocking().first();
+    }
+
+    private static class NoOpOperation extends QueueOperation<Boolean> {
+
+        @Override
+        protected void protectedRun(Emitter<Boolean> emitter, QueueReleaseInterface queueReleaseInterface) {
+            emitter.onNext(Boolean.TRUE);
+            emitter.onCompleted();
+            queueReleaseInterface.release();
+        }
+
+        @Override
+        protected BleException provideException(DeadObjectException deadObjectException) {
+            return new BleDisconnectedException(deadObjectException, MAC_ADDRESS);
+        }
+    }
+
+    private static class NeverDisconnectedRouterOutput implements DisconnectionRouterOutput {
+
+        @Override
+        public Observable<BleException> asValueOnlyObservable() {
+            return Observable.never();
+        }
+
+        @Override
+        public <T> Observable<T> asErrorOnlyObservable() {
+            return Observable.never();
+        }
+    }
+}
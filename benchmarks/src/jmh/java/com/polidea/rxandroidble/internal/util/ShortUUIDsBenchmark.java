@@ -0,0 +1,37 @@
+package com.polidea.rxandroidble.internal.util;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the arithmetic expansion of short UUIDs with formatting and parsing a {@link String} which was used before.
+ * The parameters are 0x180F — an interned 16 bit UUID of the battery service — and 0xDEADBEEF — a 32 bit UUID.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ShortUUIDsBenchmark {
+
+    private static final String UUID_BASE_FORMAT = "%08x-0000-1000-8000-00805f9b34fb";
+
+    @Param({"6159", "-559038737"})
+    public int shortUuid;
+
+    @Benchmark
+    public UUID stringFormat() {
+        return UUID.fromString(String.format(UUID_BASE_FORMAT, shortUuid));
+    }
+
+    @Benchmark
+    public UUID arithmetic() {
+        return ShortUUIDs.from32Bit(shortUuid);
+    }
+}
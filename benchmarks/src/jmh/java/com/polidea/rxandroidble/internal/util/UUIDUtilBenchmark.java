@@ -0,0 +1,55 @@
+package com.polidea.rxandroidble.internal.util;
+
+import android.os.ParcelUuid;
+
+import com.polidea.rxandroidble.benchmark.Advertisements;
+import com.polidea.rxandroidble.scan.ScanRecord;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures parsing of advertisements which is done for every scan result. The fields of the parsed {@link ScanRecord} are decoded on
+ * access so {@link #parseFromBytesAndGetServiceUuids()} shows the cost of a scan result which is consumed by the application.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UUIDUtilBenchmark {
+
+    @Param({"SERVICES_AND_NAME", "IBEACON", "CUSTOM_SERVICE_AND_NAME"})
+    public String advertisementName;
+
+    private final UUIDUtil objectUnderTest = new UUIDUtil();
+    private byte[] advertisement;
+
+    @Setup
+    public void setUp() {
+        advertisement = Advertisements.advertisement(advertisementName);
+    }
+
+    @Benchmark
+    public ScanRecord parseFromBytes() {
+        return objectUnderTest.parseFromBytes(advertisement);
+    }
+
+    @Benchmark
+    public List<ParcelUuid> parseFromBytesAndGetServiceUuids() {
+        return objectUnderTest.parseFromBytes(advertisement).getServiceUuids();
+    }
+
+    @Benchmark
+    public List<UUID> extractUUIDs() {
+        return objectUnderTest.extractUUIDs(advertisement);
+    }
+}
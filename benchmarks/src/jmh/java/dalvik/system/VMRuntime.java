@@ -0,0 +1,23 @@
+package dalvik.system;
+
+import java.lang.reflect.Array;
+
+/**
+ * A JVM stand-in for the ART runtime class which the framework collections (i.e. {@link android.util.SparseArray}) use to allocate
+ * their backing arrays. Only the members used on the benchmarked paths are present.
+ */
+public final class VMRuntime {
+
+    private static final VMRuntime RUNTIME = new VMRuntime();
+
+    private VMRuntime() {
+    }
+
+    public static VMRuntime getRuntime() {
+        return RUNTIME;
+    }
+
+    public Object newUnpaddedArray(Class<?> componentType, int minLength) {
+        return Array.newInstance(componentType, minLength);
+    }
+}
@@ -13,6 +13,7 @@ import com.polidea.rxandroidble.scan.ScanFilter;
 import com.polidea.rxandroidble.scan.ScanResult;
 import com.polidea.rxandroidble.scan.ScanSettings;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -334,6 +335,11 @@ public class RxBleClientMock extends RxBleClient {
         return Observable.error(new RuntimeException("not implemented")); // TODO [DS]
     }
 
+    @Override
+    public Date getExpectedScanStartDate() {
+        return new Date();
+    }
+
     @Override
     public Observable<State> observeStateChanges() {
         return Observable.just(State.READY);
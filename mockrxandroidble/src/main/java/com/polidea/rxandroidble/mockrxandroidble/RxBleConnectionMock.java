@@ -4,15 +4,24 @@ import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattDescriptor;
 import android.support.annotation.NonNull;
 
+import com.polidea.rxandroidble.NotificationBuffer;
 import com.polidea.rxandroidble.NotificationSetupMode;
 import com.polidea.rxandroidble.RxBleConnection;
 import com.polidea.rxandroidble.RxBleCustomOperation;
 import com.polidea.rxandroidble.RxBleDeviceServices;
+import com.polidea.rxandroidble.StreamingWriteProgress;
 import com.polidea.rxandroidble.exceptions.BleConflictingNotificationAlreadySetException;
 import com.polidea.rxandroidble.internal.connection.ImmediateSerializedBatchAckStrategy;
 import com.polidea.rxandroidble.internal.util.ObservableUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Callable;
@@ -197,6 +206,39 @@ public class RxBleConnectionMock implements RxBleConnection {
         return setupNotification(characteristic.getUuid(), setupMode);
     }
 
+    @Override
+    public Observable<Observable<NotificationBuffer>> setupPooledNotification(@NonNull UUID characteristicUuid,
+                                                                              @NonNull NotificationSetupMode setupMode) {
+        return setupNotification(characteristicUuid, setupMode)
+                .map(new Func1<Observable<byte[]>, Observable<NotificationBuffer>>() {
+                    @Override
+                    public Observable<NotificationBuffer> call(Observable<byte[]> notificationObservable) {
+                        return notificationObservable.map(new Func1<byte[], NotificationBuffer>() {
+                            @Override
+                            public NotificationBuffer call(final byte[] value) {
+                                return new NotificationBuffer() {
+                                    @Override
+                                    public ByteBuffer getValue() {
+                                        return ByteBuffer.wrap(value).asReadOnlyBuffer();
+                                    }
+
+                                    @Override
+                                    public void release() {
+                                        // not pooled
+                                    }
+                                };
+                            }
+                        });
+                    }
+                });
+    }
+
+    @Override
+    public Observable<Observable<NotificationBuffer>> setupPooledNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                              @NonNull NotificationSetupMode setupMode) {
+        return setupPooledNotification(characteristic.getUuid(), setupMode);
+    }
+
     @Override
     public Observable<Observable<byte[]>> setupIndication(@NonNull UUID characteristicUuid) {
         return setupIndication(characteristicUuid, NotificationSetupMode.DEFAULT);
@@ -290,6 +332,24 @@ public class RxBleConnectionMock implements RxBleConnection {
                 return this;
             }
 
+            @Override
+            public LongWriteOperationBuilder setByteBuffer(@NonNull ByteBuffer byteBuffer) {
+                final ByteBuffer byteBufferToWrite = byteBuffer.duplicate();
+                this.bytes = new byte[byteBufferToWrite.remaining()];
+                byteBufferToWrite.get(bytes);
+                return this;
+            }
+
+            @Override
+            public LongWriteOperationBuilder setFileChannel(@NonNull FileChannel fileChannel) {
+                try {
+                    final long position = fileChannel.position();
+                    return setByteBuffer(fileChannel.map(FileChannel.MapMode.READ_ONLY, position, fileChannel.size() - position));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Could not read the fileChannel", e);
+                }
+            }
+
             @Override
             public LongWriteOperationBuilder setCharacteristicUuid(@NonNull final UUID uuid) {
                 bluetoothGattCharacteristicObservable = discoverServices().flatMap(
@@ -361,6 +421,154 @@ public class RxBleConnectionMock implements RxBleConnection {
         };
     }
 
+    @Override
+    public StreamingWriteOperationBuilder createNewStreamingWriteBuilder() {
+        return new StreamingWriteOperationBuilder() {
+
+            private Observable<BluetoothGattCharacteristic> bluetoothGattCharacteristicObservable;
+
+            private int maxPacketSize = 20; // default
+
+            private Observable<byte[]> packets;
+
+            private InputStream inputStream;
+
+            @Override
+            public StreamingWriteOperationBuilder setCharacteristicUuid(@NonNull final UUID uuid) {
+                bluetoothGattCharacteristicObservable = getCharacteristic(uuid);
+                return this;
+            }
+
+            @Override
+            public StreamingWriteOperationBuilder setCharacteristic(@NonNull BluetoothGattCharacteristic bluetoothGattCharacteristic) {
+                bluetoothGattCharacteristicObservable = Observable.just(bluetoothGattCharacteristic);
+                return this;
+            }
+
+            @Override
+            public StreamingWriteOperationBuilder setPackets(@NonNull Observable<byte[]> packets) {
+                this.packets = packets;
+                return this;
+            }
+
+            @Override
+            public StreamingWriteOperationBuilder setInputStream(@NonNull InputStream inputStream) {
+                this.inputStream = inputStream;
+                return this;
+            }
+
+            @Override
+            public StreamingWriteOperationBuilder setMaxPacketSize(int maxPacketSize) {
+                this.maxPacketSize = maxPacketSize;
+                return this;
+            }
+
+            @Override
+            public StreamingWriteOperationBuilder setMaxPacketsInFlight(int maxPacketsInFlight) {
+                // all packets are written immediately
+                return this;
+            }
+
+            @Override
+            public Observable<StreamingWriteProgress> build() {
+
+                if (bluetoothGattCharacteristicObservable == null) {
+                    throw new IllegalArgumentException("setCharacteristicUuid() or setCharacteristic() needs to be called before build()");
+                }
+
+                if (packets == null && inputStream == null) {
+                    throw new IllegalArgumentException("setPackets() or setInputStream() needs to be called before build()");
+                }
+
+                final Observable<byte[]> packetsToWrite = packets != null ? packets : Observable.fromCallable(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() throws Exception {
+                        final byte[] packet = new byte[maxPacketSize];
+                        final int readBytes = inputStream.read(packet);
+                        return readBytes < 0 ? null : Arrays.copyOf(packet, readBytes);
+                    }
+                })
+                        .repeat()
+                        .takeWhile(new Func1<byte[], Boolean>() {
+                            @Override
+                            public Boolean call(byte[] packet) {
+                                return packet != null;
+                            }
+                        });
+                return bluetoothGattCharacteristicObservable.flatMap(
+                        new Func1<BluetoothGattCharacteristic, Observable<StreamingWriteProgress>>() {
+                            @Override
+                            public Observable<StreamingWriteProgress> call(final BluetoothGattCharacteristic characteristic) {
+                                final long startNanos = System.nanoTime();
+                                final long[] bytesAndPacketsWritten = new long[2];
+                                return packetsToWrite.map(new Func1<byte[], StreamingWriteProgress>() {
+                                    @Override
+                                    public StreamingWriteProgress call(byte[] packet) {
+                                        characteristic.setValue(packet);
+                                        bytesAndPacketsWritten[0] += packet.length;
+                                        bytesAndPacketsWritten[1]++;
+                                        return new StreamingWriteProgress(bytesAndPacketsWritten[0], bytesAndPacketsWritten[1],
+                                                System.nanoTime() - startNanos);
+                                    }
+                                });
+                            }
+                        });
+            }
+        };
+    }
+
+    @Override
+    public TransactionBuilder transaction() {
+        return new TransactionBuilder() {
+
+            private final List<Observable<byte[]>> steps = new ArrayList<>();
+
+            @Override
+            public TransactionBuilder readCharacteristic(@NonNull UUID characteristicUuid) {
+                steps.add(RxBleConnectionMock.this.readCharacteristic(characteristicUuid));
+                return this;
+            }
+
+            @Override
+            public TransactionBuilder readCharacteristic(@NonNull BluetoothGattCharacteristic characteristic) {
+                steps.add(RxBleConnectionMock.this.readCharacteristic(characteristic));
+                return this;
+            }
+
+            @Override
+            public TransactionBuilder writeCharacteristic(@NonNull UUID characteristicUuid, @NonNull byte[] data) {
+                steps.add(RxBleConnectionMock.this.writeCharacteristic(characteristicUuid, data));
+                return this;
+            }
+
+            @Override
+            public TransactionBuilder writeCharacteristic(@NonNull BluetoothGattCharacteristic characteristic, @NonNull byte[] data) {
+                steps.add(RxBleConnectionMock.this.writeCharacteristic(characteristic, data));
+                return this;
+            }
+
+            @Override
+            public TransactionBuilder readDescriptor(@NonNull BluetoothGattDescriptor descriptor) {
+                steps.add(RxBleConnectionMock.this.readDescriptor(descriptor));
+                return this;
+            }
+
+            @Override
+            public TransactionBuilder writeDescriptor(@NonNull BluetoothGattDescriptor descriptor, @NonNull byte[] data) {
+                steps.add(RxBleConnectionMock.this.writeDescriptor(descriptor, data));
+                return this;
+            }
+
+            @Override
+            public Observable<List<byte[]>> build() {
+                if (steps.isEmpty()) {
+                    throw new IllegalArgumentException("at least one step needs to be added before build()");
+                }
+                return Observable.concat(Observable.from(new ArrayList<>(steps))).toList();
+            }
+        };
+    }
+
     @Override
     public Observable<byte[]> writeCharacteristic(@NonNull UUID characteristicUuid, @NonNull final byte[] data) {
         return getCharacteristic(characteristicUuid)
@@ -3,6 +3,7 @@ package com.polidea.rxandroidble.mockrxandroidble;
 import android.bluetooth.BluetoothDevice;
 import android.content.Context;
 
+import com.polidea.rxandroidble.ConnectionSetup;
 import com.polidea.rxandroidble.RxBleConnection;
 import com.polidea.rxandroidble.RxBleDevice;
 import com.polidea.rxandroidble.RxBleDeviceServices;
@@ -102,6 +103,11 @@ public class RxBleDeviceMock implements RxBleDevice {
         return establishConnection(autoConnect);
     }
 
+    @Override
+    public Observable<RxBleConnection> establishConnection(ConnectionSetup connectionSetup) {
+        return establishConnection(connectionSetup.autoConnect);
+    }
+
     private Observable<RxBleConnection> emitConnectionWithoutCompleting() {
         return Observable.<RxBleConnection>never().startWith(rxBleConnection);
     }
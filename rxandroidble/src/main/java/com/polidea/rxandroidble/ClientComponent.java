@@ -67,6 +67,7 @@ public interface ClientComponent {
         public static final String TIMEOUT = "timeout";
         public static final String BLUETOOTH_INTERACTION = "bluetooth_interaction";
         public static final String BLUETOOTH_CALLBACKS = "bluetooth_callbacks";
+        public static final String IO = "io";
         private NamedSchedulers() {
 
         }
@@ -104,9 +105,15 @@ public interface ClientComponent {
     class ClientModule {
 
         private final Context context;
+        private final ClientSetup clientSetup;
 
         public ClientModule(Context context) {
+            this(context, new ClientSetup.Builder().build());
+        }
+
+        public ClientModule(Context context, ClientSetup clientSetup) {
             this.context = context;
+            this.clientSetup = clientSetup;
         }
 
         @Provides
@@ -114,6 +121,11 @@ public interface ClientComponent {
             return context;
         }
 
+        @Provides
+        ClientSetup provideClientSetup() {
+            return clientSetup;
+        }
+
         @Provides
         BluetoothManager provideBluetoothManager() {
             return (BluetoothManager) context.getSystemService(Context.BLUETOOTH_SERVICE);
@@ -131,6 +143,12 @@ public interface ClientComponent {
             return Schedulers.computation();
         }
 
+        @Provides
+        @Named(NamedSchedulers.IO)
+        static Scheduler provideIoScheduler() {
+            return Schedulers.io();
+        }
+
         @Provides
         @Named(PlatformConstants.INT_DEVICE_SDK)
         static int provideDeviceSdk() {
@@ -168,7 +186,12 @@ public interface ClientComponent {
         @Named(NamedExecutors.CONNECTION_QUEUE)
         @ClientScope
         static ExecutorService provideConnectionQueueExecutorService() {
-            return Executors.newCachedThreadPool();
+            /*
+             * Connection queues do not block while an operation is in progress — they only use the executor to start the next queued
+             * operation (unless ClientSetup.operationHandOffOnRelease is set). A single thread is shared by all connections so
+             * the thread count does not grow with the number of devices.
+             */
+            return Executors.newSingleThreadExecutor();
         }
 
         @Provides
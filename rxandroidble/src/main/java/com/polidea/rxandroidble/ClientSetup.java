@@ -0,0 +1,101 @@
+package com.polidea.rxandroidble;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.File;
+
+/**
+ * Container for various client parameters.
+ */
+public class ClientSetup {
+
+    /**
+     * Flag describing how the operation queues hand off to the next queued operation. If set to true, releasing an operation starts the
+     * next queued one directly on the releasing thread and no thread is parked waiting for the release. This lowers the latency between
+     * back-to-back operations and the number of context switches. If set to false, the client queue uses a dedicated thread and
+     * the connection queues use a shared one to start the next operation.
+     */
+    public final boolean operationHandOffOnRelease;
+
+    /**
+     * Directory in which the discovered GATT schemas of the devices are persisted or null if the persistent schema cache is disabled.
+     * A valid persisted schema is emitted by {@link RxBleConnection#discoverServices()} right after connecting to the device.
+     */
+    @Nullable
+    public final File gattSchemaCacheDirectory;
+
+    /**
+     * Hash of the GATT schema of the devices supplied by the application (i.e. derived from the firmware version) or null if
+     * the persisted schemas are validated by the absence of the Service Changed characteristic — the schemas of devices exposing
+     * it are not cached then.
+     */
+    @Nullable
+    public final Long gattSchemaHash;
+
+    private ClientSetup(boolean operationHandOffOnRelease, @Nullable File gattSchemaCacheDirectory, @Nullable Long gattSchemaHash) {
+        this.operationHandOffOnRelease = operationHandOffOnRelease;
+        this.gattSchemaCacheDirectory = gattSchemaCacheDirectory;
+        this.gattSchemaHash = gattSchemaHash;
+    }
+
+    public static class Builder {
+
+        private boolean operationHandOffOnRelease = false;
+        private File gattSchemaCacheDirectory;
+        private Long gattSchemaHash;
+
+        /**
+         * @param operationHandOffOnRelease Flag describing how the operation queues hand off to the next queued operation. If set to true,
+         *                                  releasing an operation starts the next queued one directly on the releasing thread without
+         *                                  parking any thread. Default is false.
+         * @return this builder instance
+         */
+        public Builder setOperationHandOffOnRelease(boolean operationHandOffOnRelease) {
+            this.operationHandOffOnRelease = operationHandOffOnRelease;
+            return this;
+        }
+
+        /**
+         * Enables the persistent GATT schema cache. The schema of a device is stored after each service discovery and on the next
+         * connection {@link RxBleConnection#discoverServices()} emits it immediately. Android performs GATT operations only on attributes
+         * of a discovery made during the current connection, so the service discovery still runs in the background and operations on
+         * the cached attributes wait for it.
+         * <p>
+         * A persisted schema is used only if it can not have changed: the device does not expose the Service Changed characteristic
+         * which, per the Bluetooth Core Specification, means that its attribute table never changes. The caching is therefore disabled
+         * for the devices which expose the Service Changed characteristic — their schemas are never stored and each connection runs
+         * a regular service discovery. To cache the schemas of such devices use {@link #setGattSchemaCache(File, long)}.
+         * <p>
+         * The persisted schema is read from the file on an I/O thread.
+         *
+         * @param directory the directory in which the schemas are stored, i.e. a subdirectory of
+         *                  {@link android.content.Context#getCacheDir()}
+         * @return this builder instance
+         */
+        public Builder setGattSchemaCache(@NonNull File directory) {
+            this.gattSchemaCacheDirectory = directory;
+            this.gattSchemaHash = null;
+            return this;
+        }
+
+        /**
+         * Enables the persistent GATT schema cache validated by the passed hash. A persisted schema is used only if it was stored with
+         * the same hash, regardless of the Service Changed characteristic. See {@link #setGattSchemaCache(File)}.
+         *
+         * @param directory the directory in which the schemas are stored, i.e. a subdirectory of
+         *                  {@link android.content.Context#getCacheDir()}
+         * @param schemaHash the hash identifying the GATT schema of the devices, i.e. derived from their firmware version
+         * @return this builder instance
+         */
+        public Builder setGattSchemaCache(@NonNull File directory, long schemaHash) {
+            this.gattSchemaCacheDirectory = directory;
+            this.gattSchemaHash = schemaHash;
+            return this;
+        }
+
+        public ClientSetup build() {
+            return new ClientSetup(operationHandOffOnRelease, gattSchemaCacheDirectory, gattSchemaHash);
+        }
+    }
+}
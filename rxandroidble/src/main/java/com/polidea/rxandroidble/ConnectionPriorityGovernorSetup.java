@@ -0,0 +1,122 @@
+package com.polidea.rxandroidble;
+
+import android.bluetooth.BluetoothGatt;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Container for the parameters of the connection priority governor. The governor periodically samples the connection and requests
+ * {@link BluetoothGatt#CONNECTION_PRIORITY_HIGH} once the connection gets busy — either the number of operations waiting in the
+ * connection queue or the rate of the GATT events (reads, writes, notifications and indications) reaches its threshold. The priority
+ * goes back to {@link #idlePriority} only after both stay below half of their thresholds for {@link #idleTimeout} so a short pause
+ * in a transfer does not renegotiate the connection parameters back and forth.
+ *
+ * @see ConnectionSetup.Builder#setConnectionPriorityGovernor(ConnectionPriorityGovernorSetup)
+ */
+public class ConnectionPriorityGovernorSetup {
+
+    /**
+     * Number of operations waiting in the connection queue (the one in progress is not counted) at which the connection is busy.
+     */
+    public final int queuedOperationsThreshold;
+    /**
+     * Number of GATT events per second at which the connection is busy.
+     */
+    public final int gattEventsPerSecondThreshold;
+    /**
+     * Time for which the connection has to stay idle before the priority is lowered.
+     */
+    public final Timeout idleTimeout;
+    /**
+     * Interval at which the connection is sampled.
+     */
+    public final Timeout samplingInterval;
+    /**
+     * Priority of an idle connection — {@link BluetoothGatt#CONNECTION_PRIORITY_BALANCED} or
+     * {@link BluetoothGatt#CONNECTION_PRIORITY_LOW_POWER}.
+     */
+    public final int idlePriority;
+
+    private ConnectionPriorityGovernorSetup(int queuedOperationsThreshold, int gattEventsPerSecondThreshold, Timeout idleTimeout,
+                                            Timeout samplingInterval, int idlePriority) {
+        this.queuedOperationsThreshold = queuedOperationsThreshold;
+        this.gattEventsPerSecondThreshold = gattEventsPerSecondThreshold;
+        this.idleTimeout = idleTimeout;
+        this.samplingInterval = samplingInterval;
+        this.idlePriority = idlePriority;
+    }
+
+    public static class Builder {
+
+        private int queuedOperationsThreshold = 2;
+        private int gattEventsPerSecondThreshold = 20;
+        private Timeout idleTimeout = new Timeout(3, TimeUnit.SECONDS);
+        private Timeout samplingInterval = new Timeout(250, TimeUnit.MILLISECONDS);
+        private int idlePriority = BluetoothGatt.CONNECTION_PRIORITY_BALANCED;
+
+        /**
+         * @param queuedOperationsThreshold Number of operations waiting in the connection queue at which the priority is raised.
+         *                                  Default is 2.
+         * @return this builder instance
+         */
+        public Builder setQueuedOperationsThreshold(int queuedOperationsThreshold) {
+            if (queuedOperationsThreshold <= 0) {
+                throw new IllegalArgumentException("Queued operations threshold must be > 0 (received " + queuedOperationsThreshold + ")");
+            }
+            this.queuedOperationsThreshold = queuedOperationsThreshold;
+            return this;
+        }
+
+        /**
+         * @param gattEventsPerSecondThreshold Number of characteristic and descriptor reads, writes and changes per second at which
+         *                                     the priority is raised. Default is 20.
+         * @return this builder instance
+         */
+        public Builder setGattEventsPerSecondThreshold(int gattEventsPerSecondThreshold) {
+            if (gattEventsPerSecondThreshold <= 0) {
+                throw new IllegalArgumentException("GATT events per second threshold must be > 0 (received "
+                        + gattEventsPerSecondThreshold + ")");
+            }
+            this.gattEventsPerSecondThreshold = gattEventsPerSecondThreshold;
+            return this;
+        }
+
+        /**
+         * @param idleTimeout Time for which the connection has to stay below half of both thresholds before the priority is lowered.
+         *                    Default is 3 seconds.
+         * @return this builder instance
+         */
+        public Builder setIdleTimeout(Timeout idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * @param samplingInterval Interval at which the connection is sampled. Default is 250 milliseconds.
+         * @return this builder instance
+         */
+        public Builder setSamplingInterval(Timeout samplingInterval) {
+            this.samplingInterval = samplingInterval;
+            return this;
+        }
+
+        /**
+         * @param idlePriority Priority requested when the connection is idle — {@link BluetoothGatt#CONNECTION_PRIORITY_BALANCED}
+         *                     (default) or {@link BluetoothGatt#CONNECTION_PRIORITY_LOW_POWER}.
+         * @return this builder instance
+         */
+        public Builder setIdlePriority(int idlePriority) {
+            if (idlePriority != BluetoothGatt.CONNECTION_PRIORITY_BALANCED && idlePriority != BluetoothGatt.CONNECTION_PRIORITY_LOW_POWER) {
+                throw new IllegalArgumentException("Idle priority must be CONNECTION_PRIORITY_BALANCED or CONNECTION_PRIORITY_LOW_POWER"
+                        + " (received " + idlePriority + ")");
+            }
+            this.idlePriority = idlePriority;
+            return this;
+        }
+
+        public ConnectionPriorityGovernorSetup build() {
+            return new ConnectionPriorityGovernorSetup(queuedOperationsThreshold, gattEventsPerSecondThreshold, idleTimeout,
+                    samplingInterval, idlePriority);
+        }
+    }
+}
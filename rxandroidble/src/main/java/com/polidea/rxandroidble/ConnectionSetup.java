@@ -2,9 +2,14 @@ package com.polidea.rxandroidble;
 
 import android.bluetooth.BluetoothGattCallback;
 import android.content.Context;
+import android.support.annotation.Nullable;
 
 import com.polidea.rxandroidble.internal.BleIllegalOperationException;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -13,6 +18,15 @@ import java.util.concurrent.TimeUnit;
 public class ConnectionSetup {
 
     public static final int DEFAULT_OPERATION_TIMEOUT = 30;
+    /**
+     * Value of {@link #requestedMtu} meaning that the MTU is not requested while the connection is being established.
+     */
+    public static final int MTU_UNCHANGED = 0;
+    /**
+     * Value of {@link #connectionPriority} meaning that the connection priority is not requested while the connection is being
+     * established.
+     */
+    public static final int CONNECTION_PRIORITY_UNCHANGED = -1;
     /**
      * Flag related with
      * {@link android.bluetooth.BluetoothDevice#connectGatt(Context, boolean, BluetoothGattCallback)} autoConnect flag.
@@ -32,11 +46,56 @@ public class ConnectionSetup {
      * canceled and removed from queue.
      */
     public final Timeout operationTimeout;
+    /**
+     * Time for which a value read from a characteristic is returned by subsequent reads of the same characteristic without any GATT
+     * interaction. Zero means that every read interacts with the peripheral (concurrent reads are still coalesced).
+     */
+    public final Timeout readValueFreshness;
+    /**
+     * MTU requested before the RxBleConnection is emitted or {@link #MTU_UNCHANGED}. Ignored below Android 5.0.
+     */
+    public final int requestedMtu;
+    /**
+     * Connection priority (one of BluetoothGatt.CONNECTION_PRIORITY_*) requested before the RxBleConnection is emitted
+     * or {@link #CONNECTION_PRIORITY_UNCHANGED}. Ignored below Android 5.0.
+     */
+    public final int connectionPriority;
+    /**
+     * Flag describing if the services are discovered before the RxBleConnection is emitted.
+     */
+    public final boolean prefetchServices;
+    /**
+     * UUIDs of the characteristics which notifications are set up before the RxBleConnection is emitted.
+     */
+    public final Set<UUID> initialNotifications;
+    /**
+     * Parameters of the governor adjusting the connection priority to the traffic or null if the priority is adjusted manually only.
+     */
+    @Nullable
+    public final ConnectionPriorityGovernorSetup connectionPriorityGovernor;
 
-    private ConnectionSetup(boolean autoConnect, boolean suppressOperationCheck, Timeout operationTimeout) {
+    private ConnectionSetup(boolean autoConnect, boolean suppressOperationCheck, Timeout operationTimeout, Timeout readValueFreshness,
+                            int requestedMtu, int connectionPriority, boolean prefetchServices, Set<UUID> initialNotifications,
+                            @Nullable ConnectionPriorityGovernorSetup connectionPriorityGovernor) {
         this.autoConnect = autoConnect;
         this.suppressOperationCheck = suppressOperationCheck;
         this.operationTimeout = operationTimeout;
+        this.readValueFreshness = readValueFreshness;
+        this.requestedMtu = requestedMtu;
+        this.connectionPriority = connectionPriority;
+        this.prefetchServices = prefetchServices;
+        this.initialNotifications = initialNotifications;
+        this.connectionPriorityGovernor = connectionPriorityGovernor;
+    }
+
+    /**
+     * Returns true if any step has to be performed after connecting and before the RxBleConnection is emitted.
+     */
+    public boolean hasBringUpSteps() {
+        return requestedMtu != MTU_UNCHANGED
+                || connectionPriority != CONNECTION_PRIORITY_UNCHANGED
+                || prefetchServices
+                || !initialNotifications.isEmpty();
     }
 
     public static class Builder {
@@ -44,7 +103,12 @@ public class ConnectionSetup {
         private boolean autoConnect = false;
         private boolean suppressOperationCheck = false;
         private Timeout operationTimeout = new Timeout(DEFAULT_OPERATION_TIMEOUT, TimeUnit.SECONDS);
-
+        private Timeout readValueFreshness = new Timeout(0, TimeUnit.SECONDS);
+        private int requestedMtu = MTU_UNCHANGED;
+        private int connectionPriority = CONNECTION_PRIORITY_UNCHANGED;
+        private boolean prefetchServices = false;
+        private final Set<UUID> initialNotifications = new LinkedHashSet<>();
+        private ConnectionPriorityGovernorSetup connectionPriorityGovernor;
 
         /**
          * Autoconnect concept may be misleading at first glance. In cases when the BLE device is available and it is advertising constantly
@@ -87,8 +151,85 @@ public class ConnectionSetup {
             return this;
         }
 
+        /**
+         * @param readValueFreshness Time for which a value read from a characteristic is returned by subsequent reads of the same
+         *                           characteristic without any GATT interaction. A write to the characteristic using the same
+         *                           connection invalidates the value. Keep in mind that the peripheral may change the value on its own
+         *                           in the meantime. By default every read interacts with the peripheral.
+         * @return this builder instance
+         */
+        public Builder setReadValueFreshness(Timeout readValueFreshness) {
+            this.readValueFreshness = readValueFreshness;
+            return this;
+        }
+
+        /**
+         * The MTU, connection priority and service discovery requested with this builder are performed one after another in a single
+         * slot of the connection queue before the RxBleConnection is emitted, so no other operation gets in between and there is no
+         * round trip to the caller between the steps.
+         *
+         * @param requestedMtu MTU to request before the RxBleConnection is emitted. The result may be checked with
+         *                     {@link RxBleConnection#getMtu()}. Requires Android 5.0 — ignored on older versions.
+         * @return this builder instance
+         */
+        public Builder setRequestedMtu(int requestedMtu) {
+            this.requestedMtu = requestedMtu;
+            return this;
+        }
+
+        /**
+         * @param connectionPriority One of BluetoothGatt.CONNECTION_PRIORITY_* to request before the RxBleConnection is emitted.
+         *                           It is requested first so the following steps already benefit from it.
+         *                           Requires Android 5.0 — ignored on older versions.
+         * @return this builder instance
+         * @see RxBleConnection#requestConnectionPriority(int, long, TimeUnit)
+         */
+        public Builder setConnectionPriority(int connectionPriority) {
+            this.connectionPriority = connectionPriority;
+            return this;
+        }
+
+        /**
+         * @param prefetchServices Flag describing if the services are discovered before the RxBleConnection is emitted. Subsequent
+         *                         calls to {@link RxBleConnection#discoverServices()} will return the prefetched services.
+         * @return this builder instance
+         */
+        public Builder setPrefetchServices(boolean prefetchServices) {
+            this.prefetchServices = prefetchServices;
+            return this;
+        }
+
+        /**
+         * Sets up the notification of the characteristic before the RxBleConnection is emitted. The notification stays set up for
+         * the whole connection so a {@link RxBleConnection#setupNotification(UUID)} call does not have to write the descriptor
+         * again. Values notified before the call are not delivered. Implies service prefetch.
+         *
+         * @param characteristicUuid UUID of the characteristic
+         * @return this builder instance
+         */
+        public Builder addInitialNotification(UUID characteristicUuid) {
+            this.initialNotifications.add(characteristicUuid);
+            return this;
+        }
+
+        /**
+         * Enables the governor which raises the connection priority to CONNECTION_PRIORITY_HIGH while the connection is busy and
+         * lowers it back once the connection is idle. Should not be combined with manual
+         * {@link RxBleConnection#requestConnectionPriority(int, long, TimeUnit)} calls as the governor may override the requested
+         * priority. Requires Android 5.0 — ignored on older versions.
+         *
+         * @param connectionPriorityGovernor parameters of the governor or null to disable it (default)
+         * @return this builder instance
+         */
+        public Builder setConnectionPriorityGovernor(@Nullable ConnectionPriorityGovernorSetup connectionPriorityGovernor) {
+            this.connectionPriorityGovernor = connectionPriorityGovernor;
+            return this;
+        }
+
         public ConnectionSetup build() {
-            return new ConnectionSetup(autoConnect, suppressOperationCheck, operationTimeout);
+            return new ConnectionSetup(autoConnect, suppressOperationCheck, operationTimeout, readValueFreshness, requestedMtu,
+                    connectionPriority, prefetchServices, Collections.unmodifiableSet(new LinkedHashSet<>(initialNotifications)),
+                    connectionPriorityGovernor);
         }
     }
 }
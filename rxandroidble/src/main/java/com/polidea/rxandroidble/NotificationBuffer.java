@@ -0,0 +1,27 @@
+package com.polidea.rxandroidble;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * A value of a characteristic notification delivered in a buffer that belongs to a pool owned by the connection.
+ * See {@link RxBleConnection#setupPooledNotification(UUID, NotificationSetupMode)}.
+ * <p>
+ * The buffer MUST be released with {@link #release()} exactly once, as soon as the value is no longer needed. The content of a released
+ * buffer may be overwritten with the next notification at any time so neither the buffer nor the {@link ByteBuffer} returned by
+ * {@link #getValue()} may be used after the release.
+ */
+public interface NotificationBuffer {
+
+    /**
+     * @return a read-only {@link ByteBuffer} with the value of the notification between its position (0) and its limit
+     */
+    ByteBuffer getValue();
+
+    /**
+     * Returns the buffer to the pool.
+     *
+     * @throws IllegalStateException if the buffer was already released
+     */
+    void release();
+}
@@ -9,6 +9,7 @@ import com.polidea.rxandroidble.internal.RxBleLog;
 import com.polidea.rxandroidble.scan.ScanFilter;
 import com.polidea.rxandroidble.scan.ScanResult;
 import com.polidea.rxandroidble.scan.ScanSettings;
+import java.util.Date;
 import java.util.Set;
 import java.util.UUID;
 
@@ -47,9 +48,21 @@ public abstract class RxBleClient {
      * @return BLE client instance.
      */
     public static RxBleClient create(@NonNull Context context) {
+        return create(context, new ClientSetup.Builder().build());
+    }
+
+    /**
+     * Returns instance of RxBleClient using application context and the passed client parameters. It is required by the client
+     * to maintain single instance of RxBleClient.
+     *
+     * @param context Any Android context
+     * @param clientSetup parameters of the client
+     * @return BLE client instance.
+     */
+    public static RxBleClient create(@NonNull Context context, @NonNull ClientSetup clientSetup) {
         return DaggerClientComponent
                 .builder()
-                .clientModule(new ClientComponent.ClientModule(context))
+                .clientModule(new ClientComponent.ClientModule(context, clientSetup))
                 .build()
                 .rxBleClient();
     }
@@ -119,6 +132,15 @@ public abstract class RxBleClient {
      */
     public abstract Observable<ScanResult> scanBleDevices(ScanSettings scanSettings, ScanFilter... scanFilters);
 
+    /**
+     * Returns the date at which a scan started now would actually start. Android 7.0 (API 24) and above stop delivering results to
+     * an application which starts more than 5 scans during 30 seconds so the library delays the scan starts which would exceed
+     * the quota. The returned date is in the future only if the next scan start would be delayed.
+     *
+     * @return the expected start date of the next scan
+     */
+    public abstract Date getExpectedScanStartDate();
+
     /**
      * Returns an observable emitting state _changes_ of the RxBleClient environment which may be helpful in deciding if particular
      * functionality should be used at a given moment.
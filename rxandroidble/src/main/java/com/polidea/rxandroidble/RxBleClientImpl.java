@@ -8,12 +8,11 @@ import com.polidea.rxandroidble.RxBleAdapterStateObservable.BleAdapterState;
 import com.polidea.rxandroidble.exceptions.BleScanException;
 import com.polidea.rxandroidble.internal.RxBleDeviceProvider;
 import com.polidea.rxandroidble.internal.operations.LegacyScanOperation;
-import com.polidea.rxandroidble.internal.operations.Operation;
 import com.polidea.rxandroidble.internal.scan.RxBleInternalScanResult;
 import com.polidea.rxandroidble.internal.scan.RxBleInternalScanResultLegacy;
+import com.polidea.rxandroidble.internal.scan.ScanMultiplexer;
 import com.polidea.rxandroidble.internal.scan.ScanPreconditionsVerifier;
-import com.polidea.rxandroidble.internal.scan.ScanSetup;
-import com.polidea.rxandroidble.internal.scan.ScanSetupBuilder;
+import com.polidea.rxandroidble.internal.scan.ScanStartScheduler;
 import com.polidea.rxandroidble.internal.serialization.ClientOperationQueue;
 import com.polidea.rxandroidble.internal.util.ClientStateObservable;
 import com.polidea.rxandroidble.internal.util.LocationServicesStatus;
@@ -23,6 +22,7 @@ import com.polidea.rxandroidble.scan.ScanFilter;
 import com.polidea.rxandroidble.scan.ScanResult;
 import com.polidea.rxandroidble.scan.ScanSettings;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -30,11 +30,9 @@ import java.util.Set;
 import java.util.UUID;
 
 import bleshadow.javax.inject.Inject;
-import bleshadow.javax.inject.Named;
 
 import bleshadow.dagger.Lazy;
 import rx.Observable;
-import rx.Scheduler;
 import rx.functions.Action0;
 import rx.functions.Func0;
 import rx.functions.Func1;
@@ -44,11 +42,11 @@ class RxBleClientImpl extends RxBleClient {
     private final ClientOperationQueue operationQueue;
     private final UUIDUtil uuidUtil;
     private final RxBleDeviceProvider rxBleDeviceProvider;
-    private final ScanSetupBuilder scanSetupBuilder;
+    private final ScanMultiplexer scanMultiplexer;
     private final ScanPreconditionsVerifier scanPreconditionVerifier;
+    private final ScanStartScheduler scanStartScheduler;
     private final Func1<RxBleInternalScanResult, ScanResult> internalToExternalScanResultMapFunction;
     private final ClientComponent.ClientComponentFinalizer clientComponentFinalizer;
-    private final Scheduler bluetoothInteractionScheduler;
     private final Map<Set<UUID>, Observable<RxBleScanResult>> queuedScanOperations = new HashMap<>();
     private final RxBleAdapterWrapper rxBleAdapterWrapper;
     private final Observable<BleAdapterState> rxBleAdapterStateObservable;
@@ -63,10 +61,10 @@ class RxBleClientImpl extends RxBleClient {
                     LocationServicesStatus locationServicesStatus,
                     Lazy<ClientStateObservable> lazyClientStateObservable,
                     RxBleDeviceProvider rxBleDeviceProvider,
-                    ScanSetupBuilder scanSetupBuilder,
+                    ScanMultiplexer scanMultiplexer,
                     ScanPreconditionsVerifier scanPreconditionVerifier,
+                    ScanStartScheduler scanStartScheduler,
                     Func1<RxBleInternalScanResult, ScanResult> internalToExternalScanResultMapFunction,
-                    @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler bluetoothInteractionScheduler,
                     ClientComponent.ClientComponentFinalizer clientComponentFinalizer) {
         this.uuidUtil = uuidUtil;
         this.operationQueue = operationQueue;
@@ -75,10 +73,10 @@ class RxBleClientImpl extends RxBleClient {
         this.locationServicesStatus = locationServicesStatus;
         this.lazyClientStateObservable = lazyClientStateObservable;
         this.rxBleDeviceProvider = rxBleDeviceProvider;
-        this.scanSetupBuilder = scanSetupBuilder;
+        this.scanMultiplexer = scanMultiplexer;
         this.scanPreconditionVerifier = scanPreconditionVerifier;
+        this.scanStartScheduler = scanStartScheduler;
         this.internalToExternalScanResultMapFunction = internalToExternalScanResultMapFunction;
-        this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
         this.clientComponentFinalizer = clientComponentFinalizer;
     }
 
@@ -112,11 +110,7 @@ class RxBleClientImpl extends RxBleClient {
             @Override
             public Observable<ScanResult> call() {
                 scanPreconditionVerifier.verify();
-                final ScanSetup scanSetup = scanSetupBuilder.build(scanSettings, scanFilters);
-                final Operation<RxBleInternalScanResult> scanOperation = scanSetup.scanOperation;
-                return operationQueue.queue(scanOperation)
-                        .unsubscribeOn(bluetoothInteractionScheduler)
-                        .compose(scanSetup.scanOperationBehaviourEmulatorTransformer)
+                return scanMultiplexer.scan(scanSettings, scanFilters)
                         .map(internalToExternalScanResultMapFunction)
                         .mergeWith(RxBleClientImpl.this.<ScanResult>bluetoothAdapterOffExceptionObservable());
             }
@@ -176,7 +170,7 @@ class RxBleClientImpl extends RxBleClient {
         final Set<UUID> filteredUUIDs = uuidUtil.toDistinctSet(filterServiceUUIDs);
         final LegacyScanOperation
                 scanOperation = new LegacyScanOperation(filterServiceUUIDs, rxBleAdapterWrapper, uuidUtil);
-        return operationQueue.queue(scanOperation)
+        return scanStartScheduler.schedule(operationQueue.queue(scanOperation))
                 .doOnUnsubscribe(new Action0() {
                     @Override
                     public void call() {
@@ -203,6 +197,11 @@ class RxBleClientImpl extends RxBleClient {
         }
     }
 
+    @Override
+    public Date getExpectedScanStartDate() {
+        return scanStartScheduler.getExpectedStartDate();
+    }
+
     @Override
     public Observable<State> observeStateChanges() {
         return lazyClientStateObservable.get();
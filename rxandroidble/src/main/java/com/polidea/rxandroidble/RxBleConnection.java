@@ -18,9 +18,15 @@ import com.polidea.rxandroidble.exceptions.BleGattOperationType;
 import com.polidea.rxandroidble.internal.Priority;
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble.internal.operations.CharacteristicLongWriteOperation;
+import com.polidea.rxandroidble.internal.operations.CharacteristicStreamingWriteOperation;
+import com.polidea.rxandroidble.internal.operations.TransactionOperation;
 
+import java.io.InputStream;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -97,13 +103,36 @@ public interface RxBleConnection {
 
         /**
          * Setter for a byte array to write
-         * This function MUST be called prior to {@link #build()}
+         * This function, {@link #setByteBuffer(ByteBuffer)} or {@link #setFileChannel(FileChannel)} MUST be called prior to
+         * {@link #build()}
          *
          * @param bytes the bytes to write
          * @return the LongWriteOperationBuilder
          */
         LongWriteOperationBuilder setBytes(@NonNull byte[] bytes);
 
+        /**
+         * Setter for a {@link ByteBuffer} to write. The bytes between the position and the limit of the buffer at the time of
+         * {@link #build()} are written. The buffer is not copied so it must not be modified until the write completes. The observable
+         * returned from {@link #build()} emits an empty byte array in this case.
+         * This function, {@link #setBytes(byte[])} or {@link #setFileChannel(FileChannel)} MUST be called prior to {@link #build()}
+         *
+         * @param byteBuffer the bytes to write
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setByteBuffer(@NonNull ByteBuffer byteBuffer);
+
+        /**
+         * Setter for a {@link FileChannel} to write. The content of the channel from its current position to its end is memory mapped
+         * when the operation is subscribed so big files (i.e. firmware images) are never loaded onto the heap as a whole. The channel
+         * is not closed after the write. The observable returned from {@link #build()} emits an empty byte array in this case.
+         * This function, {@link #setBytes(byte[])} or {@link #setByteBuffer(ByteBuffer)} MUST be called prior to {@link #build()}
+         *
+         * @param fileChannel the channel to write
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setFileChannel(@NonNull FileChannel fileChannel);
+
         /**
          * Setter for a {@link UUID} of the {@link BluetoothGattCharacteristic} to write to
          * This function or {@link #setCharacteristic(BluetoothGattCharacteristic)} MUST be called prior to {@link #build()}
@@ -164,6 +193,150 @@ public interface RxBleConnection {
 
     }
 
+    /**
+     * The interface of a {@link CharacteristicStreamingWriteOperation} builder.
+     */
+    interface StreamingWriteOperationBuilder {
+
+        int DEFAULT_MAX_PACKETS_IN_FLIGHT = 4;
+
+        /**
+         * Setter for a {@link UUID} of the {@link BluetoothGattCharacteristic} to write to
+         * This function or {@link #setCharacteristic(BluetoothGattCharacteristic)} MUST be called prior to {@link #build()}
+         *
+         * @param uuid the UUID
+         * @return the StreamingWriteOperationBuilder
+         */
+        StreamingWriteOperationBuilder setCharacteristicUuid(@NonNull UUID uuid);
+
+        /**
+         * Setter for a {@link BluetoothGattCharacteristic} to write to
+         * This function or {@link #setCharacteristicUuid(UUID)} MUST be called prior to {@link #build()}
+         *
+         * @param bluetoothGattCharacteristic the BluetoothGattCharacteristic
+         * @return the StreamingWriteOperationBuilder
+         */
+        StreamingWriteOperationBuilder setCharacteristic(@NonNull BluetoothGattCharacteristic bluetoothGattCharacteristic);
+
+        /**
+         * Setter for an {@link Observable} emitting the packets to write. Each packet is written as a whole so it must not be longer
+         * than the payload size allowed by the current MTU. The packets are requested from the observable only when they can be
+         * written so a backpressure-aware source will not be drained faster than the link allows.
+         * This function or {@link #setInputStream(InputStream)} MUST be called prior to {@link #build()}
+         *
+         * @param packets the packets to write
+         * @return the StreamingWriteOperationBuilder
+         */
+        StreamingWriteOperationBuilder setPackets(@NonNull Observable<byte[]> packets);
+
+        /**
+         * Setter for an {@link InputStream} to write. The stream is read in packets of the size set by {@link #setMaxPacketSize(int)}
+         * only when they can be written. The stream is not closed after it has been written.
+         * This function or {@link #setPackets(Observable)} MUST be called prior to {@link #build()}
+         *
+         * @param inputStream the stream to write
+         * @return the StreamingWriteOperationBuilder
+         */
+        StreamingWriteOperationBuilder setInputStream(@NonNull InputStream inputStream);
+
+        /**
+         * Setter for a maximum size of a packet read from the {@link InputStream} set by {@link #setInputStream(InputStream)}
+         * If this is not specified - the default value of the connection's MTU is used
+         *
+         * @param maxPacketSize the maximum size of a packet
+         * @return the StreamingWriteOperationBuilder
+         */
+        StreamingWriteOperationBuilder setMaxPacketSize(
+                @IntRange(from = 1, to = GATT_MTU_MAXIMUM - GATT_WRITE_MTU_OVERHEAD) int maxPacketSize);
+
+        /**
+         * Setter for a maximum number of packets that may be written and not yet acknowledged by the Android Bluetooth stack.
+         * If the stack is not able to accept a packet while others are in flight the packet is written again once the next one is
+         * acknowledged.
+         * If this is not specified - {@link #DEFAULT_MAX_PACKETS_IN_FLIGHT} is used
+         *
+         * @param maxPacketsInFlight the maximum number of packets in flight
+         * @return the StreamingWriteOperationBuilder
+         * @throws IllegalArgumentException if maxPacketsInFlight is not greater than zero
+         */
+        StreamingWriteOperationBuilder setMaxPacketsInFlight(@IntRange(from = 1) int maxPacketsInFlight);
+
+        /**
+         * Build function for the streaming write
+         *
+         * @return the Observable which will enqueue the streaming write operation when subscribed. It emits
+         * a {@link StreamingWriteProgress} each time a packet is acknowledged and completes when all the packets were written.
+         */
+        Observable<StreamingWriteProgress> build();
+    }
+
+    /**
+     * The interface of a {@link TransactionOperation} builder. The steps added to the builder are run in the order they were added
+     * as a single operation of the connection queue — no other operation may be run in between them.
+     */
+    interface TransactionBuilder {
+
+        /**
+         * Adds a read of the {@link BluetoothGattCharacteristic} with the given {@link UUID} to the transaction.
+         *
+         * @param characteristicUuid the UUID of the characteristic to read
+         * @return the TransactionBuilder
+         */
+        TransactionBuilder readCharacteristic(@NonNull UUID characteristicUuid);
+
+        /**
+         * Adds a read of the {@link BluetoothGattCharacteristic} to the transaction.
+         *
+         * @param characteristic the characteristic to read
+         * @return the TransactionBuilder
+         */
+        TransactionBuilder readCharacteristic(@NonNull BluetoothGattCharacteristic characteristic);
+
+        /**
+         * Adds a write of the {@link BluetoothGattCharacteristic} with the given {@link UUID} to the transaction.
+         *
+         * @param characteristicUuid the UUID of the characteristic to write
+         * @param data the byte array to write
+         * @return the TransactionBuilder
+         */
+        TransactionBuilder writeCharacteristic(@NonNull UUID characteristicUuid, @NonNull byte[] data);
+
+        /**
+         * Adds a write of the {@link BluetoothGattCharacteristic} to the transaction.
+         *
+         * @param characteristic the characteristic to write
+         * @param data the byte array to write
+         * @return the TransactionBuilder
+         */
+        TransactionBuilder writeCharacteristic(@NonNull BluetoothGattCharacteristic characteristic, @NonNull byte[] data);
+
+        /**
+         * Adds a read of the {@link BluetoothGattDescriptor} to the transaction.
+         *
+         * @param descriptor the descriptor to read
+         * @return the TransactionBuilder
+         */
+        TransactionBuilder readDescriptor(@NonNull BluetoothGattDescriptor descriptor);
+
+        /**
+         * Adds a write of the {@link BluetoothGattDescriptor} to the transaction.
+         *
+         * @param descriptor the descriptor to write
+         * @param data the byte array to write
+         * @return the TransactionBuilder
+         */
+        TransactionBuilder writeDescriptor(@NonNull BluetoothGattDescriptor descriptor, @NonNull byte[] data);
+
+        /**
+         * Build function for the transaction
+         *
+         * @return the Observable which will enqueue the transaction when subscribed. It emits a single list with a value for each
+         * step — the read data or the written data — in the order the steps were added. If any step fails the following ones are
+         * not run and the error is emitted.
+         */
+        Observable<List<byte[]>> build();
+    }
+
     /**
      * Performs GATT service discovery and emits discovered results. After service discovery you can walk through
      * {@link android.bluetooth.BluetoothGattService}s and {@link BluetoothGattCharacteristic}s.
@@ -251,6 +424,44 @@ public interface RxBleConnection {
     Observable<Observable<byte[]>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
                                                      @NonNull NotificationSetupMode setupMode);
 
+    /**
+     * Setup characteristic notification the same way as {@link #setupNotification(UUID, NotificationSetupMode)} does but deliver
+     * the values in {@link NotificationBuffer}s taken from a pool owned by the connection. This is intended for high-frequency
+     * notifications where allocating a new value holder for every notification puts a pressure on the garbage collector.
+     * <p>
+     * Every emitted {@link NotificationBuffer} MUST be released with {@link NotificationBuffer#release()} once the value is consumed.
+     * Buffers that are not released are not returned to the pool — once the pool is exhausted values are delivered in regular,
+     * non-pooled buffers.
+     * <p>
+     * Android allocates a new array for the value of every notification before it reaches the library. The pooled path does not avoid
+     * that allocation — it copies the value into a pooled buffer instead of wrapping it, so it only pays off when the consumer would
+     * otherwise copy the values or retain them (i.e. in a queue) long enough for them to survive a garbage collection.
+     *
+     * @param characteristicUuid Characteristic UUID for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @return Observable emitting another observable when the notification setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     */
+    Observable<Observable<NotificationBuffer>> setupPooledNotification(@NonNull UUID characteristicUuid,
+                                                                       @NonNull NotificationSetupMode setupMode);
+
+    /**
+     * Setup characteristic notification delivering values in pooled {@link NotificationBuffer}s.
+     * See {@link #setupPooledNotification(UUID, NotificationSetupMode)}.
+     *
+     * @param characteristic Characteristic for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @return Observable emitting another observable when the notification setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     */
+    Observable<Observable<NotificationBuffer>> setupPooledNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                       @NonNull NotificationSetupMode setupMode);
+
     /**
      * @see #setupIndication(UUID, NotificationSetupMode) with default setup mode.
      */
@@ -391,6 +602,24 @@ public interface RxBleConnection {
      */
     LongWriteOperationBuilder createNewLongWriteBuilder();
 
+    /**
+     * Returns a StreamingWriteOperationBuilder used for creating operations writing a stream of packets with
+     * {@link BluetoothGattCharacteristic#WRITE_TYPE_NO_RESPONSE}. Contrary to {@link #createNewLongWriteBuilder()} several packets
+     * may be in flight at once which is useful for transferring large amounts of data i.e. firmware updates.
+     *
+     * @return the StreamingWriteOperationBuilder
+     */
+    StreamingWriteOperationBuilder createNewStreamingWriteBuilder();
+
+    /**
+     * Returns a TransactionBuilder used for creating a sequence of reads and writes run as a single operation of the connection
+     * queue. This is useful for multi-step configurations of a peripheral which should not be interleaved with other operations
+     * and lowers the latency between the steps.
+     *
+     * @return the TransactionBuilder
+     */
+    TransactionBuilder transaction();
+
     /**
      * Performs GATT read operation on a descriptor from a characteristic with a given UUID from a service with a given UUID.
      *
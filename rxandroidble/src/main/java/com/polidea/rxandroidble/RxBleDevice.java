@@ -123,6 +123,17 @@ public interface RxBleDevice {
      */
     Observable<RxBleConnection> establishConnection(boolean autoConnect, @NonNull Timeout operationTimeout);
 
+    /**
+     * Establishes connection with a given BLE device using the provided {@link ConnectionSetup}. Besides the parameters available
+     * in the other variants the setup may declare the connection priority, MTU, service prefetch and notifications which are
+     * brought up before the {@link RxBleConnection} is emitted.
+     *
+     * @param connectionSetup the parameters of the connection
+     * @return Observable emitting the connection.
+     * @see #establishConnection(boolean, Timeout) for the errors that may be emitted
+     */
+    Observable<RxBleConnection> establishConnection(@NonNull ConnectionSetup connectionSetup);
+
     /**
      * Name of the device. Name is optional and it's up to the device vendor if will be provided.
      *
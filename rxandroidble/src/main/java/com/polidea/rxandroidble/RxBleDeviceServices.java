@@ -4,23 +4,34 @@ import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattDescriptor;
 import android.bluetooth.BluetoothGattService;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.polidea.rxandroidble.exceptions.BleCharacteristicNotFoundException;
 import com.polidea.rxandroidble.exceptions.BleServiceNotFoundException;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
 import rx.Observable;
 import rx.functions.Func1;
 
 /**
  * Service discovery result containing list of services and characteristics within the services.
+ * <p>
+ * The lookups by {@link UUID} are indexed — the services and their characteristics are walked once, on the first lookup,
+ * and the descriptors of a characteristic on the first lookup of its descriptor. Every lookup, including one of a {@link UUID}
+ * that is not there, is then served from a hash map. The synchronous {@code find*} functions may be used to avoid allocating
+ * an {@link Observable} for each lookup.
  */
 public class RxBleDeviceServices {
 
     private final List<BluetoothGattService> bluetoothGattServices;
+    private final Map<BluetoothGattCharacteristic, Map<UUID, BluetoothGattDescriptor>> descriptorsIndex = new ConcurrentHashMap<>();
+    private volatile Index index;
 
     public RxBleDeviceServices(List<BluetoothGattService> bluetoothGattServices) {
         this.bluetoothGattServices = bluetoothGattServices;
@@ -42,14 +53,12 @@ public class RxBleDeviceServices {
      * @throws BleServiceNotFoundException if service with given UUID hasn't been found.
      */
     public Observable<BluetoothGattService> getService(@NonNull final UUID serviceUuid) {
-        return Observable.from(bluetoothGattServices)
-                .takeFirst(new Func1<BluetoothGattService, Boolean>() {
-                    @Override
-                    public Boolean call(BluetoothGattService bluetoothGattService) {
-                        return bluetoothGattService.getUuid().equals(serviceUuid);
-                    }
-                })
-                .switchIfEmpty(Observable.<BluetoothGattService>error(new BleServiceNotFoundException(serviceUuid)));
+        return Observable.fromCallable(new Callable<BluetoothGattService>() {
+            @Override
+            public BluetoothGattService call() throws Exception {
+                return requireService(serviceUuid);
+            }
+        });
     }
 
     /**
@@ -67,13 +76,11 @@ public class RxBleDeviceServices {
         return Observable.fromCallable(new Callable<BluetoothGattCharacteristic>() {
             @Override
             public BluetoothGattCharacteristic call() throws Exception {
-                for (BluetoothGattService service : bluetoothGattServices) {
-                    BluetoothGattCharacteristic characteristic = service.getCharacteristic(characteristicUuid);
-                    if (characteristic != null) {
-                        return characteristic;
-                    }
+                final BluetoothGattCharacteristic characteristic = findCharacteristic(characteristicUuid);
+                if (characteristic == null) {
+                    throw new BleCharacteristicNotFoundException(characteristicUuid);
                 }
-                throw new BleCharacteristicNotFoundException(characteristicUuid);
+                return characteristic;
             }
         });
     }
@@ -88,21 +95,19 @@ public class RxBleDeviceServices {
      * @throws BleCharacteristicNotFoundException if characteristic with given UUID hasn't been found.
      * @see RxBleDeviceServices#getCharacteristic(UUID)
      */
-    public Observable<BluetoothGattCharacteristic> getCharacteristic(@NonNull UUID serviceUuid, @NonNull final UUID characteristicUuid) {
-        return getService(serviceUuid)
-                .map(new Func1<BluetoothGattService, BluetoothGattCharacteristic>() {
-                    @Override
-                    public BluetoothGattCharacteristic call(BluetoothGattService bluetoothGattService) {
-                        return bluetoothGattService.getCharacteristic(characteristicUuid);
-                    }
-                })
-                .takeFirst(new Func1<BluetoothGattCharacteristic, Boolean>() {
-                    @Override
-                    public Boolean call(BluetoothGattCharacteristic bluetoothGattCharacteristic) {
-                        return bluetoothGattCharacteristic != null;
-                    }
-                })
-                .switchIfEmpty(Observable.<BluetoothGattCharacteristic>error(new BleCharacteristicNotFoundException(characteristicUuid)));
+    public Observable<BluetoothGattCharacteristic> getCharacteristic(@NonNull final UUID serviceUuid,
+                                                                     @NonNull final UUID characteristicUuid) {
+        return Observable.fromCallable(new Callable<BluetoothGattCharacteristic>() {
+            @Override
+            public BluetoothGattCharacteristic call() throws Exception {
+                requireService(serviceUuid);
+                final BluetoothGattCharacteristic characteristic = findCharacteristic(serviceUuid, characteristicUuid);
+                if (characteristic == null) {
+                    throw new BleCharacteristicNotFoundException(characteristicUuid);
+                }
+                return characteristic;
+            }
+        });
     }
 
     // TODO: [PU] 15.03.2016 Consider moving getDescriptor to the characteristic
@@ -111,7 +116,7 @@ public class RxBleDeviceServices {
                 .map(new Func1<BluetoothGattCharacteristic, BluetoothGattDescriptor>() {
                     @Override
                     public BluetoothGattDescriptor call(BluetoothGattCharacteristic bluetoothGattCharacteristic) {
-                        return bluetoothGattCharacteristic.getDescriptor(descriptorUuid);
+                        return findDescriptor(bluetoothGattCharacteristic, descriptorUuid);
                     }
                 })
                 .filter(new Func1<Object, Boolean>() {
@@ -125,18 +130,145 @@ public class RxBleDeviceServices {
     public Observable<BluetoothGattDescriptor> getDescriptor(
             final UUID serviceUuid, final UUID characteristicUuid, final UUID descriptorUuid
     ) {
-        return getService(serviceUuid)
-                .map(new Func1<BluetoothGattService, BluetoothGattCharacteristic>() {
-                    @Override
-                    public BluetoothGattCharacteristic call(BluetoothGattService bluetoothGattService) {
-                        return bluetoothGattService.getCharacteristic(characteristicUuid);
-                    }
-                })
-                .map(new Func1<BluetoothGattCharacteristic, BluetoothGattDescriptor>() {
-                    @Override
-                    public BluetoothGattDescriptor call(BluetoothGattCharacteristic bluetoothGattCharacteristic) {
-                        return bluetoothGattCharacteristic.getDescriptor(descriptorUuid);
-                    }
-                });
+        return Observable.fromCallable(new Callable<BluetoothGattDescriptor>() {
+            @Override
+            public BluetoothGattDescriptor call() throws Exception {
+                requireService(serviceUuid);
+                final BluetoothGattCharacteristic characteristic = findCharacteristic(serviceUuid, characteristicUuid);
+                if (characteristic == null) {
+                    throw new BleCharacteristicNotFoundException(characteristicUuid);
+                }
+                return findDescriptor(characteristic, descriptorUuid);
+            }
+        });
+    }
+
+    /**
+     * Returns the {@link BluetoothGattService} with matching service UUID.
+     *
+     * @param serviceUuid Service UUID to be found
+     * @return the matching service or null if it hasn't been found
+     */
+    @Nullable
+    public BluetoothGattService findService(@NonNull UUID serviceUuid) {
+        return index().services.get(serviceUuid);
+    }
+
+    /**
+     * Returns the {@link BluetoothGattCharacteristic} with matching characteristic UUID from any of the services.
+     *
+     * @param characteristicUuid Characteristic UUID to be found
+     * @return the matching characteristic or null if it hasn't been found
+     * @see RxBleDeviceServices#getCharacteristic(UUID)
+     */
+    @Nullable
+    public BluetoothGattCharacteristic findCharacteristic(@NonNull UUID characteristicUuid) {
+        return index().characteristics.get(characteristicUuid);
+    }
+
+    /**
+     * Returns the {@link BluetoothGattCharacteristic} with matching service UUID and characteristic UUID.
+     *
+     * @param serviceUuid        Service UUID to search in
+     * @param characteristicUuid Characteristic UUID to be found
+     * @return the matching characteristic or null if either the service or the characteristic hasn't been found
+     */
+    @Nullable
+    public BluetoothGattCharacteristic findCharacteristic(@NonNull UUID serviceUuid, @NonNull UUID characteristicUuid) {
+        final Map<UUID, BluetoothGattCharacteristic> serviceCharacteristics = index().serviceCharacteristics.get(serviceUuid);
+        return serviceCharacteristics != null ? serviceCharacteristics.get(characteristicUuid) : null;
+    }
+
+    /**
+     * Returns the {@link BluetoothGattDescriptor} with matching descriptor UUID of the characteristic with matching
+     * characteristic UUID from any of the services.
+     *
+     * @param characteristicUuid Characteristic UUID to search in
+     * @param descriptorUuid     Descriptor UUID to be found
+     * @return the matching descriptor or null if either the characteristic or the descriptor hasn't been found
+     */
+    @Nullable
+    public BluetoothGattDescriptor findDescriptor(@NonNull UUID characteristicUuid, @NonNull UUID descriptorUuid) {
+        final BluetoothGattCharacteristic characteristic = findCharacteristic(characteristicUuid);
+        return characteristic != null ? findDescriptor(characteristic, descriptorUuid) : null;
+    }
+
+    /**
+     * Returns the {@link BluetoothGattDescriptor} with matching service UUID, characteristic UUID and descriptor UUID.
+     *
+     * @param serviceUuid        Service UUID to search in
+     * @param characteristicUuid Characteristic UUID to search in
+     * @param descriptorUuid     Descriptor UUID to be found
+     * @return the matching descriptor or null if either the service, the characteristic or the descriptor hasn't been found
+     */
+    @Nullable
+    public BluetoothGattDescriptor findDescriptor(@NonNull UUID serviceUuid, @NonNull UUID characteristicUuid,
+                                                  @NonNull UUID descriptorUuid) {
+        final BluetoothGattCharacteristic characteristic = findCharacteristic(serviceUuid, characteristicUuid);
+        return characteristic != null ? findDescriptor(characteristic, descriptorUuid) : null;
+    }
+
+    @NonNull
+    private BluetoothGattService requireService(@NonNull UUID serviceUuid) {
+        final BluetoothGattService service = findService(serviceUuid);
+        if (service == null) {
+            throw new BleServiceNotFoundException(serviceUuid);
+        }
+        return service;
+    }
+
+    @Nullable
+    private BluetoothGattDescriptor findDescriptor(@NonNull BluetoothGattCharacteristic characteristic, @NonNull UUID descriptorUuid) {
+        Map<UUID, BluetoothGattDescriptor> characteristicDescriptors = descriptorsIndex.get(characteristic);
+        if (characteristicDescriptors == null) {
+            characteristicDescriptors = new HashMap<>();
+            for (BluetoothGattDescriptor descriptor : characteristic.getDescriptors()) {
+                putIfAbsent(characteristicDescriptors, descriptor.getUuid(), descriptor);
+            }
+            descriptorsIndex.put(characteristic, characteristicDescriptors);
+        }
+        return characteristicDescriptors.get(descriptorUuid);
+    }
+
+    @NonNull
+    private Index index() {
+        Index index = this.index;
+        if (index == null) {
+            index = new Index(bluetoothGattServices);
+            this.index = index;
+        }
+        return index;
+    }
+
+    private static <T> void putIfAbsent(Map<UUID, T> map, UUID uuid, T value) {
+        if (!map.containsKey(uuid)) {
+            map.put(uuid, value);
+        }
+    }
+
+    /**
+     * The services and characteristics by {@link UUID}. The first of the entries with the same {@link UUID} wins
+     * as it would when walking the GATT table.
+     */
+    private static class Index {
+
+        final Map<UUID, BluetoothGattService> services = new HashMap<>();
+        final Map<UUID, BluetoothGattCharacteristic> characteristics = new HashMap<>();
+        final Map<UUID, Map<UUID, BluetoothGattCharacteristic>> serviceCharacteristics = new HashMap<>();
+
+        Index(List<BluetoothGattService> bluetoothGattServices) {
+            for (BluetoothGattService service : bluetoothGattServices) {
+                if (services.containsKey(service.getUuid())) {
+                    continue;
+                }
+                services.put(service.getUuid(), service);
+                final Map<UUID, BluetoothGattCharacteristic> characteristicsOfService = new HashMap<>();
+                for (BluetoothGattCharacteristic characteristic : service.getCharacteristics()) {
+                    putIfAbsent(characteristicsOfService, characteristic.getUuid(), characteristic);
+                    putIfAbsent(characteristics, characteristic.getUuid(), characteristic);
+                }
+                serviceCharacteristics.put(service.getUuid(), characteristicsOfService);
+            }
+        }
     }
 }
@@ -0,0 +1,60 @@
+package com.polidea.rxandroidble;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A progress of a streaming write emitted by an observable built with {@link RxBleConnection.StreamingWriteOperationBuilder}.
+ * A new instance is emitted each time a packet is acknowledged by the Android Bluetooth stack.
+ */
+public class StreamingWriteProgress {
+
+    private final long bytesWritten;
+    private final long packetsWritten;
+    private final long elapsedNanos;
+
+    public StreamingWriteProgress(long bytesWritten, long packetsWritten, long elapsedNanos) {
+        this.bytesWritten = bytesWritten;
+        this.packetsWritten = packetsWritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of bytes written since the start of the stream
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return the number of packets written since the start of the stream
+     */
+    public long getPacketsWritten() {
+        return packetsWritten;
+    }
+
+    /**
+     * @return the time elapsed since the start of the stream in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the average throughput since the start of the stream in bytes per second
+     */
+    public double getBytesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return bytesWritten * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingWriteProgress{"
+                + "bytesWritten=" + bytesWritten
+                + ", packetsWritten=" + packetsWritten
+                + ", elapsedNanos=" + elapsedNanos
+                + '}';
+    }
+}
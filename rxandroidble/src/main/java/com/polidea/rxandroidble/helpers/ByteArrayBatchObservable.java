@@ -2,15 +2,22 @@ package com.polidea.rxandroidble.helpers;
 
 
 import android.support.annotation.NonNull;
+import com.polidea.rxandroidble.internal.util.FileChannelUtil;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import rx.Observable;
 import rx.Observer;
+import rx.exceptions.Exceptions;
 import rx.functions.Action2;
 import rx.functions.Func0;
 import rx.observables.SyncOnSubscribe;
 
 /**
  * A helper class for reactive batching of long byte arrays.
+ * <p>
+ * Each emitted batch is a new byte array owned by the subscriber. The source is not copied as a whole when it is
+ * a {@link ByteBuffer} or a {@link FileChannel} so only the batches requested by the subscriber are ever on the heap.
  */
 public class ByteArrayBatchObservable extends Observable<byte[]> {
 
@@ -21,21 +28,43 @@ public class ByteArrayBatchObservable extends Observable<byte[]> {
      * @param maxBatchSize maximum size of an emitted byte[] batch - must be bigger than 0
      */
     public ByteArrayBatchObservable(@NonNull final byte[] bytes, final int maxBatchSize) {
-        super(createSyncOnSubscribe(copy(bytes), maxBatchSize));
+        this(wrap(copy(bytes)), maxBatchSize);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param byteBuffer   the buffer that is needed to be split - the bytes between its position and limit at the time of subscription
+     *                     are emitted. The buffer is not copied so its content must not be modified until the batches are emitted.
+     * @param maxBatchSize maximum size of an emitted byte[] batch - must be bigger than 0
+     */
+    public ByteArrayBatchObservable(@NonNull final ByteBuffer byteBuffer, final int maxBatchSize) {
+        this(duplicate(byteBuffer), maxBatchSize);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param fileChannel  the channel that is needed to be split - the content from its position at the time of subscription to its end
+     *                     is memory mapped and emitted. The channel is not closed.
+     * @param maxBatchSize maximum size of an emitted byte[] batch - must be bigger than 0
+     */
+    public ByteArrayBatchObservable(@NonNull final FileChannel fileChannel, final int maxBatchSize) {
+        this(mapRemainingContent(fileChannel), maxBatchSize);
+    }
+
+    private ByteArrayBatchObservable(@NonNull final Func0<ByteBuffer> byteBufferFactory, final int maxBatchSize) {
+        super(createSyncOnSubscribe(byteBufferFactory, maxBatchSize));
         if (maxBatchSize <= 0) {
             throw new IllegalArgumentException("maxBatchSize must be >0 but found: " + maxBatchSize);
         }
     }
 
     @NonNull
-    private static SyncOnSubscribe<ByteBuffer, byte[]> createSyncOnSubscribe(final byte[] bytes, final int maxBatchSize) {
+    private static SyncOnSubscribe<ByteBuffer, byte[]> createSyncOnSubscribe(final Func0<ByteBuffer> byteBufferFactory,
+                                                                             final int maxBatchSize) {
         return SyncOnSubscribe.createSingleState(
-                new Func0<ByteBuffer>() {
-                    @Override
-                    public ByteBuffer call() {
-                        return ByteBuffer.wrap(bytes);
-                    }
-                },
+                byteBufferFactory,
                 new Action2<ByteBuffer, Observer<? super byte[]>>() {
                     @Override
                     public void call(ByteBuffer byteBuffer, Observer<? super byte[]> observer) {
@@ -52,6 +81,40 @@ public class ByteArrayBatchObservable extends Observable<byte[]> {
         );
     }
 
+    @NonNull
+    private static Func0<ByteBuffer> wrap(@NonNull final byte[] bytes) {
+        return new Func0<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() {
+                return ByteBuffer.wrap(bytes);
+            }
+        };
+    }
+
+    @NonNull
+    private static Func0<ByteBuffer> duplicate(@NonNull final ByteBuffer byteBuffer) {
+        return new Func0<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() {
+                return byteBuffer.duplicate();
+            }
+        };
+    }
+
+    @NonNull
+    private static Func0<ByteBuffer> mapRemainingContent(@NonNull final FileChannel fileChannel) {
+        return new Func0<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() {
+                try {
+                    return FileChannelUtil.mapRemainingContent(fileChannel);
+                } catch (IOException e) {
+                    throw Exceptions.propagate(e);
+                }
+            }
+        };
+    }
+
     @NonNull
     private static byte[] copy(@NonNull final byte[] bytes) {
         final int length = bytes.length;
@@ -0,0 +1,215 @@
+package com.polidea.rxandroidble.internal;
+
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+import android.os.DeadObjectException;
+
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble.exceptions.BleException;
+import com.polidea.rxandroidble.exceptions.BleGattCallbackTimeoutException;
+import com.polidea.rxandroidble.exceptions.BleGattCannotStartException;
+import com.polidea.rxandroidble.exceptions.BleGattOperationType;
+import com.polidea.rxandroidble.internal.connection.GattCallbackSlot;
+import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
+import com.polidea.rxandroidble.internal.operations.TimeoutConfiguration;
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble.internal.util.QueueReleasingEmitterWrapper;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rx.Emitter;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+
+/**
+ * A counterpart of {@link SingleResponseOperation} completed directly by {@link RxBleGattCallback} through a {@link GattCallbackSlot}.
+ * Instead of subscribing to a shared {@link RxBleGattCallback} output and filtering it, the operation registers itself as the callback
+ * slot for the time it is running. Implementations override the callback of their own GATT operation and call
+ * {@link #completeWithValue(Object)} or {@link #completeWithError(Throwable)}. The result is emitted on the callbacks scheduler —
+ * the same thread as the outputs of {@link RxBleGattCallback} use.
+ *
+ * @param <T> The type of emitted result.
+ */
+public abstract class DirectResponseOperation<T> extends QueueOperation<T> implements GattCallbackSlot {
+
+    private final BluetoothGatt bluetoothGatt;
+    private final RxBleGattCallback rxBleGattCallback;
+    private final BleGattOperationType operationType;
+    private final TimeoutConfiguration timeoutConfiguration;
+    private final Scheduler callbackScheduler;
+    private final AtomicReference<PendingResponse> pendingResponse = new AtomicReference<>();
+
+    public DirectResponseOperation(BluetoothGatt bluetoothGatt,
+                                   RxBleGattCallback rxBleGattCallback,
+                                   BleGattOperationType gattOperationType,
+                                   TimeoutConfiguration timeoutConfiguration,
+                                   Scheduler callbackScheduler) {
+        this.bluetoothGatt = bluetoothGatt;
+        this.rxBleGattCallback = rxBleGattCallback;
+        this.operationType = gattOperationType;
+        this.timeoutConfiguration = timeoutConfiguration;
+        this.callbackScheduler = callbackScheduler;
+    }
+
+    @Override
+    final protected void protectedRun(final Emitter<T> emitter, final QueueReleaseInterface queueReleaseInterface) throws Throwable {
+        final PendingResponse response = new PendingResponse(new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface));
+        pendingResponse.set(response);
+        response.scheduleTimeout();
+        response.setDisconnectionSubscription(rxBleGattCallback.setCallbackSlot(this));
+        if (response.isFinished.get()) {
+            // the connection was already lost — the error was emitted and the queue released so the GATT call must not be made
+            return;
+        }
+
+        if (!startOperation(bluetoothGatt) && response.tryFinish(null, new BleGattCannotStartException(bluetoothGatt, operationType))) {
+            response.call();
+        }
+    }
+
+    /**
+     * A function that should call the passed {@link BluetoothGatt} and return `true` if the call has succeeded.
+     * @param bluetoothGatt the {@link BluetoothGatt} to use
+     * @return `true` if success, `false` otherwise
+     */
+    abstract protected boolean startOperation(BluetoothGatt bluetoothGatt);
+
+    /**
+     * Completes the running operation with the passed value. Calls made when the operation is not running are ignored.
+     *
+     * @param value the result of the operation
+     */
+    protected final void completeWithValue(T value) {
+        complete(value, null);
+    }
+
+    /**
+     * Completes the running operation with the passed error. Calls made when the operation is not running are ignored.
+     *
+     * @param throwable the error to emit
+     */
+    protected final void completeWithError(Throwable throwable) {
+        complete(null, throwable);
+    }
+
+    private void complete(T value, Throwable throwable) {
+        final PendingResponse response = pendingResponse.get();
+        if (response != null && response.tryFinish(value, throwable)) {
+            response.emitOnCallbackScheduler();
+        }
+    }
+
+    @Override
+    public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+        // not interested
+    }
+
+    @Override
+    public void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+        // not interested
+    }
+
+    @Override
+    public void onDescriptorRead(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+        // not interested
+    }
+
+    @Override
+    public void onDescriptorWrite(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+        // not interested
+    }
+
+    @Override
+    public void onDisconnected(BleException disconnectionException) {
+        completeWithError(disconnectionException);
+    }
+
+    @Override
+    protected BleException provideException(DeadObjectException deadObjectException) {
+        return new BleDisconnectedException(deadObjectException, bluetoothGatt.getDevice().getAddress());
+    }
+
+    /**
+     * The state of a single run of the operation. It is also the action emitting the result so completing an operation does not
+     * allocate anything besides what the scheduler needs.
+     */
+    private class PendingResponse implements Action0 {
+
+        private final QueueReleasingEmitterWrapper<T> emitterWrapper;
+        private final AtomicBoolean isFinished = new AtomicBoolean(false);
+        private Scheduler.Worker timeoutWorker;
+        private Scheduler.Worker callbackWorker;
+        private volatile Subscription disconnectionSubscription;
+        private T value;
+        private Throwable throwable;
+
+        PendingResponse(QueueReleasingEmitterWrapper<T> emitterWrapper) {
+            this.emitterWrapper = emitterWrapper;
+        }
+
+        void scheduleTimeout() {
+            timeoutWorker = timeoutConfiguration.timeoutScheduler.createWorker();
+            timeoutWorker.schedule(new Action0() {
+                @Override
+                public void call() {
+                    if (tryFinish(null, new BleGattCallbackTimeoutException(bluetoothGatt, operationType))) {
+                        PendingResponse.this.call();
+                    }
+                }
+            }, timeoutConfiguration.timeout, timeoutConfiguration.timeoutTimeUnit);
+        }
+
+        /**
+         * Keeps the subscription passing the disconnection to the operation so it can be released when the run finishes. The run
+         * may already be finished at this point if the connection was lost before the operation started.
+         */
+        void setDisconnectionSubscription(Subscription subscription) {
+            disconnectionSubscription = subscription;
+            if (isFinished.get()) {
+                subscription.unsubscribe();
+            }
+        }
+
+        /**
+         * Atomically marks the run as finished. Exactly one of the concurrent callers (the callback, the timeout or the failed start)
+         * will succeed and emit the result.
+         */
+        boolean tryFinish(T value, Throwable throwable) {
+            if (!isFinished.compareAndSet(false, true)) {
+                return false;
+            }
+            this.value = value;
+            this.throwable = throwable;
+            rxBleGattCallback.clearCallbackSlot(DirectResponseOperation.this);
+            pendingResponse.compareAndSet(this, null);
+            timeoutWorker.unsubscribe();
+            final Subscription subscription = disconnectionSubscription;
+            if (subscription != null) {
+                subscription.unsubscribe();
+            }
+            return true;
+        }
+
+        void emitOnCallbackScheduler() {
+            callbackWorker = callbackScheduler.createWorker();
+            callbackWorker.schedule(this);
+        }
+
+        @Override
+        public void call() {
+            if (throwable != null) {
+                emitterWrapper.onError(throwable);
+            } else {
+                emitterWrapper.onNext(value);
+                emitterWrapper.onCompleted();
+            }
+            if (callbackWorker != null) {
+                callbackWorker.unsubscribe();
+            }
+        }
+    }
+}
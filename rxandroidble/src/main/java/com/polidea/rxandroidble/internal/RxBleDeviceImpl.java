@@ -74,6 +74,7 @@ class RxBleDeviceImpl implements RxBleDevice {
         return establishConnection(options);
     }
 
+    @Override
     public Observable<RxBleConnection> establishConnection(final ConnectionSetup options) {
         return Observable.defer(new Func0<Observable<RxBleConnection>>() {
             @Override
@@ -4,45 +4,32 @@ import com.polidea.rxandroidble.RxBleDevice;
 import com.polidea.rxandroidble.ClientScope;
 import com.polidea.rxandroidble.internal.cache.DeviceComponentCache;
 
-import java.util.Map;
-
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Provider;
 
+import rx.functions.Func1;
+
 @ClientScope
 public class RxBleDeviceProvider {
 
-    private final Map<String, DeviceComponent> cachedDeviceComponents;
-    private final Provider<DeviceComponent.Builder> deviceComponentBuilder;
+    private final DeviceComponentCache cachedDeviceComponents;
+    private final Func1<String, DeviceComponent> deviceComponentFactory;
 
     @Inject
-    public RxBleDeviceProvider(DeviceComponentCache deviceComponentCache, Provider<DeviceComponent.Builder> deviceComponentBuilder) {
+    public RxBleDeviceProvider(DeviceComponentCache deviceComponentCache,
+                               final Provider<DeviceComponent.Builder> deviceComponentBuilder) {
         this.cachedDeviceComponents = deviceComponentCache;
-        this.deviceComponentBuilder = deviceComponentBuilder;
+        this.deviceComponentFactory = new Func1<String, DeviceComponent>() {
+            @Override
+            public DeviceComponent call(String macAddress) {
+                return deviceComponentBuilder.get()
+                        .deviceModule(new DeviceModule(macAddress))
+                        .build();
+            }
+        };
     }
 
     public RxBleDevice getBleDevice(String macAddress) {
-        final DeviceComponent cachedDeviceComponent = cachedDeviceComponents.get(macAddress);
-
-        if (cachedDeviceComponent != null) {
-            return cachedDeviceComponent.provideDevice();
-        }
-
-        synchronized (cachedDeviceComponents) {
-            final DeviceComponent secondCheckRxBleDevice = cachedDeviceComponents.get(macAddress);
-
-            if (secondCheckRxBleDevice != null) {
-                return secondCheckRxBleDevice.provideDevice();
-            }
-
-            final DeviceComponent deviceComponent =
-                    deviceComponentBuilder.get()
-                    .deviceModule(new DeviceModule(macAddress))
-                    .build();
-
-            final RxBleDevice newRxBleDevice = deviceComponent.provideDevice();
-            cachedDeviceComponents.put(macAddress, deviceComponent);
-            return newRxBleDevice;
-        }
+        return cachedDeviceComponents.getOrCreate(macAddress, deviceComponentFactory).provideDevice();
     }
 }
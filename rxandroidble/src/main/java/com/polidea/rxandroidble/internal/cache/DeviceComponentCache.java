@@ -6,32 +6,39 @@ import android.support.annotation.Nullable;
 import com.polidea.rxandroidble.ClientScope;
 import com.polidea.rxandroidble.internal.DeviceComponent;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import bleshadow.javax.inject.Inject;
 
-import rx.Observable;
-import rx.functions.Action2;
-import rx.functions.Func0;
 import rx.functions.Func1;
 
+/**
+ * A cache of {@link DeviceComponent}s by MAC address which holds them weakly. Reads do not take locks. The references of garbage
+ * collected components are evicted when they are enqueued in a {@link ReferenceQueue} which is drained on every modification — there is
+ * no need to scan the whole cache for them.
+ */
 @ClientScope
 public class DeviceComponentCache implements Map<String, DeviceComponent> {
 
-    private final HashMap<String, DeviceComponentWeakReference> cache = new HashMap<>();
+    private final ConcurrentHashMap<String, DeviceComponentWeakReference> cache = new ConcurrentHashMap<>();
+    private final ReferenceQueue<DeviceComponent> referenceQueue = new ReferenceQueue<>();
     private final DeviceComponentWeakReference.Provider deviceComponentReferenceProvider;
 
     @Inject
     public DeviceComponentCache() {
         this(new DeviceComponentWeakReference.Provider() {
             @Override
-            public DeviceComponentWeakReference provide(DeviceComponent device) {
-                return new DeviceComponentWeakReference(device);
+            public DeviceComponentWeakReference provide(String macAddress, DeviceComponent device,
+                                                        ReferenceQueue<DeviceComponent> queue) {
+                return new DeviceComponentWeakReference(macAddress, device, queue);
             }
         });
     }
@@ -40,6 +47,34 @@ public class DeviceComponentCache implements Map<String, DeviceComponent> {
         deviceComponentReferenceProvider = provider;
     }
 
+    /**
+     * Returns the cached component for the key or creates, caches and returns a new one if there is none. When called concurrently for
+     * the same key all the callers get the same component — the components created by the callers that lost the race are dropped.
+     *
+     * @param key the MAC address of the device
+     * @param deviceComponentFactory the function creating a new component for the key
+     * @return the cached component
+     */
+    @NonNull
+    public DeviceComponent getOrCreate(String key, Func1<String, DeviceComponent> deviceComponentFactory) {
+        while (true) {
+            final DeviceComponentWeakReference cachedReference = cache.get(key);
+            final DeviceComponent cachedDeviceComponent = cachedReference != null ? cachedReference.get() : null;
+            if (cachedDeviceComponent != null) {
+                return cachedDeviceComponent;
+            }
+            evictEmptyReferences();
+            final DeviceComponent deviceComponent = deviceComponentFactory.call(key);
+            final DeviceComponentWeakReference reference = deviceComponentReferenceProvider.provide(key, deviceComponent, referenceQueue);
+            final boolean isCached = cachedReference == null
+                    ? cache.putIfAbsent(key, reference) == null
+                    : cache.replace(key, cachedReference, reference);
+            if (isCached) {
+                return deviceComponent;
+            }
+        }
+    }
+
     @Override
     public void clear() {
         cache.clear();
@@ -47,13 +82,12 @@ public class DeviceComponentCache implements Map<String, DeviceComponent> {
 
     @Override
     public boolean containsKey(Object key) {
-        return cache.containsKey(key) && get(key) != null;
+        return get(key) != null;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        final Collection<DeviceComponentWeakReference> values = cache.values();
-        for (DeviceComponentWeakReference weakReference : values) {
+        for (DeviceComponentWeakReference weakReference : cache.values()) {
             if (weakReference.contains(value)) {
                 return true;
             }
@@ -64,37 +98,14 @@ public class DeviceComponentCache implements Map<String, DeviceComponent> {
     @NonNull
     @Override
     public Set<Entry<String, DeviceComponent>> entrySet() {
-        return Observable.from(cache.entrySet())
-                .filter(new Func1<Entry<String, DeviceComponentWeakReference>, Boolean>() {
-                    @Override
-                    public Boolean call(Entry<String, DeviceComponentWeakReference> stringDeviceWeakReferenceEntry) {
-                        return !stringDeviceWeakReferenceEntry.getValue().isEmpty();
-                    }
-                })
-                .map(new Func1<Entry<String, DeviceComponentWeakReference>, CacheEntry>() {
-                    @Override
-                    public CacheEntry call(Entry<String, DeviceComponentWeakReference> stringDeviceWeakReferenceEntry) {
-                        return new CacheEntry(
-                                stringDeviceWeakReferenceEntry.getKey(),
-                                deviceComponentReferenceProvider.provide(stringDeviceWeakReferenceEntry.getValue().get())
-                        );
-                    }
-                })
-                .collect(
-                        new Func0<HashSet<Entry<String, DeviceComponent>>>() {
-                            @Override
-                            public HashSet<Entry<String, DeviceComponent>> call() {
-                                return new HashSet<>();
-                            }
-                        },
-                        new Action2<HashSet<Entry<String, DeviceComponent>>, CacheEntry>() {
-                            @Override
-                            public void call(HashSet<Entry<String, DeviceComponent>> entries, CacheEntry e) {
-                                entries.add(e);
-                            }
-                        }
-                )
-                .toBlocking().first();
+        final Set<Entry<String, DeviceComponent>> entries = new HashSet<>();
+        for (DeviceComponentWeakReference weakReference : cache.values()) {
+            final DeviceComponent deviceComponent = weakReference.get();
+            if (deviceComponent != null) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(weakReference.macAddress, deviceComponent));
+            }
+        }
+        return entries;
     }
 
     @Nullable
@@ -118,8 +129,8 @@ public class DeviceComponentCache implements Map<String, DeviceComponent> {
 
     @Override
     public DeviceComponent put(String key, DeviceComponent value) {
-        cache.put(key, deviceComponentReferenceProvider.provide(value));
         evictEmptyReferences();
+        cache.put(key, deviceComponentReferenceProvider.provide(key, value, referenceQueue));
         return value;
     }
 
@@ -132,8 +143,8 @@ public class DeviceComponentCache implements Map<String, DeviceComponent> {
 
     @Override
     public DeviceComponent remove(Object key) {
-        final DeviceComponentWeakReference deviceComponentWeakReference = cache.remove(key);
         evictEmptyReferences();
+        final DeviceComponentWeakReference deviceComponentWeakReference = cache.remove(key);
         return deviceComponentWeakReference != null ? deviceComponentWeakReference.get() : null;
     }
 
@@ -146,32 +157,22 @@ public class DeviceComponentCache implements Map<String, DeviceComponent> {
     @NonNull
     @Override
     public Collection<DeviceComponent> values() {
-        return Observable.from(cache.values())
-                .filter(new Func1<DeviceComponentWeakReference, Boolean>() {
-                    @Override
-                    public Boolean call(DeviceComponentWeakReference deviceComponentWeakReference) {
-                        return !deviceComponentWeakReference.isEmpty();
-                    }
-                })
-                .map(new Func1<DeviceComponentWeakReference, DeviceComponent>() {
-                    @Override
-                    public DeviceComponent call(DeviceComponentWeakReference deviceComponentWeakReference) {
-                        return deviceComponentWeakReference.get();
-                    }
-                })
-                .toList()
-                .toBlocking()
-                .first();
+        final Collection<DeviceComponent> values = new ArrayList<>();
+        for (DeviceComponentWeakReference weakReference : cache.values()) {
+            final DeviceComponent deviceComponent = weakReference.get();
+            if (deviceComponent != null) {
+                values.add(deviceComponent);
+            }
+        }
+        return values;
     }
 
+    // only the references that were garbage collected since the last call are visited
     private void evictEmptyReferences() {
-
-        for (Iterator<Entry<String, DeviceComponentWeakReference>> iterator = cache.entrySet().iterator(); iterator.hasNext();) {
-            final Entry<String, DeviceComponentWeakReference> next = iterator.next();
-
-            if (next.getValue().isEmpty()) {
-                iterator.remove();
-            }
+        Reference<? extends DeviceComponent> reference;
+        while ((reference = referenceQueue.poll()) != null) {
+            final DeviceComponentWeakReference deviceComponentWeakReference = (DeviceComponentWeakReference) reference;
+            cache.remove(deviceComponentWeakReference.macAddress, deviceComponentWeakReference);
         }
     }
-}
\ No newline at end of file
+}
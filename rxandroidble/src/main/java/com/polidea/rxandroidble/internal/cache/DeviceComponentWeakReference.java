@@ -5,20 +5,22 @@ import com.polidea.rxandroidble.internal.DeviceComponent;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 
+/**
+ * A weak reference to a cached {@link DeviceComponent} that knows its cache key so it can be evicted once it is enqueued.
+ * References are compared by identity so that an evicted reference never removes the one that replaced it.
+ */
 class DeviceComponentWeakReference extends WeakReference<DeviceComponent> {
 
     public interface Provider {
 
-        DeviceComponentWeakReference provide(DeviceComponent rxBleDevice);
+        DeviceComponentWeakReference provide(String macAddress, DeviceComponent rxBleDevice, ReferenceQueue<DeviceComponent> queue);
     }
 
-    DeviceComponentWeakReference(DeviceComponent device) {
-        super(device);
-    }
+    final String macAddress;
 
-    @SuppressWarnings("unused")
-    DeviceComponentWeakReference(DeviceComponent r, ReferenceQueue<? super DeviceComponent> q) {
-        super(r, q);
+    DeviceComponentWeakReference(String macAddress, DeviceComponent device, ReferenceQueue<? super DeviceComponent> queue) {
+        super(device, queue);
+        this.macAddress = macAddress;
     }
 
     boolean contains(Object object) {
@@ -28,24 +30,6 @@ class DeviceComponentWeakReference extends WeakReference<DeviceComponent> {
                 && thisDevice.provideDevice() == ((DeviceComponent) object).provideDevice();
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (!(o instanceof WeakReference)) {
-            return false;
-        }
-        WeakReference aWeakReference = (WeakReference) o;
-        final DeviceComponent thisComponent = get();
-        final Object otherThing = aWeakReference.get();
-        return thisComponent != null
-                && otherThing instanceof DeviceComponent
-                && thisComponent.provideDevice().equals(((DeviceComponent) otherThing).provideDevice());
-    }
-
-    @Override
-    public int hashCode() {
-        return get() != null ? get().hashCode() : 0;
-    }
-
     public boolean isEmpty() {
         return get() == null;
     }
@@ -0,0 +1,341 @@
+package com.polidea.rxandroidble.internal.cache;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+import android.bluetooth.BluetoothGattService;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.ClientScope;
+import com.polidea.rxandroidble.ClientSetup;
+import com.polidea.rxandroidble.RxBleDeviceServices;
+import com.polidea.rxandroidble.internal.RxBleLog;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+
+import rx.Completable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Action1;
+
+/**
+ * Persists the discovered GATT schemas — services, characteristics and descriptors — of the devices in a compact binary file per MAC
+ * address. The files are memory-mapped when loaded.
+ * <p>
+ * Android performs GATT operations only on the attributes of a discovery made during the current connection, so the attributes
+ * restored from a file are detached. {@link CachedGattSchema} maps them to the attributes of the current discovery by their position
+ * in the schema which is the same as long as the schema is valid.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+@ClientScope
+public class GattSchemaCache {
+
+    // the Service Changed characteristic of the Generic Attribute service
+    private static final UUID SERVICE_CHANGED_UUID = UUID.fromString("00002a05-0000-1000-8000-00805f9b34fb");
+    private static final int MAGIC = 0x47415454; // "GATT"
+    private static final byte VERSION = 1;
+    private static final byte FLAG_HAS_SCHEMA_HASH = 1;
+    private static final String FILE_EXTENSION = ".gatt";
+
+    @Nullable
+    private final File directory;
+    @Nullable
+    private final Long schemaHash;
+    private final Scheduler ioScheduler;
+
+    @Inject
+    public GattSchemaCache(ClientSetup clientSetup, @Named(ClientComponent.NamedSchedulers.IO) Scheduler ioScheduler) {
+        this(clientSetup.gattSchemaCacheDirectory, clientSetup.gattSchemaHash, ioScheduler);
+    }
+
+    GattSchemaCache(@Nullable File directory, @Nullable Long schemaHash, Scheduler ioScheduler) {
+        this.directory = directory;
+        this.schemaHash = schemaHash;
+        this.ioScheduler = ioScheduler;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Loads the persisted schema of the device. An invalid or corrupted file is deleted.
+     *
+     * @param macAddress the MAC address of the device
+     * @return the schema or null if there is no valid schema persisted for the device
+     */
+    @Nullable
+    public CachedGattSchema load(String macAddress) {
+        if (directory == null) {
+            return null;
+        }
+        final File file = schemaFile(macAddress);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                final FileChannel fileChannel = randomAccessFile.getChannel();
+                final MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+                final CachedGattSchema cachedGattSchema = readSchema(buffer);
+                if (cachedGattSchema != null) {
+                    RxBleLog.d("Loaded the persisted GATT schema of %s", macAddress);
+                    return cachedGattSchema;
+                }
+            } finally {
+                randomAccessFile.close();
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            RxBleLog.w(e, "Could not load the persisted GATT schema of %s", macAddress);
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+        return null;
+    }
+
+    /**
+     * Persists the discovered schema of the device in the background. A schema which could not be validated on the next connection
+     * is not stored.
+     *
+     * @param macAddress the MAC address of the device
+     * @param deviceServices the discovered schema
+     * @param loadedSchema the schema loaded at the beginning of the connection or null — an unchanged schema is not stored again
+     */
+    public void store(final String macAddress, RxBleDeviceServices deviceServices, @Nullable CachedGattSchema loadedSchema) {
+        if (directory == null) {
+            return;
+        }
+        final List<BluetoothGattService> services = deviceServices.getBluetoothGattServices();
+        final File file = schemaFile(macAddress);
+        if (schemaHash == null && containsServiceChanged(services)) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return;
+        }
+        final byte[] serializedSchema = writeSchema(services);
+        if (loadedSchema != null && loadedSchema.serializedSchemaHash == ByteBuffer.wrap(serializedSchema).hashCode()) {
+            return;
+        }
+        Completable.fromAction(new Action0() {
+            @Override
+            public void call() {
+                writeFile(file, serializedSchema);
+            }
+        })
+                .subscribeOn(ioScheduler)
+                .subscribe(new Action0() {
+                    @Override
+                    public void call() {
+                        RxBleLog.d("Persisted the GATT schema of %s", macAddress);
+                    }
+                }, new Action1<Throwable>() {
+                    @Override
+                    public void call(Throwable throwable) {
+                        RxBleLog.w(throwable, "Could not persist the GATT schema of %s", macAddress);
+                    }
+                });
+    }
+
+    private File schemaFile(String macAddress) {
+        return new File(directory, macAddress.replace(":", "") + FILE_EXTENSION);
+    }
+
+    private static void writeFile(File file, byte[] serializedSchema) {
+        final File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Could not create " + directory);
+        }
+        // written aside and renamed so a concurrent load never sees a partially written file
+        final File temporaryFile = new File(directory, file.getName() + ".tmp");
+        try {
+            final FileOutputStream outputStream = new FileOutputStream(temporaryFile);
+            try {
+                outputStream.write(serializedSchema);
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        if (!temporaryFile.renameTo(file)) {
+            throw new IllegalStateException("Could not rename " + temporaryFile);
+        }
+    }
+
+    @Nullable
+    private CachedGattSchema readSchema(ByteBuffer buffer) {
+        final int serializedSchemaHash = buffer.hashCode();
+        if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            return null;
+        }
+        final boolean hasSchemaHash = (buffer.get() & FLAG_HAS_SCHEMA_HASH) != 0;
+        final long storedSchemaHash = buffer.getLong();
+        if (schemaHash != null && (!hasSchemaHash || storedSchemaHash != schemaHash)) {
+            return null;
+        }
+        final CachedGattSchema cachedGattSchema = new CachedGattSchema(serializedSchemaHash);
+        final int servicesCount = buffer.getShort();
+        final List<BluetoothGattService> services = new ArrayList<>(servicesCount);
+        for (int serviceIndex = 0; serviceIndex < servicesCount; serviceIndex++) {
+            final BluetoothGattService service = new BluetoothGattService(readUuid(buffer), buffer.get());
+            final int characteristicsCount = buffer.getShort();
+            for (int characteristicIndex = 0; characteristicIndex < characteristicsCount; characteristicIndex++) {
+                final BluetoothGattCharacteristic characteristic =
+                        new BluetoothGattCharacteristic(readUuid(buffer), buffer.getInt(), buffer.getInt());
+                if (schemaHash == null && SERVICE_CHANGED_UUID.equals(characteristic.getUuid())) {
+                    // the schema may have changed since it was stored
+                    return null;
+                }
+                final int descriptorsCount = buffer.getShort();
+                for (int descriptorIndex = 0; descriptorIndex < descriptorsCount; descriptorIndex++) {
+                    final BluetoothGattDescriptor descriptor = new BluetoothGattDescriptor(readUuid(buffer), buffer.getInt());
+                    characteristic.addDescriptor(descriptor);
+                    cachedGattSchema.descriptorPositions.put(descriptor, new int[]{serviceIndex, characteristicIndex, descriptorIndex});
+                }
+                service.addCharacteristic(characteristic);
+                cachedGattSchema.characteristicPositions.put(characteristic, new int[]{serviceIndex, characteristicIndex});
+            }
+            services.add(service);
+        }
+        cachedGattSchema.deviceServices = new RxBleDeviceServices(services);
+        return cachedGattSchema;
+    }
+
+    private byte[] writeSchema(List<BluetoothGattService> services) {
+        int size = 4 + 1 + 1 + 8 + 2;
+        for (BluetoothGattService service : services) {
+            size += 16 + 1 + 2;
+            for (BluetoothGattCharacteristic characteristic : service.getCharacteristics()) {
+                size += 16 + 4 + 4 + 2 + characteristic.getDescriptors().size() * (16 + 4);
+            }
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .put(schemaHash != null ? FLAG_HAS_SCHEMA_HASH : 0)
+                .putLong(schemaHash != null ? schemaHash : 0L)
+                .putShort((short) services.size());
+        for (BluetoothGattService service : services) {
+            writeUuid(buffer, service.getUuid());
+            buffer.put((byte) service.getType());
+            final List<BluetoothGattCharacteristic> characteristics = service.getCharacteristics();
+            buffer.putShort((short) characteristics.size());
+            for (BluetoothGattCharacteristic characteristic : characteristics) {
+                writeUuid(buffer, characteristic.getUuid());
+                buffer.putInt(characteristic.getProperties());
+                buffer.putInt(characteristic.getPermissions());
+                final List<BluetoothGattDescriptor> descriptors = characteristic.getDescriptors();
+                buffer.putShort((short) descriptors.size());
+                for (BluetoothGattDescriptor descriptor : descriptors) {
+                    writeUuid(buffer, descriptor.getUuid());
+                    buffer.putInt(descriptor.getPermissions());
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    private static boolean containsServiceChanged(List<BluetoothGattService> services) {
+        for (BluetoothGattService service : services) {
+            if (service.getCharacteristic(SERVICE_CHANGED_UUID) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static UUID readUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void writeUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * A schema restored from a file. Its attributes can be inspected but any GATT operation must be performed on the corresponding
+     * attribute of the current discovery returned by {@link #attach(BluetoothGattCharacteristic, List)}.
+     */
+    public static class CachedGattSchema {
+
+        // the attributes do not override equals() so they are compared by identity anyway
+        final Map<BluetoothGattCharacteristic, int[]> characteristicPositions = new IdentityHashMap<>();
+        final Map<BluetoothGattDescriptor, int[]> descriptorPositions = new IdentityHashMap<>();
+        final int serializedSchemaHash;
+        RxBleDeviceServices deviceServices;
+
+        CachedGattSchema(int serializedSchemaHash) {
+            this.serializedSchemaHash = serializedSchemaHash;
+        }
+
+        public RxBleDeviceServices getDeviceServices() {
+            return deviceServices;
+        }
+
+        public boolean contains(BluetoothGattCharacteristic characteristic) {
+            return characteristicPositions.containsKey(characteristic);
+        }
+
+        public boolean contains(BluetoothGattDescriptor descriptor) {
+            return descriptorPositions.containsKey(descriptor);
+        }
+
+        /**
+         * @param characteristic a characteristic of this schema
+         * @param discoveredServices the services of the current discovery
+         * @return the characteristic of the current discovery at the same position or null if the schema has changed
+         */
+        @Nullable
+        public BluetoothGattCharacteristic attach(BluetoothGattCharacteristic characteristic,
+                                                  List<BluetoothGattService> discoveredServices) {
+            final int[] position = characteristicPositions.get(characteristic);
+            final BluetoothGattCharacteristic discoveredCharacteristic = discoveredCharacteristic(position, discoveredServices);
+            return discoveredCharacteristic != null && discoveredCharacteristic.getUuid().equals(characteristic.getUuid())
+                    ? discoveredCharacteristic
+                    : null;
+        }
+
+        /**
+         * @param descriptor a descriptor of this schema
+         * @param discoveredServices the services of the current discovery
+         * @return the descriptor of the current discovery at the same position or null if the schema has changed
+         */
+        @Nullable
+        public BluetoothGattDescriptor attach(BluetoothGattDescriptor descriptor, List<BluetoothGattService> discoveredServices) {
+            final int[] position = descriptorPositions.get(descriptor);
+            final BluetoothGattCharacteristic discoveredCharacteristic = discoveredCharacteristic(position, discoveredServices);
+            if (discoveredCharacteristic == null || position[2] >= discoveredCharacteristic.getDescriptors().size()) {
+                return null;
+            }
+            final BluetoothGattDescriptor discoveredDescriptor = discoveredCharacteristic.getDescriptors().get(position[2]);
+            return discoveredDescriptor.getUuid().equals(descriptor.getUuid()) ? discoveredDescriptor : null;
+        }
+
+        @Nullable
+        private static BluetoothGattCharacteristic discoveredCharacteristic(@Nullable int[] position,
+                                                                            List<BluetoothGattService> discoveredServices) {
+            if (position == null || position[0] >= discoveredServices.size()) {
+                return null;
+            }
+            final List<BluetoothGattCharacteristic> characteristics = discoveredServices.get(position[0]).getCharacteristics();
+            return position[1] < characteristics.size() ? characteristics.get(position[1]) : null;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.polidea.rxandroidble.internal.connection;
+
+
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.Timeout;
+import com.polidea.rxandroidble.internal.Priority;
+import com.polidea.rxandroidble.internal.operations.Operation;
+import com.polidea.rxandroidble.internal.operations.OperationsProvider;
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue;
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.observables.ConnectableObservable;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Coalesces reads of the same {@link BluetoothGattCharacteristic}. A read requested while another read of the same characteristic is
+ * still waiting in the {@link ConnectionOperationQueue} shares its result instead of queueing a new GATT round trip. Once the read
+ * operation has started, new reads are queued separately so they always observe a value read after they were requested.
+ * A value served from the cache is emitted on the bluetooth callbacks scheduler — the same as a value read from the peripheral.
+ * <p>
+ * If {@link com.polidea.rxandroidble.ConnectionSetup#readValueFreshness} is set a value read not earlier than the given time ago is
+ * returned without any GATT interaction. A write to the characteristic with the same {@link com.polidea.rxandroidble.RxBleConnection}
+ * invalidates both the pending read and the read value.
+ * <p>
+ * Characteristics are matched by instance — the same objects are returned by the service discovery of a connection.
+ */
+@ConnectionScope
+public class CharacteristicReadCoalescer {
+
+    // the read value is shared by the coalesced subscribers and the cache so each of them gets its own copy
+    private static final Func1<byte[], byte[]> COPY_VALUE = new Func1<byte[], byte[]>() {
+        @Override
+        public byte[] call(byte[] value) {
+            return value.clone();
+        }
+    };
+
+    private final ConnectionOperationQueue operationQueue;
+    private final OperationsProvider operationsProvider;
+    private final Scheduler clockScheduler;
+    private final Scheduler callbackScheduler;
+    private final long readValueFreshnessMillis;
+    private final Map<BluetoothGattCharacteristic, CoalescedCharacteristicReadOperation> pendingReads = new HashMap<>();
+    private final Map<BluetoothGattCharacteristic, ReadValue> readValues = new HashMap<>();
+    private long invalidationsCount = 0;
+
+    @Inject
+    CharacteristicReadCoalescer(
+            ConnectionOperationQueue operationQueue,
+            OperationsProvider operationsProvider,
+            @Named(ClientComponent.NamedSchedulers.TIMEOUT) Scheduler clockScheduler,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_CALLBACKS) Scheduler callbackScheduler,
+            @Named(ConnectionModule.READ_VALUE_FRESHNESS) Timeout readValueFreshness
+    ) {
+        this.operationQueue = operationQueue;
+        this.operationsProvider = operationsProvider;
+        this.clockScheduler = clockScheduler;
+        this.callbackScheduler = callbackScheduler;
+        this.readValueFreshnessMillis = readValueFreshness.timeUnit.toMillis(readValueFreshness.timeout);
+    }
+
+    public Observable<byte[]> readCharacteristic(final BluetoothGattCharacteristic characteristic) {
+        return Observable.unsafeCreate(new Observable.OnSubscribe<byte[]>() {
+            @Override
+            public void call(Subscriber<? super byte[]> subscriber) {
+                final byte[] freshValue;
+                final CoalescedCharacteristicReadOperation readToQueue;
+                synchronized (CharacteristicReadCoalescer.this) {
+                    final ReadValue readValue = readValues.get(characteristic);
+                    if (readValue != null && clockScheduler.now() - readValue.timestampMillis <= readValueFreshnessMillis) {
+                        // every subscriber gets its own copy so a modification does not affect the others
+                        freshValue = readValue.value.clone();
+                        readToQueue = null;
+                    } else {
+                        freshValue = null;
+                        CoalescedCharacteristicReadOperation pendingRead = pendingReads.get(characteristic);
+                        if (pendingRead == null) {
+                            pendingRead = new CoalescedCharacteristicReadOperation(characteristic);
+                            pendingReads.put(characteristic, pendingRead);
+                            readToQueue = pendingRead;
+                        } else {
+                            readToQueue = null;
+                        }
+                        // joined while holding the lock so the read can neither start nor be abandoned in the meantime
+                        pendingRead.join(subscriber);
+                    }
+                }
+                if (freshValue != null) {
+                    Observable.just(freshValue).observeOn(callbackScheduler).unsafeSubscribe(subscriber);
+                } else if (readToQueue != null) {
+                    // queued without holding the lock as the queue may complete the operations while holding its own lock
+                    readToQueue.queue();
+                }
+            }
+        });
+    }
+
+    /**
+     * Makes sure that reads of the characteristic requested from now on will not share a result of a read requested earlier.
+     *
+     * @param characteristic the characteristic that is going to be written
+     */
+    public synchronized void invalidate(BluetoothGattCharacteristic characteristic) {
+        invalidationsCount++;
+        pendingReads.remove(characteristic);
+        readValues.remove(characteristic);
+    }
+
+    /**
+     * Makes sure that no read requested from now on will share a result of a read requested earlier.
+     */
+    public synchronized void invalidateAll() {
+        invalidationsCount++;
+        pendingReads.clear();
+        readValues.clear();
+    }
+
+    private synchronized void removePendingRead(CoalescedCharacteristicReadOperation pendingRead) {
+        if (pendingReads.get(pendingRead.characteristic) == pendingRead) {
+            pendingReads.remove(pendingRead.characteristic);
+        }
+    }
+
+    private synchronized void onValueRead(CoalescedCharacteristicReadOperation read, byte[] value) {
+        // the value read before an invalidation must not be served afterwards
+        if (readValueFreshnessMillis > 0 && invalidationsCount == read.invalidationsCountAtStart) {
+            readValues.put(read.characteristic, new ReadValue(value.clone(), clockScheduler.now()));
+        }
+    }
+
+    /**
+     * A read operation which result is shared by all subscribers that requested it before it was started by the queue. It is queued
+     * once — when the first subscriber joins — and it is not joinable anymore once it has started, finished or all its subscribers
+     * have left.
+     */
+    private class CoalescedCharacteristicReadOperation implements Operation<byte[]> {
+
+        final BluetoothGattCharacteristic characteristic;
+        private final Operation<byte[]> readOperation;
+        private final ConnectableObservable<byte[]> publishedResult;
+        // guarded by CharacteristicReadCoalescer.this
+        long invalidationsCountAtStart;
+        private int subscribersCount;
+        private Subscription queueSubscription;
+
+        CoalescedCharacteristicReadOperation(final BluetoothGattCharacteristic characteristic) {
+            this.characteristic = characteristic;
+            this.readOperation = operationsProvider.provideReadCharacteristic(characteristic);
+            this.publishedResult = Observable.defer(new Func0<Observable<byte[]>>() {
+                @Override
+                public Observable<byte[]> call() {
+                    return operationQueue.queue(CoalescedCharacteristicReadOperation.this);
+                }
+            })
+                    .doOnNext(new Action1<byte[]>() {
+                        @Override
+                        public void call(byte[] value) {
+                            onValueRead(CoalescedCharacteristicReadOperation.this, value);
+                        }
+                    })
+                    .doOnTerminate(new Action0() {
+                        @Override
+                        public void call() {
+                            removePendingRead(CoalescedCharacteristicReadOperation.this);
+                        }
+                    })
+                    .publish();
+        }
+
+        /**
+         * Subscribes to the shared result. Called while holding the lock of CharacteristicReadCoalescer.
+         */
+        void join(Subscriber<? super byte[]> subscriber) {
+            subscribersCount++;
+            subscriber.add(Subscriptions.create(new Action0() {
+                @Override
+                public void call() {
+                    leave();
+                }
+            }));
+            publishedResult.map(COPY_VALUE).unsafeSubscribe(subscriber);
+        }
+
+        /**
+         * Queues the read. Called once — by the subscriber that created the read — without holding the lock.
+         */
+        void queue() {
+            final Subscription subscription = publishedResult.connect();
+            synchronized (CharacteristicReadCoalescer.this) {
+                if (subscribersCount > 0) {
+                    queueSubscription = subscription;
+                    return;
+                }
+            }
+            // all the subscribers left before the read was queued
+            subscription.unsubscribe();
+        }
+
+        private void leave() {
+            final Subscription subscription;
+            synchronized (CharacteristicReadCoalescer.this) {
+                if (--subscribersCount > 0) {
+                    return;
+                }
+                // finished or all the subscribers left before the read has started
+                removePendingRead(this);
+                subscription = queueSubscription;
+            }
+            if (subscription != null) {
+                subscription.unsubscribe();
+            }
+        }
+
+        @Override
+        public Observable<byte[]> run(QueueReleaseInterface queueReleaseInterface) {
+            synchronized (CharacteristicReadCoalescer.this) {
+                invalidationsCountAtStart = invalidationsCount;
+                removePendingRead(this);
+            }
+            return readOperation.run(queueReleaseInterface);
+        }
+
+        @Override
+        public Priority definedPriority() {
+            return readOperation.definedPriority();
+        }
+
+        @Override
+        public int compareTo(Operation<?> another) {
+            return readOperation.compareTo(another);
+        }
+    }
+
+    private static class ReadValue {
+
+        final byte[] value;
+        final long timestampMillis;
+
+        ReadValue(byte[] value, long timestampMillis) {
+            this.value = value;
+            this.timestampMillis = timestampMillis;
+        }
+    }
+}
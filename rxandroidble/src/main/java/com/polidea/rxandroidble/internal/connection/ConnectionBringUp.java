@@ -0,0 +1,125 @@
+package com.polidea.rxandroidble.internal.connection;
+
+
+import android.annotation.SuppressLint;
+import android.os.Build;
+
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.ConnectionSetup;
+import com.polidea.rxandroidble.RxBleConnection;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import com.polidea.rxandroidble.internal.operations.Operation;
+import com.polidea.rxandroidble.internal.operations.OperationsProvider;
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Actions;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Performs the steps requested in the {@link ConnectionSetup} before the {@link RxBleConnection} is emitted. The GATT steps are
+ * queued as a single {@link com.polidea.rxandroidble.internal.operations.ConnectionBringUpOperation}. The initial notifications are
+ * kept set up until the connection is unsubscribed.
+ */
+@ConnectionScope
+class ConnectionBringUp implements ConnectionSubscriptionWatcher {
+
+    private final ConnectionSetup connectionSetup;
+    private final ConnectionOperationQueue operationQueue;
+    private final OperationsProvider operationsProvider;
+    private final int deviceSdk;
+    private final CompositeSubscription initialNotificationsSubscription = new CompositeSubscription();
+
+    @Inject
+    ConnectionBringUp(
+            ConnectionSetup connectionSetup,
+            ConnectionOperationQueue operationQueue,
+            OperationsProvider operationsProvider,
+            @Named(ClientComponent.PlatformConstants.INT_DEVICE_SDK) int deviceSdk
+    ) {
+        this.connectionSetup = connectionSetup;
+        this.operationQueue = operationQueue;
+        this.operationsProvider = operationsProvider;
+        this.deviceSdk = deviceSdk;
+    }
+
+    Observable<RxBleConnection> bringUp(final RxBleConnection rxBleConnection) {
+        return queueBringUpOperation()
+                .cast(RxBleConnection.class)
+                .concatWith(setupInitialNotifications(rxBleConnection))
+                .concatWith(Observable.just(rxBleConnection));
+    }
+
+    private Observable<Void> queueBringUpOperation() {
+        return Observable.defer(new Func0<Observable<Void>>() {
+            @SuppressLint("NewApi")
+            @Override
+            public Observable<Void> call() {
+                final boolean isLollipopOrNewer = deviceSdk >= Build.VERSION_CODES.LOLLIPOP;
+                int connectionPriority = connectionSetup.connectionPriority;
+                if (connectionPriority != ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED && !isLollipopOrNewer) {
+                    RxBleLog.w("Connection priority cannot be requested below Android 5.0 — skipping");
+                    connectionPriority = ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED;
+                }
+                final List<Operation<?>> operations = new ArrayList<>();
+                if (connectionSetup.requestedMtu != ConnectionSetup.MTU_UNCHANGED) {
+                    if (isLollipopOrNewer) {
+                        operations.add(operationsProvider.provideMtuChangeOperation(connectionSetup.requestedMtu));
+                    } else {
+                        RxBleLog.w("MTU cannot be requested below Android 5.0 — skipping");
+                    }
+                }
+                if (connectionSetup.prefetchServices || !connectionSetup.initialNotifications.isEmpty()) {
+                    operations.add(operationsProvider.provideServiceDiscoveryOperation(20L, TimeUnit.SECONDS));
+                }
+                if (operations.isEmpty() && connectionPriority == ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED) {
+                    return Observable.empty();
+                }
+                return operationQueue.queue(operationsProvider.provideConnectionBringUpOperation(connectionPriority, operations));
+            }
+        });
+    }
+
+    private Observable<RxBleConnection> setupInitialNotifications(final RxBleConnection rxBleConnection) {
+        return Observable.from(connectionSetup.initialNotifications)
+                .concatMap(new Func1<UUID, Observable<Observable<byte[]>>>() {
+                    @Override
+                    public Observable<Observable<byte[]>> call(final UUID characteristicUuid) {
+                        final Observable<Observable<byte[]>> notificationSetup = rxBleConnection.setupNotification(characteristicUuid);
+                        // the notification is shared so this subscription keeps it set up for the later subscribers
+                        initialNotificationsSubscription.add(notificationSetup.subscribe(
+                                Actions.empty(),
+                                new Action1<Throwable>() {
+                                    @Override
+                                    public void call(Throwable throwable) {
+                                        RxBleLog.w(throwable, "Initial notification of %s has finished", characteristicUuid);
+                                    }
+                                }
+                        ));
+                        return notificationSetup.take(1);
+                    }
+                })
+                .ignoreElements()
+                .cast(RxBleConnection.class);
+    }
+
+    @Override
+    public void onConnectionSubscribed() {
+        // nothing to do
+    }
+
+    @Override
+    public void onConnectionUnsubscribed() {
+        initialNotificationsSubscription.clear();
+    }
+}
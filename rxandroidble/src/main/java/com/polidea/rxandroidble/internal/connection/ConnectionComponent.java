@@ -35,6 +35,9 @@ public interface ConnectionComponent {
     @ConnectionScope
     RxBleConnection rxBleConnection();
 
+    @ConnectionScope
+    ConnectionBringUp connectionBringUp();
+
     @ConnectionScope
     RxBleGattCallback gattCallback();
 
@@ -21,14 +21,19 @@ import static com.polidea.rxandroidble.internal.connection.ConnectionComponent.N
 public class ConnectionModule {
 
     public static final String OPERATION_TIMEOUT = "operation-timeout";
+    public static final String READ_VALUE_FRESHNESS = "read-value-freshness";
     final boolean autoConnect;
     final boolean suppressOperationCheck;
     private final Timeout operationTimeout;
+    private final Timeout readValueFreshness;
+    private final ConnectionSetup connectionSetup;
 
     ConnectionModule(ConnectionSetup connectionSetup) {
+        this.connectionSetup = connectionSetup;
         this.autoConnect = connectionSetup.autoConnect;
         this.suppressOperationCheck = connectionSetup.suppressOperationCheck;
         this.operationTimeout = connectionSetup.operationTimeout;
+        this.readValueFreshness = connectionSetup.readValueFreshness;
     }
 
     @ConnectionScope
@@ -36,6 +41,10 @@ public class ConnectionModule {
         return autoConnect;
     }
 
+    @Provides
+    ConnectionSetup provideConnectionSetup() {
+        return connectionSetup;
+    }
 
     @Provides
     @Named(OPERATION_TIMEOUT)
@@ -43,6 +52,12 @@ public class ConnectionModule {
         return new TimeoutConfiguration(operationTimeout.timeout, operationTimeout.timeUnit, timeoutScheduler);
     }
 
+    @Provides
+    @Named(READ_VALUE_FRESHNESS)
+    Timeout providesReadValueFreshness() {
+        return readValueFreshness;
+    }
+
     @Provides
     IllegalOperationHandler provideIllegalOperationHandler(
             Provider<LoggingIllegalOperationHandler> loggingIllegalOperationHandlerProvider,
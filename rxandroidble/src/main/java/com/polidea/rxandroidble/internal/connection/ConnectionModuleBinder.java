@@ -39,6 +39,13 @@ abstract class ConnectionModuleBinder {
     @Binds
     abstract RxBleConnection.LongWriteOperationBuilder bindLongWriteOperationBuilder(LongWriteOperationBuilderImpl operationBuilder);
 
+    @Binds
+    abstract RxBleConnection.StreamingWriteOperationBuilder bindStreamingWriteOperationBuilder(
+            StreamingWriteOperationBuilderImpl operationBuilder);
+
+    @Binds
+    abstract RxBleConnection.TransactionBuilder bindTransactionBuilder(TransactionBuilderImpl transactionBuilder);
+
     @Binds
     abstract OperationsProvider bindOperationsProvider(OperationsProviderImpl operationsProvider);
 
@@ -49,6 +56,14 @@ abstract class ConnectionModuleBinder {
     @IntoSet
     abstract ConnectionSubscriptionWatcher bindMtuWatcherSubscriptionWatcher(MtuWatcher mtuWatcher);
 
+    @Binds
+    @IntoSet
+    abstract ConnectionSubscriptionWatcher bindConnectionBringUpSubscriptionWatcher(ConnectionBringUp connectionBringUp);
+
+    @Binds
+    @IntoSet
+    abstract ConnectionSubscriptionWatcher bindConnectionPriorityGovernorSubscriptionWatcher(ConnectionPriorityGovernor governor);
+
     @Binds
     @IntoSet
     abstract ConnectionSubscriptionWatcher bindDisconnectActionSubscriptionWatcher(DisconnectAction disconnectAction);
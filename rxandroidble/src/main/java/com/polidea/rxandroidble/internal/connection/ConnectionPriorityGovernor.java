@@ -0,0 +1,148 @@
+package com.polidea.rxandroidble.internal.connection;
+
+
+import android.annotation.TargetApi;
+import android.bluetooth.BluetoothGatt;
+import android.os.Build;
+
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.ConnectionPriorityGovernorSetup;
+import com.polidea.rxandroidble.ConnectionSetup;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue;
+
+import java.util.concurrent.TimeUnit;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action1;
+import rx.subscriptions.SerialSubscription;
+
+/**
+ * Adjusts the connection priority to the traffic according to {@link ConnectionSetup#connectionPriorityGovernor}. The connection is
+ * sampled periodically — the priority is raised to {@link BluetoothGatt#CONNECTION_PRIORITY_HIGH} as soon as the queued operations
+ * count or the GATT events rate reaches its threshold and lowered to the idle priority once both stay below half of their
+ * thresholds for the idle timeout. The priority the connection started with is lowered only after the idle timeout as well.
+ * <p>
+ * The priority is requested directly on the {@link BluetoothGatt} — it is not a GATT operation so it does not have to wait in
+ * the connection queue behind the very operations that made the connection busy.
+ */
+@ConnectionScope
+class ConnectionPriorityGovernor implements ConnectionSubscriptionWatcher, Action1<Long> {
+
+    private final ConnectionPriorityGovernorSetup governorSetup;
+    private final BluetoothGattProvider bluetoothGattProvider;
+    private final ConnectionOperationQueue operationQueue;
+    private final RxBleGattCallback rxBleGattCallback;
+    private final Scheduler samplingScheduler;
+    private final boolean isSupported;
+    private final int initialPriority;
+    private final SerialSubscription samplingSubscription = new SerialSubscription();
+    /**
+     * Accessed only from {@link #call(Long)}.
+     */
+    private int currentPriority;
+    private long lastSampleTime;
+    private long lastGattEventsCount;
+    private long lastBusyTime;
+
+    @Inject
+    ConnectionPriorityGovernor(
+            ConnectionSetup connectionSetup,
+            BluetoothGattProvider bluetoothGattProvider,
+            ConnectionOperationQueue operationQueue,
+            RxBleGattCallback rxBleGattCallback,
+            @Named(ClientComponent.NamedSchedulers.COMPUTATION) Scheduler samplingScheduler,
+            @Named(ClientComponent.PlatformConstants.INT_DEVICE_SDK) int deviceSdk
+    ) {
+        this.governorSetup = connectionSetup.connectionPriorityGovernor;
+        this.bluetoothGattProvider = bluetoothGattProvider;
+        this.operationQueue = operationQueue;
+        this.rxBleGattCallback = rxBleGattCallback;
+        this.samplingScheduler = samplingScheduler;
+        this.isSupported = deviceSdk >= Build.VERSION_CODES.LOLLIPOP;
+        // Android starts every connection with the balanced priority unless it is requested while bringing up the connection
+        this.initialPriority = connectionSetup.connectionPriority != ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED
+                ? connectionSetup.connectionPriority
+                : BluetoothGatt.CONNECTION_PRIORITY_BALANCED;
+    }
+
+    @Override
+    public void onConnectionSubscribed() {
+        if (governorSetup == null) {
+            return;
+        }
+        if (!isSupported) {
+            RxBleLog.w("Connection priority cannot be requested below Android 5.0 — the governor is disabled");
+            return;
+        }
+        currentPriority = initialPriority;
+        lastSampleTime = samplingScheduler.now();
+        lastGattEventsCount = rxBleGattCallback.getGattEventsCount();
+        lastBusyTime = lastSampleTime;
+        final long samplingIntervalMillis = governorSetup.samplingInterval.timeUnit.toMillis(governorSetup.samplingInterval.timeout);
+        samplingSubscription.set(
+                Observable.interval(samplingIntervalMillis, TimeUnit.MILLISECONDS, samplingScheduler).subscribe(this)
+        );
+    }
+
+    @Override
+    public void onConnectionUnsubscribed() {
+        samplingSubscription.unsubscribe();
+    }
+
+    @Override
+    public void call(Long tick) {
+        final long now = samplingScheduler.now();
+        final long gattEventsCount = rxBleGattCallback.getGattEventsCount();
+        final long elapsedMillis = Math.max(1, now - lastSampleTime);
+        final long gattEventsPerSecond = (gattEventsCount - lastGattEventsCount) * 1000 / elapsedMillis;
+        final int queuedOperationsCount = operationQueue.getQueuedOperationsCount();
+        lastSampleTime = now;
+        lastGattEventsCount = gattEventsCount;
+
+        if (isAtLeast(queuedOperationsCount, gattEventsPerSecond, 2)) {
+            lastBusyTime = now;
+        }
+        final long idleTimeoutMillis = governorSetup.idleTimeout.timeUnit.toMillis(governorSetup.idleTimeout.timeout);
+        final int targetPriority;
+        if (isAtLeast(queuedOperationsCount, gattEventsPerSecond, 1)) {
+            targetPriority = BluetoothGatt.CONNECTION_PRIORITY_HIGH;
+        } else if (now - lastBusyTime >= idleTimeoutMillis) {
+            targetPriority = governorSetup.idlePriority;
+        } else {
+            // any priority, the one the connection started with included, is kept until the connection stays quiet for the idle timeout
+            targetPriority = currentPriority;
+        }
+
+        if (targetPriority != currentPriority) {
+            final BluetoothGatt bluetoothGatt = bluetoothGattProvider.getBluetoothGatt();
+            if (bluetoothGatt == null) {
+                // not connected yet
+                return;
+            }
+            if (requestConnectionPriority(bluetoothGatt, targetPriority)) {
+                RxBleLog.d("Connection priority changed to %d (queued operations: %d, GATT events/s: %d)",
+                        targetPriority, queuedOperationsCount, gattEventsPerSecond);
+                currentPriority = targetPriority;
+            } else {
+                RxBleLog.w("Connection priority request (%d) could not be started", targetPriority);
+            }
+        }
+    }
+
+    /**
+     * Checks if any of the samples reaches its threshold divided by the passed divisor.
+     */
+    private boolean isAtLeast(int queuedOperationsCount, long gattEventsPerSecond, int thresholdDivisor) {
+        return queuedOperationsCount * thresholdDivisor >= governorSetup.queuedOperationsThreshold
+                || gattEventsPerSecond * thresholdDivisor >= governorSetup.gattEventsPerSecondThreshold;
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static boolean requestConnectionPriority(BluetoothGatt bluetoothGatt, int connectionPriority) {
+        return bluetoothGatt.requestConnectionPriority(connectionPriority);
+    }
+}
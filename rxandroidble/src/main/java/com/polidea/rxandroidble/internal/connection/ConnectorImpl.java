@@ -16,6 +16,7 @@ import rx.Observable;
 import rx.Scheduler;
 import rx.functions.Action0;
 import rx.functions.Func0;
+import rx.functions.Func1;
 
 public class ConnectorImpl implements Connector {
 
@@ -51,12 +52,20 @@ public class ConnectorImpl implements Connector {
                         return connectionComponent.rxBleConnection();
                     }
                 });
+                final Observable<RxBleConnection> readyConnectionObservable = !options.hasBringUpSteps()
+                        ? newConnectionObservable
+                        : newConnectionObservable.flatMap(new Func1<RxBleConnection, Observable<RxBleConnection>>() {
+                            @Override
+                            public Observable<RxBleConnection> call(RxBleConnection rxBleConnection) {
+                                return connectionComponent.connectionBringUp().bringUp(rxBleConnection);
+                            }
+                        });
                 final Observable<BluetoothGatt> connectedObservable = clientOperationQueue.queue(connectionComponent.connectOperation());
                 final Observable<RxBleConnection> disconnectedErrorObservable = connectionComponent.gattCallback().observeDisconnect();
                 final Set<ConnectionSubscriptionWatcher> connSubWatchers = connectionComponent.connectionSubscriptionWatchers();
 
                 return Observable.merge(
-                        newConnectionObservable.delaySubscription(connectedObservable),
+                        readyConnectionObservable.delaySubscription(connectedObservable),
                         disconnectedErrorObservable
                 )
                         .doOnSubscribe(new Action0() {
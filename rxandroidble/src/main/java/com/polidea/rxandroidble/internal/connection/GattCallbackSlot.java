@@ -0,0 +1,35 @@
+package com.polidea.rxandroidble.internal.connection;
+
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+
+import com.polidea.rxandroidble.exceptions.BleException;
+
+/**
+ * A GATT operation awaiting its callback. The connection queue runs a single GATT operation at a time so {@link RxBleGattCallback}
+ * holds at most one slot and passes the callbacks to it directly — without relays, filtering or allocating intermediate objects.
+ * <p>
+ * All the functions are called on the thread on which the Android Bluetooth stack calls the {@link android.bluetooth.BluetoothGattCallback}
+ * so the implementations should only capture the result and return quickly.
+ *
+ * @see RxBleGattCallback#setCallbackSlot(GattCallbackSlot)
+ */
+public interface GattCallbackSlot {
+
+    void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status);
+
+    void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status);
+
+    void onDescriptorRead(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status);
+
+    void onDescriptorWrite(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status);
+
+    /**
+     * Called when the connection was lost while the slot was set or if it had been lost before the slot was set.
+     *
+     * @param disconnectionException the reason of the disconnection
+     */
+    void onDisconnected(BleException disconnectionException);
+}
@@ -0,0 +1,32 @@
+package com.polidea.rxandroidble.internal.connection;
+
+
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.support.annotation.RestrictTo;
+
+/**
+ * Implemented by a {@link com.polidea.rxandroidble.RxBleConnection.WriteOperationAckStrategy} which adapts a long write to the measured
+ * behaviour of the link. The long write consults it before writing each batch and reports each acknowledged batch back.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface LongWriteBatchMonitor {
+
+    /**
+     * @param maxBatchSize the batch size limit of the long write (i.e. derived from the MTU)
+     * @return the size of the next batch — not bigger than the passed limit
+     */
+    int getBatchSize(int maxBatchSize);
+
+    /**
+     * @param characteristic the written characteristic
+     * @return the write type of the next batch — one of BluetoothGattCharacteristic.WRITE_TYPE_*
+     */
+    int getWriteType(BluetoothGattCharacteristic characteristic);
+
+    /**
+     * @param batchSize         the size of the acknowledged batch
+     * @param writeType         the write type of the acknowledged batch
+     * @param latencyNanos      time between starting the write of the batch and its acknowledgement
+     */
+    void onBatchAcknowledged(int batchSize, int writeType, long latencyNanos);
+}
@@ -7,7 +7,11 @@ import com.polidea.rxandroidble.RxBleConnection;
 import com.polidea.rxandroidble.internal.operations.OperationsProvider;
 
 import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue;
+import com.polidea.rxandroidble.internal.util.FileChannelUtil;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 import bleshadow.javax.inject.Inject;
 
@@ -19,29 +23,55 @@ public final class LongWriteOperationBuilderImpl implements RxBleConnection.Long
     private final ConnectionOperationQueue operationQueue;
     private final RxBleConnection rxBleConnection;
     private final OperationsProvider operationsProvider;
+    private final CharacteristicReadCoalescer characteristicReadCoalescer;
+    private final ServiceDiscoveryManager serviceDiscoveryManager;
 
     private Observable<BluetoothGattCharacteristic> writtenCharacteristicObservable;
     private PayloadSizeLimitProvider maxBatchSizeProvider;
     private RxBleConnection.WriteOperationAckStrategy writeOperationAckStrategy = new ImmediateSerializedBatchAckStrategy();
 
     private byte[] bytes;
+    private ByteBuffer byteBuffer;
+    private FileChannel fileChannel;
 
     @Inject
     LongWriteOperationBuilderImpl(
             ConnectionOperationQueue operationQueue,
             MtuBasedPayloadSizeLimit defaultMaxBatchSizeProvider,
             RxBleConnection rxBleConnection,
-            OperationsProvider operationsProvider
+            OperationsProvider operationsProvider,
+            CharacteristicReadCoalescer characteristicReadCoalescer,
+            ServiceDiscoveryManager serviceDiscoveryManager
     ) {
         this.operationQueue = operationQueue;
         this.maxBatchSizeProvider = defaultMaxBatchSizeProvider;
         this.rxBleConnection = rxBleConnection;
         this.operationsProvider = operationsProvider;
+        this.characteristicReadCoalescer = characteristicReadCoalescer;
+        this.serviceDiscoveryManager = serviceDiscoveryManager;
     }
 
     @Override
     public RxBleConnection.LongWriteOperationBuilder setBytes(@NonNull byte[] bytes) {
         this.bytes = bytes;
+        this.byteBuffer = null;
+        this.fileChannel = null;
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setByteBuffer(@NonNull ByteBuffer byteBuffer) {
+        this.byteBuffer = byteBuffer;
+        this.bytes = null;
+        this.fileChannel = null;
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setFileChannel(@NonNull FileChannel fileChannel) {
+        this.fileChannel = fileChannel;
+        this.bytes = null;
+        this.byteBuffer = null;
         return this;
     }
 
@@ -53,7 +83,7 @@ public final class LongWriteOperationBuilderImpl implements RxBleConnection.Long
 
     @Override
     public RxBleConnection.LongWriteOperationBuilder setCharacteristic(@NonNull BluetoothGattCharacteristic bluetoothGattCharacteristic) {
-        this.writtenCharacteristicObservable = Observable.just(bluetoothGattCharacteristic);
+        this.writtenCharacteristicObservable = serviceDiscoveryManager.attach(bluetoothGattCharacteristic);
         return this;
     }
 
@@ -76,19 +106,51 @@ public final class LongWriteOperationBuilderImpl implements RxBleConnection.Long
             throw new IllegalArgumentException("setCharacteristicUuid() or setCharacteristic() needs to be called before build()");
         }
 
-        if (bytes == null) {
-            throw new IllegalArgumentException("setBytes() needs to be called before build()");
+        if (bytes == null && byteBuffer == null && fileChannel == null) {
+            throw new IllegalArgumentException("setBytes(), setByteBuffer() or setFileChannel() needs to be called before build()");
         }
 
         // TODO: [DS 24.05.2017] Think about a warning if specified maxBatchSize is greater than MTU
 
+        final byte[] bytes = this.bytes;
+        final Observable<ByteBuffer> byteBufferObservable;
+        if (bytes != null) {
+            byteBufferObservable = null;
+        } else if (byteBuffer != null) {
+            byteBufferObservable = Observable.just(byteBuffer.duplicate());
+        } else {
+            byteBufferObservable = mapRemainingContent(fileChannel);
+        }
+        final PayloadSizeLimitProvider maxBatchSizeProvider = this.maxBatchSizeProvider;
+        final RxBleConnection.WriteOperationAckStrategy writeOperationAckStrategy = this.writeOperationAckStrategy;
         return writtenCharacteristicObservable.flatMap(new Func1<BluetoothGattCharacteristic, Observable<byte[]>>() {
             @Override
-            public Observable<byte[]> call(BluetoothGattCharacteristic bluetoothGattCharacteristic) {
-                return operationQueue.queue(
-                        operationsProvider.provideLongWriteOperation(bluetoothGattCharacteristic,
-                                writeOperationAckStrategy, maxBatchSizeProvider, bytes)
-                );
+            public Observable<byte[]> call(final BluetoothGattCharacteristic bluetoothGattCharacteristic) {
+                characteristicReadCoalescer.invalidate(bluetoothGattCharacteristic);
+                if (bytes != null) {
+                    return operationQueue.queue(
+                            operationsProvider.provideLongWriteOperation(bluetoothGattCharacteristic,
+                                    writeOperationAckStrategy, maxBatchSizeProvider, bytes)
+                    );
+                }
+                return byteBufferObservable.flatMap(new Func1<ByteBuffer, Observable<byte[]>>() {
+                    @Override
+                    public Observable<byte[]> call(ByteBuffer byteBuffer) {
+                        return operationQueue.queue(
+                                operationsProvider.provideLongWriteOperation(bluetoothGattCharacteristic,
+                                        writeOperationAckStrategy, maxBatchSizeProvider, byteBuffer)
+                        );
+                    }
+                });
+            }
+        });
+    }
+
+    private static Observable<ByteBuffer> mapRemainingContent(final FileChannel fileChannel) {
+        return Observable.fromCallable(new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws Exception {
+                return FileChannelUtil.mapRemainingContent(fileChannel);
             }
         });
     }
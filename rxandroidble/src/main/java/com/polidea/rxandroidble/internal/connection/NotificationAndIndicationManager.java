@@ -10,7 +10,6 @@ import com.polidea.rxandroidble.NotificationSetupMode;
 import com.polidea.rxandroidble.exceptions.BleCannotSetCharacteristicNotificationException;
 import com.polidea.rxandroidble.exceptions.BleConflictingNotificationAlreadySetException;
 import com.polidea.rxandroidble.internal.util.ActiveCharacteristicNotification;
-import com.polidea.rxandroidble.internal.util.CharacteristicChangedEvent;
 import com.polidea.rxandroidble.internal.util.CharacteristicNotificationId;
 import com.polidea.rxandroidble.internal.util.ObservableUtil;
 import java.util.HashMap;
@@ -149,19 +148,7 @@ class NotificationAndIndicationManager {
     @NonNull
     private static Observable<byte[]> observeOnCharacteristicChangeCallbacks(RxBleGattCallback gattCallback,
                                                                              final CharacteristicNotificationId characteristicId) {
-        return gattCallback.getOnCharacteristicChanged()
-                .filter(new Func1<CharacteristicChangedEvent, Boolean>() {
-                    @Override
-                    public Boolean call(CharacteristicChangedEvent notificationIdWithData) {
-                        return notificationIdWithData.equals(characteristicId);
-                    }
-                })
-                .map(new Func1<CharacteristicChangedEvent, byte[]>() {
-                    @Override
-                    public byte[] call(CharacteristicChangedEvent notificationIdWithData) {
-                        return notificationIdWithData.data;
-                    }
-                });
+        return gattCallback.getOnCharacteristicChanged(characteristicId);
     }
 
     @NonNull
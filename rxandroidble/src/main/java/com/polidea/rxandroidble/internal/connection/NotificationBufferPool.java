@@ -0,0 +1,142 @@
+package com.polidea.rxandroidble.internal.connection;
+
+
+import com.polidea.rxandroidble.NotificationBuffer;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import bleshadow.javax.inject.Inject;
+
+/**
+ * A per-connection pool of buffers used to deliver notification values without allocating a new value holder for each notification.
+ * The backing memory is allocated once — on the first use — and is divided into equal slots, each big enough to hold the longest
+ * possible attribute value. If all the slots are in use (i.e. the consumer does not keep up or does not release the buffers) values are
+ * delivered in freshly allocated, non-pooled buffers.
+ */
+@ConnectionScope
+class NotificationBufferPool {
+
+    /**
+     * The maximum length of an attribute value as per the Bluetooth Core Specification.
+     */
+    static final int BUFFER_SIZE = 512;
+    static final int BUFFERS_COUNT = 32;
+
+    private final PooledNotificationBuffer[] freeBuffers = new PooledNotificationBuffer[BUFFERS_COUNT];
+    private int freeBuffersCount = 0;
+    private boolean isAllocated = false;
+    private boolean wasExhaustionLogged = false;
+
+    @Inject
+    NotificationBufferPool() {
+    }
+
+    /**
+     * Copies the value into a free buffer of the pool.
+     *
+     * @param value the value of the notification
+     * @return the buffer holding a copy of the value
+     */
+    NotificationBuffer obtain(byte[] value) {
+        if (value.length <= BUFFER_SIZE) {
+            final PooledNotificationBuffer pooledBuffer = pollFreeBuffer();
+            if (pooledBuffer != null) {
+                pooledBuffer.setValue(value);
+                return pooledBuffer;
+            }
+        }
+        return new UnpooledNotificationBuffer(value);
+    }
+
+    private synchronized PooledNotificationBuffer pollFreeBuffer() {
+        if (!isAllocated) {
+            allocate();
+        }
+        if (freeBuffersCount == 0) {
+            if (!wasExhaustionLogged) {
+                wasExhaustionLogged = true;
+                RxBleLog.w("All %d pooled notification buffers are in use. Make sure that NotificationBuffer.release() is called.",
+                        BUFFERS_COUNT);
+            }
+            return null;
+        }
+        final PooledNotificationBuffer buffer = freeBuffers[--freeBuffersCount];
+        freeBuffers[freeBuffersCount] = null;
+        buffer.isReleased = false;
+        return buffer;
+    }
+
+    private synchronized void returnBuffer(PooledNotificationBuffer buffer) {
+        if (buffer.isReleased) {
+            throw new IllegalStateException("The NotificationBuffer was already released");
+        }
+        buffer.isReleased = true;
+        freeBuffers[freeBuffersCount++] = buffer;
+    }
+
+    private void allocate() {
+        final ByteBuffer arena = ByteBuffer.allocate(BUFFER_SIZE * BUFFERS_COUNT);
+        for (int i = 0; i < BUFFERS_COUNT; i++) {
+            arena.limit((i + 1) * BUFFER_SIZE);
+            arena.position(i * BUFFER_SIZE);
+            freeBuffers[i] = new PooledNotificationBuffer(this, arena.slice());
+        }
+        freeBuffersCount = BUFFERS_COUNT;
+        isAllocated = true;
+    }
+
+    private static class PooledNotificationBuffer implements NotificationBuffer {
+
+        private final NotificationBufferPool pool;
+        private final ByteBuffer slot;
+        private final ByteBuffer readOnlyView;
+        // guarded by the pool
+        boolean isReleased = true;
+
+        PooledNotificationBuffer(NotificationBufferPool pool, ByteBuffer slot) {
+            this.pool = pool;
+            this.slot = slot;
+            this.readOnlyView = slot.asReadOnlyBuffer();
+        }
+
+        void setValue(byte[] value) {
+            slot.clear();
+            slot.put(value);
+            readOnlyView.clear();
+            readOnlyView.limit(value.length);
+        }
+
+        @Override
+        public ByteBuffer getValue() {
+            return readOnlyView;
+        }
+
+        @Override
+        public void release() {
+            pool.returnBuffer(this);
+        }
+    }
+
+    private static class UnpooledNotificationBuffer implements NotificationBuffer {
+
+        private final ByteBuffer value;
+        private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+        UnpooledNotificationBuffer(byte[] value) {
+            this.value = ByteBuffer.wrap(value).asReadOnlyBuffer();
+        }
+
+        @Override
+        public ByteBuffer getValue() {
+            return value;
+        }
+
+        @Override
+        public void release() {
+            // nothing to return to the pool but the contract is the same as of the pooled buffers
+            if (!isReleased.compareAndSet(false, true)) {
+                throw new IllegalStateException("The NotificationBuffer was already released");
+            }
+        }
+    }
+}
@@ -9,10 +9,12 @@ import android.support.annotation.NonNull;
 import android.support.annotation.RequiresApi;
 
 import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.NotificationBuffer;
 import com.polidea.rxandroidble.NotificationSetupMode;
 import com.polidea.rxandroidble.RxBleConnection;
 import com.polidea.rxandroidble.RxBleCustomOperation;
 import com.polidea.rxandroidble.RxBleDeviceServices;
+import com.polidea.rxandroidble.exceptions.BleCharacteristicNotFoundException;
 import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
 import com.polidea.rxandroidble.exceptions.BleException;
 import com.polidea.rxandroidble.internal.QueueOperation;
@@ -51,12 +53,16 @@ public class RxBleConnectionImpl implements RxBleConnection {
     private final BluetoothGatt bluetoothGatt;
     private final OperationsProvider operationsProvider;
     private final Provider<LongWriteOperationBuilder> longWriteOperationBuilderProvider;
+    private final Provider<StreamingWriteOperationBuilder> streamingWriteOperationBuilderProvider;
+    private final Provider<TransactionBuilder> transactionBuilderProvider;
     private final Scheduler callbackScheduler;
     private final ServiceDiscoveryManager serviceDiscoveryManager;
     private final NotificationAndIndicationManager notificationIndicationManager;
     private final MtuProvider mtuProvider;
     private final DescriptorWriter descriptorWriter;
     private final IllegalOperationChecker illegalOperationChecker;
+    private final NotificationBufferPool notificationBufferPool;
+    private final CharacteristicReadCoalescer characteristicReadCoalescer;
 
     @Inject
     public RxBleConnectionImpl(
@@ -69,8 +75,12 @@ public class RxBleConnectionImpl implements RxBleConnection {
             DescriptorWriter descriptorWriter,
             OperationsProvider operationProvider,
             Provider<LongWriteOperationBuilder> longWriteOperationBuilderProvider,
+            Provider<StreamingWriteOperationBuilder> streamingWriteOperationBuilderProvider,
+            Provider<TransactionBuilder> transactionBuilderProvider,
             @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler callbackScheduler,
-            IllegalOperationChecker illegalOperationChecker
+            IllegalOperationChecker illegalOperationChecker,
+            NotificationBufferPool notificationBufferPool,
+            CharacteristicReadCoalescer characteristicReadCoalescer
     ) {
         this.operationQueue = operationQueue;
         this.gattCallback = gattCallback;
@@ -81,8 +91,12 @@ public class RxBleConnectionImpl implements RxBleConnection {
         this.descriptorWriter = descriptorWriter;
         this.operationsProvider = operationProvider;
         this.longWriteOperationBuilderProvider = longWriteOperationBuilderProvider;
+        this.streamingWriteOperationBuilderProvider = streamingWriteOperationBuilderProvider;
+        this.transactionBuilderProvider = transactionBuilderProvider;
         this.callbackScheduler = callbackScheduler;
         this.illegalOperationChecker = illegalOperationChecker;
+        this.notificationBufferPool = notificationBufferPool;
+        this.characteristicReadCoalescer = characteristicReadCoalescer;
     }
 
     @Override
@@ -90,6 +104,16 @@ public class RxBleConnectionImpl implements RxBleConnection {
         return longWriteOperationBuilderProvider.get();
     }
 
+    @Override
+    public StreamingWriteOperationBuilder createNewStreamingWriteBuilder() {
+        return streamingWriteOperationBuilderProvider.get();
+    }
+
+    @Override
+    public TransactionBuilder transaction() {
+        return transactionBuilderProvider.get();
+    }
+
     @Override
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
     public Completable requestConnectionPriority(int connectionPriority, long delay, @NonNull TimeUnit timeUnit) {
@@ -126,21 +150,26 @@ public class RxBleConnectionImpl implements RxBleConnection {
 
     @Override
     public Observable<RxBleDeviceServices> discoverServices() {
-        return serviceDiscoveryManager.getDiscoverServicesObservable(20L, TimeUnit.SECONDS);
+        return serviceDiscoveryManager.getCachedOrDiscoverServicesObservable(20L, TimeUnit.SECONDS);
     }
 
     @Override
     public Observable<RxBleDeviceServices> discoverServices(long timeout, @NonNull TimeUnit timeUnit) {
-        return serviceDiscoveryManager.getDiscoverServicesObservable(timeout, timeUnit);
+        return serviceDiscoveryManager.getCachedOrDiscoverServicesObservable(timeout, timeUnit);
     }
 
     @Override
     public Observable<BluetoothGattCharacteristic> getCharacteristic(@NonNull final UUID characteristicUuid) {
-        return discoverServices()
-                .flatMap(new Func1<RxBleDeviceServices, Observable<? extends BluetoothGattCharacteristic>>() {
+        // the operations need the attributes of this connection's discovery — not the persisted ones
+        return discoverAttachedServices()
+                .map(new Func1<RxBleDeviceServices, BluetoothGattCharacteristic>() {
                     @Override
-                    public Observable<? extends BluetoothGattCharacteristic> call(RxBleDeviceServices rxBleDeviceServices) {
-                        return rxBleDeviceServices.getCharacteristic(characteristicUuid);
+                    public BluetoothGattCharacteristic call(RxBleDeviceServices rxBleDeviceServices) {
+                        final BluetoothGattCharacteristic characteristic = rxBleDeviceServices.findCharacteristic(characteristicUuid);
+                        if (characteristic == null) {
+                            throw new BleCharacteristicNotFoundException(characteristicUuid);
+                        }
+                        return characteristic;
                     }
                 });
     }
@@ -169,11 +198,49 @@ public class RxBleConnectionImpl implements RxBleConnection {
 
     @Override
     public Observable<Observable<byte[]>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
-                                                            @NonNull NotificationSetupMode setupMode) {
+                                                            @NonNull final NotificationSetupMode setupMode) {
+        if (serviceDiscoveryManager.isDetached(characteristic)) {
+            return serviceDiscoveryManager.attach(characteristic)
+                    .flatMap(new Func1<BluetoothGattCharacteristic, Observable<? extends Observable<byte[]>>>() {
+                        @Override
+                        public Observable<? extends Observable<byte[]>> call(BluetoothGattCharacteristic characteristic) {
+                            return setupNotification(characteristic, setupMode);
+                        }
+                    });
+        }
         return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_NOTIFY)
                 .andThen(notificationIndicationManager.setupServerInitiatedCharacteristicRead(characteristic, setupMode, false));
     }
 
+    @Override
+    public Observable<Observable<NotificationBuffer>> setupPooledNotification(@NonNull UUID characteristicUuid,
+                                                                              @NonNull final NotificationSetupMode setupMode) {
+        return getCharacteristic(characteristicUuid)
+                .flatMap(new Func1<BluetoothGattCharacteristic, Observable<? extends Observable<NotificationBuffer>>>() {
+                    @Override
+                    public Observable<? extends Observable<NotificationBuffer>> call(BluetoothGattCharacteristic characteristic) {
+                        return setupPooledNotification(characteristic, setupMode);
+                    }
+                });
+    }
+
+    @Override
+    public Observable<Observable<NotificationBuffer>> setupPooledNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                              @NonNull NotificationSetupMode setupMode) {
+        return setupNotification(characteristic, setupMode)
+                .map(new Func1<Observable<byte[]>, Observable<NotificationBuffer>>() {
+                    @Override
+                    public Observable<NotificationBuffer> call(Observable<byte[]> notificationObservable) {
+                        return notificationObservable.map(new Func1<byte[], NotificationBuffer>() {
+                            @Override
+                            public NotificationBuffer call(byte[] value) {
+                                return notificationBufferPool.obtain(value);
+                            }
+                        });
+                    }
+                });
+    }
+
     @Override
     public Observable<Observable<byte[]>> setupIndication(@NonNull UUID characteristicUuid) {
         return setupIndication(characteristicUuid, NotificationSetupMode.DEFAULT);
@@ -198,7 +265,16 @@ public class RxBleConnectionImpl implements RxBleConnection {
 
     @Override
     public Observable<Observable<byte[]>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
-                                                          @NonNull NotificationSetupMode setupMode) {
+                                                          @NonNull final NotificationSetupMode setupMode) {
+        if (serviceDiscoveryManager.isDetached(characteristic)) {
+            return serviceDiscoveryManager.attach(characteristic)
+                    .flatMap(new Func1<BluetoothGattCharacteristic, Observable<? extends Observable<byte[]>>>() {
+                        @Override
+                        public Observable<? extends Observable<byte[]>> call(BluetoothGattCharacteristic characteristic) {
+                            return setupIndication(characteristic, setupMode);
+                        }
+                    });
+        }
         return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_INDICATE)
                 .andThen(notificationIndicationManager.setupServerInitiatedCharacteristicRead(characteristic, setupMode, true));
     }
@@ -216,8 +292,17 @@ public class RxBleConnectionImpl implements RxBleConnection {
 
     @Override
     public Observable<byte[]> readCharacteristic(@NonNull BluetoothGattCharacteristic characteristic) {
+        if (serviceDiscoveryManager.isDetached(characteristic)) {
+            return serviceDiscoveryManager.attach(characteristic)
+                    .flatMap(new Func1<BluetoothGattCharacteristic, Observable<? extends byte[]>>() {
+                        @Override
+                        public Observable<? extends byte[]> call(BluetoothGattCharacteristic characteristic) {
+                            return readCharacteristic(characteristic);
+                        }
+                    });
+        }
         return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_READ)
-                .andThen(operationQueue.queue(operationsProvider.provideReadCharacteristic(characteristic)));
+                .andThen(characteristicReadCoalescer.readCharacteristic(characteristic));
     }
 
     @Override
@@ -246,17 +331,32 @@ public class RxBleConnectionImpl implements RxBleConnection {
     }
 
     @Override
-    public Observable<byte[]> writeCharacteristic(@NonNull BluetoothGattCharacteristic characteristic, @NonNull byte[] data) {
+    public Observable<byte[]> writeCharacteristic(@NonNull final BluetoothGattCharacteristic characteristic, @NonNull final byte[] data) {
+        if (serviceDiscoveryManager.isDetached(characteristic)) {
+            return serviceDiscoveryManager.attach(characteristic)
+                    .flatMap(new Func1<BluetoothGattCharacteristic, Observable<? extends byte[]>>() {
+                        @Override
+                        public Observable<? extends byte[]> call(BluetoothGattCharacteristic characteristic) {
+                            return writeCharacteristic(characteristic, data);
+                        }
+                    });
+        }
         return illegalOperationChecker.checkAnyPropertyMatches(
                 characteristic,
                 PROPERTY_WRITE | PROPERTY_WRITE_NO_RESPONSE | PROPERTY_SIGNED_WRITE
-        ).andThen(operationQueue.queue(operationsProvider.provideWriteCharacteristic(characteristic, data)));
+        ).andThen(operationQueue.queue(operationsProvider.provideWriteCharacteristic(characteristic, data))
+                .doOnSubscribe(new Action0() {
+                    @Override
+                    public void call() {
+                        characteristicReadCoalescer.invalidate(characteristic);
+                    }
+                }));
     }
 
     @Override
     public Observable<byte[]> readDescriptor(@NonNull final UUID serviceUuid, @NonNull final UUID characteristicUuid,
                                              @NonNull final UUID descriptorUuid) {
-        return discoverServices()
+        return discoverAttachedServices()
                 .flatMap(new Func1<RxBleDeviceServices, Observable<BluetoothGattDescriptor>>() {
                     @Override
                     public Observable<BluetoothGattDescriptor> call(RxBleDeviceServices rxBleDeviceServices) {
@@ -273,6 +373,15 @@ public class RxBleConnectionImpl implements RxBleConnection {
 
     @Override
     public Observable<byte[]> readDescriptor(@NonNull BluetoothGattDescriptor descriptor) {
+        if (serviceDiscoveryManager.isDetached(descriptor)) {
+            return serviceDiscoveryManager.attach(descriptor)
+                    .flatMap(new Func1<BluetoothGattDescriptor, Observable<byte[]>>() {
+                        @Override
+                        public Observable<byte[]> call(BluetoothGattDescriptor descriptor) {
+                            return readDescriptor(descriptor);
+                        }
+                    });
+        }
         return operationQueue
                 .queue(operationsProvider.provideReadDescriptor(descriptor))
                 .map(new Func1<ByteAssociation<BluetoothGattDescriptor>, byte[]>() {
@@ -288,7 +397,7 @@ public class RxBleConnectionImpl implements RxBleConnection {
             @NonNull final UUID serviceUuid, @NonNull final UUID characteristicUuid, @NonNull final UUID descriptorUuid,
             @NonNull final byte[] data
     ) {
-        return discoverServices()
+        return discoverAttachedServices()
                 .flatMap(new Func1<RxBleDeviceServices, Observable<BluetoothGattDescriptor>>() {
                     @Override
                     public Observable<BluetoothGattDescriptor> call(RxBleDeviceServices rxBleDeviceServices) {
@@ -304,10 +413,23 @@ public class RxBleConnectionImpl implements RxBleConnection {
     }
 
     @Override
-    public Observable<byte[]> writeDescriptor(@NonNull BluetoothGattDescriptor bluetoothGattDescriptor, @NonNull byte[] data) {
+    public Observable<byte[]> writeDescriptor(@NonNull BluetoothGattDescriptor bluetoothGattDescriptor, @NonNull final byte[] data) {
+        if (serviceDiscoveryManager.isDetached(bluetoothGattDescriptor)) {
+            return serviceDiscoveryManager.attach(bluetoothGattDescriptor)
+                    .flatMap(new Func1<BluetoothGattDescriptor, Observable<byte[]>>() {
+                        @Override
+                        public Observable<byte[]> call(BluetoothGattDescriptor descriptor) {
+                            return writeDescriptor(descriptor, data);
+                        }
+                    });
+        }
         return descriptorWriter.writeDescriptor(bluetoothGattDescriptor, data);
     }
 
+    private Observable<RxBleDeviceServices> discoverAttachedServices() {
+        return serviceDiscoveryManager.getDiscoverServicesObservable(20L, TimeUnit.SECONDS);
+    }
+
     @Override
     public Observable<Integer> readRssi() {
         return operationQueue.queue(operationsProvider.provideRssiReadOperation());
@@ -356,6 +478,13 @@ public class RxBleConnectionImpl implements RxBleConnection {
             protected BleException provideException(DeadObjectException deadObjectException) {
                 return new BleDisconnectedException(deadObjectException, bluetoothGatt.getDevice().getAddress());
             }
-        });
+        })
+                .doOnSubscribe(new Action0() {
+                    @Override
+                    public void call() {
+                        // a custom operation may write any characteristic
+                        characteristicReadCoalescer.invalidateAll();
+                    }
+                });
     }
 }
@@ -11,6 +11,7 @@ import com.polidea.rxandroidble.ClientComponent;
 import com.polidea.rxandroidble.RxBleConnection.RxBleConnectionState;
 import com.polidea.rxandroidble.RxBleDeviceServices;
 import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble.exceptions.BleException;
 import com.polidea.rxandroidble.exceptions.BleGattCharacteristicException;
 import com.polidea.rxandroidble.exceptions.BleGattDescriptorException;
 import com.polidea.rxandroidble.exceptions.BleGattException;
@@ -18,14 +19,24 @@ import com.polidea.rxandroidble.exceptions.BleGattOperationType;
 import com.polidea.rxandroidble.internal.RxBleLog;
 import com.polidea.rxandroidble.internal.util.ByteAssociation;
 import com.polidea.rxandroidble.internal.util.CharacteristicChangedEvent;
+import com.polidea.rxandroidble.internal.util.CharacteristicNotificationId;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 
 import rx.Observable;
 import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
 @ConnectionScope
@@ -41,10 +52,21 @@ public class RxBleGattCallback {
     private final Output<ByteAssociation<UUID>> writeCharacteristicOutput = new Output<>();
     private final SerializedRelay<CharacteristicChangedEvent, CharacteristicChangedEvent>
             changedCharacteristicSerializedPublishRelay = PublishRelay.<CharacteristicChangedEvent>create().toSerialized();
+    /**
+     * Routing table of {@link BluetoothGattCallback#onCharacteristicChanged(BluetoothGatt, BluetoothGattCharacteristic)} — each changed
+     * value is delivered only to the observers of its own characteristic. The routes of a UUID are kept in an array which is replaced
+     * on every modification so a changed value is routed without allocating. Modified only while holding a lock on itself.
+     */
+    private final Map<UUID, CharacteristicChangedRoute[]> characteristicChangedRoutes = new ConcurrentHashMap<>();
     private final Output<ByteAssociation<BluetoothGattDescriptor>> readDescriptorOutput = new Output<>();
     private final Output<ByteAssociation<BluetoothGattDescriptor>> writeDescriptorOutput = new Output<>();
     private final Output<Integer> readRssiOutput = new Output<>();
     private final Output<Integer> changedMtuOutput = new Output<>();
+    private final AtomicReference<GattCallbackSlot> callbackSlot = new AtomicReference<>();
+    /**
+     * Number of characteristic and descriptor reads, writes and changes reported so far — used to estimate the GATT traffic.
+     */
+    private final AtomicLong gattEventsCount = new AtomicLong();
     private final Func1<BleGattException, Observable<?>> errorMapper = new Func1<BleGattException, Observable<?>>() {
         @Override
         public Observable<?> call(BleGattException bleGattException) {
@@ -104,6 +126,12 @@ public class RxBleGattCallback {
             RxBleLog.d("onCharacteristicRead characteristic=%s status=%d", characteristic.getUuid(), status);
             nativeCallbackDispatcher.notifyNativeReadCallback(gatt, characteristic, status);
             super.onCharacteristicRead(gatt, characteristic, status);
+            gattEventsCount.incrementAndGet();
+
+            final GattCallbackSlot slot = callbackSlot.get();
+            if (slot != null) {
+                slot.onCharacteristicRead(gatt, characteristic, status);
+            }
 
             if (readCharacteristicOutput.hasObservers() && !propagateErrorIfOccurred(
                     readCharacteristicOutput, gatt, characteristic, status, BleGattOperationType.CHARACTERISTIC_READ
@@ -117,6 +145,12 @@ public class RxBleGattCallback {
             RxBleLog.d("onCharacteristicWrite characteristic=%s status=%d", characteristic.getUuid(), status);
             nativeCallbackDispatcher.notifyNativeWriteCallback(gatt, characteristic, status);
             super.onCharacteristicWrite(gatt, characteristic, status);
+            gattEventsCount.incrementAndGet();
+
+            final GattCallbackSlot slot = callbackSlot.get();
+            if (slot != null) {
+                slot.onCharacteristicWrite(gatt, characteristic, status);
+            }
 
             if (writeCharacteristicOutput.hasObservers() && !propagateErrorIfOccurred(
                     writeCharacteristicOutput, gatt, characteristic, status, BleGattOperationType.CHARACTERISTIC_WRITE
@@ -130,12 +164,25 @@ public class RxBleGattCallback {
             RxBleLog.d("onCharacteristicChanged characteristic=%s", characteristic.getUuid());
             nativeCallbackDispatcher.notifyNativeChangedCallback(gatt, characteristic);
             super.onCharacteristicChanged(gatt, characteristic);
+            gattEventsCount.incrementAndGet();
 
             /*
              * It is important to call changedCharacteristicSerializedPublishRelay as soon as possible because a quick changing
              * characteristic could lead to out-of-order execution since onCharacteristicChanged may be called on arbitrary
              * threads.
              */
+            if (!characteristicChangedRoutes.isEmpty()) {
+                final CharacteristicChangedRoute[] routes = characteristicChangedRoutes.get(characteristic.getUuid());
+                if (routes != null) {
+                    final int instanceId = characteristic.getInstanceId();
+                    for (CharacteristicChangedRoute route : routes) {
+                        if (route.instanceId == instanceId) {
+                            route.valueRelay.call(characteristic.getValue());
+                            break;
+                        }
+                    }
+                }
+            }
             if (changedCharacteristicSerializedPublishRelay.hasObservers()) {
                 changedCharacteristicSerializedPublishRelay.call(
                         new CharacteristicChangedEvent(
@@ -152,6 +199,12 @@ public class RxBleGattCallback {
             RxBleLog.d("onCharacteristicRead descriptor=%s status=%d", descriptor.getUuid(), status);
             nativeCallbackDispatcher.notifyNativeDescriptorReadCallback(gatt, descriptor, status);
             super.onDescriptorRead(gatt, descriptor, status);
+            gattEventsCount.incrementAndGet();
+
+            final GattCallbackSlot slot = callbackSlot.get();
+            if (slot != null) {
+                slot.onDescriptorRead(gatt, descriptor, status);
+            }
 
             if (readDescriptorOutput.hasObservers()
                     && !propagateErrorIfOccurred(readDescriptorOutput, gatt, descriptor, status, BleGattOperationType.DESCRIPTOR_READ)) {
@@ -164,6 +217,12 @@ public class RxBleGattCallback {
             RxBleLog.d("onDescriptorWrite descriptor=%s status=%d", descriptor.getUuid(), status);
             nativeCallbackDispatcher.notifyNativeDescriptorWriteCallback(gatt, descriptor, status);
             super.onDescriptorWrite(gatt, descriptor, status);
+            gattEventsCount.incrementAndGet();
+
+            final GattCallbackSlot slot = callbackSlot.get();
+            if (slot != null) {
+                slot.onDescriptorWrite(gatt, descriptor, status);
+            }
 
             if (writeDescriptorOutput.hasObservers()
                     && !propagateErrorIfOccurred(writeDescriptorOutput, gatt, descriptor, status, BleGattOperationType.DESCRIPTOR_WRITE)) {
@@ -307,6 +366,16 @@ public class RxBleGattCallback {
         return withDisconnectionHandling(writeCharacteristicOutput).observeOn(callbackScheduler);
     }
 
+    /**
+     * Returns the number of characteristic and descriptor reads, writes and changes (notifications and indications) reported by
+     * Android since the connection was set up. The difference between two calls describes the GATT traffic in between.
+     *
+     * @return the number of the reported GATT events
+     */
+    public long getGattEventsCount() {
+        return gattEventsCount.get();
+    }
+
     public Observable<CharacteristicChangedEvent> getOnCharacteristicChanged() {
         //noinspection unchecked
         return Observable.merge(
@@ -316,6 +385,86 @@ public class RxBleGattCallback {
                 .observeOn(callbackScheduler);
     }
 
+    /**
+     * Returns values of a single characteristic changes. Contrary to {@link #getOnCharacteristicChanged()} the values are routed to
+     * the returned Observable by a lookup of the characteristic UUID and instance ID so the cost of delivering a change does not depend
+     * on the number of characteristics that are observed at the same time.
+     *
+     * @param characteristicId the UUID and instance ID of the observed characteristic
+     * @return Observable emitting values of the changes of the characteristic
+     */
+    public Observable<byte[]> getOnCharacteristicChanged(final CharacteristicNotificationId characteristicId) {
+        return Observable.defer(new Func0<Observable<byte[]>>() {
+            @Override
+            public Observable<byte[]> call() {
+                final CharacteristicChangedRoute route = acquireCharacteristicChangedRoute(characteristicId);
+                //noinspection unchecked
+                return Observable.merge(
+                        disconnectionRouter.<byte[]>asErrorOnlyObservable(),
+                        route.valueRelay
+                )
+                        .doOnUnsubscribe(new Action0() {
+                            @Override
+                            public void call() {
+                                releaseCharacteristicChangedRoute(characteristicId, route);
+                            }
+                        });
+            }
+        })
+                .observeOn(callbackScheduler);
+    }
+
+    private CharacteristicChangedRoute acquireCharacteristicChangedRoute(CharacteristicNotificationId characteristicId) {
+        synchronized (characteristicChangedRoutes) {
+            final UUID uuid = characteristicId.first;
+            final int instanceId = characteristicId.second;
+            final CharacteristicChangedRoute[] routes = characteristicChangedRoutes.get(uuid);
+            if (routes == null) {
+                final CharacteristicChangedRoute route = new CharacteristicChangedRoute(instanceId);
+                characteristicChangedRoutes.put(uuid, new CharacteristicChangedRoute[]{route});
+                route.observersCount++;
+                return route;
+            }
+            for (CharacteristicChangedRoute route : routes) {
+                if (route.instanceId == instanceId) {
+                    route.observersCount++;
+                    return route;
+                }
+            }
+            final CharacteristicChangedRoute route = new CharacteristicChangedRoute(instanceId);
+            final CharacteristicChangedRoute[] newRoutes = Arrays.copyOf(routes, routes.length + 1);
+            newRoutes[routes.length] = route;
+            characteristicChangedRoutes.put(uuid, newRoutes);
+            route.observersCount++;
+            return route;
+        }
+    }
+
+    private void releaseCharacteristicChangedRoute(CharacteristicNotificationId characteristicId, CharacteristicChangedRoute route) {
+        synchronized (characteristicChangedRoutes) {
+            if (--route.observersCount > 0) {
+                return;
+            }
+            final UUID uuid = characteristicId.first;
+            final CharacteristicChangedRoute[] routes = characteristicChangedRoutes.get(uuid);
+            if (routes == null) {
+                return;
+            }
+            if (routes.length == 1) {
+                characteristicChangedRoutes.remove(uuid);
+                return;
+            }
+            final CharacteristicChangedRoute[] newRoutes = new CharacteristicChangedRoute[routes.length - 1];
+            int index = 0;
+            for (CharacteristicChangedRoute otherRoute : routes) {
+                if (otherRoute != route) {
+                    newRoutes[index++] = otherRoute;
+                }
+            }
+            characteristicChangedRoutes.put(uuid, newRoutes);
+        }
+    }
+
     public Observable<ByteAssociation<BluetoothGattDescriptor>> getOnDescriptorRead() {
         return withDisconnectionHandling(readDescriptorOutput).observeOn(callbackScheduler);
     }
@@ -328,6 +477,33 @@ public class RxBleGattCallback {
         return withDisconnectionHandling(readRssiOutput).observeOn(callbackScheduler);
     }
 
+    /**
+     * Sets the slot of the GATT operation that is about to start. The read, write and disconnection callbacks are passed to the slot
+     * directly until {@link #clearCallbackSlot(GattCallbackSlot)} is called. If the connection has already been lost
+     * {@link GattCallbackSlot#onDisconnected(BleException)} is called immediately.
+     *
+     * @param slot the slot of the starting operation
+     * @return the subscription passing the disconnection to the slot — it should be unsubscribed once the operation has finished
+     */
+    public Subscription setCallbackSlot(final GattCallbackSlot slot) {
+        callbackSlot.set(slot);
+        return disconnectionRouter.asValueOnlyObservable().subscribe(new Action1<BleException>() {
+            @Override
+            public void call(BleException bleException) {
+                slot.onDisconnected(bleException);
+            }
+        });
+    }
+
+    /**
+     * Clears the slot set by {@link #setCallbackSlot(GattCallbackSlot)} unless another slot was set in the meantime.
+     *
+     * @param slot the slot of the finished operation
+     */
+    public void clearCallbackSlot(GattCallbackSlot slot) {
+        callbackSlot.compareAndSet(slot, null);
+    }
+
     /**
      * A native callback allows to omit RxJava's abstraction on the {@link BluetoothGattCallback}.
      * It's intended to be used only with a {@link com.polidea.rxandroidble.RxBleCustomOperation} in a performance
@@ -341,6 +517,17 @@ public class RxBleGattCallback {
         nativeCallbackDispatcher.setNativeCallback(callback);
     }
 
+    private static class CharacteristicChangedRoute {
+
+        final int instanceId;
+        final SerializedRelay<byte[], byte[]> valueRelay = PublishRelay.<byte[]>create().toSerialized();
+        int observersCount = 0;
+
+        CharacteristicChangedRoute(int instanceId) {
+            this.instanceId = instanceId;
+        }
+    }
+
     private static class Output<T> {
 
         final PublishRelay<T> valueRelay;
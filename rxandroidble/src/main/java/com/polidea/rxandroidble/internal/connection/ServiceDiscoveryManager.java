@@ -2,9 +2,17 @@ package com.polidea.rxandroidble.internal.connection;
 
 
 import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
 import android.bluetooth.BluetoothGattService;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.polidea.rxandroidble.ClientComponent;
 import com.polidea.rxandroidble.RxBleDeviceServices;
+import com.polidea.rxandroidble.exceptions.BleCharacteristicNotFoundException;
+import com.polidea.rxandroidble.internal.DeviceModule;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import com.polidea.rxandroidble.internal.cache.GattSchemaCache;
 import com.polidea.rxandroidble.internal.operations.OperationsProvider;
 import com.polidea.rxandroidble.internal.operations.ServiceDiscoveryOperation;
 import com.polidea.rxandroidble.internal.operations.TimeoutConfiguration;
@@ -12,9 +20,12 @@ import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
 import rx.Observable;
+import rx.Scheduler;
 import rx.functions.Action0;
 import rx.functions.Action1;
+import rx.functions.Actions;
 import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.schedulers.Schedulers;
@@ -27,19 +38,144 @@ class ServiceDiscoveryManager {
     private final ConnectionOperationQueue operationQueue;
     private final BluetoothGatt bluetoothGatt;
     private final OperationsProvider operationProvider;
+    private final GattSchemaCache gattSchemaCache;
+    private final String macAddress;
+    private final Scheduler ioScheduler;
     private Observable<RxBleDeviceServices> deviceServicesObservable;
     private SerializedSubject<TimeoutConfiguration, TimeoutConfiguration> timeoutBehaviorSubject
             = BehaviorSubject.<TimeoutConfiguration>create().toSerialized();
     private boolean hasCachedResults = false;
+    private boolean isCachedSchemaLoaded = false;
+    // the schema persisted during a previous connection, its attributes are detached from the BluetoothGatt
+    @Nullable
+    private volatile GattSchemaCache.CachedGattSchema cachedSchema;
+    // the timeout of the discovery the persisted attributes are attached with — the one requested together with the persisted schema
+    private volatile TimeoutConfiguration attachDiscoveryTimeout;
 
     @Inject
-    ServiceDiscoveryManager(ConnectionOperationQueue operationQueue, BluetoothGatt bluetoothGatt, OperationsProvider operationProvider) {
+    ServiceDiscoveryManager(
+            ConnectionOperationQueue operationQueue,
+            BluetoothGatt bluetoothGatt,
+            OperationsProvider operationProvider,
+            GattSchemaCache gattSchemaCache,
+            @Named(DeviceModule.MAC_ADDRESS) String macAddress,
+            @Named(ClientComponent.NamedSchedulers.IO) Scheduler ioScheduler
+    ) {
         this.operationQueue = operationQueue;
         this.bluetoothGatt = bluetoothGatt;
         this.operationProvider = operationProvider;
+        this.gattSchemaCache = gattSchemaCache;
+        this.macAddress = macAddress;
+        this.ioScheduler = ioScheduler;
         reset();
     }
 
+    /**
+     * Returns the services persisted during a previous connection if the discovery of this connection has not finished yet and starts
+     * the discovery in the background. Otherwise behaves as {@link #getDiscoverServicesObservable(long, TimeUnit)}. Operations on
+     * the persisted attributes must be performed on the ones returned by {@link #attach(BluetoothGattCharacteristic)}. The persisted
+     * schema is loaded on the I/O scheduler.
+     */
+    Observable<RxBleDeviceServices> getCachedOrDiscoverServicesObservable(final long timeout, final TimeUnit timeoutTimeUnit) {
+        if (!gattSchemaCache.isEnabled()) {
+            return getDiscoverServicesObservable(timeout, timeoutTimeUnit);
+        }
+        attachDiscoveryTimeout = new TimeoutConfiguration(timeout, timeoutTimeUnit, Schedulers.computation());
+        return Observable.fromCallable(new Func0<GattSchemaCache.CachedGattSchema>() {
+            @Override
+            public GattSchemaCache.CachedGattSchema call() {
+                return loadCachedSchema();
+            }
+        })
+                // the schema file is read and parsed when loaded for the first time
+                .subscribeOn(ioScheduler)
+                .flatMap(new Func1<GattSchemaCache.CachedGattSchema, Observable<RxBleDeviceServices>>() {
+                    @Override
+                    public Observable<RxBleDeviceServices> call(@Nullable GattSchemaCache.CachedGattSchema loadedSchema) {
+                        if (loadedSchema == null || hasCachedResults) {
+                            return getDiscoverServicesObservable(timeout, timeoutTimeUnit);
+                        }
+                        // the discovery is queued right away so the operations on the persisted attributes do not have to wait for it long
+                        getDiscoverServicesObservable(timeout, timeoutTimeUnit).subscribe(Actions.empty(), new Action1<Throwable>() {
+                            @Override
+                            public void call(Throwable throwable) {
+                                RxBleLog.w(throwable, "Background service discovery failed");
+                            }
+                        });
+                        return Observable.just(loadedSchema.getDeviceServices());
+                    }
+                });
+    }
+
+    /**
+     * Returns the characteristic on which the GATT operations can be performed. A characteristic of the persisted schema is mapped to
+     * its counterpart from the discovery of this connection. Any other characteristic is returned as is.
+     */
+    Observable<BluetoothGattCharacteristic> attach(final BluetoothGattCharacteristic characteristic) {
+        final GattSchemaCache.CachedGattSchema loadedSchema = cachedSchema;
+        if (loadedSchema == null || !loadedSchema.contains(characteristic)) {
+            return Observable.just(characteristic);
+        }
+        return getAttachDiscoveryObservable()
+                .map(new Func1<RxBleDeviceServices, BluetoothGattCharacteristic>() {
+                    @Override
+                    public BluetoothGattCharacteristic call(RxBleDeviceServices rxBleDeviceServices) {
+                        final BluetoothGattCharacteristic discoveredCharacteristic =
+                                loadedSchema.attach(characteristic, rxBleDeviceServices.getBluetoothGattServices());
+                        if (discoveredCharacteristic == null) {
+                            throw new BleCharacteristicNotFoundException(characteristic.getUuid());
+                        }
+                        return discoveredCharacteristic;
+                    }
+                });
+    }
+
+    /**
+     * Returns the descriptor on which the GATT operations can be performed. See {@link #attach(BluetoothGattCharacteristic)}.
+     */
+    Observable<BluetoothGattDescriptor> attach(final BluetoothGattDescriptor descriptor) {
+        final GattSchemaCache.CachedGattSchema loadedSchema = cachedSchema;
+        if (loadedSchema == null || !loadedSchema.contains(descriptor)) {
+            return Observable.just(descriptor);
+        }
+        return getAttachDiscoveryObservable()
+                .map(new Func1<RxBleDeviceServices, BluetoothGattDescriptor>() {
+                    @Override
+                    public BluetoothGattDescriptor call(RxBleDeviceServices rxBleDeviceServices) {
+                        final BluetoothGattDescriptor discoveredDescriptor =
+                                loadedSchema.attach(descriptor, rxBleDeviceServices.getBluetoothGattServices());
+                        if (discoveredDescriptor == null) {
+                            throw new BleCharacteristicNotFoundException(descriptor.getCharacteristic().getUuid());
+                        }
+                        return discoveredDescriptor;
+                    }
+                });
+    }
+
+    boolean isDetached(BluetoothGattCharacteristic characteristic) {
+        final GattSchemaCache.CachedGattSchema loadedSchema = cachedSchema;
+        return loadedSchema != null && loadedSchema.contains(characteristic);
+    }
+
+    boolean isDetached(BluetoothGattDescriptor descriptor) {
+        final GattSchemaCache.CachedGattSchema loadedSchema = cachedSchema;
+        return loadedSchema != null && loadedSchema.contains(descriptor);
+    }
+
+    private Observable<RxBleDeviceServices> getAttachDiscoveryObservable() {
+        final TimeoutConfiguration timeoutConfiguration = attachDiscoveryTimeout;
+        return getDiscoverServicesObservable(timeoutConfiguration.timeout, timeoutConfiguration.timeoutTimeUnit);
+    }
+
+    @Nullable
+    private synchronized GattSchemaCache.CachedGattSchema loadCachedSchema() {
+        if (!isCachedSchemaLoaded) {
+            isCachedSchemaLoaded = true;
+            cachedSchema = gattSchemaCache.load(macAddress);
+        }
+        return cachedSchema;
+    }
+
     Observable<RxBleDeviceServices> getDiscoverServicesObservable(final long timeout, final TimeUnit timeoutTimeUnit) {
         if (hasCachedResults) {
             // optimisation to decrease the number of allocations
@@ -79,6 +215,7 @@ class ServiceDiscoveryManager {
                     @Override
                     public void call(RxBleDeviceServices rxBleDeviceServices) {
                         hasCachedResults = true;
+                        gattSchemaCache.store(macAddress, rxBleDeviceServices, cachedSchema);
                     }
                 })
                 .doOnError(new Action1<Throwable>() {
@@ -0,0 +1,189 @@
+package com.polidea.rxandroidble.internal.connection;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.support.annotation.NonNull;
+
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.RxBleConnection;
+import com.polidea.rxandroidble.StreamingWriteProgress;
+import com.polidea.rxandroidble.internal.operations.OperationsProvider;
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+
+import rx.Observable;
+import rx.Observer;
+import rx.Scheduler;
+import rx.functions.Action2;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.observables.SyncOnSubscribe;
+
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE;
+
+public final class StreamingWriteOperationBuilderImpl implements RxBleConnection.StreamingWriteOperationBuilder {
+
+    private final ConnectionOperationQueue operationQueue;
+    private final RxBleConnection rxBleConnection;
+    private final OperationsProvider operationsProvider;
+    private final CharacteristicReadCoalescer characteristicReadCoalescer;
+    private final ServiceDiscoveryManager serviceDiscoveryManager;
+    private final IllegalOperationChecker illegalOperationChecker;
+    private final Scheduler ioScheduler;
+
+    private Observable<BluetoothGattCharacteristic> writtenCharacteristicObservable;
+    private PayloadSizeLimitProvider maxPacketSizeProvider;
+    private int maxPacketsInFlight = DEFAULT_MAX_PACKETS_IN_FLIGHT;
+
+    private Observable<byte[]> packets;
+    private InputStream inputStream;
+
+    @Inject
+    StreamingWriteOperationBuilderImpl(
+            ConnectionOperationQueue operationQueue,
+            MtuBasedPayloadSizeLimit defaultMaxPacketSizeProvider,
+            RxBleConnection rxBleConnection,
+            OperationsProvider operationsProvider,
+            IllegalOperationChecker illegalOperationChecker,
+            CharacteristicReadCoalescer characteristicReadCoalescer,
+            ServiceDiscoveryManager serviceDiscoveryManager,
+            @Named(ClientComponent.NamedSchedulers.IO) Scheduler ioScheduler
+    ) {
+        this.operationQueue = operationQueue;
+        this.maxPacketSizeProvider = defaultMaxPacketSizeProvider;
+        this.rxBleConnection = rxBleConnection;
+        this.operationsProvider = operationsProvider;
+        this.characteristicReadCoalescer = characteristicReadCoalescer;
+        this.serviceDiscoveryManager = serviceDiscoveryManager;
+        this.illegalOperationChecker = illegalOperationChecker;
+        this.ioScheduler = ioScheduler;
+    }
+
+    @Override
+    public RxBleConnection.StreamingWriteOperationBuilder setCharacteristicUuid(@NonNull UUID uuid) {
+        this.writtenCharacteristicObservable = rxBleConnection.getCharacteristic(uuid);
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.StreamingWriteOperationBuilder setCharacteristic(
+            @NonNull BluetoothGattCharacteristic bluetoothGattCharacteristic) {
+        this.writtenCharacteristicObservable = serviceDiscoveryManager.attach(bluetoothGattCharacteristic);
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.StreamingWriteOperationBuilder setPackets(@NonNull Observable<byte[]> packets) {
+        this.packets = packets;
+        this.inputStream = null;
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.StreamingWriteOperationBuilder setInputStream(@NonNull InputStream inputStream) {
+        this.inputStream = inputStream;
+        this.packets = null;
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.StreamingWriteOperationBuilder setMaxPacketSize(int maxPacketSize) {
+        this.maxPacketSizeProvider = new ConstantPayloadSizeLimit(maxPacketSize);
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.StreamingWriteOperationBuilder setMaxPacketsInFlight(int maxPacketsInFlight) {
+        if (maxPacketsInFlight <= 0) {
+            throw new IllegalArgumentException("maxPacketsInFlight must be greater than zero (now: " + maxPacketsInFlight + ")");
+        }
+        this.maxPacketsInFlight = maxPacketsInFlight;
+        return this;
+    }
+
+    @Override
+    public Observable<StreamingWriteProgress> build() {
+        if (writtenCharacteristicObservable == null) {
+            throw new IllegalArgumentException("setCharacteristicUuid() or setCharacteristic() needs to be called before build()");
+        }
+
+        if (packets == null && inputStream == null) {
+            throw new IllegalArgumentException("setPackets() or setInputStream() needs to be called before build()");
+        }
+
+        // the stream is read on the I/O scheduler so a blocking read does not stall the bluetooth interaction scheduler
+        final Observable<byte[]> packetsToWrite = packets != null
+                ? packets
+                : readPackets(inputStream, maxPacketSizeProvider).subscribeOn(ioScheduler);
+        final int maxPacketsInFlight = this.maxPacketsInFlight;
+        return writtenCharacteristicObservable.flatMap(new Func1<BluetoothGattCharacteristic, Observable<StreamingWriteProgress>>() {
+            @Override
+            public Observable<StreamingWriteProgress> call(BluetoothGattCharacteristic bluetoothGattCharacteristic) {
+                characteristicReadCoalescer.invalidate(bluetoothGattCharacteristic);
+                return illegalOperationChecker.checkAnyPropertyMatches(bluetoothGattCharacteristic, PROPERTY_WRITE_NO_RESPONSE)
+                        .andThen(operationQueue.queue(
+                                operationsProvider.provideStreamingWriteOperation(bluetoothGattCharacteristic, packetsToWrite,
+                                        maxPacketsInFlight)
+                        ));
+            }
+        });
+    }
+
+    private static Observable<byte[]> readPackets(final InputStream inputStream, final PayloadSizeLimitProvider maxPacketSizeProvider) {
+        return Observable.create(SyncOnSubscribe.createSingleState(
+                new Func0<Integer>() {
+                    @Override
+                    public Integer call() {
+                        final int maxPacketSize = maxPacketSizeProvider.getPayloadSizeLimit();
+                        if (maxPacketSize <= 0) {
+                            throw new IllegalArgumentException("maxPacketSizeProvider value must be greater than zero (now: "
+                                    + maxPacketSize + ")");
+                        }
+                        return maxPacketSize;
+                    }
+                },
+                new Action2<Integer, Observer<? super byte[]>>() {
+                    @Override
+                    public void call(Integer maxPacketSize, Observer<? super byte[]> observer) {
+                        try {
+                            final byte[] packet = readPacket(inputStream, maxPacketSize);
+                            if (packet == null) {
+                                observer.onCompleted();
+                            } else {
+                                observer.onNext(packet);
+                            }
+                        } catch (IOException e) {
+                            observer.onError(e);
+                        }
+                    }
+                }
+        ));
+    }
+
+    /**
+     * Reads a full packet unless the end of the stream is reached.
+     *
+     * @return the packet or null if the end of the stream was reached before reading any byte
+     */
+    private static byte[] readPacket(InputStream inputStream, int maxPacketSize) throws IOException {
+        final byte[] packet = new byte[maxPacketSize];
+        int readBytes = 0;
+        while (readBytes < maxPacketSize) {
+            final int read = inputStream.read(packet, readBytes, maxPacketSize - readBytes);
+            if (read < 0) {
+                break;
+            }
+            readBytes += read;
+        }
+        if (readBytes == 0) {
+            return null;
+        }
+        return readBytes == maxPacketSize ? packet : Arrays.copyOf(packet, readBytes);
+    }
+}
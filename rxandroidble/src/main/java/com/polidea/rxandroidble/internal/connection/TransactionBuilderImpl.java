@@ -0,0 +1,176 @@
+package com.polidea.rxandroidble.internal.connection;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+import android.support.annotation.NonNull;
+
+import com.polidea.rxandroidble.RxBleConnection;
+import com.polidea.rxandroidble.internal.Priority;
+import com.polidea.rxandroidble.internal.operations.DescriptorReadOperation;
+import com.polidea.rxandroidble.internal.operations.Operation;
+import com.polidea.rxandroidble.internal.operations.OperationsProvider;
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue;
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble.internal.util.ByteAssociation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import bleshadow.javax.inject.Inject;
+
+import rx.Observable;
+import rx.functions.Func1;
+
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_READ;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_SIGNED_WRITE;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_WRITE;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE;
+
+public final class TransactionBuilderImpl implements RxBleConnection.TransactionBuilder {
+
+    private final ConnectionOperationQueue operationQueue;
+    private final RxBleConnection rxBleConnection;
+    private final OperationsProvider operationsProvider;
+    private final IllegalOperationChecker illegalOperationChecker;
+    private final CharacteristicReadCoalescer characteristicReadCoalescer;
+    private final ServiceDiscoveryManager serviceDiscoveryManager;
+    private final List<Observable<Operation<byte[]>>> steps = new ArrayList<>();
+
+    @Inject
+    TransactionBuilderImpl(
+            ConnectionOperationQueue operationQueue,
+            RxBleConnection rxBleConnection,
+            OperationsProvider operationsProvider,
+            IllegalOperationChecker illegalOperationChecker,
+            CharacteristicReadCoalescer characteristicReadCoalescer,
+            ServiceDiscoveryManager serviceDiscoveryManager
+    ) {
+        this.operationQueue = operationQueue;
+        this.rxBleConnection = rxBleConnection;
+        this.operationsProvider = operationsProvider;
+        this.illegalOperationChecker = illegalOperationChecker;
+        this.characteristicReadCoalescer = characteristicReadCoalescer;
+        this.serviceDiscoveryManager = serviceDiscoveryManager;
+    }
+
+    @Override
+    public RxBleConnection.TransactionBuilder readCharacteristic(@NonNull UUID characteristicUuid) {
+        steps.add(rxBleConnection.getCharacteristic(characteristicUuid).flatMap(readCharacteristicStep()));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.TransactionBuilder readCharacteristic(@NonNull BluetoothGattCharacteristic characteristic) {
+        steps.add(serviceDiscoveryManager.attach(characteristic).flatMap(readCharacteristicStep()));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.TransactionBuilder writeCharacteristic(@NonNull UUID characteristicUuid, @NonNull byte[] data) {
+        steps.add(rxBleConnection.getCharacteristic(characteristicUuid).flatMap(writeCharacteristicStep(data)));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.TransactionBuilder writeCharacteristic(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                  @NonNull byte[] data) {
+        steps.add(serviceDiscoveryManager.attach(characteristic).flatMap(writeCharacteristicStep(data)));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.TransactionBuilder readDescriptor(@NonNull final BluetoothGattDescriptor descriptor) {
+        steps.add(serviceDiscoveryManager.attach(descriptor).map(new Func1<BluetoothGattDescriptor, Operation<byte[]>>() {
+            @Override
+            public Operation<byte[]> call(BluetoothGattDescriptor attachedDescriptor) {
+                return new DescriptorValueReadOperation(operationsProvider.provideReadDescriptor(attachedDescriptor));
+            }
+        }));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.TransactionBuilder writeDescriptor(@NonNull final BluetoothGattDescriptor descriptor,
+                                                              @NonNull final byte[] data) {
+        steps.add(serviceDiscoveryManager.attach(descriptor).map(new Func1<BluetoothGattDescriptor, Operation<byte[]>>() {
+            @Override
+            public Operation<byte[]> call(BluetoothGattDescriptor attachedDescriptor) {
+                return operationsProvider.provideWriteDescriptor(attachedDescriptor, data);
+            }
+        }));
+        return this;
+    }
+
+    @Override
+    public Observable<List<byte[]>> build() {
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("at least one step needs to be added before build()");
+        }
+
+        return Observable.concat(Observable.from(new ArrayList<>(steps)))
+                .toList()
+                .flatMap(new Func1<List<Operation<byte[]>>, Observable<List<byte[]>>>() {
+                    @Override
+                    public Observable<List<byte[]>> call(List<Operation<byte[]>> operations) {
+                        return operationQueue.queue(operationsProvider.provideTransactionOperation(operations));
+                    }
+                });
+    }
+
+    private Func1<BluetoothGattCharacteristic, Observable<Operation<byte[]>>> readCharacteristicStep() {
+        return new Func1<BluetoothGattCharacteristic, Observable<Operation<byte[]>>>() {
+            @Override
+            public Observable<Operation<byte[]>> call(BluetoothGattCharacteristic characteristic) {
+                return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_READ)
+                        .andThen(Observable.<Operation<byte[]>>just(operationsProvider.provideReadCharacteristic(characteristic)));
+            }
+        };
+    }
+
+    private Func1<BluetoothGattCharacteristic, Observable<Operation<byte[]>>> writeCharacteristicStep(final byte[] data) {
+        return new Func1<BluetoothGattCharacteristic, Observable<Operation<byte[]>>>() {
+            @Override
+            public Observable<Operation<byte[]>> call(BluetoothGattCharacteristic characteristic) {
+                characteristicReadCoalescer.invalidate(characteristic);
+                return illegalOperationChecker.checkAnyPropertyMatches(
+                        characteristic,
+                        PROPERTY_WRITE | PROPERTY_WRITE_NO_RESPONSE | PROPERTY_SIGNED_WRITE
+                ).andThen(Observable.<Operation<byte[]>>just(operationsProvider.provideWriteCharacteristic(characteristic, data)));
+            }
+        };
+    }
+
+    /**
+     * Emits only the value of the read descriptor so the transaction emits plain values for every step.
+     */
+    private static class DescriptorValueReadOperation implements Operation<byte[]> {
+
+        private final DescriptorReadOperation descriptorReadOperation;
+
+        DescriptorValueReadOperation(DescriptorReadOperation descriptorReadOperation) {
+            this.descriptorReadOperation = descriptorReadOperation;
+        }
+
+        @Override
+        public Observable<byte[]> run(QueueReleaseInterface queueReleaseInterface) {
+            return descriptorReadOperation.run(queueReleaseInterface)
+                    .map(new Func1<ByteAssociation<BluetoothGattDescriptor>, byte[]>() {
+                        @Override
+                        public byte[] call(ByteAssociation<BluetoothGattDescriptor> descriptorByteAssociation) {
+                            return descriptorByteAssociation.second;
+                        }
+                    });
+        }
+
+        @Override
+        public Priority definedPriority() {
+            return descriptorReadOperation.definedPriority();
+        }
+
+        @Override
+        public int compareTo(Operation<?> another) {
+            return descriptorReadOperation.compareTo(another);
+        }
+    }
+}
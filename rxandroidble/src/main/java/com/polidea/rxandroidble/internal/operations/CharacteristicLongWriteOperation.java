@@ -5,6 +5,7 @@ import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.os.DeadObjectException;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.polidea.rxandroidble.ClientComponent;
 import com.polidea.rxandroidble.RxBleConnection.WriteOperationAckStrategy;
@@ -15,6 +16,7 @@ import com.polidea.rxandroidble.exceptions.BleGattCannotStartException;
 import com.polidea.rxandroidble.exceptions.BleGattOperationType;
 import com.polidea.rxandroidble.internal.QueueOperation;
 import com.polidea.rxandroidble.internal.connection.ConnectionModule;
+import com.polidea.rxandroidble.internal.connection.LongWriteBatchMonitor;
 import com.polidea.rxandroidble.internal.connection.PayloadSizeLimitProvider;
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
@@ -43,8 +45,17 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
     private final BluetoothGattCharacteristic bluetoothGattCharacteristic;
     private final PayloadSizeLimitProvider batchSizeProvider;
     private final WriteOperationAckStrategy writeOperationAckStrategy;
-    private final byte[] bytesToWrite;
+    @Nullable
+    private final LongWriteBatchMonitor batchMonitor;
+    private final ByteBuffer bytesToWrite;
+    private final byte[] writtenBytes;
     private byte[] tempBatchArray;
+    /**
+     * Describes the last written batch — accessed only by the batch in progress.
+     */
+    private int lastBatchSize;
+    private int lastBatchWriteType;
+    private long lastBatchStartNanos;
 
     CharacteristicLongWriteOperation(
             BluetoothGatt bluetoothGatt,
@@ -55,6 +66,25 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
             PayloadSizeLimitProvider batchSizeProvider,
             WriteOperationAckStrategy writeOperationAckStrategy,
             byte[] bytesToWrite) {
+        this(bluetoothGatt, rxBleGattCallback, bluetoothInteractionScheduler, timeoutConfiguration, bluetoothGattCharacteristic,
+                batchSizeProvider, writeOperationAckStrategy, ByteBuffer.wrap(bytesToWrite), bytesToWrite);
+    }
+
+    /**
+     * @param bytesToWrite the bytes between the position and the limit of the buffer are written. The buffer itself is not modified
+     *                     so it may be i.e. a {@link java.nio.MappedByteBuffer} of a file which is never loaded onto the heap as a whole
+     * @param writtenBytes the value emitted when the write completes
+     */
+    CharacteristicLongWriteOperation(
+            BluetoothGatt bluetoothGatt,
+            RxBleGattCallback rxBleGattCallback,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler bluetoothInteractionScheduler,
+            @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
+            BluetoothGattCharacteristic bluetoothGattCharacteristic,
+            PayloadSizeLimitProvider batchSizeProvider,
+            WriteOperationAckStrategy writeOperationAckStrategy,
+            ByteBuffer bytesToWrite,
+            byte[] writtenBytes) {
         this.bluetoothGatt = bluetoothGatt;
         this.rxBleGattCallback = rxBleGattCallback;
         this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
@@ -62,7 +92,11 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
         this.bluetoothGattCharacteristic = bluetoothGattCharacteristic;
         this.batchSizeProvider = batchSizeProvider;
         this.writeOperationAckStrategy = writeOperationAckStrategy;
+        this.batchMonitor = writeOperationAckStrategy instanceof LongWriteBatchMonitor
+                ? (LongWriteBatchMonitor) writeOperationAckStrategy
+                : null;
         this.bytesToWrite = bytesToWrite;
+        this.writtenBytes = writtenBytes;
     }
 
     @Override
@@ -75,12 +109,16 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
         final Observable<ByteAssociation<UUID>> timeoutObservable = Observable.error(
                 new BleGattCallbackTimeoutException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_LONG_WRITE)
         );
-        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytesToWrite);
+        final ByteBuffer byteBuffer = bytesToWrite.duplicate();
 
         final QueueReleasingEmitterWrapper<byte[]> emitterWrapper = new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface);
-        writeBatchAndObserve(batchSize, byteBuffer)
+        Observable<ByteAssociation<UUID>> batchAcknowledged = writeBatchAndObserve(batchSize, byteBuffer)
                 .subscribeOn(bluetoothInteractionScheduler)
-                .takeFirst(writeResponseForMatchingCharacteristic(bluetoothGattCharacteristic))
+                .takeFirst(writeResponseForMatchingCharacteristic(bluetoothGattCharacteristic));
+        if (batchMonitor != null) {
+            batchAcknowledged = batchAcknowledged.doOnNext(reportBatchAcknowledged(batchMonitor));
+        }
+        batchAcknowledged
                 .timeout(
                         timeoutConfiguration.timeout,
                         timeoutConfiguration.timeoutTimeUnit,
@@ -95,7 +133,7 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
                         new Action0() {
                             @Override
                             public void call() {
-                                emitterWrapper.onNext(bytesToWrite);
+                                emitterWrapper.onNext(writtenBytes);
                                 emitterWrapper.onCompleted();
                             }
                         },
@@ -134,7 +172,10 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
                          */
 
                         try {
-                            final byte[] bytesBatch = getNextBatch(byteBuffer, batchSize);
+                            final int nextBatchSize = batchMonitor == null
+                                    ? batchSize
+                                    : Math.max(1, Math.min(batchSize, batchMonitor.getBatchSize(batchSize)));
+                            final byte[] bytesBatch = getNextBatch(byteBuffer, nextBatchSize);
                             writeData(bytesBatch);
                         } catch (Throwable throwable) {
                             emitter.onError(throwable);
@@ -146,22 +187,52 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
 
     private byte[] getNextBatch(ByteBuffer byteBuffer, int batchSize) {
         final int remainingBytes = byteBuffer.remaining();
-        final int nextBatchSize = Math.min(remainingBytes, batchSize);
-        if (tempBatchArray == null || tempBatchArray.length != nextBatchSize) {
-            tempBatchArray = new byte[nextBatchSize];
+        final byte[] batchArray;
+        if (remainingBytes >= batchSize) {
+            if (tempBatchArray == null || tempBatchArray.length != batchSize) {
+                tempBatchArray = new byte[batchSize];
+            }
+            batchArray = tempBatchArray;
+        } else {
+            // the last batch — the full size scratch array is kept for a possible re-run
+            batchArray = new byte[remainingBytes];
         }
-        byteBuffer.get(tempBatchArray);
-        return tempBatchArray;
+        byteBuffer.get(batchArray);
+        return batchArray;
     }
 
     private void writeData(byte[] bytesBatch) {
         bluetoothGattCharacteristic.setValue(bytesBatch);
-        final boolean success = bluetoothGatt.writeCharacteristic(bluetoothGattCharacteristic);
+        final boolean success;
+        if (batchMonitor == null) {
+            success = bluetoothGatt.writeCharacteristic(bluetoothGattCharacteristic);
+        } else {
+            // the write type is read by BluetoothGatt synchronously so the one set by the user is restored right after the call
+            final int originalWriteType = bluetoothGattCharacteristic.getWriteType();
+            lastBatchSize = bytesBatch.length;
+            lastBatchWriteType = batchMonitor.getWriteType(bluetoothGattCharacteristic);
+            bluetoothGattCharacteristic.setWriteType(lastBatchWriteType);
+            lastBatchStartNanos = System.nanoTime();
+            try {
+                success = bluetoothGatt.writeCharacteristic(bluetoothGattCharacteristic);
+            } finally {
+                bluetoothGattCharacteristic.setWriteType(originalWriteType);
+            }
+        }
         if (!success) {
             throw new BleGattCannotStartException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_LONG_WRITE);
         }
     }
 
+    private Action1<ByteAssociation<UUID>> reportBatchAcknowledged(final LongWriteBatchMonitor batchMonitor) {
+        return new Action1<ByteAssociation<UUID>>() {
+            @Override
+            public void call(ByteAssociation<UUID> uuidByteAssociation) {
+                batchMonitor.onBatchAcknowledged(lastBatchSize, lastBatchWriteType, System.nanoTime() - lastBatchStartNanos);
+            }
+        };
+    }
+
     private static Func1<ByteAssociation<UUID>, Boolean> writeResponseForMatchingCharacteristic(
             final BluetoothGattCharacteristic bluetoothGattCharacteristic
     ) {
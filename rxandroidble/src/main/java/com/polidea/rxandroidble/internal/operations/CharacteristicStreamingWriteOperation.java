@@ -0,0 +1,300 @@
+package com.polidea.rxandroidble.internal.operations;
+
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.os.DeadObjectException;
+
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.StreamingWriteProgress;
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble.exceptions.BleException;
+import com.polidea.rxandroidble.exceptions.BleGattCallbackTimeoutException;
+import com.polidea.rxandroidble.exceptions.BleGattCannotStartException;
+import com.polidea.rxandroidble.exceptions.BleGattOperationType;
+import com.polidea.rxandroidble.internal.QueueOperation;
+import com.polidea.rxandroidble.internal.connection.ConnectionModule;
+import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble.internal.util.ByteAssociation;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+import bleshadow.javax.inject.Named;
+
+import rx.Emitter;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Cancellable;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * An operation that writes a stream of packets to a characteristic using {@link BluetoothGattCharacteristic#WRITE_TYPE_NO_RESPONSE}.
+ * Contrary to {@link CharacteristicLongWriteOperation} it does not wait for the acknowledgement of each packet before writing the next
+ * one — up to {@code maxPacketsInFlight} packets may be written and not yet acknowledged. A single subscription to
+ * {@link RxBleGattCallback#getOnCharacteristicWrite()} is used for the whole stream and the packets are requested from the source
+ * only when there is room for them so the source is never drained faster than the link allows.
+ */
+public class CharacteristicStreamingWriteOperation extends QueueOperation<StreamingWriteProgress> {
+
+    private final BluetoothGatt bluetoothGatt;
+    private final RxBleGattCallback rxBleGattCallback;
+    private final Scheduler bluetoothInteractionScheduler;
+    private final TimeoutConfiguration timeoutConfiguration;
+    private final BluetoothGattCharacteristic bluetoothGattCharacteristic;
+    private final Observable<byte[]> packets;
+    private final int maxPacketsInFlight;
+
+    private static final Object COMPLETED = new Object();
+
+    CharacteristicStreamingWriteOperation(
+            BluetoothGatt bluetoothGatt,
+            RxBleGattCallback rxBleGattCallback,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler bluetoothInteractionScheduler,
+            @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
+            BluetoothGattCharacteristic bluetoothGattCharacteristic,
+            Observable<byte[]> packets,
+            int maxPacketsInFlight) {
+        this.bluetoothGatt = bluetoothGatt;
+        this.rxBleGattCallback = rxBleGattCallback;
+        this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
+        this.timeoutConfiguration = timeoutConfiguration;
+        this.bluetoothGattCharacteristic = bluetoothGattCharacteristic;
+        this.packets = packets;
+        this.maxPacketsInFlight = maxPacketsInFlight;
+    }
+
+    @Override
+    protected void protectedRun(Emitter<StreamingWriteProgress> emitter, QueueReleaseInterface queueReleaseInterface) throws Throwable {
+        final PacketWriter packetWriter = new PacketWriter(emitter, queueReleaseInterface);
+        emitter.setCancellation(packetWriter);
+        packetWriter.start();
+    }
+
+    @Override
+    protected BleException provideException(DeadObjectException deadObjectException) {
+        return new BleDisconnectedException(deadObjectException, bluetoothGatt.getDevice().getAddress());
+    }
+
+    /**
+     * Subscribes to the packets source and writes the packets. All the state is guarded by the instance lock as the packets,
+     * the acknowledgements and the timeout may be delivered on different threads. The events for the emitter are queued while
+     * holding the lock and emitted after it is released — by a single thread at a time so their order is kept.
+     */
+    private class PacketWriter extends Subscriber<byte[]> implements Cancellable {
+
+        private final Emitter<StreamingWriteProgress> emitter;
+        private final QueueReleaseInterface queueReleaseInterface;
+        private final Scheduler.Worker timeoutWorker = timeoutConfiguration.timeoutScheduler.createWorker();
+        private final ArrayDeque<byte[]> pendingPackets = new ArrayDeque<>(maxPacketsInFlight);
+        // lengths of packets written and not acknowledged yet — a ring buffer
+        private final int[] inFlightPacketLengths = new int[maxPacketsInFlight];
+        // StreamingWriteProgress, Throwable or COMPLETED events waiting to be emitted
+        private final ArrayDeque<Object> pendingEvents = new ArrayDeque<>();
+        private int inFlightHead = 0;
+        private int inFlightCount = 0;
+        private long bytesWritten = 0;
+        private long packetsWritten = 0;
+        private long startNanos;
+        private int originalWriteType;
+        private boolean isSourceCompleted = false;
+        private boolean isFinished = false;
+        private boolean isEmitting = false;
+        private Subscription timeoutSubscription = Subscriptions.unsubscribed();
+        private long timeoutGeneration = 0;
+
+        PacketWriter(Emitter<StreamingWriteProgress> emitter, QueueReleaseInterface queueReleaseInterface) {
+            this.emitter = emitter;
+            this.queueReleaseInterface = queueReleaseInterface;
+        }
+
+        void start() {
+            synchronized (this) {
+                originalWriteType = bluetoothGattCharacteristic.getWriteType();
+                bluetoothGattCharacteristic.setWriteType(BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE);
+                startNanos = System.nanoTime();
+                add(timeoutWorker);
+            }
+            /*
+             * The acknowledgements need to be observed before the first packet is written as for WRITE_TYPE_NO_RESPONSE
+             * the callback may be called before BluetoothGatt#writeCharacteristic() returns.
+             */
+            add(rxBleGattCallback.getOnCharacteristicWrite().subscribe(
+                    new Action1<ByteAssociation<UUID>>() {
+                        @Override
+                        public void call(ByteAssociation<UUID> uuidByteAssociation) {
+                            onPacketAcknowledged(uuidByteAssociation.first);
+                        }
+                    },
+                    new Action1<Throwable>() {
+                        @Override
+                        public void call(Throwable throwable) {
+                            onError(throwable);
+                        }
+                    }
+            ));
+            packets.observeOn(bluetoothInteractionScheduler, maxPacketsInFlight).subscribe(this);
+        }
+
+        @Override
+        public void onStart() {
+            request(maxPacketsInFlight);
+        }
+
+        @Override
+        public void onNext(byte[] packet) {
+            synchronized (this) {
+                if (isFinished) {
+                    return;
+                }
+                pendingPackets.add(packet);
+                writePendingPackets();
+                rescheduleTimeout();
+            }
+            emitPendingEvents();
+        }
+
+        @Override
+        public void onCompleted() {
+            synchronized (this) {
+                isSourceCompleted = true;
+                completeIfAllPacketsWritten();
+            }
+            emitPendingEvents();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                fail(throwable);
+            }
+            emitPendingEvents();
+        }
+
+        void onPacketAcknowledged(UUID characteristicUuid) {
+            synchronized (this) {
+                if (isFinished || inFlightCount == 0 || !characteristicUuid.equals(bluetoothGattCharacteristic.getUuid())) {
+                    return;
+                }
+                bytesWritten += inFlightPacketLengths[inFlightHead];
+                packetsWritten++;
+                inFlightHead = (inFlightHead + 1) % maxPacketsInFlight;
+                inFlightCount--;
+                pendingEvents.add(new StreamingWriteProgress(bytesWritten, packetsWritten, System.nanoTime() - startNanos));
+                request(1);
+                writePendingPackets();
+                rescheduleTimeout();
+                completeIfAllPacketsWritten();
+            }
+            emitPendingEvents();
+        }
+
+        void onTimeout(long generation) {
+            synchronized (this) {
+                if (generation == timeoutGeneration) {
+                    fail(new BleGattCallbackTimeoutException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_STREAMING_WRITE));
+                }
+            }
+            emitPendingEvents();
+        }
+
+        // the methods below are called while holding the lock
+
+        private void writePendingPackets() {
+            while (!isFinished && inFlightCount < maxPacketsInFlight && !pendingPackets.isEmpty()) {
+                final byte[] packet = pendingPackets.peek();
+                bluetoothGattCharacteristic.setValue(packet);
+                if (!bluetoothGatt.writeCharacteristic(bluetoothGattCharacteristic)) {
+                    if (inFlightCount > 0) {
+                        // the stack is busy with the previous packets — the write will be retried on the next acknowledgement
+                        return;
+                    }
+                    fail(new BleGattCannotStartException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_STREAMING_WRITE));
+                    return;
+                }
+                pendingPackets.poll();
+                inFlightPacketLengths[(inFlightHead + inFlightCount) % maxPacketsInFlight] = packet.length;
+                inFlightCount++;
+            }
+        }
+
+        private void rescheduleTimeout() {
+            timeoutSubscription.unsubscribe();
+            if (isFinished || inFlightCount == 0) {
+                return;
+            }
+            final long generation = ++timeoutGeneration;
+            timeoutSubscription = timeoutWorker.schedule(new Action0() {
+                @Override
+                public void call() {
+                    onTimeout(generation);
+                }
+            }, timeoutConfiguration.timeout, timeoutConfiguration.timeoutTimeUnit);
+        }
+
+        private void completeIfAllPacketsWritten() {
+            if (isFinished || !isSourceCompleted || !pendingPackets.isEmpty() || inFlightCount > 0) {
+                return;
+            }
+            finish();
+            pendingEvents.add(COMPLETED);
+        }
+
+        private void fail(Throwable throwable) {
+            if (isFinished) {
+                return;
+            }
+            finish();
+            pendingEvents.add(throwable);
+        }
+
+        private void finish() {
+            isFinished = true;
+            unsubscribe();
+            bluetoothGattCharacteristic.setWriteType(originalWriteType);
+            queueReleaseInterface.release();
+        }
+
+        /**
+         * Emits the queued events. Must be called without holding the lock.
+         */
+        private void emitPendingEvents() {
+            synchronized (this) {
+                if (isEmitting) {
+                    // the emitting thread will pick up the events queued in the meantime
+                    return;
+                }
+                isEmitting = true;
+            }
+            while (true) {
+                final Object event;
+                synchronized (this) {
+                    event = pendingEvents.poll();
+                    if (event == null) {
+                        isEmitting = false;
+                        return;
+                    }
+                }
+                if (event == COMPLETED) {
+                    emitter.onCompleted();
+                } else if (event instanceof Throwable) {
+                    emitter.onError((Throwable) event);
+                } else {
+                    emitter.onNext((StreamingWriteProgress) event);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void cancel() throws Exception {
+            if (!isFinished) {
+                finish();
+            }
+        }
+    }
+}
@@ -3,49 +3,43 @@ package com.polidea.rxandroidble.internal.operations;
 import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCharacteristic;
 
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.exceptions.BleGattCharacteristicException;
 import com.polidea.rxandroidble.exceptions.BleGattOperationType;
-import com.polidea.rxandroidble.internal.SingleResponseOperation;
+import com.polidea.rxandroidble.internal.DirectResponseOperation;
 import com.polidea.rxandroidble.internal.connection.ConnectionModule;
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
-import com.polidea.rxandroidble.internal.util.ByteAssociation;
-
-import java.util.UUID;
 
 import bleshadow.javax.inject.Named;
 
-import rx.Observable;
-import rx.functions.Func1;
+import rx.Scheduler;
 
-public class CharacteristicWriteOperation extends SingleResponseOperation<byte[]> {
+public class CharacteristicWriteOperation extends DirectResponseOperation<byte[]> {
 
     private final BluetoothGattCharacteristic bluetoothGattCharacteristic;
     private final byte[] data;
 
     CharacteristicWriteOperation(RxBleGattCallback rxBleGattCallback, BluetoothGatt bluetoothGatt,
                                  @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
+                                 @Named(ClientComponent.NamedSchedulers.BLUETOOTH_CALLBACKS) Scheduler callbackScheduler,
                                  BluetoothGattCharacteristic bluetoothGattCharacteristic,
                                  byte[] data) {
-        super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.CHARACTERISTIC_WRITE, timeoutConfiguration);
+        super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.CHARACTERISTIC_WRITE, timeoutConfiguration, callbackScheduler);
         this.bluetoothGattCharacteristic = bluetoothGattCharacteristic;
         this.data = data;
     }
 
     @Override
-    protected Observable<byte[]> getCallback(RxBleGattCallback rxBleGattCallback) {
-        return rxBleGattCallback
-                .getOnCharacteristicWrite()
-                .filter(new Func1<ByteAssociation<UUID>, Boolean>() {
-                    @Override
-                    public Boolean call(ByteAssociation<UUID> uuidPair) {
-                        return uuidPair.first.equals(bluetoothGattCharacteristic.getUuid());
-                    }
-                })
-                .map(new Func1<ByteAssociation<UUID>, byte[]>() {
-                    @Override
-                    public byte[] call(ByteAssociation<UUID> uuidPair) {
-                        return uuidPair.second;
-                    }
-                });
+    public void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+        if (!characteristic.getUuid().equals(bluetoothGattCharacteristic.getUuid())) {
+            return;
+        }
+
+        if (status != BluetoothGatt.GATT_SUCCESS) {
+            completeWithError(new BleGattCharacteristicException(gatt, characteristic, status, BleGattOperationType.CHARACTERISTIC_WRITE));
+        } else {
+            completeWithValue(characteristic.getValue());
+        }
     }
 
     @Override
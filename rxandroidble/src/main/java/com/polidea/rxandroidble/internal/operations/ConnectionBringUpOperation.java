@@ -0,0 +1,74 @@
+package com.polidea.rxandroidble.internal.operations;
+
+
+import android.annotation.TargetApi;
+import android.bluetooth.BluetoothGatt;
+import android.os.Build;
+import android.os.DeadObjectException;
+
+import com.polidea.rxandroidble.ConnectionSetup;
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble.exceptions.BleException;
+import com.polidea.rxandroidble.internal.QueueOperation;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble.internal.util.QueueReleasingEmitterWrapper;
+
+import java.util.List;
+
+import rx.Emitter;
+import rx.Observable;
+import rx.functions.Func1;
+
+/**
+ * An operation that brings up a freshly established connection in a single slot of the connection queue. The connection priority
+ * is requested first without waiting for the connection interval to change so the following steps (i.e. MTU request and service
+ * discovery) already overlap with the renegotiation. The steps are run one after another without releasing the queue in between
+ * — see {@link TransactionOperation}.
+ */
+public class ConnectionBringUpOperation extends QueueOperation<Void> {
+
+    private final BluetoothGatt bluetoothGatt;
+    private final int connectionPriority;
+    private final List<Operation<?>> operations;
+
+    ConnectionBringUpOperation(BluetoothGatt bluetoothGatt, int connectionPriority, List<Operation<?>> operations) {
+        this.bluetoothGatt = bluetoothGatt;
+        this.connectionPriority = connectionPriority;
+        this.operations = operations;
+    }
+
+    @Override
+    protected void protectedRun(Emitter<Void> emitter, QueueReleaseInterface queueReleaseInterface) throws Throwable {
+        final QueueReleasingEmitterWrapper<Void> emitterWrapper = new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface);
+        if (connectionPriority != ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED) {
+            requestConnectionPriority();
+        }
+        Observable.from(operations)
+                .concatMap(new Func1<Operation<?>, Observable<?>>() {
+                    @Override
+                    public Observable<?> call(Operation<?> operation) {
+                        if (emitterWrapper.isWrappedEmitterUnsubscribed()) {
+                            return Observable.empty();
+                        }
+                        return operation.run(QueueReleaseInterface.NO_OP);
+                    }
+                })
+                .ignoreElements()
+                .cast(Void.class)
+                .subscribe(emitterWrapper);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void requestConnectionPriority() {
+        if (!bluetoothGatt.requestConnectionPriority(connectionPriority)) {
+            // the connection is still usable with the default priority
+            RxBleLog.w("Connection priority request (%d) could not be started", connectionPriority);
+        }
+    }
+
+    @Override
+    protected BleException provideException(DeadObjectException deadObjectException) {
+        return new BleDisconnectedException(deadObjectException, bluetoothGatt.getDevice().getAddress());
+    }
+}
@@ -3,8 +3,10 @@ package com.polidea.rxandroidble.internal.operations;
 import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattDescriptor;
 
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.exceptions.BleGattDescriptorException;
 import com.polidea.rxandroidble.exceptions.BleGattOperationType;
-import com.polidea.rxandroidble.internal.SingleResponseOperation;
+import com.polidea.rxandroidble.internal.DirectResponseOperation;
 import com.polidea.rxandroidble.internal.connection.ConnectionModule;
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble.internal.util.ByteAssociation;
@@ -12,31 +14,32 @@ import com.polidea.rxandroidble.internal.util.ByteAssociation;
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 
-import rx.Observable;
-import rx.functions.Func1;
+import rx.Scheduler;
 
-public class DescriptorReadOperation extends SingleResponseOperation<ByteAssociation<BluetoothGattDescriptor>> {
+public class DescriptorReadOperation extends DirectResponseOperation<ByteAssociation<BluetoothGattDescriptor>> {
 
     private final BluetoothGattDescriptor bluetoothGattDescriptor;
 
     @Inject
     DescriptorReadOperation(RxBleGattCallback rxBleGattCallback, BluetoothGatt bluetoothGatt,
                             @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
+                            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_CALLBACKS) Scheduler callbackScheduler,
                             BluetoothGattDescriptor descriptor) {
-        super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.DESCRIPTOR_READ, timeoutConfiguration);
+        super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.DESCRIPTOR_READ, timeoutConfiguration, callbackScheduler);
         bluetoothGattDescriptor = descriptor;
     }
 
     @Override
-    protected Observable<ByteAssociation<BluetoothGattDescriptor>> getCallback(RxBleGattCallback rxBleGattCallback) {
-        return rxBleGattCallback
-                .getOnDescriptorRead()
-                .filter(new Func1<ByteAssociation<BluetoothGattDescriptor>, Boolean>() {
-                    @Override
-                    public Boolean call(ByteAssociation<BluetoothGattDescriptor> uuidPair) {
-                        return uuidPair.first.equals(bluetoothGattDescriptor);
-                    }
-                });
+    public void onDescriptorRead(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+        if (!descriptor.equals(bluetoothGattDescriptor)) {
+            return;
+        }
+
+        if (status != BluetoothGatt.GATT_SUCCESS) {
+            completeWithError(new BleGattDescriptorException(gatt, descriptor, status, BleGattOperationType.DESCRIPTOR_READ));
+        } else {
+            completeWithValue(new ByteAssociation<>(descriptor, descriptor.getValue()));
+        }
     }
 
     @Override
@@ -4,18 +4,18 @@ import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattDescriptor;
 
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.exceptions.BleGattDescriptorException;
 import com.polidea.rxandroidble.exceptions.BleGattOperationType;
-import com.polidea.rxandroidble.internal.SingleResponseOperation;
+import com.polidea.rxandroidble.internal.DirectResponseOperation;
 import com.polidea.rxandroidble.internal.connection.ConnectionModule;
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
-import com.polidea.rxandroidble.internal.util.ByteAssociation;
 
 import bleshadow.javax.inject.Named;
 
-import rx.Observable;
-import rx.functions.Func1;
+import rx.Scheduler;
 
-public class DescriptorWriteOperation extends SingleResponseOperation<byte[]> {
+public class DescriptorWriteOperation extends DirectResponseOperation<byte[]> {
 
     private BluetoothGattDescriptor bluetoothGattDescriptor;
     private byte[] data;
@@ -24,31 +24,27 @@ public class DescriptorWriteOperation extends SingleResponseOperation<byte[]> {
     DescriptorWriteOperation(RxBleGattCallback rxBleGattCallback,
                              BluetoothGatt bluetoothGatt,
                              @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
+                             @Named(ClientComponent.NamedSchedulers.BLUETOOTH_CALLBACKS) Scheduler callbackScheduler,
                              int bluetoothGattCharacteristicDefaultWriteType,
                              BluetoothGattDescriptor bluetoothGattDescriptor,
                              byte[] data) {
-        super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.DESCRIPTOR_WRITE, timeoutConfiguration);
+        super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.DESCRIPTOR_WRITE, timeoutConfiguration, callbackScheduler);
         this.bluetoothGattCharacteristicDefaultWriteType = bluetoothGattCharacteristicDefaultWriteType;
         this.bluetoothGattDescriptor = bluetoothGattDescriptor;
         this.data = data;
     }
 
     @Override
-    protected Observable<byte[]> getCallback(RxBleGattCallback rxBleGattCallback) {
-        return rxBleGattCallback
-                .getOnDescriptorWrite()
-                .filter(new Func1<ByteAssociation<BluetoothGattDescriptor>, Boolean>() {
-                    @Override
-                    public Boolean call(ByteAssociation<BluetoothGattDescriptor> uuidPair) {
-                        return uuidPair.first.equals(bluetoothGattDescriptor);
-                    }
-                })
-                .map(new Func1<ByteAssociation<BluetoothGattDescriptor>, byte[]>() {
-                    @Override
-                    public byte[] call(ByteAssociation<BluetoothGattDescriptor> uuidPair) {
-                        return uuidPair.second;
-                    }
-                });
+    public void onDescriptorWrite(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+        if (!descriptor.equals(bluetoothGattDescriptor)) {
+            return;
+        }
+
+        if (status != BluetoothGatt.GATT_SUCCESS) {
+            completeWithError(new BleGattDescriptorException(gatt, descriptor, status, BleGattOperationType.DESCRIPTOR_WRITE));
+        } else {
+            completeWithValue(descriptor.getValue());
+        }
     }
 
     @Override
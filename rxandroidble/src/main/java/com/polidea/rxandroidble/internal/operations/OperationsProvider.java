@@ -8,8 +8,12 @@ import android.support.annotation.RequiresApi;
 import com.polidea.rxandroidble.RxBleConnection;
 import com.polidea.rxandroidble.internal.connection.PayloadSizeLimitProvider;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import rx.Observable;
+
 public interface OperationsProvider {
 
     CharacteristicLongWriteOperation provideLongWriteOperation(
@@ -18,6 +22,21 @@ public interface OperationsProvider {
             PayloadSizeLimitProvider maxBatchSizeProvider,
             byte[] bytes);
 
+    CharacteristicLongWriteOperation provideLongWriteOperation(
+            BluetoothGattCharacteristic bluetoothGattCharacteristic,
+            RxBleConnection.WriteOperationAckStrategy writeOperationAckStrategy,
+            PayloadSizeLimitProvider maxBatchSizeProvider,
+            ByteBuffer bytes);
+
+    CharacteristicStreamingWriteOperation provideStreamingWriteOperation(
+            BluetoothGattCharacteristic bluetoothGattCharacteristic,
+            Observable<byte[]> packets,
+            int maxPacketsInFlight);
+
+    TransactionOperation provideTransactionOperation(List<Operation<byte[]>> operations);
+
+    ConnectionBringUpOperation provideConnectionBringUpOperation(int connectionPriority, List<Operation<?>> operations);
+
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
     MtuRequestOperation provideMtuChangeOperation(int requestedMtu);
 
@@ -13,12 +13,15 @@ import com.polidea.rxandroidble.internal.connection.PayloadSizeLimitProvider;
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble.internal.util.RxBleServicesLogger;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 import bleshadow.javax.inject.Provider;
 
+import rx.Observable;
 import rx.Scheduler;
 
 public class OperationsProviderImpl implements OperationsProvider {
@@ -29,6 +32,7 @@ public class OperationsProviderImpl implements OperationsProvider {
     private final TimeoutConfiguration timeoutConfiguration;
     private final Scheduler bluetoothInteractionScheduler;
     private final Scheduler timeoutScheduler;
+    private final Scheduler callbackScheduler;
     private final Provider<ReadRssiOperation> rssiReadOperationProvider;
 
     @Inject
@@ -39,6 +43,7 @@ public class OperationsProviderImpl implements OperationsProvider {
             @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
             @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler bluetoothInteractionScheduler,
             @Named(ClientComponent.NamedSchedulers.TIMEOUT) Scheduler timeoutScheduler,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_CALLBACKS) Scheduler callbackScheduler,
             Provider<ReadRssiOperation> rssiReadOperationProvider) {
         this.rxBleGattCallback = rxBleGattCallback;
         this.bluetoothGatt = bluetoothGatt;
@@ -46,6 +51,7 @@ public class OperationsProviderImpl implements OperationsProvider {
         this.timeoutConfiguration = timeoutConfiguration;
         this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
         this.timeoutScheduler = timeoutScheduler;
+        this.callbackScheduler = callbackScheduler;
         this.rssiReadOperationProvider = rssiReadOperationProvider;
     }
 
@@ -66,6 +72,49 @@ public class OperationsProviderImpl implements OperationsProvider {
                 bytes);
     }
 
+    @Override
+    public CharacteristicLongWriteOperation provideLongWriteOperation(
+            BluetoothGattCharacteristic bluetoothGattCharacteristic,
+            RxBleConnection.WriteOperationAckStrategy writeOperationAckStrategy,
+            PayloadSizeLimitProvider maxBatchSizeProvider,
+            ByteBuffer bytes) {
+
+        return new CharacteristicLongWriteOperation(bluetoothGatt,
+                rxBleGattCallback,
+                bluetoothInteractionScheduler,
+                timeoutConfiguration,
+                bluetoothGattCharacteristic,
+                maxBatchSizeProvider,
+                writeOperationAckStrategy,
+                bytes,
+                new byte[0]);
+    }
+
+    @Override
+    public CharacteristicStreamingWriteOperation provideStreamingWriteOperation(
+            BluetoothGattCharacteristic bluetoothGattCharacteristic,
+            Observable<byte[]> packets,
+            int maxPacketsInFlight) {
+
+        return new CharacteristicStreamingWriteOperation(bluetoothGatt,
+                rxBleGattCallback,
+                bluetoothInteractionScheduler,
+                timeoutConfiguration,
+                bluetoothGattCharacteristic,
+                packets,
+                maxPacketsInFlight);
+    }
+
+    @Override
+    public TransactionOperation provideTransactionOperation(List<Operation<byte[]>> operations) {
+        return new TransactionOperation(bluetoothGatt, operations);
+    }
+
+    @Override
+    public ConnectionBringUpOperation provideConnectionBringUpOperation(int connectionPriority, List<Operation<?>> operations) {
+        return new ConnectionBringUpOperation(bluetoothGatt, connectionPriority, operations);
+    }
+
     @Override
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
     public MtuRequestOperation provideMtuChangeOperation(int requestedMtu) {
@@ -74,12 +123,12 @@ public class OperationsProviderImpl implements OperationsProvider {
 
     @Override
     public CharacteristicReadOperation provideReadCharacteristic(BluetoothGattCharacteristic characteristic) {
-        return new CharacteristicReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic);
+        return new CharacteristicReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, callbackScheduler, characteristic);
     }
 
     @Override
     public DescriptorReadOperation provideReadDescriptor(BluetoothGattDescriptor descriptor) {
-        return new DescriptorReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, descriptor);
+        return new DescriptorReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, callbackScheduler, descriptor);
     }
 
     @Override
@@ -95,12 +144,13 @@ public class OperationsProviderImpl implements OperationsProvider {
 
     @Override
     public CharacteristicWriteOperation provideWriteCharacteristic(BluetoothGattCharacteristic characteristic, byte[] data) {
-        return new CharacteristicWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic, data);
+        return new CharacteristicWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, callbackScheduler, characteristic,
+                data);
     }
 
     @Override
     public DescriptorWriteOperation provideWriteDescriptor(BluetoothGattDescriptor bluetoothGattDescriptor, byte[] data) {
-        return new DescriptorWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration,
+        return new DescriptorWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, callbackScheduler,
                 BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT, bluetoothGattDescriptor, data);
     }
 
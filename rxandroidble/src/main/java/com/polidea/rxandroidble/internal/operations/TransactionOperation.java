@@ -0,0 +1,59 @@
+package com.polidea.rxandroidble.internal.operations;
+
+
+import android.bluetooth.BluetoothGatt;
+import android.os.DeadObjectException;
+
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble.exceptions.BleException;
+import com.polidea.rxandroidble.internal.QueueOperation;
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble.internal.util.QueueReleasingEmitterWrapper;
+
+import java.util.List;
+
+import rx.Emitter;
+import rx.Observable;
+import rx.functions.Func1;
+
+/**
+ * An operation that runs a list of operations one after another without releasing the queue in between. The operations of other
+ * callers cannot interleave with the transaction and the queue is not involved between the steps — the next step is started
+ * directly from the callback of the previous one.
+ * <p>
+ * The values emitted by the steps are collected and emitted as a single list in the order of the steps. If any of the steps fails
+ * the remaining ones are not started. If the transaction gets unsubscribed the step in progress is allowed to finish.
+ */
+public class TransactionOperation extends QueueOperation<List<byte[]>> {
+
+    private final BluetoothGatt bluetoothGatt;
+    private final List<Operation<byte[]>> operations;
+
+    TransactionOperation(BluetoothGatt bluetoothGatt, List<Operation<byte[]>> operations) {
+        this.bluetoothGatt = bluetoothGatt;
+        this.operations = operations;
+    }
+
+    @Override
+    protected void protectedRun(Emitter<List<byte[]>> emitter, QueueReleaseInterface queueReleaseInterface) throws Throwable {
+        final QueueReleasingEmitterWrapper<List<byte[]>> emitterWrapper =
+                new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface);
+        Observable.from(operations)
+                .concatMap(new Func1<Operation<byte[]>, Observable<byte[]>>() {
+                    @Override
+                    public Observable<byte[]> call(Operation<byte[]> operation) {
+                        if (emitterWrapper.isWrappedEmitterUnsubscribed()) {
+                            return Observable.empty();
+                        }
+                        return operation.run(QueueReleaseInterface.NO_OP);
+                    }
+                })
+                .toList()
+                .subscribe(emitterWrapper);
+    }
+
+    @Override
+    protected BleException provideException(DeadObjectException deadObjectException) {
+        return new BleDisconnectedException(deadObjectException, bluetoothGatt.getDevice().getAddress());
+    }
+}
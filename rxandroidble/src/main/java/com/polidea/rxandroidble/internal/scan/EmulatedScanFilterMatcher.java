@@ -7,23 +7,13 @@ import com.polidea.rxandroidble.scan.ScanFilter;
 public class EmulatedScanFilterMatcher {
 
     @Nullable
-    private final ScanFilter[] scanFilters;
+    private final ScanFilterIndex scanFilterIndex;
 
     public EmulatedScanFilterMatcher(@Nullable ScanFilter... scanFilters) {
-        this.scanFilters = scanFilters;
+        this.scanFilterIndex = scanFilters == null || scanFilters.length == 0 ? null : new ScanFilterIndex(scanFilters);
     }
 
     public boolean matches(RxBleInternalScanResult internalScanResult) {
-        if (scanFilters == null || scanFilters.length == 0) {
-            return true;
-        }
-
-        for (ScanFilter scanFilter : scanFilters) {
-            if (scanFilter.matches(internalScanResult)) {
-                return true;
-            }
-        }
-
-        return false;
+        return scanFilterIndex == null || scanFilterIndex.matchesAny(internalScanResult);
     }
 }
@@ -0,0 +1,207 @@
+package com.polidea.rxandroidble.internal.scan;
+
+
+import com.polidea.rxandroidble.scan.ScanCallbackType;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+
+/**
+ * Emulates {@link ScanCallbackType#CALLBACK_TYPE_FIRST_MATCH} and {@link ScanCallbackType#CALLBACK_TYPE_MATCH_LOST} for the scan results
+ * of all devices at once. A device is matched by its first scan result and is lost when it was not scanned for the match lost delay.
+ * <p>
+ * The state of the devices is kept in a single table ordered by the time they were last scanned. Since the match lost delay is the same
+ * for all devices this is also the order of their match lost deadlines — a single timer scheduled for the deadline of the least recently
+ * scanned device drives all of them. Every scan result costs a constant amount of work regardless of how many devices were scanned.
+ * The table holds at most {@code maxTrackedDevices} devices — when it is full the least recently scanned device is treated as lost.
+ * <p>
+ * The results are queued while the table is updated and emitted in that order, so the downstream never sees a device lost after it
+ * was matched again even if the scan callbacks and the timer race.
+ */
+class ScanCallbackTypeEmulator implements Observable.Operator<RxBleInternalScanResult, RxBleInternalScanResult> {
+
+    private static final Object COMPLETED = new Object();
+
+    private final Scheduler scheduler;
+    private final boolean emitFirstMatch;
+    private final boolean emitMatchLost;
+    private final long matchLostDelayMillis;
+    private final int maxTrackedDevices;
+
+    ScanCallbackTypeEmulator(Scheduler scheduler, boolean emitFirstMatch, boolean emitMatchLost, long matchLostDelay, TimeUnit timeUnit,
+                             int maxTrackedDevices) {
+        this.scheduler = scheduler;
+        this.emitFirstMatch = emitFirstMatch;
+        this.emitMatchLost = emitMatchLost;
+        this.matchLostDelayMillis = timeUnit.toMillis(matchLostDelay);
+        this.maxTrackedDevices = maxTrackedDevices;
+    }
+
+    @Override
+    public Subscriber<? super RxBleInternalScanResult> call(Subscriber<? super RxBleInternalScanResult> child) {
+        final Scheduler.Worker worker = scheduler.createWorker();
+        child.add(worker);
+        return new EmulatingSubscriber(child, worker);
+    }
+
+    private static class TrackedDevice {
+
+        RxBleInternalScanResult lastScanResult;
+        long lastScannedMillis;
+    }
+
+    private class EmulatingSubscriber extends Subscriber<RxBleInternalScanResult> implements Action0 {
+
+        private final Subscriber<? super RxBleInternalScanResult> child;
+        private final Scheduler.Worker worker;
+        // access ordered — the least recently scanned device comes first
+        private final LinkedHashMap<String, TrackedDevice> trackedDevices = new LinkedHashMap<>(16, 0.75f, true);
+        // results are queued both by the scan callbacks and by the timer — RxBleInternalScanResult, Throwable or COMPLETED events
+        private final ArrayDeque<Object> pendingEvents = new ArrayDeque<>();
+        private boolean isTimerScheduled;
+        private boolean isEmitting;
+
+        EmulatingSubscriber(Subscriber<? super RxBleInternalScanResult> child, Scheduler.Worker worker) {
+            super(child);
+            this.child = child;
+            this.worker = worker;
+        }
+
+        @Override
+        public void onNext(RxBleInternalScanResult scanResult) {
+            final String address = scanResult.getBluetoothDevice().getAddress();
+            synchronized (trackedDevices) {
+                TrackedDevice trackedDevice = trackedDevices.get(address);
+                if (trackedDevice == null) {
+                    if (trackedDevices.size() >= maxTrackedDevices) {
+                        queueLost(removeLeastRecentlyScanned());
+                    }
+                    trackedDevice = new TrackedDevice();
+                    trackedDevices.put(address, trackedDevice);
+                    if (emitFirstMatch) {
+                        pendingEvents.add(withCallbackType(scanResult, ScanCallbackType.CALLBACK_TYPE_FIRST_MATCH));
+                    }
+                }
+                trackedDevice.lastScanResult = scanResult;
+                trackedDevice.lastScannedMillis = worker.now();
+                scheduleTimerIfNeeded(trackedDevice.lastScannedMillis);
+            }
+            emitPendingEvents();
+        }
+
+        private RxBleInternalScanResult removeLeastRecentlyScanned() {
+            final Iterator<TrackedDevice> iterator = trackedDevices.values().iterator();
+            final TrackedDevice trackedDevice = iterator.next();
+            iterator.remove();
+            return trackedDevice.lastScanResult;
+        }
+
+        private void scheduleTimerIfNeeded(long nowMillis) {
+            if (isTimerScheduled || trackedDevices.isEmpty()) {
+                return;
+            }
+            final long deadlineMillis = trackedDevices.values().iterator().next().lastScannedMillis + matchLostDelayMillis;
+            worker.schedule(this, Math.max(deadlineMillis - nowMillis, 0), TimeUnit.MILLISECONDS);
+            isTimerScheduled = true;
+        }
+
+        /**
+         * The match lost timer. Removes all the devices which were not scanned for the match lost delay and schedules itself for the
+         * deadline of the least recently scanned device left. The deadline might have moved since the timer was scheduled if that
+         * device was scanned again in the meantime.
+         */
+        @Override
+        public void call() {
+            synchronized (trackedDevices) {
+                isTimerScheduled = false;
+                final long nowMillis = worker.now();
+                final Iterator<TrackedDevice> iterator = trackedDevices.values().iterator();
+                while (iterator.hasNext()) {
+                    final TrackedDevice trackedDevice = iterator.next();
+                    if (trackedDevice.lastScannedMillis + matchLostDelayMillis > nowMillis) {
+                        break;
+                    }
+                    iterator.remove();
+                    queueLost(trackedDevice.lastScanResult);
+                }
+                scheduleTimerIfNeeded(nowMillis);
+            }
+            emitPendingEvents();
+        }
+
+        @Override
+        public void onCompleted() {
+            synchronized (trackedDevices) {
+                // all the scanned devices are lost when the scan ends
+                for (TrackedDevice trackedDevice : trackedDevices.values()) {
+                    queueLost(trackedDevice.lastScanResult);
+                }
+                trackedDevices.clear();
+                pendingEvents.add(COMPLETED);
+            }
+            emitPendingEvents();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            synchronized (trackedDevices) {
+                trackedDevices.clear();
+                pendingEvents.add(e);
+            }
+            emitPendingEvents();
+        }
+
+        private void queueLost(RxBleInternalScanResult lostScanResult) {
+            if (emitMatchLost) {
+                pendingEvents.add(withCallbackType(lostScanResult, ScanCallbackType.CALLBACK_TYPE_MATCH_LOST));
+            }
+        }
+
+        /**
+         * Emits the queued events. Must be called without holding the lock.
+         */
+        private void emitPendingEvents() {
+            synchronized (trackedDevices) {
+                if (isEmitting) {
+                    // the emitting thread will pick up the events queued in the meantime
+                    return;
+                }
+                isEmitting = true;
+            }
+            while (true) {
+                final Object event;
+                synchronized (trackedDevices) {
+                    event = pendingEvents.poll();
+                    if (event == null) {
+                        isEmitting = false;
+                        return;
+                    }
+                }
+                if (event == COMPLETED) {
+                    child.onCompleted();
+                } else if (event instanceof Throwable) {
+                    child.onError((Throwable) event);
+                } else {
+                    child.onNext((RxBleInternalScanResult) event);
+                }
+            }
+        }
+    }
+
+    private static RxBleInternalScanResult withCallbackType(RxBleInternalScanResult scanResult, ScanCallbackType callbackType) {
+        return new RxBleInternalScanResult(
+                scanResult.getBluetoothDevice(),
+                scanResult.getRssi(),
+                scanResult.getTimestampNanos(),
+                scanResult.getScanRecord(),
+                callbackType
+        );
+    }
+}
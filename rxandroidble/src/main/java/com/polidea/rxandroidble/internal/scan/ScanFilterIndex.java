@@ -0,0 +1,319 @@
+package com.polidea.rxandroidble.internal.scan;
+
+
+import android.bluetooth.BluetoothDevice;
+import android.os.ParcelUuid;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+
+import com.polidea.rxandroidble.scan.ScanFilter;
+import com.polidea.rxandroidble.scan.ScanRecord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link ScanFilter}s compiled into hash indexes. Every filter is indexed by its most selective criterion: the device address, the
+ * manufacturer ID, the service data UUID, the service UUID or the device name. For a scan result only the filters found under its
+ * address and the fields of its advertisement are checked so matching costs O(number of advertisement fields) instead of
+ * O(number of filters). Filters without any of the criteria are always checked.
+ * <p>
+ * Manufacturer IDs and UUIDs are kept as raw bits so the fields of a {@link ScanRecordImplLazy} are looked up without decoding the
+ * record. Service UUIDs with a mask are indexed by the masked UUID separately for every distinct mask.
+ */
+class ScanFilterIndex {
+
+    private final Map<String, List<ScanFilter>> filtersByDeviceAddress = new HashMap<>();
+    private final RawKeyIndex filtersByManufacturerId = new RawKeyIndex();
+    private final RawKeyIndex filtersByServiceDataUuid = new RawKeyIndex();
+    private final RawKeyIndex filtersByServiceUuid = new RawKeyIndex();
+    private final List<MaskedServiceUuidIndex> maskedServiceUuidIndexes = new ArrayList<>();
+    private final Map<String, List<ScanFilter>> filtersByDeviceName = new HashMap<>();
+    private final List<ScanFilter> unindexedFilters = new ArrayList<>();
+
+    ScanFilterIndex(@NonNull ScanFilter[] scanFilters) {
+        for (ScanFilter scanFilter : scanFilters) {
+            add(scanFilter);
+        }
+    }
+
+    private void add(ScanFilter scanFilter) {
+        if (scanFilter.getDeviceAddress() != null) {
+            addTo(filtersByDeviceAddress, scanFilter.getDeviceAddress(), scanFilter);
+        } else if (scanFilter.getManufacturerId() >= 0) {
+            filtersByManufacturerId.add(0, scanFilter.getManufacturerId(), scanFilter);
+        } else if (scanFilter.getServiceDataUuid() != null) {
+            final UUID serviceDataUuid = scanFilter.getServiceDataUuid().getUuid();
+            filtersByServiceDataUuid.add(serviceDataUuid.getMostSignificantBits(), serviceDataUuid.getLeastSignificantBits(), scanFilter);
+        } else if (scanFilter.getServiceUuid() != null && scanFilter.getServiceUuidMask() == null) {
+            final UUID serviceUuid = scanFilter.getServiceUuid().getUuid();
+            filtersByServiceUuid.add(serviceUuid.getMostSignificantBits(), serviceUuid.getLeastSignificantBits(), scanFilter);
+        } else if (scanFilter.getServiceUuid() != null) {
+            maskedServiceUuidIndexFor(scanFilter.getServiceUuidMask().getUuid()).add(scanFilter);
+        } else if (scanFilter.getDeviceName() != null) {
+            addTo(filtersByDeviceName, scanFilter.getDeviceName(), scanFilter);
+        } else {
+            unindexedFilters.add(scanFilter);
+        }
+    }
+
+    private MaskedServiceUuidIndex maskedServiceUuidIndexFor(UUID mask) {
+        for (MaskedServiceUuidIndex maskedServiceUuidIndex : maskedServiceUuidIndexes) {
+            if (maskedServiceUuidIndex.msbMask == mask.getMostSignificantBits()
+                    && maskedServiceUuidIndex.lsbMask == mask.getLeastSignificantBits()) {
+                return maskedServiceUuidIndex;
+            }
+        }
+        final MaskedServiceUuidIndex maskedServiceUuidIndex = new MaskedServiceUuidIndex(mask);
+        maskedServiceUuidIndexes.add(maskedServiceUuidIndex);
+        return maskedServiceUuidIndex;
+    }
+
+    private static <K> void addTo(Map<K, List<ScanFilter>> index, K key, ScanFilter scanFilter) {
+        List<ScanFilter> scanFilters = index.get(key);
+        if (scanFilters == null) {
+            scanFilters = new ArrayList<>(1);
+            index.put(key, scanFilters);
+        }
+        scanFilters.add(scanFilter);
+    }
+
+    /**
+     * Checks if any of the indexed filters matches the scan result.
+     *
+     * @param scanResult the scan result to check
+     * @return true if at least one filter matches
+     */
+    boolean matchesAny(RxBleInternalScanResult scanResult) {
+        if (anyMatches(unindexedFilters, scanResult)) {
+            return true;
+        }
+        final BluetoothDevice device = scanResult.getBluetoothDevice();
+        if (device != null && !filtersByDeviceAddress.isEmpty()
+                && anyMatches(filtersByDeviceAddress.get(device.getAddress()), scanResult)) {
+            return true;
+        }
+        final ScanRecord scanRecord = scanResult.getScanRecord();
+        if (scanRecord == null) {
+            // all the remaining filters have criteria on the scan record
+            return false;
+        }
+        if (scanRecord instanceof ScanRecordImplLazy) {
+            return matchesRawRecord((ScanRecordImplLazy) scanRecord, scanResult)
+                    || matchesDeviceNames(device, scanRecord, scanResult);
+        }
+        return matchesManufacturerIds(scanRecord, scanResult)
+                || matchesServiceDataUuids(scanRecord, scanResult)
+                || matchesServiceUuids(scanRecord, scanResult)
+                || matchesDeviceNames(device, scanRecord, scanResult);
+    }
+
+    // Looks the manufacturer IDs and the UUIDs of the advertisement up in the indexes without decoding the record.
+    private boolean matchesRawRecord(ScanRecordImplLazy scanRecord, RxBleInternalScanResult scanResult) {
+        final boolean hasServiceUuidFilters = !filtersByServiceUuid.isEmpty() || !maskedServiceUuidIndexes.isEmpty();
+        for (int i = 0; i < scanRecord.getStructureCount(); i++) {
+            final int manufacturerId = scanRecord.getManufacturerIdAt(i);
+            if (manufacturerId >= 0) {
+                if (anyMatches(filtersByManufacturerId.get(0, manufacturerId), scanResult)) {
+                    return true;
+                }
+            } else if (scanRecord.isServiceDataAt(i)) {
+                if (anyMatches(filtersByServiceDataUuid.get(scanRecord.getServiceDataUuidMostSignificantBitsAt(i),
+                        scanRecord.getServiceDataUuidLeastSignificantBitsAt(i)), scanResult)) {
+                    return true;
+                }
+            } else if (hasServiceUuidFilters) {
+                for (int j = 0; j < scanRecord.getServiceUuidCountAt(i); j++) {
+                    if (matchesServiceUuid(scanRecord.getServiceUuidMostSignificantBitsAt(i, j),
+                            scanRecord.getServiceUuidLeastSignificantBitsAt(i, j), scanResult)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesManufacturerIds(ScanRecord scanRecord, RxBleInternalScanResult scanResult) {
+        if (filtersByManufacturerId.isEmpty()) {
+            return false;
+        }
+        final SparseArray<byte[]> manufacturerSpecificData = scanRecord.getManufacturerSpecificData();
+        if (manufacturerSpecificData == null) {
+            return false;
+        }
+        for (int i = 0; i < manufacturerSpecificData.size(); i++) {
+            if (anyMatches(filtersByManufacturerId.get(0, manufacturerSpecificData.keyAt(i)), scanResult)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesServiceDataUuids(ScanRecord scanRecord, RxBleInternalScanResult scanResult) {
+        if (filtersByServiceDataUuid.isEmpty()) {
+            return false;
+        }
+        final Map<ParcelUuid, byte[]> serviceData = scanRecord.getServiceData();
+        if (serviceData == null) {
+            return false;
+        }
+        for (ParcelUuid serviceDataUuid : serviceData.keySet()) {
+            final UUID uuid = serviceDataUuid.getUuid();
+            if (anyMatches(filtersByServiceDataUuid.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()), scanResult)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesServiceUuids(ScanRecord scanRecord, RxBleInternalScanResult scanResult) {
+        if (filtersByServiceUuid.isEmpty() && maskedServiceUuidIndexes.isEmpty()) {
+            return false;
+        }
+        final List<ParcelUuid> serviceUuids = scanRecord.getServiceUuids();
+        if (serviceUuids == null) {
+            return false;
+        }
+        for (int i = 0; i < serviceUuids.size(); i++) {
+            final UUID serviceUuid = serviceUuids.get(i).getUuid();
+            if (matchesServiceUuid(serviceUuid.getMostSignificantBits(), serviceUuid.getLeastSignificantBits(), scanResult)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesServiceUuid(long mostSignificantBits, long leastSignificantBits, RxBleInternalScanResult scanResult) {
+        if (anyMatches(filtersByServiceUuid.get(mostSignificantBits, leastSignificantBits), scanResult)) {
+            return true;
+        }
+        for (int i = 0; i < maskedServiceUuidIndexes.size(); i++) {
+            if (anyMatches(maskedServiceUuidIndexes.get(i).get(mostSignificantBits, leastSignificantBits), scanResult)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesDeviceNames(@Nullable BluetoothDevice device, ScanRecord scanRecord, RxBleInternalScanResult scanResult) {
+        if (filtersByDeviceName.isEmpty()) {
+            return false;
+        }
+        final String advertisedName = scanRecord.getDeviceName();
+        if (advertisedName != null && anyMatches(filtersByDeviceName.get(advertisedName), scanResult)) {
+            return true;
+        }
+        final String deviceName = device == null ? null : device.getName();
+        return deviceName != null && !deviceName.equals(advertisedName)
+                && anyMatches(filtersByDeviceName.get(deviceName), scanResult);
+    }
+
+    // Checks the remaining criteria of the filters found in an index.
+    private static boolean anyMatches(@Nullable List<ScanFilter> scanFilters, RxBleInternalScanResult scanResult) {
+        if (scanFilters == null) {
+            return false;
+        }
+        for (int i = 0; i < scanFilters.size(); i++) {
+            if (scanFilters.get(i).matches(scanResult)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Filters indexed by a 128 bit key — a UUID or a manufacturer ID — kept as two longs. The keys are stored in sorted arrays so
+     * a lookup is a binary search which does not allocate.
+     */
+    private static class RawKeyIndex {
+
+        private long[] mostSignificantBits = new long[0];
+        private long[] leastSignificantBits = new long[0];
+        private final List<List<ScanFilter>> filters = new ArrayList<>();
+
+        void add(long msb, long lsb, ScanFilter scanFilter) {
+            int position = find(msb, lsb);
+            if (position < 0) {
+                position = -(position + 1);
+                mostSignificantBits = insert(mostSignificantBits, position, msb);
+                leastSignificantBits = insert(leastSignificantBits, position, lsb);
+                filters.add(position, new ArrayList<ScanFilter>(1));
+            }
+            filters.get(position).add(scanFilter);
+        }
+
+        boolean isEmpty() {
+            return filters.isEmpty();
+        }
+
+        @Nullable
+        List<ScanFilter> get(long msb, long lsb) {
+            final int position = find(msb, lsb);
+            return position < 0 ? null : filters.get(position);
+        }
+
+        // Returns the position of the key or (-(insertion point) - 1) if there is no such key — as Arrays.binarySearch() does.
+        private int find(long msb, long lsb) {
+            int low = 0;
+            int high = mostSignificantBits.length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int comparison = mostSignificantBits[middle] != msb
+                        ? compare(mostSignificantBits[middle], msb)
+                        : compare(leastSignificantBits[middle], lsb);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        // Long.compare() is available since API 19.
+        private static int compare(long a, long b) {
+            return a < b ? -1 : (a == b ? 0 : 1);
+        }
+
+        private static long[] insert(long[] array, int position, long value) {
+            final long[] result = new long[array.length + 1];
+            System.arraycopy(array, 0, result, 0, position);
+            result[position] = value;
+            System.arraycopy(array, position, result, position + 1, array.length - position);
+            return result;
+        }
+    }
+
+    /**
+     * Service UUID filters sharing the same mask, indexed by the raw bits of their UUIDs with the mask applied.
+     */
+    private static class MaskedServiceUuidIndex {
+
+        final long msbMask;
+        final long lsbMask;
+        private final RawKeyIndex filtersByMaskedUuid = new RawKeyIndex();
+
+        MaskedServiceUuidIndex(UUID mask) {
+            this.msbMask = mask.getMostSignificantBits();
+            this.lsbMask = mask.getLeastSignificantBits();
+        }
+
+        void add(ScanFilter scanFilter) {
+            final UUID serviceUuid = scanFilter.getServiceUuid().getUuid();
+            filtersByMaskedUuid.add(serviceUuid.getMostSignificantBits() & msbMask, serviceUuid.getLeastSignificantBits() & lsbMask,
+                    scanFilter);
+        }
+
+        @Nullable
+        List<ScanFilter> get(long mostSignificantBits, long leastSignificantBits) {
+            return filtersByMaskedUuid.get(mostSignificantBits & msbMask, leastSignificantBits & lsbMask);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.polidea.rxandroidble.internal.scan;
+
+
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.ClientScope;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import com.polidea.rxandroidble.internal.serialization.ClientOperationQueue;
+import com.polidea.rxandroidble.scan.ScanFilter;
+import com.polidea.rxandroidble.scan.ScanSettings;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+import rx.Emitter;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action1;
+import rx.functions.Cancellable;
+
+/**
+ * Runs a single native scan for all the concurrent scan subscriptions of the client. Every native scan start counts towards the limit
+ * of scans that Android allows an application to start (and silently throttles above) so subscriptions share one scan instead of queueing
+ * a scan operation each.
+ * <p>
+ * The native scan uses the most aggressive scan mode and the union of the filters of all subscriptions. Its results are demultiplexed
+ * to every subscription through the subscription's own {@link EmulatedScanFilterMatcher} and the callback type emulation of
+ * {@link ScanSettingsEmulator}. The native scan is restarted only when a subscription arriving or leaving changes the scan mode or
+ * the filters it needs.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+@ClientScope
+public class ScanMultiplexer {
+
+    private static final ScanClient[] NO_SCAN_CLIENTS = new ScanClient[0];
+
+    private final ScanSetupBuilder scanSetupBuilder;
+    private final ClientOperationQueue operationQueue;
+    private final ScanSettingsEmulator scanSettingsEmulator;
+    private final ScanStartScheduler scanStartScheduler;
+    private final Scheduler bluetoothInteractionScheduler;
+    // replaced under the lock, read without it when dispatching the scan results
+    private volatile ScanClient[] scanClients = NO_SCAN_CLIENTS;
+    @Nullable
+    private NativeScanRequest currentNativeScanRequest;
+    @Nullable
+    private NativeScanSubscriber currentNativeScan;
+
+    @Inject
+    public ScanMultiplexer(
+            ScanSetupBuilder scanSetupBuilder,
+            ClientOperationQueue operationQueue,
+            ScanSettingsEmulator scanSettingsEmulator,
+            ScanStartScheduler scanStartScheduler,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler bluetoothInteractionScheduler
+    ) {
+        this.scanSetupBuilder = scanSetupBuilder;
+        this.operationQueue = operationQueue;
+        this.scanSettingsEmulator = scanSettingsEmulator;
+        this.scanStartScheduler = scanStartScheduler;
+        this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
+    }
+
+    /**
+     * Returns an observable of the scan results matching the passed filters. Subscribing joins the shared native scan and unsubscribing
+     * leaves it. The native scan is stopped when the last subscriber leaves.
+     *
+     * @param scanSettings the settings of the scan — the scan mode is a hint for the shared native scan, the callback type is emulated
+     * @param scanFilters the filters of the scan — no filters match all scan results
+     * @return the observable of the scan results
+     */
+    public Observable<RxBleInternalScanResult> scan(final ScanSettings scanSettings, final ScanFilter... scanFilters) {
+        return Observable.create(new Action1<Emitter<RxBleInternalScanResult>>() {
+            @Override
+            public void call(Emitter<RxBleInternalScanResult> emitter) {
+                final ScanClient scanClient = new ScanClient(scanSettings, scanFilters, emitter);
+                addScanClient(scanClient);
+                emitter.setCancellation(new Cancellable() {
+                    @Override
+                    public void cancel() throws Exception {
+                        removeScanClient(scanClient);
+                    }
+                });
+            }
+        }, Emitter.BackpressureMode.NONE)
+                .compose(scanSettingsEmulator.emulateCallbackType(scanSettings.getCallbackType()));
+    }
+
+    private synchronized void addScanClient(ScanClient scanClient) {
+        final ScanClient[] newScanClients = Arrays.copyOf(scanClients, scanClients.length + 1);
+        newScanClients[scanClients.length] = scanClient;
+        scanClients = newScanClients;
+        updateNativeScan();
+    }
+
+    private synchronized void removeScanClient(ScanClient scanClient) {
+        final int index = Arrays.asList(scanClients).indexOf(scanClient);
+        if (index < 0) {
+            // already detached by an error of the native scan
+            return;
+        }
+        final ScanClient[] newScanClients = new ScanClient[scanClients.length - 1];
+        System.arraycopy(scanClients, 0, newScanClients, 0, index);
+        System.arraycopy(scanClients, index + 1, newScanClients, index, newScanClients.length - index);
+        scanClients = newScanClients;
+        updateNativeScan();
+    }
+
+    // must be called while holding the lock
+    private void updateNativeScan() {
+        final NativeScanRequest requiredNativeScanRequest = scanClients.length == 0 ? null : NativeScanRequest.of(scanClients);
+        if (requiredNativeScanRequest == null
+                ? currentNativeScanRequest == null
+                : requiredNativeScanRequest.equals(currentNativeScanRequest)) {
+            return;
+        }
+        if (currentNativeScan != null) {
+            currentNativeScan.unsubscribe();
+            currentNativeScan = null;
+        }
+        currentNativeScanRequest = requiredNativeScanRequest;
+        if (requiredNativeScanRequest == null) {
+            return;
+        }
+        RxBleLog.d("Starting a native scan for %d subscriber(s): %s", scanClients.length, requiredNativeScanRequest);
+        final ScanSetup scanSetup = scanSetupBuilder.build(
+                requiredNativeScanRequest.toScanSettings(),
+                requiredNativeScanRequest.toScanFilters()
+        );
+        final NativeScanSubscriber nativeScan = new NativeScanSubscriber();
+        currentNativeScan = nativeScan;
+        // a restart that is still waiting for the scan quota is cancelled above and its replacement takes over the same start time
+        scanStartScheduler.schedule(operationQueue.queue(scanSetup.scanOperation).unsubscribeOn(bluetoothInteractionScheduler))
+                .compose(scanSetup.scanOperationBehaviourEmulatorTransformer)
+                .subscribe(nativeScan);
+    }
+
+    private class NativeScanSubscriber extends Subscriber<RxBleInternalScanResult> {
+
+        @Override
+        public void onNext(RxBleInternalScanResult scanResult) {
+            for (ScanClient scanClient : scanClients) {
+                scanClient.onScanResult(scanResult);
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            for (ScanClient scanClient : detachAllScanClients()) {
+                scanClient.emitter.onError(e);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            for (ScanClient scanClient : detachAllScanClients()) {
+                scanClient.emitter.onCompleted();
+            }
+        }
+
+        // the native scan has ended so all the subscriptions end with it — the next subscription will start a new one
+        private ScanClient[] detachAllScanClients() {
+            synchronized (ScanMultiplexer.this) {
+                if (currentNativeScan != this) {
+                    return NO_SCAN_CLIENTS;
+                }
+                final ScanClient[] detachedScanClients = scanClients;
+                scanClients = NO_SCAN_CLIENTS;
+                currentNativeScan = null;
+                currentNativeScanRequest = null;
+                return detachedScanClients;
+            }
+        }
+    }
+
+    private static class ScanClient {
+
+        final ScanSettings scanSettings;
+        @Nullable
+        final ScanFilter[] scanFilters;
+        final EmulatedScanFilterMatcher emulatedScanFilterMatcher;
+        final Emitter<RxBleInternalScanResult> emitter;
+
+        ScanClient(ScanSettings scanSettings, @Nullable ScanFilter[] scanFilters, Emitter<RxBleInternalScanResult> emitter) {
+            this.scanSettings = scanSettings;
+            this.scanFilters = scanFilters;
+            this.emulatedScanFilterMatcher = new EmulatedScanFilterMatcher(scanFilters);
+            this.emitter = emitter;
+        }
+
+        void onScanResult(RxBleInternalScanResult scanResult) {
+            if (emulatedScanFilterMatcher.matches(scanResult)) {
+                emitter.onNext(scanResult);
+            }
+        }
+    }
+
+    /**
+     * The parameters of the native scan that satisfies all the subscriptions. An empty set of filters matches all scan results.
+     */
+    private static class NativeScanRequest {
+
+        @ScanSettings.ScanMode
+        final int scanMode;
+        final Set<ScanFilter> scanFilters;
+
+        private NativeScanRequest(@ScanSettings.ScanMode int scanMode, Set<ScanFilter> scanFilters) {
+            this.scanMode = scanMode;
+            this.scanFilters = scanFilters;
+        }
+
+        static NativeScanRequest of(ScanClient[] scanClients) {
+            // scan modes are ordered from the least to the most aggressive
+            @ScanSettings.ScanMode int scanMode = ScanSettings.SCAN_MODE_OPPORTUNISTIC;
+            Set<ScanFilter> scanFilters = new LinkedHashSet<>();
+            for (ScanClient scanClient : scanClients) {
+                scanMode = Math.max(scanMode, scanClient.scanSettings.getScanMode());
+                if (scanFilters != null) {
+                    scanFilters = union(scanFilters, scanClient.scanFilters);
+                }
+            }
+            return new NativeScanRequest(scanMode, scanFilters == null ? Collections.<ScanFilter>emptySet() : scanFilters);
+        }
+
+        // returns null if the union matches all scan results
+        @Nullable
+        private static Set<ScanFilter> union(Set<ScanFilter> scanFilters, @Nullable ScanFilter[] otherScanFilters) {
+            if (otherScanFilters == null || otherScanFilters.length == 0) {
+                return null;
+            }
+            for (ScanFilter scanFilter : otherScanFilters) {
+                if (scanFilter.isAllFieldsEmpty()) {
+                    return null;
+                }
+                scanFilters.add(scanFilter);
+            }
+            return scanFilters;
+        }
+
+        ScanSettings toScanSettings() {
+            // the callback type is emulated for every subscription separately
+            return new ScanSettings.Builder().setScanMode(scanMode).build();
+        }
+
+        ScanFilter[] toScanFilters() {
+            return scanFilters.toArray(new ScanFilter[scanFilters.size()]);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final NativeScanRequest that = (NativeScanRequest) o;
+            return scanMode == that.scanMode && scanFilters.equals(that.scanFilters);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * scanMode + scanFilters.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "NativeScanRequest{scanMode=" + scanMode + ", scanFilters=" + scanFilters.size() + '}';
+        }
+    }
+}
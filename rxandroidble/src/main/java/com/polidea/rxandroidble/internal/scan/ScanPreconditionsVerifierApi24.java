@@ -2,7 +2,7 @@ package com.polidea.rxandroidble.internal.scan;
 
 
 import com.polidea.rxandroidble.ClientComponent;
-import com.polidea.rxandroidble.exceptions.BleScanException;
+import com.polidea.rxandroidble.internal.RxBleLog;
 import java.util.Date;
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
@@ -10,26 +10,20 @@ import rx.Scheduler;
 
 public class ScanPreconditionsVerifierApi24 implements ScanPreconditionsVerifier {
 
-    /*
-     * default values taken from
-     * https://android.googlesource.com/platform/packages/apps/Bluetooth/+/android-7.0.0_r1/src/com/android/bluetooth/gatt/AppScanStats.java
-     */
-    private static final int SCANS_LENGTH = 5;
-
-    private static final long EXCESSIVE_SCANNING_PERIOD = 30 * 1000;
-
-    private final long[] previousChecks = new long[SCANS_LENGTH];
-
     private final ScanPreconditionsVerifierApi18 scanPreconditionVerifierApi18;
 
+    private final ScanStartScheduler scanStartScheduler;
+
     private final Scheduler timeScheduler;
 
     @Inject
     public ScanPreconditionsVerifierApi24(
             ScanPreconditionsVerifierApi18 scanPreconditionVerifierApi18,
+            ScanStartScheduler scanStartScheduler,
             @Named(ClientComponent.NamedSchedulers.COMPUTATION) Scheduler timeScheduler
             ) {
         this.scanPreconditionVerifierApi18 = scanPreconditionVerifierApi18;
+        this.scanStartScheduler = scanStartScheduler;
         this.timeScheduler = timeScheduler;
     }
 
@@ -39,32 +33,12 @@ public class ScanPreconditionsVerifierApi24 implements ScanPreconditionsVerifier
 
         /*
          * Android 7.0 (API 24) introduces an undocumented scan throttle for applications that try to scan more than 5 times during
-         * a 30 second window. More on the topic: https://blog.classycode.com/undocumented-android-7-ble-behavior-changes-d1a9bd87d983
+         * a 30 second window. The scan is not failed because of it — ScanStartScheduler delays its start until the quota allows.
+         * The expected start date is available to the application through RxBleClient.getExpectedScanStartDate().
          */
-
-        // TODO: [DS] 27.06.2017 Think if persisting this information through Application close is needed
-        final int oldestCheckTimestampIndex = getOldestCheckTimestampIndex();
-        final long oldestCheckTimestamp = previousChecks[oldestCheckTimestampIndex];
-        final long currentCheckTimestamp = timeScheduler.now();
-        if (currentCheckTimestamp - oldestCheckTimestamp < EXCESSIVE_SCANNING_PERIOD) {
-            throw new BleScanException(
-                    BleScanException.UNDOCUMENTED_SCAN_THROTTLE,
-                    new Date(oldestCheckTimestamp + EXCESSIVE_SCANNING_PERIOD)
-            );
-        }
-        previousChecks[oldestCheckTimestampIndex] = currentCheckTimestamp;
-    }
-
-    private int getOldestCheckTimestampIndex() {
-        long oldestTimestamp = Long.MAX_VALUE;
-        int index = -1;
-        for (int i = 0; i < SCANS_LENGTH; i++) {
-            final long previousCheckTimestamp = previousChecks[i];
-            if (previousCheckTimestamp < oldestTimestamp) {
-                index = i;
-                oldestTimestamp = previousCheckTimestamp;
-            }
+        final Date expectedStartDate = scanStartScheduler.getExpectedStartDate();
+        if (expectedStartDate.getTime() > timeScheduler.now()) {
+            RxBleLog.w("Too many scans were started in the last 30 seconds. The next scan start is delayed until %s", expectedStartDate);
         }
-        return index;
     }
 }
@@ -0,0 +1,575 @@
+package com.polidea.rxandroidble.internal.scan;
+
+import android.os.ParcelUuid;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+import android.util.SparseArray;
+
+import com.polidea.rxandroidble.internal.RxBleLog;
+import com.polidea.rxandroidble.internal.util.ShortUUIDs;
+import com.polidea.rxandroidble.scan.ScanRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A {@link ScanRecord} which keeps only the raw bytes of the advertisement and an index of its AD structures. The fields are decoded
+ * on the first access. The {@code matches*()} functions evaluate the criteria of {@link com.polidea.rxandroidble.scan.ScanFilter}
+ * directly on the raw bytes so filtering scan results does not allocate anything.
+ * <p>
+ * The semantics follow the parsing of v21 {@link android.bluetooth.le.ScanRecord}: if a field is repeated the last occurrence wins and
+ * if the advertisement is malformed the record is empty except for the raw bytes.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ScanRecordImplLazy implements ScanRecord {
+
+    // The following data type values are assigned by Bluetooth SIG.
+    // For more details refer to Bluetooth 4.1 specification, Volume 3, Part C, Section 18.
+    private static final int DATA_TYPE_FLAGS = 0x01;
+    private static final int DATA_TYPE_SERVICE_UUIDS_16_BIT_PARTIAL = 0x02;
+    private static final int DATA_TYPE_SERVICE_UUIDS_16_BIT_COMPLETE = 0x03;
+    private static final int DATA_TYPE_SERVICE_UUIDS_32_BIT_PARTIAL = 0x04;
+    private static final int DATA_TYPE_SERVICE_UUIDS_32_BIT_COMPLETE = 0x05;
+    private static final int DATA_TYPE_SERVICE_UUIDS_128_BIT_PARTIAL = 0x06;
+    private static final int DATA_TYPE_SERVICE_UUIDS_128_BIT_COMPLETE = 0x07;
+    private static final int DATA_TYPE_LOCAL_NAME_SHORT = 0x08;
+    private static final int DATA_TYPE_LOCAL_NAME_COMPLETE = 0x09;
+    private static final int DATA_TYPE_TX_POWER_LEVEL = 0x0A;
+    private static final int DATA_TYPE_SERVICE_DATA = 0x16;
+    private static final int DATA_TYPE_MANUFACTURER_SPECIFIC_DATA = 0xFF;
+
+    private static final int UUID_BYTES_16_BIT = 2;
+    private static final int UUID_BYTES_32_BIT = 4;
+    private static final int UUID_BYTES_128_BIT = 16;
+
+    // Offsets are stored on 16 bits of an index entry.
+    private static final int MAX_INDEXED_LENGTH = 0xFFFF;
+    private static final int[] EMPTY_INDEX = new int[0];
+
+    // Raw bytes of scan record.
+    private final byte[] bytes;
+
+    /**
+     * One entry per AD structure: the offset of its data in {@link #bytes} on the upper 16 bits, the type on the next 8 bits and the
+     * data length on the lowest 8 bits.
+     */
+    private final int[] index;
+
+    private volatile boolean serviceUuidsDecoded;
+    @Nullable
+    private volatile List<ParcelUuid> serviceUuids;
+    private volatile SparseArray<byte[]> manufacturerSpecificData;
+    private volatile Map<ParcelUuid, byte[]> serviceData;
+    private volatile boolean deviceNameDecoded;
+    @Nullable
+    private volatile String deviceName;
+
+    public ScanRecordImplLazy(@NonNull byte[] bytes) {
+        this.bytes = bytes;
+        this.index = buildIndex(bytes);
+    }
+
+    private static int[] buildIndex(byte[] bytes) {
+        final int[] index = new int[countStructures(bytes)];
+        int currentPos = 0;
+        for (int i = 0; i < index.length; i++) {
+            final int dataLength = (bytes[currentPos] & 0xFF) - 1;
+            final int fieldType = bytes[currentPos + 1] & 0xFF;
+            final int dataOffset = currentPos + 2;
+            if (!isValidStructure(fieldType, dataLength)) {
+                RxBleLog.e("unable to parse scan record: " + Arrays.toString(bytes));
+                // As the record is invalid, ignore all the parsed results for this packet
+                return EMPTY_INDEX;
+            }
+            index[i] = (dataOffset << 16) | (fieldType << 8) | dataLength;
+            currentPos = dataOffset + dataLength;
+        }
+        return index;
+    }
+
+    // Counts the AD structures which fit in the record. A structure of a known type which does not fit makes the whole record malformed.
+    private static int countStructures(byte[] bytes) {
+        final int length = Math.min(bytes.length, MAX_INDEXED_LENGTH);
+        int count = 0;
+        int currentPos = 0;
+        while (currentPos + 1 < length) {
+            // Note the length includes the length of the field type itself.
+            final int structureLength = bytes[currentPos] & 0xFF;
+            if (structureLength == 0) {
+                break;
+            }
+            final int fieldType = bytes[currentPos + 1] & 0xFF;
+            final int nextPos = currentPos + 1 + structureLength;
+            if (nextPos > length) {
+                if (isKnownType(fieldType)) {
+                    RxBleLog.e("unable to parse scan record: " + Arrays.toString(bytes));
+                    return 0;
+                }
+                break;
+            }
+            count++;
+            currentPos = nextPos;
+        }
+        return count;
+    }
+
+    private static boolean isKnownType(int fieldType) {
+        switch (fieldType) {
+            case DATA_TYPE_FLAGS:
+            case DATA_TYPE_SERVICE_UUIDS_16_BIT_PARTIAL:
+            case DATA_TYPE_SERVICE_UUIDS_16_BIT_COMPLETE:
+            case DATA_TYPE_SERVICE_UUIDS_32_BIT_PARTIAL:
+            case DATA_TYPE_SERVICE_UUIDS_32_BIT_COMPLETE:
+            case DATA_TYPE_SERVICE_UUIDS_128_BIT_PARTIAL:
+            case DATA_TYPE_SERVICE_UUIDS_128_BIT_COMPLETE:
+            case DATA_TYPE_LOCAL_NAME_SHORT:
+            case DATA_TYPE_LOCAL_NAME_COMPLETE:
+            case DATA_TYPE_TX_POWER_LEVEL:
+            case DATA_TYPE_SERVICE_DATA:
+            case DATA_TYPE_MANUFACTURER_SPECIFIC_DATA:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isValidStructure(int fieldType, int dataLength) {
+        switch (fieldType) {
+            case DATA_TYPE_FLAGS:
+            case DATA_TYPE_TX_POWER_LEVEL:
+                return dataLength >= 1;
+            case DATA_TYPE_SERVICE_DATA:
+                return dataLength >= UUID_BYTES_16_BIT;
+            case DATA_TYPE_MANUFACTURER_SPECIFIC_DATA:
+                return dataLength >= 2;
+            default:
+                return true;
+        }
+    }
+
+    private static int offsetOf(int entry) {
+        return entry >>> 16;
+    }
+
+    private static int typeOf(int entry) {
+        return (entry >> 8) & 0xFF;
+    }
+
+    private static int lengthOf(int entry) {
+        return entry & 0xFF;
+    }
+
+    // Returns the index of the last structure of the passed types or -1 if there is none.
+    private int findLast(int fieldType, int alternativeFieldType) {
+        for (int i = index.length - 1; i >= 0; i--) {
+            final int type = typeOf(index[i]);
+            if (type == fieldType || type == alternativeFieldType) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int uuidLengthOf(int fieldType) {
+        switch (fieldType) {
+            case DATA_TYPE_SERVICE_UUIDS_16_BIT_PARTIAL:
+            case DATA_TYPE_SERVICE_UUIDS_16_BIT_COMPLETE:
+                return UUID_BYTES_16_BIT;
+            case DATA_TYPE_SERVICE_UUIDS_32_BIT_PARTIAL:
+            case DATA_TYPE_SERVICE_UUIDS_32_BIT_COMPLETE:
+                return UUID_BYTES_32_BIT;
+            case DATA_TYPE_SERVICE_UUIDS_128_BIT_PARTIAL:
+            case DATA_TYPE_SERVICE_UUIDS_128_BIT_COMPLETE:
+                return UUID_BYTES_128_BIT;
+            default:
+                return 0;
+        }
+    }
+
+    // The UUIDs are little endian. 16 and 32 bit UUIDs are expanded with the Bluetooth base UUID.
+    private long mostSignificantBitsAt(int offset, int uuidLength) {
+        return uuidLength == UUID_BYTES_128_BIT
+                ? littleEndianLong(offset + 8)
+                : ShortUUIDs.mostSignificantBits(shortUuidAt(offset, uuidLength));
+    }
+
+    private long leastSignificantBitsAt(int offset, int uuidLength) {
+        return uuidLength == UUID_BYTES_128_BIT ? littleEndianLong(offset) : ShortUUIDs.BASE_UUID_LEAST_SIGNIFICANT_BITS;
+    }
+
+    private long shortUuidAt(int offset, int uuidLength) {
+        long shortUuid = (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+        if (uuidLength == UUID_BYTES_32_BIT) {
+            shortUuid |= ((long) (bytes[offset + 2] & 0xFF) << 16) | ((long) (bytes[offset + 3] & 0xFF) << 24);
+        }
+        return shortUuid;
+    }
+
+    private long littleEndianLong(int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private ParcelUuid parcelUuidAt(int offset, int uuidLength) {
+        final UUID uuid = uuidLength == UUID_BYTES_128_BIT
+                ? new UUID(littleEndianLong(offset + 8), littleEndianLong(offset))
+                : ShortUUIDs.from32Bit(shortUuidAt(offset, uuidLength));
+        return new ParcelUuid(uuid);
+    }
+
+    private byte[] extractBytes(int start, int length) {
+        byte[] extracted = new byte[length];
+        System.arraycopy(bytes, start, extracted, 0, length);
+        return extracted;
+    }
+
+    /**
+     * Returns the advertising flags indicating the discoverable mode and capability of the device.
+     * Returns -1 if the flag field is not set.
+     */
+    @Override
+    public int getAdvertiseFlags() {
+        final int i = findLast(DATA_TYPE_FLAGS, DATA_TYPE_FLAGS);
+        return i < 0 ? -1 : bytes[offsetOf(index[i])] & 0xFF;
+    }
+
+    /**
+     * Returns a list of service UUIDs within the advertisement that are used to identify the
+     * bluetooth GATT services.
+     */
+    @Nullable
+    @Override
+    public List<ParcelUuid> getServiceUuids() {
+        if (!serviceUuidsDecoded) {
+            List<ParcelUuid> decodedUuids = null;
+            for (int entry : index) {
+                final int uuidLength = uuidLengthOf(typeOf(entry));
+                if (uuidLength == 0) {
+                    continue;
+                }
+                if (decodedUuids == null) {
+                    decodedUuids = new ArrayList<>();
+                }
+                final int end = offsetOf(entry) + lengthOf(entry);
+                for (int offset = offsetOf(entry); offset + uuidLength <= end; offset += uuidLength) {
+                    decodedUuids.add(parcelUuidAt(offset, uuidLength));
+                }
+            }
+            serviceUuids = decodedUuids == null || decodedUuids.isEmpty() ? null : Collections.unmodifiableList(decodedUuids);
+            serviceUuidsDecoded = true;
+        }
+        return serviceUuids;
+    }
+
+    /**
+     * Returns a sparse array of manufacturer identifier and its corresponding manufacturer specific
+     * data.
+     */
+    @Override
+    public SparseArray<byte[]> getManufacturerSpecificData() {
+        SparseArray<byte[]> decodedData = manufacturerSpecificData;
+        if (decodedData == null) {
+            decodedData = new SparseArray<>();
+            for (int entry : index) {
+                if (typeOf(entry) == DATA_TYPE_MANUFACTURER_SPECIFIC_DATA) {
+                    final int offset = offsetOf(entry);
+                    decodedData.put(manufacturerIdAt(offset), extractBytes(offset + 2, lengthOf(entry) - 2));
+                }
+            }
+            manufacturerSpecificData = decodedData;
+        }
+        return decodedData;
+    }
+
+    // The first two bytes of the manufacturer specific data are manufacturer ids in little endian.
+    private int manufacturerIdAt(int offset) {
+        return ((bytes[offset + 1] & 0xFF) << 8) + (bytes[offset] & 0xFF);
+    }
+
+    /**
+     * Returns the manufacturer specific data associated with the manufacturer id. Returns
+     * {@code null} if the {@code manufacturerId} is not found.
+     */
+    @Nullable
+    @Override
+    public byte[] getManufacturerSpecificData(int manufacturerId) {
+        return getManufacturerSpecificData().get(manufacturerId);
+    }
+
+    /**
+     * Returns a map of service UUID and its corresponding service data.
+     */
+    @Override
+    public Map<ParcelUuid, byte[]> getServiceData() {
+        Map<ParcelUuid, byte[]> decodedData = serviceData;
+        if (decodedData == null) {
+            decodedData = new HashMap<>();
+            for (int entry : index) {
+                if (typeOf(entry) == DATA_TYPE_SERVICE_DATA) {
+                    // The first two bytes of the service data are service data UUID in little
+                    // endian. The rest bytes are service data.
+                    final int offset = offsetOf(entry);
+                    decodedData.put(parcelUuidAt(offset, UUID_BYTES_16_BIT),
+                            extractBytes(offset + UUID_BYTES_16_BIT, lengthOf(entry) - UUID_BYTES_16_BIT));
+                }
+            }
+            serviceData = decodedData;
+        }
+        return decodedData;
+    }
+
+    /**
+     * Returns the service data byte array associated with the {@code serviceUuid}. Returns
+     * {@code null} if the {@code serviceDataUuid} is not found.
+     */
+    @Nullable
+    @Override
+    public byte[] getServiceData(ParcelUuid serviceDataUuid) {
+        if (serviceDataUuid == null) {
+            return null;
+        }
+        return getServiceData().get(serviceDataUuid);
+    }
+
+    /**
+     * Returns the transmission power level of the packet in dBm. Returns {@link Integer#MIN_VALUE}
+     * if the field is not set. This value can be used to calculate the path loss of a received
+     * packet using the following equation:
+     * <p>
+     * <code>pathloss = txPowerLevel - rssi</code>
+     */
+    @Override
+    public int getTxPowerLevel() {
+        final int i = findLast(DATA_TYPE_TX_POWER_LEVEL, DATA_TYPE_TX_POWER_LEVEL);
+        return i < 0 ? Integer.MIN_VALUE : bytes[offsetOf(index[i])];
+    }
+
+    /**
+     * Returns the local name of the BLE device. The is a UTF-8 encoded string.
+     */
+    @Nullable
+    @Override
+    public String getDeviceName() {
+        if (!deviceNameDecoded) {
+            final int i = findLast(DATA_TYPE_LOCAL_NAME_SHORT, DATA_TYPE_LOCAL_NAME_COMPLETE);
+            deviceName = i < 0 ? null : new String(bytes, offsetOf(index[i]), lengthOf(index[i]));
+            deviceNameDecoded = true;
+        }
+        return deviceName;
+    }
+
+    /**
+     * Returns raw bytes of scan record.
+     */
+    @Override
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of AD structures in the record. Together with the {@code *At()} functions it allows to look at the fields
+     * without decoding them.
+     */
+    public int getStructureCount() {
+        return index.length;
+    }
+
+    /**
+     * Returns the manufacturer identifier of the structure or -1 if the structure does not contain manufacturer specific data.
+     *
+     * @param structure the position of the structure
+     */
+    public int getManufacturerIdAt(int structure) {
+        final int entry = index[structure];
+        return typeOf(entry) == DATA_TYPE_MANUFACTURER_SPECIFIC_DATA ? manufacturerIdAt(offsetOf(entry)) : -1;
+    }
+
+    /**
+     * Checks if the structure contains service data.
+     *
+     * @param structure the position of the structure
+     */
+    public boolean isServiceDataAt(int structure) {
+        return typeOf(index[structure]) == DATA_TYPE_SERVICE_DATA;
+    }
+
+    /**
+     * Returns the most significant bits of the service data UUID. Valid only if {@link #isServiceDataAt(int)} returns true.
+     *
+     * @param structure the position of the structure
+     */
+    public long getServiceDataUuidMostSignificantBitsAt(int structure) {
+        return mostSignificantBitsAt(offsetOf(index[structure]), UUID_BYTES_16_BIT);
+    }
+
+    /**
+     * Returns the least significant bits of the service data UUID. Valid only if {@link #isServiceDataAt(int)} returns true.
+     *
+     * @param structure the position of the structure
+     */
+    public long getServiceDataUuidLeastSignificantBitsAt(int structure) {
+        return leastSignificantBitsAt(offsetOf(index[structure]), UUID_BYTES_16_BIT);
+    }
+
+    /**
+     * Returns the number of service UUIDs listed in the structure — 0 if the structure is not a list of service UUIDs.
+     *
+     * @param structure the position of the structure
+     */
+    public int getServiceUuidCountAt(int structure) {
+        final int entry = index[structure];
+        final int uuidLength = uuidLengthOf(typeOf(entry));
+        return uuidLength == 0 ? 0 : lengthOf(entry) / uuidLength;
+    }
+
+    /**
+     * Returns the most significant bits of a service UUID listed in the structure.
+     *
+     * @param structure the position of the structure
+     * @param position the position of the UUID in the structure — less than {@link #getServiceUuidCountAt(int)}
+     */
+    public long getServiceUuidMostSignificantBitsAt(int structure, int position) {
+        final int entry = index[structure];
+        final int uuidLength = uuidLengthOf(typeOf(entry));
+        return mostSignificantBitsAt(offsetOf(entry) + position * uuidLength, uuidLength);
+    }
+
+    /**
+     * Returns the least significant bits of a service UUID listed in the structure.
+     *
+     * @param structure the position of the structure
+     * @param position the position of the UUID in the structure — less than {@link #getServiceUuidCountAt(int)}
+     */
+    public long getServiceUuidLeastSignificantBitsAt(int structure, int position) {
+        final int entry = index[structure];
+        final int uuidLength = uuidLengthOf(typeOf(entry));
+        return leastSignificantBitsAt(offsetOf(entry) + position * uuidLength, uuidLength);
+    }
+
+    /**
+     * Checks if the local name of the BLE device equals to the passed one. ASCII names are compared directly with the raw bytes.
+     *
+     * @param name the expected name
+     * @return true if the record contains the name
+     */
+    public boolean matchesDeviceName(@NonNull String name) {
+        final int i = findLast(DATA_TYPE_LOCAL_NAME_SHORT, DATA_TYPE_LOCAL_NAME_COMPLETE);
+        if (i < 0) {
+            return false;
+        }
+        final int offset = offsetOf(index[i]);
+        final int length = lengthOf(index[i]);
+        if (length != name.length()) {
+            // a non ASCII name may have a different number of bytes than chars
+            return !isAscii(name) && name.equals(getDeviceName());
+        }
+        for (int j = 0; j < length; j++) {
+            final byte nameByte = bytes[offset + j];
+            if (nameByte < 0) {
+                return name.equals(getDeviceName());
+            }
+            if (nameByte != name.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if any of the advertised service UUIDs matches the passed one.
+     *
+     * @param uuid the expected service UUID
+     * @param mask the mask of the bits to compare or null to compare whole UUIDs
+     * @return true if there is a matching service UUID
+     */
+    public boolean matchesServiceUuid(@NonNull UUID uuid, @Nullable UUID mask) {
+        final long msbMask = mask == null ? -1L : mask.getMostSignificantBits();
+        final long lsbMask = mask == null ? -1L : mask.getLeastSignificantBits();
+        final long expectedMsb = uuid.getMostSignificantBits() & msbMask;
+        final long expectedLsb = uuid.getLeastSignificantBits() & lsbMask;
+        for (int entry : index) {
+            final int uuidLength = uuidLengthOf(typeOf(entry));
+            if (uuidLength == 0) {
+                continue;
+            }
+            final int end = offsetOf(entry) + lengthOf(entry);
+            for (int offset = offsetOf(entry); offset + uuidLength <= end; offset += uuidLength) {
+                if ((leastSignificantBitsAt(offset, uuidLength) & lsbMask) == expectedLsb
+                        && (mostSignificantBitsAt(offset, uuidLength) & msbMask) == expectedMsb) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the service data of the passed service starts with the passed data.
+     *
+     * @param serviceDataUuid the UUID of the service
+     * @param data the expected beginning of the service data
+     * @param dataMask the mask of the bits to compare or null to compare whole bytes
+     * @return true if the record contains matching service data
+     */
+    public boolean matchesServiceData(@NonNull UUID serviceDataUuid, @NonNull byte[] data, @Nullable byte[] dataMask) {
+        for (int i = index.length - 1; i >= 0; i--) {
+            final int entry = index[i];
+            if (typeOf(entry) == DATA_TYPE_SERVICE_DATA
+                    && leastSignificantBitsAt(offsetOf(entry), UUID_BYTES_16_BIT) == serviceDataUuid.getLeastSignificantBits()
+                    && mostSignificantBitsAt(offsetOf(entry), UUID_BYTES_16_BIT) == serviceDataUuid.getMostSignificantBits()) {
+                return matchesPartialData(data, dataMask, offsetOf(entry) + UUID_BYTES_16_BIT, lengthOf(entry) - UUID_BYTES_16_BIT);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the manufacturer specific data of the passed manufacturer starts with the passed data.
+     *
+     * @param manufacturerId the manufacturer identifier
+     * @param data the expected beginning of the manufacturer specific data
+     * @param dataMask the mask of the bits to compare or null to compare whole bytes
+     * @return true if the record contains matching manufacturer specific data
+     */
+    public boolean matchesManufacturerData(int manufacturerId, @NonNull byte[] data, @Nullable byte[] dataMask) {
+        for (int i = index.length - 1; i >= 0; i--) {
+            final int entry = index[i];
+            if (typeOf(entry) == DATA_TYPE_MANUFACTURER_SPECIFIC_DATA && manufacturerIdAt(offsetOf(entry)) == manufacturerId) {
+                return matchesPartialData(data, dataMask, offsetOf(entry) + 2, lengthOf(entry) - 2);
+            }
+        }
+        return false;
+    }
+
+    // Check whether the data pattern matches the data in the passed range of the raw bytes.
+    private boolean matchesPartialData(byte[] data, @Nullable byte[] dataMask, int offset, int length) {
+        if (length < data.length) {
+            return false;
+        }
+        for (int i = 0; i < data.length; ++i) {
+            final byte mask = dataMask == null ? (byte) 0xFF : dataMask[i];
+            if ((mask & bytes[offset + i]) != (mask & data[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -6,65 +6,28 @@ import static com.polidea.rxandroidble.internal.util.ObservableUtil.identityTran
 import android.support.annotation.IntRange;
 import com.polidea.rxandroidble.ClientComponent;
 import com.polidea.rxandroidble.internal.RxBleLog;
-import com.polidea.rxandroidble.scan.ScanCallbackType;
 import com.polidea.rxandroidble.scan.ScanSettings;
 import java.util.concurrent.TimeUnit;
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 import rx.Observable;
 import rx.Scheduler;
-import rx.functions.Func0;
 import rx.functions.Func1;
-import rx.observables.GroupedObservable;
 
 public class ScanSettingsEmulator {
 
+    /**
+     * The maximum number of devices tracked at once by the callback type emulation. When more devices are scanned the least recently
+     * scanned ones are treated as lost.
+     */
+    private static final int MAX_TRACKED_DEVICES = 1024;
+    private static final long MATCH_LOST_DELAY_SECONDS = 10L;
+
     private final Scheduler scheduler;
-    private Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult> emulateFirstMatch;
 
     @Inject
     public ScanSettingsEmulator(@Named(ClientComponent.NamedSchedulers.COMPUTATION) final Scheduler scheduler) {
         this.scheduler = scheduler;
-
-        this.emulateFirstMatch = new Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult>() {
-
-            private Func1<RxBleInternalScanResult, RxBleInternalScanResult> toFirstMatchFunc = toFirstMatch();
-            private final Observable<Long> timerObservable = Observable.timer(10L, TimeUnit.SECONDS, scheduler);
-            private final Func1<RxBleInternalScanResult, Observable<?>> emitAfterTimerFunc
-                    = new Func1<RxBleInternalScanResult, Observable<?>>() {
-                @Override
-                public Observable<?> call(RxBleInternalScanResult internalScanResult) {
-                    return timerObservable;
-                }
-            };
-            private final Func1<Observable<RxBleInternalScanResult>, Observable<RxBleInternalScanResult>> takeFirstFromEachWindowFunc
-                    = new Func1<Observable<RxBleInternalScanResult>, Observable<RxBleInternalScanResult>>() {
-                @Override
-                public Observable<RxBleInternalScanResult> call(
-                        Observable<RxBleInternalScanResult> rxBleInternalScanResultObservable) {
-                    return rxBleInternalScanResultObservable.take(1);
-                }
-            };
-
-            @Override
-            public Observable<RxBleInternalScanResult> call(Observable<RxBleInternalScanResult> observable) {
-                return observable.publish(new Func1<Observable<RxBleInternalScanResult>, Observable<RxBleInternalScanResult>>() {
-                    @Override
-                    public Observable<RxBleInternalScanResult> call(final Observable<RxBleInternalScanResult> publishedObservable) {
-                        final Func0<Observable<?>> closeTenSecondsAfterMostRecentEmissionFunc = new Func0<Observable<?>>() {
-                            @Override
-                            public Observable<?> call() {
-                                return publishedObservable.switchMap(emitAfterTimerFunc);
-                            }
-                        };
-                        return publishedObservable
-                                .window(closeTenSecondsAfterMostRecentEmissionFunc)
-                                .flatMap(takeFirstFromEachWindowFunc)
-                                .map(toFirstMatchFunc);
-                    }
-                });
-            }
-        };
     }
 
     Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult> emulateScanMode(@ScanSettings.ScanMode int scanMode) {
@@ -124,11 +87,11 @@ public class ScanSettingsEmulator {
             @ScanSettings.CallbackType final int callbackType) {
         switch (callbackType) {
             case ScanSettings.CALLBACK_TYPE_FIRST_MATCH:
-                return splitByAddressAndForEach(emulateFirstMatch);
+                return callbackTypeTransformer(true, false);
             case ScanSettings.CALLBACK_TYPE_MATCH_LOST:
-                return splitByAddressAndForEach(emulateMatchLost);
+                return callbackTypeTransformer(false, true);
             case ScanSettings.CALLBACK_TYPE_FIRST_MATCH | ScanSettings.CALLBACK_TYPE_MATCH_LOST:
-                return splitByAddressAndForEach(emulateFirstMatchAndMatchLost);
+                return callbackTypeTransformer(true, true);
             case ScanSettings.CALLBACK_TYPE_ALL_MATCHES:
                 // return the original observable - fallthrough
             default: // checkstyle always needs default
@@ -136,81 +99,17 @@ public class ScanSettingsEmulator {
         }
     }
 
-    private Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult> splitByAddressAndForEach(
-            final Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult> compose
+    private Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult> callbackTypeTransformer(
+            final boolean emitFirstMatch,
+            final boolean emitMatchLost
     ) {
         return new Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult>() {
             @Override
             public Observable<RxBleInternalScanResult> call(Observable<RxBleInternalScanResult> observable) {
-                return observable
-                        .groupBy(new Func1<RxBleInternalScanResult, String>() {
-                            @Override
-                            public String call(RxBleInternalScanResult rxBleInternalScanResult) {
-                                return rxBleInternalScanResult.getBluetoothDevice().getAddress();
-                            }
-                        })
-                        .flatMap(new Func1<GroupedObservable<String, RxBleInternalScanResult>, Observable<RxBleInternalScanResult>>() {
-                            @Override
-                            public Observable<RxBleInternalScanResult> call(
-                                    GroupedObservable<String, RxBleInternalScanResult> groupedObservable) {
-                                return groupedObservable.compose(compose);
-                            }
-                        });
-            }
-        };
-    }
-
-    private Func1<RxBleInternalScanResult, RxBleInternalScanResult> toFirstMatch() {
-        return new Func1<RxBleInternalScanResult, RxBleInternalScanResult>() {
-            @Override
-            public RxBleInternalScanResult call(RxBleInternalScanResult rxBleInternalScanResult) {
-                return new RxBleInternalScanResult(
-                        rxBleInternalScanResult.getBluetoothDevice(),
-                        rxBleInternalScanResult.getRssi(),
-                        rxBleInternalScanResult.getTimestampNanos(),
-                        rxBleInternalScanResult.getScanRecord(),
-                        ScanCallbackType.CALLBACK_TYPE_FIRST_MATCH
-                );
+                return observable.lift(new ScanCallbackTypeEmulator(
+                        scheduler, emitFirstMatch, emitMatchLost, MATCH_LOST_DELAY_SECONDS, TimeUnit.SECONDS, MAX_TRACKED_DEVICES
+                ));
             }
         };
     }
-
-    private Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult> emulateMatchLost
-            = new Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult>() {
-        @Override
-        public Observable<RxBleInternalScanResult> call(Observable<RxBleInternalScanResult> observable) {
-            return observable.debounce(10, TimeUnit.SECONDS, scheduler).map(toMatchLost());
-        }
-    };
-
-    private Func1<RxBleInternalScanResult, RxBleInternalScanResult> toMatchLost() {
-        return new Func1<RxBleInternalScanResult, RxBleInternalScanResult>() {
-            @Override
-            public RxBleInternalScanResult call(RxBleInternalScanResult rxBleInternalScanResult) {
-                return new RxBleInternalScanResult(
-                        rxBleInternalScanResult.getBluetoothDevice(),
-                        rxBleInternalScanResult.getRssi(),
-                        rxBleInternalScanResult.getTimestampNanos(),
-                        rxBleInternalScanResult.getScanRecord(),
-                        ScanCallbackType.CALLBACK_TYPE_MATCH_LOST
-                );
-            }
-        };
-    }
-
-    private Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult> emulateFirstMatchAndMatchLost
-            = new Observable.Transformer<RxBleInternalScanResult, RxBleInternalScanResult>() {
-        @Override
-        public Observable<RxBleInternalScanResult> call(Observable<RxBleInternalScanResult> observable) {
-            return observable.publish(new Func1<Observable<RxBleInternalScanResult>, Observable<RxBleInternalScanResult>>() {
-                @Override
-                public Observable<RxBleInternalScanResult> call(Observable<RxBleInternalScanResult> observable) {
-                    return Observable.merge(
-                            observable.compose(emulateFirstMatch),
-                            observable.compose(emulateMatchLost)
-                    );
-                }
-            });
-        }
-    };
 }
@@ -0,0 +1,149 @@
+package com.polidea.rxandroidble.internal.scan;
+
+
+import android.os.Build;
+import android.support.annotation.RestrictTo;
+import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.ClientScope;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Func0;
+
+/**
+ * Schedules the starts of native scans so they do not exceed the quota of Android 7.0 (API 24) and above. The system silently stops
+ * delivering results to an application that started more than 5 scans during a 30 second window. More on the topic:
+ * https://blog.classycode.com/undocumented-android-7-ble-behavior-changes-d1a9bd87d983
+ * <p>
+ * Instead of failing a scan start which would exceed the quota it is delayed until the oldest of the recorded starts leaves the window.
+ * A delayed start which is cancelled before it happens gives its place back so a scan start which replaces it gets the same time.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+@ClientScope
+public class ScanStartScheduler {
+
+    /*
+     * default values taken from
+     * https://android.googlesource.com/platform/packages/apps/Bluetooth/+/android-7.0.0_r1/src/com/android/bluetooth/gatt/AppScanStats.java
+     */
+    private static final int SCAN_STARTS_QUOTA = 5;
+    private static final long EXCESSIVE_SCANNING_PERIOD = TimeUnit.SECONDS.toMillis(30);
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    // the times of the recorded and scheduled scan starts, no quota if empty
+    private final long[] scanStartTimestamps;
+    private final long excessiveScanningPeriod;
+    private final Scheduler timeScheduler;
+
+    @Inject
+    public ScanStartScheduler(
+            @Named(ClientComponent.PlatformConstants.INT_DEVICE_SDK) int deviceSdk,
+            @Named(ClientComponent.NamedSchedulers.COMPUTATION) Scheduler timeScheduler
+    ) {
+        this(deviceSdk < Build.VERSION_CODES.N ? 0 : SCAN_STARTS_QUOTA, EXCESSIVE_SCANNING_PERIOD, timeScheduler);
+    }
+
+    ScanStartScheduler(int scanStartsQuota, long excessiveScanningPeriod, Scheduler timeScheduler) {
+        this.scanStartTimestamps = new long[scanStartsQuota];
+        this.excessiveScanningPeriod = excessiveScanningPeriod;
+        this.timeScheduler = timeScheduler;
+        for (int i = 0; i < scanStartsQuota; i++) {
+            scanStartTimestamps[i] = NOT_STARTED;
+        }
+    }
+
+    /**
+     * Returns the date at which a scan started now would actually start.
+     *
+     * @return the expected start date of the next scan
+     */
+    public synchronized Date getExpectedStartDate() {
+        final long now = timeScheduler.now();
+        if (scanStartTimestamps.length == 0) {
+            return new Date(now);
+        }
+        return new Date(startTimestampAfter(scanStartTimestamps[getOldestScanStartIndex()], now));
+    }
+
+    /**
+     * Delays the subscription to the passed scan start if it would exceed the quota. The delay is computed when the returned observable
+     * is subscribed.
+     *
+     * @param scanStart the observable which starts the scan when subscribed
+     * @param <T> the type of the scan results
+     * @return the observable which starts the scan when allowed
+     */
+    public <T> Observable<T> schedule(final Observable<T> scanStart) {
+        if (scanStartTimestamps.length == 0) {
+            return scanStart;
+        }
+        return Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                final long now = timeScheduler.now();
+                final long startTimestamp;
+                final long replacedTimestamp;
+                synchronized (ScanStartScheduler.this) {
+                    final int oldestScanStartIndex = getOldestScanStartIndex();
+                    replacedTimestamp = scanStartTimestamps[oldestScanStartIndex];
+                    startTimestamp = startTimestampAfter(replacedTimestamp, now);
+                    scanStartTimestamps[oldestScanStartIndex] = startTimestamp;
+                }
+                if (startTimestamp == now) {
+                    return scanStart;
+                }
+                RxBleLog.i("Scan start delayed until %s to not exceed the scan quota", new Date(startTimestamp));
+                final AtomicBoolean isStarted = new AtomicBoolean(false);
+                return scanStart
+                        .doOnSubscribe(new Action0() {
+                            @Override
+                            public void call() {
+                                isStarted.set(true);
+                            }
+                        })
+                        .delaySubscription(startTimestamp - now, TimeUnit.MILLISECONDS, timeScheduler)
+                        .doOnUnsubscribe(new Action0() {
+                            @Override
+                            public void call() {
+                                if (!isStarted.get()) {
+                                    cancelScanStart(startTimestamp, replacedTimestamp);
+                                }
+                            }
+                        });
+            }
+        });
+    }
+
+    // the start which was replaced by the cancelled one is still within the window
+    private synchronized void cancelScanStart(long startTimestamp, long replacedTimestamp) {
+        for (int i = 0; i < scanStartTimestamps.length; i++) {
+            if (scanStartTimestamps[i] == startTimestamp) {
+                scanStartTimestamps[i] = replacedTimestamp;
+                return;
+            }
+        }
+    }
+
+    private long startTimestampAfter(long oldestScanStartTimestamp, long now) {
+        if (oldestScanStartTimestamp == NOT_STARTED) {
+            return now;
+        }
+        return Math.max(now, oldestScanStartTimestamp + excessiveScanningPeriod);
+    }
+
+    private int getOldestScanStartIndex() {
+        int index = 0;
+        for (int i = 1; i < scanStartTimestamps.length; i++) {
+            if (scanStartTimestamps[i] < scanStartTimestamps[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+}
@@ -1,7 +1,9 @@
 package com.polidea.rxandroidble.internal.serialization;
 
+import android.support.annotation.Nullable;
 import android.support.annotation.RestrictTo;
 import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.ClientSetup;
 import com.polidea.rxandroidble.internal.RxBleLog;
 import com.polidea.rxandroidble.internal.operations.Operation;
 import bleshadow.javax.inject.Inject;
@@ -21,9 +23,18 @@ import static com.polidea.rxandroidble.internal.util.OperationLogger.logOperatio
 public class ClientOperationQueueImpl implements ClientOperationQueue {
 
     private OperationPriorityFifoBlockingQueue queue = new OperationPriorityFifoBlockingQueue();
+    @Nullable
+    private final NonBlockingOperationDispatcher dispatcher;
 
     @Inject
-    public ClientOperationQueueImpl(@Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler) {
+    public ClientOperationQueueImpl(@Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler,
+                                    ClientSetup clientSetup) {
+        if (clientSetup.operationHandOffOnRelease) {
+            // releasing an operation starts the next one directly — there is no need for a dedicated thread
+            dispatcher = new NonBlockingOperationDispatcher(queue, callbackScheduler, null);
+            return;
+        }
+        dispatcher = null;
         new Thread(new Runnable() {
             @Override
             public void run() {
@@ -70,6 +81,9 @@ public class ClientOperationQueueImpl implements ClientOperationQueue {
                 });
                 logOperationQueued(operation);
                 queue.add(entry);
+                if (dispatcher != null) {
+                    dispatcher.requestDrain();
+                }
             }
         }, Emitter.BackpressureMode.NONE);
     }
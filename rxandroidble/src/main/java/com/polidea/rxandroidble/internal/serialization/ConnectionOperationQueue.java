@@ -12,4 +12,10 @@ public interface ConnectionOperationQueue extends ClientOperationQueue {
      * @param disconnectedException the exception to be passed to all queued operations subscribers
      */
     void terminate(BleException disconnectedException);
+
+    /**
+     * A method for checking how many operations wait in the queue. The operation in progress (if any) is not counted.
+     * @return the number of queued operations that were not started yet
+     */
+    int getQueuedOperationsCount();
 }
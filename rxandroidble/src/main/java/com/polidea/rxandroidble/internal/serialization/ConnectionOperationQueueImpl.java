@@ -2,6 +2,7 @@ package com.polidea.rxandroidble.internal.serialization;
 
 import android.support.annotation.RestrictTo;
 import com.polidea.rxandroidble.ClientComponent;
+import com.polidea.rxandroidble.ClientSetup;
 import com.polidea.rxandroidble.exceptions.BleDisconnectedException;
 import com.polidea.rxandroidble.exceptions.BleException;
 import com.polidea.rxandroidble.internal.DeviceModule;
@@ -11,7 +12,6 @@ import com.polidea.rxandroidble.internal.connection.ConnectionSubscriptionWatche
 import com.polidea.rxandroidble.internal.connection.DisconnectionRouterOutput;
 import com.polidea.rxandroidble.internal.operations.Operation;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 import rx.Emitter;
@@ -21,11 +21,15 @@ import rx.Subscription;
 import rx.functions.Action1;
 import rx.functions.Cancellable;
 
-import static com.polidea.rxandroidble.internal.util.OperationLogger.logOperationFinished;
 import static com.polidea.rxandroidble.internal.util.OperationLogger.logOperationQueued;
 import static com.polidea.rxandroidble.internal.util.OperationLogger.logOperationRemoved;
-import static com.polidea.rxandroidble.internal.util.OperationLogger.logOperationStarted;
 
+/**
+ * A queue of operations for a single connection. It does not own a thread — all connection queues share the bounded
+ * {@link ClientComponent.NamedExecutors#CONNECTION_QUEUE} executor which is used only to start the next queued operation once the
+ * previous one released the queue. If {@link ClientSetup#operationHandOffOnRelease} is set the next operation is started directly
+ * on the releasing thread instead. No thread is parked while an operation is in progress.
+ */
 @ConnectionScope
 public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, ConnectionSubscriptionWatcher {
 
@@ -33,7 +37,7 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
     private final DisconnectionRouterOutput disconnectionRouterOutput;
     private Subscription disconnectionThrowableSubscription;
     private final OperationPriorityFifoBlockingQueue queue = new OperationPriorityFifoBlockingQueue();
-    private final Future<?> runnableFuture;
+    private final NonBlockingOperationDispatcher dispatcher;
     private volatile boolean shouldRun = true;
     private BleException disconnectionException = null;
 
@@ -42,54 +46,16 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
             @Named(DeviceModule.MAC_ADDRESS) final String deviceMacAddress,
             final DisconnectionRouterOutput disconnectionRouterOutput,
             @Named(ClientComponent.NamedExecutors.CONNECTION_QUEUE) final ExecutorService executorService,
-            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler,
+            final ClientSetup clientSetup
     ) {
         this.deviceMacAddress = deviceMacAddress;
         this.disconnectionRouterOutput = disconnectionRouterOutput;
-        this.runnableFuture = executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-                QueueSemaphore currentSemaphore;
-                while (shouldRun) {
-                    try {
-                        final FIFORunnableEntry<?> entry = queue.take();
-                        final Operation<?> operation = entry.operation;
-                        final long startedAtTime = System.currentTimeMillis();
-                        logOperationStarted(operation);
-
-                        /*
-                         * Calling bluetooth calls before the previous one returns in a callback usually finishes with a failure
-                         * status. Below QueueSemaphore is passed to the Operation and is meant to be released
-                         * at appropriate time when the next operation should be able to start successfully.
-                         */
-                        currentSemaphore = new QueueSemaphore();
-
-                        Subscription subscription = entry.run(currentSemaphore, callbackScheduler);
-                        entry.emitter.setSubscription(subscription);
-
-                        currentSemaphore.awaitRelease();
-                        logOperationFinished(operation, startedAtTime, System.currentTimeMillis());
-                    } catch (InterruptedException e) {
-                        synchronized (ConnectionOperationQueueImpl.this) {
-                            if (!shouldRun) {
-                                break;
-                            }
-                        }
-                        RxBleLog.e(e, "Error while processing connection operation queue");
-                    }
-                }
-
-                flushQueue();
-                RxBleLog.d("Terminated.");
-            }
-        });
-    }
-
-    private synchronized void flushQueue() {
-        while (!queue.isEmpty()) {
-            final FIFORunnableEntry<?> entryToFinish = queue.takeNow();
-            entryToFinish.emitter.onError(disconnectionException);
-        }
+        this.dispatcher = new NonBlockingOperationDispatcher(
+                queue,
+                callbackScheduler,
+                clientSetup.operationHandOffOnRelease ? null : executorService
+        );
     }
 
     @Override
@@ -114,6 +80,7 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
 
                 logOperationQueued(operation);
                 queue.add(entry);
+                dispatcher.requestDrain();
             }
         }, Emitter.BackpressureMode.NONE);
     }
@@ -125,9 +92,14 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
             return;
         }
         RxBleLog.i("Connection operations queue to be terminated (" + deviceMacAddress + ')');
-        shouldRun = false;
         disconnectionException = disconnectException;
-        runnableFuture.cancel(true);
+        shouldRun = false;
+        dispatcher.terminate(disconnectException);
+    }
+
+    @Override
+    public int getQueuedOperationsCount() {
+        return queue.size();
     }
 
     @Override
@@ -3,27 +3,58 @@ package com.polidea.rxandroidble.internal.serialization;
 
 import android.support.annotation.NonNull;
 import com.polidea.rxandroidble.internal.operations.Operation;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
 import rx.Emitter;
 import rx.Scheduler;
 import rx.Subscription;
 
-class FIFORunnableEntry<T> implements Comparable<FIFORunnableEntry> {
+class FIFORunnableEntry<T> implements Comparable<FIFORunnableEntry>, QueueReleaseInterface {
 
     private static final AtomicLong SEQUENCE = new AtomicLong(0);
 
+    private static final int STATE_QUEUED = 0;
+
+    private static final int STATE_DEQUEUED = 1;
+
+    private static final int STATE_RELEASED = 2;
+
+    private static final AtomicIntegerFieldUpdater<FIFORunnableEntry> STATE_UPDATER
+            = AtomicIntegerFieldUpdater.newUpdater(FIFORunnableEntry.class, "state");
+
     private final long seqNum;
 
     final Operation<T> operation;
 
     final Emitter<T> emitter;
 
+    private volatile int state = STATE_QUEUED;
+
+    private NonBlockingOperationDispatcher releaseDispatcher;
+
     FIFORunnableEntry(Operation<T> operation, Emitter<T> subject) {
         seqNum = SEQUENCE.getAndIncrement();
         this.operation = operation;
         this.emitter = subject;
     }
 
+    /**
+     * Marks the entry as (re)inserted into a queue.
+     */
+    void markQueued() {
+        state = STATE_QUEUED;
+    }
+
+    /**
+     * Atomically claims the entry. Exactly one of the concurrent callers (the queue consumer taking the entry or a subscriber
+     * removing it) will succeed.
+     *
+     * @return true if the entry was claimed by this call
+     */
+    boolean tryDequeue() {
+        return STATE_UPDATER.compareAndSet(this, STATE_QUEUED, STATE_DEQUEUED);
+    }
+
     public int compareTo(@NonNull FIFORunnableEntry other) {
         int res = operation.compareTo(other.operation);
         if (res == 0 && other.operation != this.operation) {
@@ -33,12 +64,32 @@ class FIFORunnableEntry<T> implements Comparable<FIFORunnableEntry> {
     }
 
     public Subscription run(QueueSemaphore semaphore, Scheduler subscribeScheduler) {
+        return run((QueueReleaseInterface) semaphore, subscribeScheduler);
+    }
+
+    /**
+     * Runs the operation passing this entry as its {@link QueueReleaseInterface}. The first {@link #release()} notifies
+     * the dispatcher so it may start the next entry — no semaphore is allocated for the operation.
+     */
+    Subscription run(NonBlockingOperationDispatcher dispatcher, Scheduler subscribeScheduler) {
+        this.releaseDispatcher = dispatcher;
+        return run((QueueReleaseInterface) this, subscribeScheduler);
+    }
+
+    @Override
+    public void release() {
+        if (STATE_UPDATER.compareAndSet(this, STATE_DEQUEUED, STATE_RELEASED) && releaseDispatcher != null) {
+            releaseDispatcher.onEntryReleased();
+        }
+    }
+
+    private Subscription run(QueueReleaseInterface queueReleaseInterface, Scheduler subscribeScheduler) {
         /*
          * In some implementations (i.e. Samsung Android 4.3) calling BluetoothDevice.connectGatt()
          * from thread other than main thread ends in connecting with status 133. It's safer to make bluetooth calls
          * on the main thread.
          */
-        return operation.run(semaphore)
+        return operation.run(queueReleaseInterface)
                 .subscribeOn(subscribeScheduler)
                 .unsubscribeOn(subscribeScheduler)
                 .subscribe(emitter);
@@ -0,0 +1,135 @@
+package com.polidea.rxandroidble.internal.serialization;
+
+
+import android.support.annotation.Nullable;
+import com.polidea.rxandroidble.exceptions.BleException;
+import com.polidea.rxandroidble.internal.RxBleLog;
+import com.polidea.rxandroidble.internal.operations.Operation;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import rx.Scheduler;
+import rx.Subscription;
+
+import static com.polidea.rxandroidble.internal.util.OperationLogger.logOperationFinished;
+import static com.polidea.rxandroidble.internal.util.OperationLogger.logOperationStarted;
+
+/**
+ * Starts entries of an {@link OperationPriorityFifoBlockingQueue} one at a time without parking any thread while an operation
+ * is in progress.
+ *
+ * Each {@link FIFORunnableEntry} is passed to its operation as the {@link QueueReleaseInterface} so there is no semaphore allocated per
+ * operation. Releasing the entry, queueing a new one or terminating requests a drain pass which starts the next entry if possible.
+ * Requests made while a pass is scheduled or running are coalesced so passes are never executed concurrently. If an {@link Executor}
+ * is provided the passes are run on it, otherwise they are run directly on the requesting thread.
+ */
+class NonBlockingOperationDispatcher {
+
+    private final OperationPriorityFifoBlockingQueue queue;
+    private final Scheduler callbackScheduler;
+    @Nullable
+    private final Executor executor;
+    private final AtomicInteger drainRequests = new AtomicInteger(0);
+    private final Runnable drainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+    private volatile BleException terminationException = null;
+    private volatile boolean isReleasePending = false;
+    /**
+     * Accessed only from {@link #drain()}.
+     */
+    private FIFORunnableEntry<?> entryInProgress = null;
+    private long entryStartedAtTime;
+
+    NonBlockingOperationDispatcher(OperationPriorityFifoBlockingQueue queue, Scheduler callbackScheduler, @Nullable Executor executor) {
+        this.queue = queue;
+        this.callbackScheduler = callbackScheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Requests a drain pass. Should be called after an entry was added to the queue.
+     */
+    void requestDrain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        if (executor == null) {
+            drain();
+            return;
+        }
+        try {
+            executor.execute(drainRunnable);
+        } catch (RejectedExecutionException e) {
+            RxBleLog.e(e, "Could not schedule the operation queue drain");
+        }
+    }
+
+    /**
+     * All entries left in the queue and all entries added afterwards will be finished with the passed exception.
+     * The operation in progress (if any) is not affected.
+     *
+     * @param terminationException the exception to pass to the queued entries
+     */
+    void terminate(BleException terminationException) {
+        this.terminationException = terminationException;
+        requestDrain();
+    }
+
+    void onEntryReleased() {
+        isReleasePending = true;
+        requestDrain();
+    }
+
+    private void drain() {
+        int missedRequests = 1;
+        while (true) {
+            if (isReleasePending) {
+                isReleasePending = false;
+                logOperationFinished(entryInProgress.operation, entryStartedAtTime, System.currentTimeMillis());
+                entryInProgress = null;
+            }
+
+            final BleException terminationException = this.terminationException;
+            if (terminationException != null) {
+                flushQueue(terminationException);
+            } else if (entryInProgress == null) {
+                final FIFORunnableEntry<?> entry = queue.takeNow();
+                if (entry != null) {
+                    start(entry);
+                }
+            }
+
+            missedRequests = drainRequests.addAndGet(-missedRequests);
+            if (missedRequests == 0) {
+                return;
+            }
+        }
+    }
+
+    private void start(FIFORunnableEntry<?> entry) {
+        final Operation<?> operation = entry.operation;
+        entryInProgress = entry;
+        entryStartedAtTime = System.currentTimeMillis();
+        logOperationStarted(operation);
+
+        /*
+         * Calling bluetooth calls before the previous one returns in a callback usually finishes with a failure
+         * status. Below the entry itself is passed to the Operation as the QueueReleaseInterface and is meant to be released
+         * at appropriate time when the next operation should be able to start successfully.
+         */
+        Subscription subscription = entry.run(this, callbackScheduler);
+        entry.emitter.setSubscription(subscription);
+    }
+
+    private void flushQueue(BleException terminationException) {
+        FIFORunnableEntry<?> entryToFinish = queue.takeNow();
+        while (entryToFinish != null) {
+            entryToFinish.emitter.onError(terminationException);
+            entryToFinish = queue.takeNow();
+        }
+    }
+}
@@ -1,34 +1,100 @@
 package com.polidea.rxandroidble.internal.serialization;
 
 
-import java.util.concurrent.PriorityBlockingQueue;
+import com.polidea.rxandroidble.internal.Priority;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * A multi-producer queue of {@link FIFORunnableEntry} ordered by {@link Priority} and then by insertion order.
+ *
+ * Each {@link Priority} level has its own lock-free FIFO lane so producers never contend on a single lock. Removal is O(1) — the entry
+ * is only marked as dequeued and is skipped (and dropped) once the consumer reaches it.
+ */
 class OperationPriorityFifoBlockingQueue {
 
-    private final PriorityBlockingQueue<FIFORunnableEntry> q = new PriorityBlockingQueue<>();
+    private final ConcurrentLinkedQueue<FIFORunnableEntry> highLane = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<FIFORunnableEntry> normalLane = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<FIFORunnableEntry> lowLane = new ConcurrentLinkedQueue<>();
+    /**
+     * Permits are released after an entry is inserted into a lane so acquiring one guarantees that some lane holds an entry
+     * (possibly already removed).
+     */
+    private final Semaphore insertedEntries = new Semaphore(0);
+    private final AtomicInteger liveEntries = new AtomicInteger(0);
 
     public void add(FIFORunnableEntry fifoRunnableEntry) {
-        q.add(fifoRunnableEntry);
+        fifoRunnableEntry.markQueued();
+        liveEntries.incrementAndGet();
+        laneFor(fifoRunnableEntry).offer(fifoRunnableEntry);
+        insertedEntries.release();
     }
 
     public FIFORunnableEntry<?> take() throws InterruptedException {
-        return q.take();
+        while (true) {
+            insertedEntries.acquire();
+            final FIFORunnableEntry<?> entry = pollClaimed();
+            if (entry != null) {
+                return entry;
+            }
+        }
     }
 
     public FIFORunnableEntry<?> takeNow() {
-        return q.poll();
+        while (insertedEntries.tryAcquire()) {
+            final FIFORunnableEntry<?> entry = pollClaimed();
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
     }
 
     public boolean isEmpty() {
-        return q.isEmpty();
+        return liveEntries.get() == 0;
+    }
+
+    public int size() {
+        return liveEntries.get();
     }
 
     public boolean remove(FIFORunnableEntry fifoRunnableEntry) {
-        for (FIFORunnableEntry entry : q) {
-            if (entry == fifoRunnableEntry) {
-                return q.remove(entry);
-            }
+        if (fifoRunnableEntry.tryDequeue()) {
+            liveEntries.decrementAndGet();
+            return true;
         }
         return false;
     }
+
+    /**
+     * Polls a single entry from the highest non-empty lane. Must be called only after acquiring a permit from {@link #insertedEntries}.
+     *
+     * @return the entry if it was not removed in the meantime, null otherwise
+     */
+    private FIFORunnableEntry<?> pollClaimed() {
+        FIFORunnableEntry<?> entry = highLane.poll();
+        if (entry == null) {
+            entry = normalLane.poll();
+        }
+        if (entry == null) {
+            entry = lowLane.poll();
+        }
+        if (entry != null && entry.tryDequeue()) {
+            liveEntries.decrementAndGet();
+            return entry;
+        }
+        return null;
+    }
+
+    private ConcurrentLinkedQueue<FIFORunnableEntry> laneFor(FIFORunnableEntry<?> fifoRunnableEntry) {
+        final Priority priority = fifoRunnableEntry.operation.definedPriority();
+        if (priority == Priority.HIGH) {
+            return highLane;
+        } else if (priority == Priority.LOW) {
+            return lowLane;
+        } else {
+            return normalLane;
+        }
+    }
 }
@@ -11,5 +11,16 @@ package com.polidea.rxandroidble.internal.serialization;
  */
 public interface QueueReleaseInterface {
 
+    /**
+     * A release which does nothing. Used to run the steps of an operation which holds the queue itself, so releasing it is up to
+     * that operation.
+     */
+    QueueReleaseInterface NO_OP = new QueueReleaseInterface() {
+        @Override
+        public void release() {
+            // no-op
+        }
+    };
+
     void release();
 }
@@ -0,0 +1,24 @@
+package com.polidea.rxandroidble.internal.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class FileChannelUtil {
+
+    private FileChannelUtil() {
+
+    }
+
+    /**
+     * Memory maps the content of the channel from its current position to its end. The channel is not closed.
+     *
+     * @param fileChannel the channel to map
+     * @return a read-only buffer with the remaining content of the channel
+     * @throws IOException if the channel could not be mapped
+     */
+    public static ByteBuffer mapRemainingContent(FileChannel fileChannel) throws IOException {
+        final long position = fileChannel.position();
+        return fileChannel.map(FileChannel.MapMode.READ_ONLY, position, fileChannel.size() - position);
+    }
+}
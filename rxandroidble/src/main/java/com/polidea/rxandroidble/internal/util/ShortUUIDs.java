@@ -0,0 +1,105 @@
+package com.polidea.rxandroidble.internal.util;
+
+import android.support.annotation.RestrictTo;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Conversions between the 16 and 32 bit UUIDs assigned by Bluetooth SIG and 128 bit {@link UUID}s. A short UUID is expanded
+ * arithmetically with the Bluetooth base UUID: 128_bit_value = short_uuid * 2^96 + BASE_UUID.
+ * <p>
+ * The UUIDs from the ranges of the assigned services, attribute types, characteristics, descriptors and member services are
+ * interned so every advertisement or GATT service of a commonly used service shares the same instance.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ShortUUIDs {
+
+    // 00000000-0000-1000-8000-00805F9B34FB
+    public static final long BASE_UUID_MOST_SIGNIFICANT_BITS = 0x0000000000001000L;
+    public static final long BASE_UUID_LEAST_SIGNIFICANT_BITS = 0x800000805F9B34FBL;
+
+    // Assigned services, attribute types, characteristics and descriptors.
+    private static final int ASSIGNED_RANGE_START = 0x1800;
+    private static final int ASSIGNED_RANGE_END = 0x2BFF;
+    // 16 bit UUIDs of the Bluetooth SIG members.
+    private static final int MEMBER_RANGE_START = 0xFC00;
+    private static final int MEMBER_RANGE_END = 0xFFFF;
+    private static final int ASSIGNED_RANGE_SIZE = ASSIGNED_RANGE_END - ASSIGNED_RANGE_START + 1;
+    private static final int MEMBER_RANGE_SIZE = MEMBER_RANGE_END - MEMBER_RANGE_START + 1;
+
+    // Filled on demand. UUID is immutable so a lost race only means that one more instance is created.
+    private static final AtomicReferenceArray<UUID> INTERNED_UUIDS = new AtomicReferenceArray<>(ASSIGNED_RANGE_SIZE + MEMBER_RANGE_SIZE);
+
+    private ShortUUIDs() {
+
+    }
+
+    /**
+     * Returns the most significant bits of the 128 bit UUID of a 16 or 32 bit UUID.
+     *
+     * @param shortUuid the unsigned value of the short UUID
+     * @return the most significant bits of the expanded UUID
+     */
+    public static long mostSignificantBits(long shortUuid) {
+        return BASE_UUID_MOST_SIGNIFICANT_BITS | (shortUuid << 32);
+    }
+
+    /**
+     * Expands a 16 bit UUID. The assigned UUIDs are returned as shared instances.
+     *
+     * @param shortUuid the unsigned value of the 16 bit UUID
+     * @return the 128 bit UUID
+     */
+    public static UUID from16Bit(int shortUuid) {
+        final int internedIndex = internedIndexOf(shortUuid & 0xFFFF);
+        if (internedIndex < 0) {
+            return new UUID(mostSignificantBits(shortUuid & 0xFFFF), BASE_UUID_LEAST_SIGNIFICANT_BITS);
+        }
+        UUID uuid = INTERNED_UUIDS.get(internedIndex);
+        if (uuid == null) {
+            uuid = new UUID(mostSignificantBits(shortUuid & 0xFFFF), BASE_UUID_LEAST_SIGNIFICANT_BITS);
+            INTERNED_UUIDS.lazySet(internedIndex, uuid);
+        }
+        return uuid;
+    }
+
+    /**
+     * Expands a 32 bit UUID. The values which fit in 16 bits are expanded with {@link #from16Bit(int)}.
+     *
+     * @param shortUuid the unsigned value of the 32 bit UUID
+     * @return the 128 bit UUID
+     */
+    public static UUID from32Bit(long shortUuid) {
+        final long unsignedUuid = shortUuid & 0xFFFFFFFFL;
+        if (unsignedUuid <= 0xFFFF) {
+            return from16Bit((int) unsignedUuid);
+        }
+        return new UUID(mostSignificantBits(unsignedUuid), BASE_UUID_LEAST_SIGNIFICANT_BITS);
+    }
+
+    /**
+     * Returns the 16 bit value of the UUID or -1 if the UUID is not a 16 bit UUID expanded with the Bluetooth base UUID.
+     *
+     * @param uuid the 128 bit UUID
+     * @return the unsigned 16 bit value or -1
+     */
+    public static int to16Bit(UUID uuid) {
+        final long mostSignificantBits = uuid.getMostSignificantBits();
+        if (uuid.getLeastSignificantBits() != BASE_UUID_LEAST_SIGNIFICANT_BITS
+                || (mostSignificantBits & 0xFFFF0000FFFFFFFFL) != BASE_UUID_MOST_SIGNIFICANT_BITS) {
+            return -1;
+        }
+        return (int) (mostSignificantBits >>> 32);
+    }
+
+    private static int internedIndexOf(int shortUuid) {
+        if (shortUuid >= ASSIGNED_RANGE_START && shortUuid <= ASSIGNED_RANGE_END) {
+            return shortUuid - ASSIGNED_RANGE_START;
+        }
+        if (shortUuid >= MEMBER_RANGE_START) {
+            return ASSIGNED_RANGE_SIZE + shortUuid - MEMBER_RANGE_START;
+        }
+        return -1;
+    }
+}
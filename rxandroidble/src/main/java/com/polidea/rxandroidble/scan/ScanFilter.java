@@ -8,6 +8,7 @@ import android.os.ParcelUuid;
 import android.os.Parcelable;
 import android.support.annotation.Nullable;
 import com.polidea.rxandroidble.internal.scan.RxBleInternalScanResult;
+import com.polidea.rxandroidble.internal.scan.ScanRecordImplLazy;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -276,6 +277,10 @@ import java.util.UUID;
             return false;
         }
 
+        if (scanRecord instanceof ScanRecordImplLazy) {
+            return matchesRawRecord(device, (ScanRecordImplLazy) scanRecord);
+        }
+
         // Local name match.
         if (mDeviceName != null) {
             if (!(mDeviceName.equals(scanRecord.getDeviceName()) || mDeviceName.equals(device.getName()))) {
@@ -308,6 +313,22 @@ import java.util.UUID;
         return true;
     }
 
+    // Check the scan record fields without decoding them.
+    private boolean matchesRawRecord(BluetoothDevice device, ScanRecordImplLazy scanRecord) {
+        if (mDeviceName != null && !(scanRecord.matchesDeviceName(mDeviceName) || mDeviceName.equals(device.getName()))) {
+            return false;
+        }
+        if (mServiceUuid != null && !scanRecord.matchesServiceUuid(mServiceUuid.getUuid(),
+                mServiceUuidMask == null ? null : mServiceUuidMask.getUuid())) {
+            return false;
+        }
+        if (mServiceDataUuid != null
+                && !scanRecord.matchesServiceData(mServiceDataUuid.getUuid(), mServiceData, mServiceDataMask)) {
+            return false;
+        }
+        return mManufacturerId < 0 || scanRecord.matchesManufacturerData(mManufacturerId, mManufacturerData, mManufacturerDataMask);
+    }
+
     // Check if the uuid pattern is contained in a list of parcel uuids.
     private boolean matchesServiceUuids(ParcelUuid uuid, ParcelUuid parcelUuidMask,
                                         List<ParcelUuid> uuids) {
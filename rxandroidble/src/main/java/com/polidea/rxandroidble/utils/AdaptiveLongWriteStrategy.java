@@ -0,0 +1,230 @@
+package com.polidea.rxandroidble.utils;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.support.annotation.RestrictTo;
+
+import com.polidea.rxandroidble.RxBleConnection;
+import com.polidea.rxandroidble.internal.connection.LongWriteBatchMonitor;
+
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+
+/**
+ * Write operation acknowledgement strategy which adapts a long write to the measured behaviour of the link. The time between writing
+ * each batch and its acknowledgement is measured and used to:
+ * <ul>
+ * <li>tune the batch size — it is decreased multiplicatively when the acknowledgement latency per byte spikes and increased additively
+ * back up to the limit of the long write (i.e. derived from the MTU) while the latency stays steady,</li>
+ * <li>pace writes without response — if the characteristic supports both write types the batches are written without response and
+ * every n-th batch is written with response so the peripheral can apply backpressure. The interval is halved when the latency of
+ * the batches written with response spikes and increased while it stays steady,</li>
+ * <li>estimate the throughput of the link so i.e. a firmware update flow can report a realistic remaining time.</li>
+ * </ul>
+ * The latency of a batch is mostly the cost of writing a packet so only the batches of the full size are measured — the shorter last
+ * batch of a long write would otherwise look like a latency spike per byte.
+ * <p>
+ * The state is kept between the long writes so a single instance should be reused for the consecutive writes of a single connection.
+ * <p>
+ * Example use:
+ * <pre>
+ * AdaptiveLongWriteStrategy adaptiveStrategy = new AdaptiveLongWriteStrategy.Builder().build();
+ * rxBleConnection.createNewLongWriteBuilder()
+ * .setCharacteristicUuid(firmwareCharacteristicUuid)
+ * .setBytes(firmwareChunk)
+ * .setWriteOperationAckStrategy(adaptiveStrategy)
+ * .build()
+ * .subscribe(writtenBytes -> {
+ * // Report adaptiveStrategy.estimateRemainingTime(remainingBytes, TimeUnit.SECONDS)
+ * });
+ * </pre>
+ */
+public class AdaptiveLongWriteStrategy implements RxBleConnection.WriteOperationAckStrategy, LongWriteBatchMonitor {
+
+    /**
+     * A batch is a latency spike if its latency per byte exceeds the average of its write type by this factor.
+     */
+    private static final int LATENCY_SPIKE_FACTOR = 3;
+    /**
+     * Number of consecutive steady batches after which the batch size and the response interval are increased.
+     */
+    private static final int STEADY_BATCHES_TO_GROW = 8;
+    private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+    private final int minBatchSize;
+    private final int maxResponseInterval;
+    private final boolean isWriteTypeSwitchingEnabled;
+
+    // the state is guarded by this
+    private int batchSizeLimit = Integer.MAX_VALUE;
+    private int lastMaxBatchSize;
+    private int lastBatchSize;
+    private int responseInterval;
+    private int batchesSinceResponse;
+    private int steadyBatchesCount;
+    private double averageNanosPerByte;
+    private double averageNoResponseNanosPerByte;
+    private double averageResponseNanosPerByte;
+
+    private AdaptiveLongWriteStrategy(int minBatchSize, int initialResponseInterval, int maxResponseInterval,
+                                      boolean isWriteTypeSwitchingEnabled) {
+        this.minBatchSize = minBatchSize;
+        this.responseInterval = initialResponseInterval;
+        this.maxResponseInterval = maxResponseInterval;
+        this.isWriteTypeSwitchingEnabled = isWriteTypeSwitchingEnabled;
+    }
+
+    @Override
+    public Observable<Boolean> call(Observable<Boolean> batchWrittenObservable) {
+        // the batches are paced by the write type — the next batch is written right after the acknowledgement of the previous one
+        return batchWrittenObservable;
+    }
+
+    /**
+     * @return the measured throughput in bytes per second or 0 if no batch was acknowledged yet
+     */
+    public synchronized long getThroughput() {
+        return averageNanosPerByte == 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / averageNanosPerByte);
+    }
+
+    /**
+     * @param remainingBytes the number of bytes left to write
+     * @param timeUnit       the time unit of the result
+     * @return the time needed to write the remaining bytes at the measured throughput or -1 if no batch was acknowledged yet
+     */
+    public synchronized long estimateRemainingTime(long remainingBytes, TimeUnit timeUnit) {
+        if (averageNanosPerByte == 0) {
+            return -1;
+        }
+        return timeUnit.convert((long) (remainingBytes * averageNanosPerByte), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the size of the next batch or Integer.MAX_VALUE if no batch was written yet
+     */
+    public synchronized int getCurrentBatchSize() {
+        return lastMaxBatchSize == 0 ? batchSizeLimit : Math.min(batchSizeLimit, lastMaxBatchSize);
+    }
+
+    /**
+     * @return the current number of batches written per one written with response
+     */
+    public synchronized int getResponseInterval() {
+        return responseInterval;
+    }
+
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public synchronized int getBatchSize(int maxBatchSize) {
+        lastMaxBatchSize = maxBatchSize;
+        lastBatchSize = Math.min(batchSizeLimit, maxBatchSize);
+        return lastBatchSize;
+    }
+
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public synchronized int getWriteType(BluetoothGattCharacteristic characteristic) {
+        final int properties = characteristic.getProperties();
+        if (!isWriteTypeSwitchingEnabled
+                || (properties & BluetoothGattCharacteristic.PROPERTY_WRITE) == 0
+                || (properties & BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE) == 0) {
+            return characteristic.getWriteType();
+        }
+        if (++batchesSinceResponse >= responseInterval) {
+            batchesSinceResponse = 0;
+            return BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT;
+        }
+        return BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE;
+    }
+
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public synchronized void onBatchAcknowledged(int batchSize, int writeType, long latencyNanos) {
+        if (batchSize < lastBatchSize) {
+            // the last batch of the long write
+            return;
+        }
+        final double nanosPerByte = (double) Math.max(1, latencyNanos) / batchSize;
+        averageNanosPerByte = smooth(averageNanosPerByte, nanosPerByte);
+
+        // the batches written without response are acknowledged locally so they are compared only with each other
+        final boolean isResponseBatch = writeType != BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE;
+        final double averageOfWriteType = isResponseBatch ? averageResponseNanosPerByte : averageNoResponseNanosPerByte;
+        final boolean isLatencySpike = averageOfWriteType != 0 && nanosPerByte > LATENCY_SPIKE_FACTOR * averageOfWriteType;
+        if (isResponseBatch) {
+            averageResponseNanosPerByte = smooth(averageResponseNanosPerByte, nanosPerByte);
+        } else {
+            averageNoResponseNanosPerByte = smooth(averageNoResponseNanosPerByte, nanosPerByte);
+        }
+
+        if (isLatencySpike) {
+            steadyBatchesCount = 0;
+            if (lastMaxBatchSize > 0) {
+                batchSizeLimit = Math.max(minBatchSize, getCurrentBatchSize() * 3 / 4);
+            }
+            if (isResponseBatch) {
+                responseInterval = Math.max(1, responseInterval / 2);
+            }
+        } else if (++steadyBatchesCount >= STEADY_BATCHES_TO_GROW) {
+            steadyBatchesCount = 0;
+            if (batchSizeLimit < lastMaxBatchSize) {
+                batchSizeLimit = Math.min(lastMaxBatchSize, batchSizeLimit + Math.max(1, lastMaxBatchSize / 8));
+            }
+            responseInterval = Math.min(maxResponseInterval, responseInterval + 1);
+        }
+    }
+
+    private static double smooth(double average, double sample) {
+        return average == 0 ? sample : average + LATENCY_SMOOTHING_FACTOR * (sample - average);
+    }
+
+    public static class Builder {
+
+        private int minBatchSize = 20;
+        private int initialResponseInterval = 4;
+        private int maxResponseInterval = 16;
+        private boolean isWriteTypeSwitchingEnabled = true;
+
+        /**
+         * @param minBatchSize the batch size is never decreased below this value. Default is 20 bytes — the payload of the minimum MTU.
+         * @return this builder instance
+         */
+        public Builder setMinBatchSize(int minBatchSize) {
+            if (minBatchSize < 1) {
+                throw new IllegalArgumentException("Min batch size must be positive (received " + minBatchSize + ")");
+            }
+            this.minBatchSize = minBatchSize;
+            return this;
+        }
+
+        /**
+         * @param initialResponseInterval the number of batches per one written with response at the beginning. Default is 4.
+         * @param maxResponseInterval     the maximum number of batches per one written with response. Default is 16.
+         * @return this builder instance
+         */
+        public Builder setResponseInterval(int initialResponseInterval, int maxResponseInterval) {
+            if (initialResponseInterval < 1 || maxResponseInterval < initialResponseInterval) {
+                throw new IllegalArgumentException("Response intervals must satisfy 1 <= initial <= max (received "
+                        + initialResponseInterval + ", " + maxResponseInterval + ")");
+            }
+            this.initialResponseInterval = initialResponseInterval;
+            this.maxResponseInterval = maxResponseInterval;
+            return this;
+        }
+
+        /**
+         * @param isWriteTypeSwitchingEnabled flag describing if the batches may be written without response when the characteristic
+         *                                    supports both write types. If set to false the write type of the characteristic is kept.
+         *                                    Default is true.
+         * @return this builder instance
+         */
+        public Builder setWriteTypeSwitchingEnabled(boolean isWriteTypeSwitchingEnabled) {
+            this.isWriteTypeSwitchingEnabled = isWriteTypeSwitchingEnabled;
+            return this;
+        }
+
+        public AdaptiveLongWriteStrategy build() {
+            return new AdaptiveLongWriteStrategy(minBatchSize, initialResponseInterval, maxResponseInterval, isWriteTypeSwitchingEnabled);
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.polidea.rxandroidble.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.polidea.rxandroidble.RxBleConnection;
+import com.polidea.rxandroidble.RxBleDevice;
+import com.polidea.rxandroidble.internal.RxBleLog;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.Emitter;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Cancellable;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.SerialSubscription;
+import rx.subjects.BehaviorSubject;
+
+/**
+ * A pool bounding the number of connections that the application holds at the same time. Android stacks degrade sharply above a few
+ * simultaneous links, so instead of connecting to every device the connections are requested from the pool.
+ * <p>
+ * Subscribing to {@link #connect(RxBleDevice, int)} leases a connection to the device. All the leases of a device share one
+ * {@link RxBleConnection}. A connection which is no longer leased stays open as idle so a repeated request reuses it. An idle
+ * connection is closed when its idle timeout passes or when its slot is needed for a connection to another device — the least recently
+ * used one is closed first or, with {@link EvictionPolicy#PRIORITY}, the one leased with the lowest priority. When all the slots hold
+ * leased connections the requests wait in a queue — the ones with higher priority first — until a slot frees up.
+ * <p>
+ * Example use — round-robin data collection from many sensors:
+ * <pre>
+ * ConnectionPool connectionPool = new ConnectionPool.Builder().setMaxConnections(4).build();
+ *
+ * Observable.from(sensors)
+ * .flatMap(sensor -> connectionPool.connect(sensor)
+ * .flatMap(rxBleConnection -> rxBleConnection.readCharacteristic(characteristicUUID))
+ * .take(1))
+ * .subscribe(bytes -> {
+ * // Store the reading
+ * });
+ * </pre>
+ */
+public class ConnectionPool {
+
+    public enum EvictionPolicy {
+        /**
+         * The idle connection which was released the longest time ago is closed first.
+         */
+        LRU,
+        /**
+         * The idle connection which was leased with the lowest priority is closed first, the least recently used of them if there are
+         * several.
+         */
+        PRIORITY
+    }
+
+    private final int maxConnections;
+    private final long idleTimeoutMillis;
+    private final EvictionPolicy evictionPolicy;
+    private final boolean autoConnect;
+    private final Scheduler scheduler;
+    // pooled connections by MAC address, ordered from the least to the most recently released
+    private final LinkedHashMap<String, PooledConnection> pooledConnections = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<PendingRequest> pendingRequests = new ArrayList<>();
+
+    private ConnectionPool(int maxConnections, long idleTimeoutMillis, EvictionPolicy evictionPolicy, boolean autoConnect,
+                           Scheduler scheduler) {
+        this.maxConnections = maxConnections;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.evictionPolicy = evictionPolicy;
+        this.autoConnect = autoConnect;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Leases a connection to the device with the default priority of 0. See {@link #connect(RxBleDevice, int)}.
+     */
+    public Observable<RxBleConnection> connect(@NonNull RxBleDevice device) {
+        return connect(device, 0);
+    }
+
+    /**
+     * Leases a connection to the device. The connection is emitted once it is established — immediately if the pool already holds it.
+     * Unsubscribing ends the lease. The connection errors are passed to all the leases of the device.
+     *
+     * @param device the device to connect to
+     * @param priority the priority of the request — higher priority requests are served first when the pool is full and, with
+     *                 {@link EvictionPolicy#PRIORITY}, their connections are closed last
+     * @return the observable emitting the leased connection
+     */
+    public Observable<RxBleConnection> connect(@NonNull final RxBleDevice device, final int priority) {
+        return Observable.create(new Action1<Emitter<RxBleConnection>>() {
+            @Override
+            public void call(final Emitter<RxBleConnection> emitter) {
+                final PendingRequest request = new PendingRequest(device, priority, emitter);
+                emitter.setCancellation(new Cancellable() {
+                    @Override
+                    public void cancel() throws Exception {
+                        cancelRequest(request);
+                    }
+                });
+                serveOrEnqueue(request);
+            }
+        }, Emitter.BackpressureMode.NONE);
+    }
+
+    /**
+     * Returns the number of connections held by the pool, leased or idle.
+     *
+     * @return the number of connections
+     */
+    public synchronized int getConnectionsCount() {
+        return pooledConnections.size();
+    }
+
+    /**
+     * Returns the number of requests waiting for a free slot.
+     *
+     * @return the number of waiting requests
+     */
+    public synchronized int getPendingRequestsCount() {
+        return pendingRequests.size();
+    }
+
+    private void serveOrEnqueue(PendingRequest request) {
+        final List<PooledConnection> evictedConnections = new ArrayList<>(1);
+        final List<PooledConnection> newConnections = new ArrayList<>(1);
+        final PooledConnection pooledConnection;
+        synchronized (this) {
+            pooledConnection = lease(request, evictedConnections, newConnections);
+            if (pooledConnection == null) {
+                enqueue(request);
+            }
+        }
+        closeAll(evictedConnections);
+        openAll(newConnections);
+        if (pooledConnection != null) {
+            pooledConnection.subscribeLease(request);
+        }
+    }
+
+    // must be called while holding the lock, returns null if the request has to wait
+    @Nullable
+    private PooledConnection lease(PendingRequest request, List<PooledConnection> evictedConnections,
+                                   List<PooledConnection> newConnections) {
+        final String macAddress = request.device.getMacAddress();
+        PooledConnection pooledConnection = pooledConnections.get(macAddress);
+        if (pooledConnection == null) {
+            if (pooledConnections.size() >= maxConnections) {
+                final PooledConnection evictedConnection = findEvictableConnection();
+                if (evictedConnection == null) {
+                    return null;
+                }
+                pooledConnections.remove(evictedConnection.macAddress);
+                evictedConnections.add(evictedConnection);
+            }
+            pooledConnection = new PooledConnection(request.device);
+            pooledConnections.put(macAddress, pooledConnection);
+            // opened after the lock is released as the connection may terminate synchronously
+            newConnections.add(pooledConnection);
+        }
+        pooledConnection.acquire(request.priority);
+        request.pooledConnection = pooledConnection;
+        return pooledConnection;
+    }
+
+    // must be called while holding the lock
+    @Nullable
+    private PooledConnection findEvictableConnection() {
+        PooledConnection evictableConnection = null;
+        for (PooledConnection pooledConnection : pooledConnections.values()) {
+            if (pooledConnection.leasesCount > 0) {
+                continue;
+            }
+            if (evictionPolicy == EvictionPolicy.LRU) {
+                // the iteration order is from the least recently released
+                return pooledConnection;
+            }
+            if (evictableConnection == null || pooledConnection.priority < evictableConnection.priority) {
+                evictableConnection = pooledConnection;
+            }
+        }
+        return evictableConnection;
+    }
+
+    // must be called while holding the lock
+    private void enqueue(PendingRequest request) {
+        int index = pendingRequests.size();
+        while (index > 0 && pendingRequests.get(index - 1).priority < request.priority) {
+            index--;
+        }
+        pendingRequests.add(index, request);
+    }
+
+    private void cancelRequest(PendingRequest request) {
+        request.leaseSubscriber.unsubscribe();
+        final PooledConnection pooledConnection;
+        synchronized (this) {
+            if (pendingRequests.remove(request)) {
+                return;
+            }
+            pooledConnection = request.pooledConnection;
+            if (pooledConnection == null || !pooledConnection.release()
+                    // marks the connection as the most recently released unless it has already terminated
+                    || pooledConnections.get(pooledConnection.macAddress) != pooledConnection) {
+                return;
+            }
+        }
+        pooledConnection.scheduleIdleTimeout();
+        servePendingRequests();
+    }
+
+    private void servePendingRequests() {
+        final List<PooledConnection> evictedConnections = new ArrayList<>(1);
+        final List<PooledConnection> newConnections = new ArrayList<>(1);
+        final List<PendingRequest> servedRequests = new ArrayList<>(1);
+        synchronized (this) {
+            final Iterator<PendingRequest> iterator = pendingRequests.iterator();
+            while (iterator.hasNext()) {
+                final PendingRequest request = iterator.next();
+                if (lease(request, evictedConnections, newConnections) == null) {
+                    // the pool is full of leased connections but the following requests may join them
+                    continue;
+                }
+                iterator.remove();
+                servedRequests.add(request);
+            }
+        }
+        closeAll(evictedConnections);
+        openAll(newConnections);
+        for (PendingRequest request : servedRequests) {
+            request.pooledConnection.subscribeLease(request);
+        }
+    }
+
+    private void onIdleTimeout(PooledConnection pooledConnection, int releasesCount) {
+        synchronized (this) {
+            if (pooledConnection.leasesCount > 0 || pooledConnection.releasesCount != releasesCount
+                    || pooledConnections.get(pooledConnection.macAddress) != pooledConnection) {
+                return;
+            }
+            pooledConnections.remove(pooledConnection.macAddress);
+        }
+        RxBleLog.d("Closing the connection to %s idle for %d ms", pooledConnection.macAddress, idleTimeoutMillis);
+        pooledConnection.close();
+        servePendingRequests();
+    }
+
+    private void onConnectionTerminated(PooledConnection pooledConnection) {
+        synchronized (this) {
+            if (pooledConnections.get(pooledConnection.macAddress) != pooledConnection) {
+                return;
+            }
+            pooledConnections.remove(pooledConnection.macAddress);
+        }
+        servePendingRequests();
+    }
+
+    private static void openAll(List<PooledConnection> pooledConnections) {
+        for (PooledConnection pooledConnection : pooledConnections) {
+            pooledConnection.open();
+        }
+    }
+
+    private static void closeAll(List<PooledConnection> pooledConnections) {
+        for (PooledConnection pooledConnection : pooledConnections) {
+            RxBleLog.d("Closing the idle connection to %s to free a slot", pooledConnection.macAddress);
+            pooledConnection.close();
+        }
+    }
+
+    private class PooledConnection {
+
+        final RxBleDevice device;
+        final String macAddress;
+        // replays the established connection to every lease
+        final BehaviorSubject<RxBleConnection> connectionSubject = BehaviorSubject.create();
+        final SerialSubscription connectionSubscription = new SerialSubscription();
+        final SerialSubscription idleTimeoutSubscription = new SerialSubscription();
+        // guarded by the pool lock
+        int leasesCount;
+        int releasesCount;
+        int priority;
+
+        PooledConnection(RxBleDevice device) {
+            this.device = device;
+            this.macAddress = device.getMacAddress();
+        }
+
+        void open() {
+            connectionSubscription.set(device.establishConnection(autoConnect)
+                    .doOnTerminate(new Action0() {
+                        @Override
+                        public void call() {
+                            onConnectionTerminated(PooledConnection.this);
+                        }
+                    })
+                    .subscribe(connectionSubject));
+        }
+
+        void acquire(int priority) {
+            if (leasesCount == 0) {
+                this.priority = priority;
+            } else {
+                this.priority = Math.max(this.priority, priority);
+            }
+            leasesCount++;
+        }
+
+        // returns true if the connection became idle
+        boolean release() {
+            leasesCount--;
+            if (leasesCount > 0) {
+                return false;
+            }
+            releasesCount++;
+            return true;
+        }
+
+        void subscribeLease(PendingRequest request) {
+            // does nothing if the lease was already cancelled
+            connectionSubject.subscribe(request.leaseSubscriber);
+        }
+
+        void scheduleIdleTimeout() {
+            final int releasesCountAtIdle;
+            synchronized (ConnectionPool.this) {
+                releasesCountAtIdle = releasesCount;
+            }
+            final Scheduler.Worker worker = scheduler.createWorker();
+            idleTimeoutSubscription.set(worker);
+            worker.schedule(new Action0() {
+                @Override
+                public void call() {
+                    try {
+                        onIdleTimeout(PooledConnection.this, releasesCountAtIdle);
+                    } finally {
+                        worker.unsubscribe();
+                    }
+                }
+            }, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        void close() {
+            idleTimeoutSubscription.unsubscribe();
+            connectionSubscription.unsubscribe();
+        }
+    }
+
+    private static class PendingRequest {
+
+        final RxBleDevice device;
+        final int priority;
+        final Subscriber<RxBleConnection> leaseSubscriber;
+        // guarded by the pool lock
+        PooledConnection pooledConnection;
+
+        PendingRequest(RxBleDevice device, int priority, final Emitter<RxBleConnection> emitter) {
+            this.device = device;
+            this.priority = priority;
+            this.leaseSubscriber = new Subscriber<RxBleConnection>() {
+                @Override
+                public void onNext(RxBleConnection rxBleConnection) {
+                    emitter.onNext(rxBleConnection);
+                }
+
+                @Override
+                public void onError(Throwable e) {
+                    emitter.onError(e);
+                }
+
+                @Override
+                public void onCompleted() {
+                    emitter.onCompleted();
+                }
+            };
+        }
+    }
+
+    public static class Builder {
+
+        private int maxConnections = 4;
+        private long idleTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+        private boolean autoConnect = false;
+        private Scheduler scheduler = Schedulers.computation();
+
+        /**
+         * @param maxConnections the maximum number of connections held at the same time. Default is 4.
+         * @return this builder instance
+         */
+        public Builder setMaxConnections(int maxConnections) {
+            if (maxConnections < 1) {
+                throw new IllegalArgumentException("maxConnections must be positive");
+            }
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * @param idleTimeout the time after which a connection which is no longer leased is closed. Default is 30 seconds.
+         * @param timeUnit the unit of the timeout
+         * @return this builder instance
+         */
+        public Builder setIdleTimeout(long idleTimeout, @NonNull TimeUnit timeUnit) {
+            if (idleTimeout < 0) {
+                throw new IllegalArgumentException("idleTimeout must not be negative");
+            }
+            this.idleTimeoutMillis = timeUnit.toMillis(idleTimeout);
+            return this;
+        }
+
+        /**
+         * @param evictionPolicy the policy choosing the idle connection closed to free a slot. Default is {@link EvictionPolicy#LRU}.
+         * @return this builder instance
+         */
+        public Builder setEvictionPolicy(@NonNull EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+            return this;
+        }
+
+        /**
+         * @param autoConnect the autoConnect flag passed to {@link RxBleDevice#establishConnection(boolean)}. Default is false.
+         * @return this builder instance
+         */
+        public Builder setAutoConnect(boolean autoConnect) {
+            this.autoConnect = autoConnect;
+            return this;
+        }
+
+        /**
+         * @param scheduler the scheduler of the idle timeouts. Default is {@link Schedulers#computation()}.
+         * @return this builder instance
+         */
+        public Builder setScheduler(@NonNull Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public ConnectionPool build() {
+            return new ConnectionPool(maxConnections, idleTimeoutMillis, evictionPolicy, autoConnect, scheduler);
+        }
+    }
+}
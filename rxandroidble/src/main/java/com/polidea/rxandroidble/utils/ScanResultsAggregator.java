@@ -0,0 +1,353 @@
+package com.polidea.rxandroidble.utils;
+
+import android.support.annotation.NonNull;
+
+import com.polidea.rxandroidble.scan.ScanRecord;
+import com.polidea.rxandroidble.scan.ScanResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.observers.SerializedSubscriber;
+import rx.schedulers.Schedulers;
+
+/**
+ * Observable transformer that aggregates a stream of {@link ScanResult}s into a table of scanned devices and emits only the changes
+ * of the table. The devices are keyed by their MAC addresses. Instead of every advertisement a list of {@link DeviceChange}s is emitted
+ * on every tick in which at least one device was added, changed or lost.
+ * <p>
+ * A device is changed when its advertisement payload changes — detected by comparing the hash of the raw advertisement bytes with
+ * the hash of the previous ones — or when its smoothed RSSI moves by at least the configured threshold since it was last reported.
+ * The RSSI is smoothed exponentially. A device is lost when it was not scanned for the configured timeout.
+ * <p>
+ * Example use:
+ * <pre>
+ * rxBleClient.scanBleDevices(scanSettings)
+ * .compose(new ScanResultsAggregator.Builder().setTickInterval(500, TimeUnit.MILLISECONDS).build())
+ * .subscribe(deviceChanges -> {
+ * // Update the device list
+ * });
+ * </pre>
+ */
+public class ScanResultsAggregator implements Observable.Transformer<ScanResult, List<ScanResultsAggregator.DeviceChange>> {
+
+    private final long tickIntervalMillis;
+    private final long lostTimeoutMillis;
+    private final double rssiSmoothingFactor;
+    private final int rssiChangeThreshold;
+    private final Scheduler scheduler;
+
+    private ScanResultsAggregator(long tickIntervalMillis, long lostTimeoutMillis, double rssiSmoothingFactor, int rssiChangeThreshold,
+                                  Scheduler scheduler) {
+        this.tickIntervalMillis = tickIntervalMillis;
+        this.lostTimeoutMillis = lostTimeoutMillis;
+        this.rssiSmoothingFactor = rssiSmoothingFactor;
+        this.rssiChangeThreshold = rssiChangeThreshold;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Observable<List<DeviceChange>> call(Observable<ScanResult> scanResultObservable) {
+        return scanResultObservable.lift(new Observable.Operator<List<DeviceChange>, ScanResult>() {
+            @Override
+            public Subscriber<? super ScanResult> call(Subscriber<? super List<DeviceChange>> child) {
+                final Scheduler.Worker worker = scheduler.createWorker();
+                child.add(worker);
+                final AggregatingSubscriber aggregatingSubscriber = new AggregatingSubscriber(child, worker);
+                worker.schedulePeriodically(aggregatingSubscriber, tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+                return aggregatingSubscriber;
+            }
+        });
+    }
+
+    /**
+     * A change of a scanned device in the aggregated table.
+     */
+    public static class DeviceChange {
+
+        public enum Type {
+            /**
+             * The device was scanned for the first time or for the first time after it was lost.
+             */
+            ADDED,
+            /**
+             * The advertisement payload of the device or its smoothed RSSI has changed.
+             */
+            CHANGED,
+            /**
+             * The device was not scanned for the lost timeout and was removed from the table.
+             */
+            LOST
+        }
+
+        private final Type type;
+        private final ScanResult scanResult;
+        private final int smoothedRssi;
+        private final long lastSeenMillis;
+
+        DeviceChange(Type type, ScanResult scanResult, int smoothedRssi, long lastSeenMillis) {
+            this.type = type;
+            this.scanResult = scanResult;
+            this.smoothedRssi = smoothedRssi;
+            this.lastSeenMillis = lastSeenMillis;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return the last scan result of the device
+         */
+        public ScanResult getScanResult() {
+            return scanResult;
+        }
+
+        /**
+         * @return the exponentially smoothed RSSI of the device
+         */
+        public int getSmoothedRssi() {
+            return smoothedRssi;
+        }
+
+        /**
+         * @return the time at which the device was last scanned, according to the scheduler of the aggregator
+         */
+        public long getLastSeenMillis() {
+            return lastSeenMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "DeviceChange{"
+                    + "type=" + type
+                    + ", scanResult=" + scanResult
+                    + ", smoothedRssi=" + smoothedRssi
+                    + ", lastSeenMillis=" + lastSeenMillis
+                    + '}';
+        }
+    }
+
+    private static class ScannedDevice {
+
+        ScanResult lastScanResult;
+        long lastSeenMillis;
+        int payloadHash;
+        double smoothedRssi;
+        int reportedRssi;
+        // the change to be emitted on the next tick or null
+        DeviceChange.Type pendingChange;
+        boolean isLost;
+
+        DeviceChange toDeviceChange(DeviceChange.Type type) {
+            return new DeviceChange(type, lastScanResult, (int) Math.round(smoothedRssi), lastSeenMillis);
+        }
+    }
+
+    private class AggregatingSubscriber extends Subscriber<ScanResult> implements Action0 {
+
+        // changes are emitted from the ticks while the scan may end on any thread
+        private final Subscriber<? super List<DeviceChange>> serializedChild;
+        private final Scheduler.Worker worker;
+        // access ordered — the least recently scanned device comes first
+        private final LinkedHashMap<String, ScannedDevice> scannedDevices = new LinkedHashMap<>(16, 0.75f, true);
+        private final List<ScannedDevice> pendingDevices = new ArrayList<>();
+
+        AggregatingSubscriber(Subscriber<? super List<DeviceChange>> child, Scheduler.Worker worker) {
+            // the demand of the child is for the lists emitted on the ticks, not for the scan results — they are not shared
+            child.add(this);
+            this.serializedChild = new SerializedSubscriber<>(child);
+            this.worker = worker;
+        }
+
+        @Override
+        public void onStart() {
+            // every scan result is aggregated as soon as it arrives
+            request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ScanResult scanResult) {
+            final String macAddress = scanResult.getBleDevice().getMacAddress();
+            final int payloadHash = payloadHashOf(scanResult.getScanRecord());
+            synchronized (scannedDevices) {
+                ScannedDevice scannedDevice = scannedDevices.get(macAddress);
+                if (scannedDevice == null) {
+                    scannedDevice = new ScannedDevice();
+                    scannedDevice.payloadHash = payloadHash;
+                    scannedDevice.smoothedRssi = scanResult.getRssi();
+                    scannedDevice.pendingChange = DeviceChange.Type.ADDED;
+                    scannedDevices.put(macAddress, scannedDevice);
+                    pendingDevices.add(scannedDevice);
+                } else {
+                    scannedDevice.smoothedRssi += rssiSmoothingFactor * (scanResult.getRssi() - scannedDevice.smoothedRssi);
+                    final boolean isChanged = scannedDevice.payloadHash != payloadHash
+                            || Math.abs(scannedDevice.smoothedRssi - scannedDevice.reportedRssi) >= rssiChangeThreshold;
+                    scannedDevice.payloadHash = payloadHash;
+                    if (isChanged && scannedDevice.pendingChange == null) {
+                        scannedDevice.pendingChange = DeviceChange.Type.CHANGED;
+                        pendingDevices.add(scannedDevice);
+                    }
+                }
+                scannedDevice.lastScanResult = scanResult;
+                scannedDevice.lastSeenMillis = worker.now();
+            }
+        }
+
+        /**
+         * The tick. Removes the devices that were not scanned for the lost timeout and emits the changes since the previous tick.
+         */
+        @Override
+        public void call() {
+            final List<DeviceChange> deviceChanges = new ArrayList<>();
+            synchronized (scannedDevices) {
+                final long nowMillis = worker.now();
+                final Iterator<ScannedDevice> iterator = scannedDevices.values().iterator();
+                while (iterator.hasNext()) {
+                    final ScannedDevice scannedDevice = iterator.next();
+                    if (scannedDevice.lastSeenMillis + lostTimeoutMillis > nowMillis) {
+                        break;
+                    }
+                    iterator.remove();
+                    scannedDevice.isLost = true;
+                    if (scannedDevice.pendingChange != DeviceChange.Type.ADDED) {
+                        // a device added and lost within one tick was never reported
+                        deviceChanges.add(scannedDevice.toDeviceChange(DeviceChange.Type.LOST));
+                    }
+                }
+                collectPendingChanges(deviceChanges);
+            }
+            if (!deviceChanges.isEmpty()) {
+                serializedChild.onNext(deviceChanges);
+            }
+        }
+
+        private void collectPendingChanges(List<DeviceChange> deviceChanges) {
+            for (ScannedDevice scannedDevice : pendingDevices) {
+                if (!scannedDevice.isLost) {
+                    deviceChanges.add(scannedDevice.toDeviceChange(scannedDevice.pendingChange));
+                    scannedDevice.reportedRssi = (int) Math.round(scannedDevice.smoothedRssi);
+                }
+                scannedDevice.pendingChange = null;
+            }
+            pendingDevices.clear();
+        }
+
+        @Override
+        public void onCompleted() {
+            final List<DeviceChange> deviceChanges = new ArrayList<>();
+            synchronized (scannedDevices) {
+                collectPendingChanges(deviceChanges);
+                scannedDevices.clear();
+            }
+            if (!deviceChanges.isEmpty()) {
+                serializedChild.onNext(deviceChanges);
+            }
+            serializedChild.onCompleted();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            synchronized (scannedDevices) {
+                scannedDevices.clear();
+                pendingDevices.clear();
+            }
+            serializedChild.onError(e);
+        }
+    }
+
+    private static int payloadHashOf(ScanRecord scanRecord) {
+        return scanRecord == null ? 0 : Arrays.hashCode(scanRecord.getBytes());
+    }
+
+    public static class Builder {
+
+        private long tickIntervalMillis = 1000L;
+        private long lostTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+        private double rssiSmoothingFactor = 0.25;
+        private int rssiChangeThreshold = 5;
+        private Scheduler scheduler = Schedulers.computation();
+
+        /**
+         * Set the interval in which the changes are emitted. Defaults to 1 second.
+         *
+         * @param tickInterval the interval
+         * @param timeUnit the unit of the interval
+         * @return the builder
+         */
+        public Builder setTickInterval(long tickInterval, @NonNull TimeUnit timeUnit) {
+            if (tickInterval <= 0) {
+                throw new IllegalArgumentException("tick interval must be > 0");
+            }
+            tickIntervalMillis = timeUnit.toMillis(tickInterval);
+            return this;
+        }
+
+        /**
+         * Set the time after which a device that was not scanned is lost. Defaults to 10 seconds.
+         *
+         * @param lostTimeout the timeout
+         * @param timeUnit the unit of the timeout
+         * @return the builder
+         */
+        public Builder setLostTimeout(long lostTimeout, @NonNull TimeUnit timeUnit) {
+            if (lostTimeout <= 0) {
+                throw new IllegalArgumentException("lost timeout must be > 0");
+            }
+            lostTimeoutMillis = timeUnit.toMillis(lostTimeout);
+            return this;
+        }
+
+        /**
+         * Set the weight of a new RSSI reading in the smoothed RSSI. 1 turns the smoothing off. Defaults to 0.25.
+         *
+         * @param rssiSmoothingFactor the weight in range (0, 1]
+         * @return the builder
+         */
+        public Builder setRssiSmoothingFactor(double rssiSmoothingFactor) {
+            if (!(rssiSmoothingFactor > 0 && rssiSmoothingFactor <= 1)) {
+                throw new IllegalArgumentException("invalid RSSI smoothing factor " + rssiSmoothingFactor);
+            }
+            this.rssiSmoothingFactor = rssiSmoothingFactor;
+            return this;
+        }
+
+        /**
+         * Set by how many dBm the smoothed RSSI must move since it was last reported to change the device. Defaults to 5.
+         * {@link Integer#MAX_VALUE} makes only the payload changes count.
+         *
+         * @param rssiChangeThreshold the threshold in dBm
+         * @return the builder
+         */
+        public Builder setRssiChangeThreshold(int rssiChangeThreshold) {
+            if (rssiChangeThreshold <= 0) {
+                throw new IllegalArgumentException("RSSI change threshold must be > 0");
+            }
+            this.rssiChangeThreshold = rssiChangeThreshold;
+            return this;
+        }
+
+        /**
+         * Set the scheduler of the ticks and of the last seen times. Defaults to {@link Schedulers#computation()}.
+         *
+         * @param scheduler the scheduler
+         * @return the builder
+         */
+        public Builder setScheduler(@NonNull Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public ScanResultsAggregator build() {
+            return new ScanResultsAggregator(tickIntervalMillis, lostTimeoutMillis, rssiSmoothingFactor, rssiChangeThreshold, scheduler);
+        }
+    }
+}
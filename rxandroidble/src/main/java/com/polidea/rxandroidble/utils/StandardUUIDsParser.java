@@ -29,6 +29,8 @@
  */
 package com.polidea.rxandroidble.utils;
 
+import com.polidea.rxandroidble.internal.util.ShortUUIDs;
+
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +38,8 @@ import java.util.UUID;
 
 public class StandardUUIDsParser {
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     // Service UUIDs
     private static final Map<String, String> SERVICE_UUIDS;
 
@@ -297,17 +301,15 @@ public class StandardUUIDsParser {
     }
 
     private static String getStandardizedUUIDComponent(UUID uuid) {
-        String result = null;
-        // If is convertible to 16 bits
-        String stringUUIDRepresentation = uuid.toString().toUpperCase();
-        if (isStandardizedUUID(stringUUIDRepresentation)) {
-            // Convert to 16 bit
-            result = stringUUIDRepresentation.substring(4, 8);
+        final int uuid16bit = ShortUUIDs.to16Bit(uuid);
+        if (uuid16bit < 0) {
+            return null;
         }
-        return result;
-    }
-
-    private static boolean isStandardizedUUID(String stringUUIDRepresentation) {
-        return stringUUIDRepresentation.startsWith("0000") && stringUUIDRepresentation.endsWith("-0000-1000-8000-00805F9B34FB");
+        // Convert to the upper case hex representation used as the keys
+        final char[] component = new char[4];
+        for (int i = 0; i < component.length; i++) {
+            component[i] = HEX_DIGITS[(uuid16bit >> (12 - 4 * i)) & 0xF];
+        }
+        return new String(component);
     }
 }
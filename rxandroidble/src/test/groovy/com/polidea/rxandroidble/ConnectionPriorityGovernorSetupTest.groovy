@@ -0,0 +1,45 @@
+package com.polidea.rxandroidble
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ConnectionPriorityGovernorSetupTest extends Specification {
+
+    ConnectionPriorityGovernorSetup.Builder objectUnderTest = new ConnectionPriorityGovernorSetup.Builder()
+
+    @Unroll
+    def "should throw IllegalArgumentException when the queued operations threshold is #threshold"() {
+
+        when:
+        objectUnderTest.setQueuedOperationsThreshold(threshold)
+
+        then:
+        thrown IllegalArgumentException
+
+        where:
+        threshold << [0, -1]
+    }
+
+    @Unroll
+    def "should throw IllegalArgumentException when the GATT events per second threshold is #threshold"() {
+
+        when:
+        objectUnderTest.setGattEventsPerSecondThreshold(threshold)
+
+        then:
+        thrown IllegalArgumentException
+
+        where:
+        threshold << [0, -1]
+    }
+
+    def "should accept positive thresholds"() {
+
+        when:
+        def setup = objectUnderTest.setQueuedOperationsThreshold(1).setGattEventsPerSecondThreshold(1).build()
+
+        then:
+        setup.queuedOperationsThreshold == 1
+        setup.gattEventsPerSecondThreshold == 1
+    }
+}
@@ -42,4 +42,9 @@ class DummyOperationQueue implements ConnectionOperationQueue {
     void terminate(BleException disconnectException) {
         // do nothing
     }
+
+    @Override
+    int getQueuedOperationsCount() {
+        return 0
+    }
 }
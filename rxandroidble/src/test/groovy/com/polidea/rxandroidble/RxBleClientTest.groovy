@@ -6,7 +6,10 @@ import com.polidea.rxandroidble.internal.util.ClientStateObservable
 import bleshadow.dagger.Lazy
 import com.polidea.rxandroidble.internal.scan.RxBleInternalScanResult
 import com.polidea.rxandroidble.internal.scan.InternalToExternalScanResultConverter
+import com.polidea.rxandroidble.internal.scan.ScanMultiplexer
+import com.polidea.rxandroidble.internal.scan.ScanSettingsEmulator
 import com.polidea.rxandroidble.internal.scan.ScanSetup
+import com.polidea.rxandroidble.internal.scan.ScanStartScheduler
 import com.polidea.rxandroidble.internal.scan.ScanSetupBuilder
 import com.polidea.rxandroidble.scan.ScanSettings
 
@@ -23,9 +26,11 @@ import com.polidea.rxandroidble.exceptions.BleScanException
 import com.polidea.rxandroidble.internal.RxBleDeviceProvider
 import com.polidea.rxandroidble.internal.serialization.ClientOperationQueue
 import com.polidea.rxandroidble.internal.util.UUIDUtil
+import java.util.concurrent.TimeUnit
 import rx.Observable
 import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -53,6 +58,7 @@ class RxBleClientTest extends Specification {
             }
     ScanSetup mockScanSetup = new ScanSetup(mockOperationScan, mockObservableTransformer)
     ScanPreconditionsVerifier mockScanPreconditionVerifier = Mock ScanPreconditionsVerifier
+    ScanStartScheduler scanStartScheduler = new ScanStartScheduler(0, 0, ImmediateScheduler.INSTANCE)
     InternalToExternalScanResultConverter mockMapper = Mock InternalToExternalScanResultConverter
     private static someUUID = UUID.randomUUID()
     private static otherUUID = UUID.randomUUID()
@@ -85,10 +91,16 @@ class RxBleClientTest extends Specification {
                 locationServicesStatusMock,
                 mockLazyClientStateObservable,
                 mockDeviceProvider,
-                mockScanSetupBuilder,
+                new ScanMultiplexer(
+                        mockScanSetupBuilder,
+                        queue,
+                        new ScanSettingsEmulator(ImmediateScheduler.INSTANCE),
+                        scanStartScheduler,
+                        ImmediateScheduler.INSTANCE
+                ),
                 mockScanPreconditionVerifier,
+                scanStartScheduler,
                 mockMapper,
-                ImmediateScheduler.INSTANCE,
                 Mock(ClientComponent.ClientComponentFinalizer)
         )
     }
@@ -514,6 +526,27 @@ class RxBleClientTest extends Specification {
         1 * mockLazyClientStateObservable.get() >> Mock(ClientStateObservable)
     }
 
+    def "should return the expected start date of the next scan delayed by the scan quota"() {
+
+        given:
+        def testScheduler = new TestScheduler()
+        scanStartScheduler = new ScanStartScheduler(1, TimeUnit.SECONDS.toMillis(30), testScheduler)
+        setupWithQueue(dummyQueue)
+        scanStartScheduler.schedule(Observable.never()).subscribe()
+
+        when:
+        testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+        then:
+        objectUnderTest.getExpectedScanStartDate() == new Date(TimeUnit.SECONDS.toMillis(30))
+
+        when:
+        testScheduler.advanceTimeBy(25, TimeUnit.SECONDS)
+
+        then:
+        objectUnderTest.getExpectedScanStartDate() == new Date(TimeUnit.SECONDS.toMillis(35))
+    }
+
     public waitForThreadsToCompleteWork() {
         Thread.sleep(200) // Nasty :<
         true
@@ -0,0 +1,135 @@
+package com.polidea.rxandroidble
+
+import android.bluetooth.BluetoothGattCharacteristic
+import android.bluetooth.BluetoothGattDescriptor
+import android.bluetooth.BluetoothGattService
+import com.polidea.rxandroidble.exceptions.BleCharacteristicNotFoundException
+import com.polidea.rxandroidble.exceptions.BleServiceNotFoundException
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+class RxBleDeviceServicesTest extends Specification {
+
+    UUID firstServiceUuid = UUID.randomUUID()
+    UUID secondServiceUuid = UUID.randomUUID()
+    UUID characteristicUuid = UUID.randomUUID()
+    UUID descriptorUuid = UUID.randomUUID()
+    BluetoothGattService firstService = Mock BluetoothGattService
+    BluetoothGattService secondService = Mock BluetoothGattService
+    BluetoothGattCharacteristic characteristic = Mock BluetoothGattCharacteristic
+    BluetoothGattDescriptor descriptor = Mock BluetoothGattDescriptor
+    RxBleDeviceServices objectUnderTest
+
+    def setup() {
+        firstService.getUuid() >> firstServiceUuid
+        secondService.getUuid() >> secondServiceUuid
+        characteristic.getUuid() >> characteristicUuid
+        descriptor.getUuid() >> descriptorUuid
+        objectUnderTest = new RxBleDeviceServices([firstService, secondService])
+    }
+
+    def "should find characteristic in any of the services"() {
+
+        given:
+        firstService.getCharacteristics() >> []
+        secondService.getCharacteristics() >> [characteristic]
+
+        expect:
+        objectUnderTest.findCharacteristic(characteristicUuid) == characteristic
+    }
+
+    def "should find the first characteristic with matching UUID"() {
+
+        given:
+        def otherCharacteristic = Mock BluetoothGattCharacteristic
+        otherCharacteristic.getUuid() >> characteristicUuid
+        firstService.getCharacteristics() >> [characteristic]
+        secondService.getCharacteristics() >> [otherCharacteristic]
+
+        expect:
+        objectUnderTest.findCharacteristic(characteristicUuid) == characteristic
+        objectUnderTest.findCharacteristic(secondServiceUuid, characteristicUuid) == otherCharacteristic
+    }
+
+    def "should walk the services only once"() {
+
+        when:
+        objectUnderTest.findCharacteristic(characteristicUuid)
+        objectUnderTest.findCharacteristic(UUID.randomUUID())
+        objectUnderTest.findCharacteristic(firstServiceUuid, characteristicUuid)
+        objectUnderTest.findService(UUID.randomUUID())
+
+        then:
+        1 * firstService.getCharacteristics() >> [characteristic]
+        1 * secondService.getCharacteristics() >> []
+    }
+
+    def "should not walk the services before the first lookup"() {
+
+        when:
+        new RxBleDeviceServices([firstService, secondService])
+
+        then:
+        0 * firstService.getCharacteristics()
+        0 * secondService.getCharacteristics()
+    }
+
+    def "should find characteristic only in the service with matching UUID"() {
+
+        given:
+        firstService.getCharacteristics() >> [characteristic]
+        secondService.getCharacteristics() >> []
+
+        expect:
+        objectUnderTest.findCharacteristic(secondServiceUuid, characteristicUuid) == null
+        objectUnderTest.findCharacteristic(UUID.randomUUID(), characteristicUuid) == null
+    }
+
+    def "should walk the descriptors of a characteristic only once"() {
+
+        given:
+        firstService.getCharacteristics() >> [characteristic]
+        secondService.getCharacteristics() >> []
+
+        when:
+        def firstResult = objectUnderTest.findDescriptor(firstServiceUuid, characteristicUuid, descriptorUuid)
+        def secondResult = objectUnderTest.findDescriptor(characteristicUuid, descriptorUuid)
+        def missingResult = objectUnderTest.findDescriptor(characteristicUuid, UUID.randomUUID())
+
+        then:
+        1 * characteristic.getDescriptors() >> [descriptor]
+
+        and:
+        firstResult == descriptor
+        secondResult == descriptor
+        missingResult == null
+    }
+
+    def "should emit BleServiceNotFoundException if the service was not found"() {
+
+        given:
+        def testSubscriber = new TestSubscriber()
+        firstService.getCharacteristics() >> []
+        secondService.getCharacteristics() >> []
+
+        when:
+        objectUnderTest.getCharacteristic(UUID.randomUUID(), characteristicUuid).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertError(BleServiceNotFoundException)
+    }
+
+    def "should emit BleCharacteristicNotFoundException if the characteristic was not found"() {
+
+        given:
+        def testSubscriber = new TestSubscriber()
+        firstService.getCharacteristics() >> []
+        secondService.getCharacteristics() >> []
+
+        when:
+        objectUnderTest.getCharacteristic(characteristicUuid).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertError(BleCharacteristicNotFoundException)
+    }
+}
@@ -1,5 +1,6 @@
 package com.polidea.rxandroidble.helpers
 
+import java.nio.ByteBuffer
 import rx.observers.TestSubscriber
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -105,6 +106,43 @@ class ByteArrayBatchObservableTest extends Specification {
         testSubscriber.assertValueEquals(arrayFrom(0))
     }
 
+    def "should emit batches of the ByteBuffer content between its position and limit without moving its position"() {
+
+        given:
+        def byteBuffer = ByteBuffer.wrap(arrayFrom(0, 1, 2, 3, 4, 5, 6, 7, 8, 9))
+        byteBuffer.position(2).limit(8)
+        objectUnderTest = new ByteArrayBatchObservable(byteBuffer, 4)
+
+        when:
+        objectUnderTest.subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertValuesEquals(arrayFrom(2, 3, 4, 5), arrayFrom(6, 7))
+
+        and:
+        byteBuffer.position() == 2
+    }
+
+    def "should emit batches of the FileChannel content from its position"() {
+
+        given:
+        def file = File.createTempFile("ByteArrayBatchObservableTest", null)
+        file.deleteOnExit()
+        file.bytes = arrayFrom(0, 1, 2, 3, 4, 5, 6)
+        def fileChannel = new RandomAccessFile(file, "r").getChannel()
+        fileChannel.position(1)
+        objectUnderTest = new ByteArrayBatchObservable(fileChannel, 4)
+
+        when:
+        objectUnderTest.subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertValuesEquals(arrayFrom(1, 2, 3, 4), arrayFrom(5, 6))
+
+        cleanup:
+        fileChannel.close()
+    }
+
     @Unroll
     def "should throw IllegalArgumentException when called with maxBatchSize <= 0"() {
 
@@ -2,6 +2,7 @@ package com.polidea.rxandroidble.internal
 
 import com.polidea.rxandroidble.internal.cache.DeviceComponentCache
 import com.polidea.rxandroidble.internal.cache.MockDeviceReferenceProvider
+import rx.functions.Func1
 import spock.lang.Specification
 
 class DeviceComponentCacheTest extends Specification {
@@ -96,6 +97,68 @@ class DeviceComponentCacheTest extends Specification {
         deviceFromCache == null
     }
 
+    def "should return cached item without creating a new one"() {
+        given:
+        def cacheKey = "someKey"
+        def cachedDevice = Mock DeviceComponent
+        objectUnderTest.put(cacheKey, cachedDevice)
+        def factoryCalls = 0
+
+        when:
+        def deviceFromCache = objectUnderTest.getOrCreate(cacheKey, { String key -> factoryCalls++; null } as Func1)
+
+        then:
+        deviceFromCache == cachedDevice
+        factoryCalls == 0
+    }
+
+    def "should create and cache item if it is missing"() {
+        given:
+        def cacheKey = "someKey"
+        def createdDevice = Mock DeviceComponent
+
+        when:
+        def deviceFromCache = objectUnderTest.getOrCreate(cacheKey, { String key -> createdDevice } as Func1)
+
+        then:
+        deviceFromCache == createdDevice
+        objectUnderTest.get(cacheKey) == createdDevice
+        assertCacheSizeIs 1
+    }
+
+    def "should create and cache a new item if cached item was garbage collected"() {
+        given:
+        def cacheKey = "someKey"
+        def cachedDevice = Mock DeviceComponent
+        def createdDevice = Mock DeviceComponent
+        objectUnderTest.put(cacheKey, cachedDevice)
+        deviceReferenceProvider.releaseReferenceFor cachedDevice
+
+        when:
+        def deviceFromCache = objectUnderTest.getOrCreate(cacheKey, { String key -> createdDevice } as Func1)
+
+        then:
+        deviceFromCache == createdDevice
+        objectUnderTest.get(cacheKey) == createdDevice
+        assertCacheSizeIs 1
+    }
+
+    def "should not evict the item which replaced a garbage collected one"() {
+        given:
+        def cacheKey = "someKey"
+        def cachedDevice = Mock DeviceComponent
+        def replacingDevice = Mock DeviceComponent
+        objectUnderTest.put(cacheKey, cachedDevice)
+        objectUnderTest.put(cacheKey, replacingDevice)
+
+        when:
+        deviceReferenceProvider.releaseReferenceFor cachedDevice
+
+        then:
+        objectUnderTest.size() == 1
+        objectUnderTest.get(cacheKey) == replacingDevice
+    }
+
     public assertCacheContainsValue(DeviceComponent cachedDevice) {
         objectUnderTest.containsValue(cachedDevice)
     }
@@ -47,7 +47,8 @@ class RxBleDeviceProviderTest extends Specification {
         Observable<RxBleConnection> establishConnection(boolean autoConnect, Timeout operationTimeoutSetup) {
             establishConnection(autoConnect)
         }
-//        @Override
+
+        @Override
         Observable<RxBleConnection> establishConnection(ConnectionSetup options) {
             throw UnsupportedOperationException()
         }
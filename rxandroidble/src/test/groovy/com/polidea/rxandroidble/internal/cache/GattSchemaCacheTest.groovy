@@ -0,0 +1,121 @@
+package com.polidea.rxandroidble.internal.cache
+
+import android.bluetooth.BluetoothGattCharacteristic
+import android.bluetooth.BluetoothGattService
+import com.polidea.rxandroidble.RxBleDeviceServices
+import rx.schedulers.Schedulers
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+
+class GattSchemaCacheTest extends Specification {
+
+    private static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF"
+    private static final UUID SERVICE_CHANGED_UUID = UUID.fromString("00002a05-0000-1000-8000-00805f9b34fb")
+    File directory
+
+    def setup() {
+        directory = File.createTempDir()
+    }
+
+    def cleanup() {
+        directory.deleteDir()
+    }
+
+    def "should not load anything if disabled"() {
+
+        given:
+        def objectUnderTest = new GattSchemaCache(null, null, Schedulers.immediate())
+
+        expect:
+        !objectUnderTest.isEnabled()
+        objectUnderTest.load(MAC_ADDRESS) == null
+    }
+
+    def "should load the stored schema"() {
+
+        given:
+        def objectUnderTest = new GattSchemaCache(directory, null, Schedulers.immediate())
+        objectUnderTest.store(MAC_ADDRESS, deviceServices(mockService(UUID.randomUUID())), null)
+
+        when:
+        def cachedSchema = objectUnderTest.load(MAC_ADDRESS)
+
+        then:
+        cachedSchema != null
+        cachedSchema.getDeviceServices().getBluetoothGattServices().size() == 1
+    }
+
+    def "should not store a schema with the Service Changed characteristic if there is no schema hash"() {
+
+        given:
+        def objectUnderTest = new GattSchemaCache(directory, null, Schedulers.immediate())
+        def service = mockService(UUID.randomUUID())
+        service.getCharacteristic(SERVICE_CHANGED_UUID) >> Mock(BluetoothGattCharacteristic)
+
+        when:
+        objectUnderTest.store(MAC_ADDRESS, deviceServices(service), null)
+
+        then:
+        directory.listFiles().length == 0
+        objectUnderTest.load(MAC_ADDRESS) == null
+    }
+
+    def "should store the schema on the I/O scheduler"() {
+
+        given:
+        def ioScheduler = new TestScheduler()
+        def objectUnderTest = new GattSchemaCache(directory, null, ioScheduler)
+
+        when:
+        objectUnderTest.store(MAC_ADDRESS, deviceServices(mockService(UUID.randomUUID())), null)
+
+        then:
+        directory.listFiles().length == 0
+
+        when:
+        ioScheduler.triggerActions()
+
+        then:
+        directory.listFiles().length == 1
+    }
+
+    def "should load the schema only if it was stored with the same schema hash"() {
+
+        given:
+        new GattSchemaCache(directory, 1L, Schedulers.immediate()).store(MAC_ADDRESS, deviceServices(mockService(UUID.randomUUID())), null)
+
+        expect:
+        (new GattSchemaCache(directory, schemaHash, Schedulers.immediate()).load(MAC_ADDRESS) != null) == isLoaded
+
+        where:
+        schemaHash | isLoaded
+        1L         | true
+        2L         | false
+    }
+
+    def "should delete a corrupted file"() {
+
+        given:
+        def objectUnderTest = new GattSchemaCache(directory, null, Schedulers.immediate())
+        def file = new File(directory, "AABBCCDDEEFF.gatt")
+        file.bytes = [1, 2, 3] as byte[]
+
+        when:
+        def cachedSchema = objectUnderTest.load(MAC_ADDRESS)
+
+        then:
+        cachedSchema == null
+        !file.exists()
+    }
+
+    private BluetoothGattService mockService(UUID uuid) {
+        def service = Mock BluetoothGattService
+        service.getUuid() >> uuid
+        service.getCharacteristics() >> []
+        return service
+    }
+
+    private static RxBleDeviceServices deviceServices(BluetoothGattService... services) {
+        new RxBleDeviceServices(Arrays.asList(services))
+    }
+}
@@ -2,6 +2,8 @@ package com.polidea.rxandroidble.internal.cache
 
 import com.polidea.rxandroidble.internal.DeviceComponent
 
+import java.lang.ref.ReferenceQueue
+
 
 class MockDeviceReferenceProvider implements DeviceComponentWeakReference.Provider {
 
@@ -10,12 +12,14 @@ class MockDeviceReferenceProvider implements DeviceComponentWeakReference.Provid
 
     class MockDeviceComponentWeakReference extends DeviceComponentWeakReference {
 
-        MockDeviceComponentWeakReference(DeviceComponent device) {
-            super(device)
+        MockDeviceComponentWeakReference(String macAddress, DeviceComponent device, ReferenceQueue<DeviceComponent> queue) {
+            super(macAddress, device, queue)
         }
 
         public release() {
+            // mimics the garbage collector which clears the reference and then enqueues it
             clear()
+            enqueue()
         }
 
         @Override
@@ -25,8 +29,8 @@ class MockDeviceReferenceProvider implements DeviceComponentWeakReference.Provid
     }
 
     @Override
-    DeviceComponentWeakReference provide(DeviceComponent component) {
-        def reference = new MockDeviceComponentWeakReference(component)
+    DeviceComponentWeakReference provide(String macAddress, DeviceComponent component, ReferenceQueue<DeviceComponent> queue) {
+        def reference = new MockDeviceComponentWeakReference(macAddress, component, queue)
         storeReference(component, reference)
         return reference
     }
@@ -0,0 +1,255 @@
+package com.polidea.rxandroidble.internal.connection
+
+import android.bluetooth.BluetoothGattCharacteristic
+import com.polidea.rxandroidble.Timeout
+import com.polidea.rxandroidble.internal.operations.CharacteristicReadOperation
+import com.polidea.rxandroidble.internal.operations.Operation
+import com.polidea.rxandroidble.internal.operations.OperationsProvider
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
+import java.util.concurrent.TimeUnit
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class CharacteristicReadCoalescerTest extends Specification {
+
+    public static final byte[] VALUE = [1, 2, 3] as byte[]
+    public static final byte[] OTHER_VALUE = [4, 5, 6] as byte[]
+    def mockOperationQueue = Mock ConnectionOperationQueue
+    def mockOperationsProvider = Mock OperationsProvider
+    def characteristic = Mock BluetoothGattCharacteristic
+    def otherCharacteristic = Mock BluetoothGattCharacteristic
+    def testScheduler = new TestScheduler()
+    def callbackScheduler = new TestScheduler()
+    List<Operation> queuedOperations = []
+    List<PublishSubject<byte[]>> queuedResults = []
+    CharacteristicReadCoalescer objectUnderTest
+
+    def setup() {
+        mockOperationsProvider.provideReadCharacteristic(_) >> Mock(CharacteristicReadOperation)
+        mockOperationQueue.queue(_) >> { Operation operation ->
+            def result = PublishSubject.create()
+            queuedOperations.add(operation)
+            queuedResults.add(result)
+            return result
+        }
+        prepareObjectUnderTest(0)
+    }
+
+    def "should queue a single read for reads of the same characteristic requested before the read has started"() {
+
+        given:
+        def firstSubscriber = new TestSubscriber()
+        def secondSubscriber = new TestSubscriber()
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe(firstSubscriber)
+        objectUnderTest.readCharacteristic(characteristic).subscribe(secondSubscriber)
+        queuedResults[0].onNext(VALUE)
+        queuedResults[0].onCompleted()
+
+        then:
+        queuedOperations.size() == 1
+
+        and:
+        firstSubscriber.onNextEvents == [VALUE]
+        secondSubscriber.onNextEvents == [VALUE]
+    }
+
+    def "should queue separate reads for different characteristics"() {
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+        objectUnderTest.readCharacteristic(otherCharacteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+    }
+
+    def "should queue a new read if requested after the previous read has started"() {
+
+        given:
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        when:
+        queuedOperations[0].run(Mock(QueueReleaseInterface))
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+    }
+
+    def "should queue a new read operation if requested after the previous read has finished"() {
+
+        given:
+        givenValueWasRead()
+        def testSubscriber = new TestSubscriber()
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe(testSubscriber)
+
+        then:
+        queuedOperations.size() == 2
+        !queuedOperations[1].is(queuedOperations[0])
+
+        when:
+        queuedResults[1].onNext(OTHER_VALUE)
+
+        then:
+        testSubscriber.onNextEvents == [OTHER_VALUE]
+    }
+
+    def "should cancel a read if its only subscriber has unsubscribed before it was queued"() {
+
+        given:
+        def testSubscriber = new TestSubscriber()
+        testSubscriber.unsubscribe()
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe(testSubscriber)
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+        queuedResults[0].hasObservers() == false
+    }
+
+    def "should queue a new read if requested after the characteristic was invalidated"() {
+
+        given:
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        when:
+        objectUnderTest.invalidate(characteristic)
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+    }
+
+    def "should queue a new read if all subscribers of the pending read have unsubscribed"() {
+
+        given:
+        def subscription = objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        when:
+        subscription.unsubscribe()
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+    }
+
+    def "should queue a new read for every read if the read value freshness is not set"() {
+
+        given:
+        givenValueWasRead()
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+    }
+
+    def "should emit the read value without queueing a read while the value is fresh"() {
+
+        given:
+        prepareObjectUnderTest(5)
+        givenValueWasRead()
+        testScheduler.advanceTimeBy(5, TimeUnit.SECONDS)
+        def testSubscriber = new TestSubscriber()
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe(testSubscriber)
+
+        then:
+        queuedOperations.size() == 1
+
+        and:
+        testSubscriber.assertNoValues()
+
+        when:
+        callbackScheduler.triggerActions()
+
+        then:
+        testSubscriber.onNextEvents == [VALUE]
+    }
+
+    def "should queue a new read once the read value is not fresh anymore"() {
+
+        given:
+        prepareObjectUnderTest(5)
+        givenValueWasRead()
+        testScheduler.advanceTimeBy(6, TimeUnit.SECONDS)
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+    }
+
+    def "should not keep a value read by a read that has started before the characteristic was invalidated"() {
+
+        given:
+        prepareObjectUnderTest(5)
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+        queuedOperations[0].run(Mock(QueueReleaseInterface))
+        objectUnderTest.invalidate(characteristic)
+        queuedResults[0].onNext(VALUE)
+        queuedResults[0].onCompleted()
+
+        when:
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+
+        then:
+        queuedOperations.size() == 2
+    }
+
+    def "should emit a separate copy of the read value to every subscriber and for every cached read"() {
+
+        given:
+        prepareObjectUnderTest(5)
+        def firstSubscriber = new TestSubscriber<byte[]>()
+        def secondSubscriber = new TestSubscriber<byte[]>()
+        def cachedValueSubscriber = new TestSubscriber<byte[]>()
+        objectUnderTest.readCharacteristic(characteristic).subscribe(firstSubscriber)
+        objectUnderTest.readCharacteristic(characteristic).subscribe(secondSubscriber)
+        queuedOperations[0].run(Mock(QueueReleaseInterface))
+        queuedResults[0].onNext([1, 2, 3] as byte[])
+        queuedResults[0].onCompleted()
+
+        when:
+        firstSubscriber.onNextEvents[0][0] = 9
+        objectUnderTest.readCharacteristic(characteristic).subscribe(cachedValueSubscriber)
+        callbackScheduler.triggerActions()
+        cachedValueSubscriber.onNextEvents[0][1] = 9
+
+        then:
+        firstSubscriber.onNextEvents == [[9, 2, 3] as byte[]]
+        secondSubscriber.onNextEvents == [VALUE]
+
+        when:
+        def laterCachedValueSubscriber = new TestSubscriber<byte[]>()
+        objectUnderTest.readCharacteristic(characteristic).subscribe(laterCachedValueSubscriber)
+        callbackScheduler.triggerActions()
+
+        then:
+        laterCachedValueSubscriber.onNextEvents == [VALUE]
+    }
+
+    private givenValueWasRead() {
+        objectUnderTest.readCharacteristic(characteristic).subscribe()
+        queuedOperations.last().run(Mock(QueueReleaseInterface))
+        queuedResults.last().onNext(VALUE)
+        queuedResults.last().onCompleted()
+    }
+
+    private prepareObjectUnderTest(int readValueFreshnessSeconds) {
+        objectUnderTest = new CharacteristicReadCoalescer(mockOperationQueue, mockOperationsProvider, testScheduler, callbackScheduler,
+                new Timeout(readValueFreshnessSeconds, TimeUnit.SECONDS))
+    }
+}
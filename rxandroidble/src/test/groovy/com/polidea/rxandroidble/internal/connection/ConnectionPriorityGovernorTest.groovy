@@ -0,0 +1,223 @@
+package com.polidea.rxandroidble.internal.connection
+
+import android.bluetooth.BluetoothGatt
+import com.polidea.rxandroidble.ConnectionPriorityGovernorSetup
+import com.polidea.rxandroidble.ConnectionSetup
+import com.polidea.rxandroidble.Timeout
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue
+import java.util.concurrent.TimeUnit
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+
+class ConnectionPriorityGovernorTest extends Specification {
+
+    TestScheduler testScheduler = new TestScheduler()
+    BluetoothGatt mockGatt = Mock BluetoothGatt
+    BluetoothGattProvider mockGattProvider = Mock BluetoothGattProvider
+    ConnectionOperationQueue mockOperationQueue = Mock ConnectionOperationQueue
+    RxBleGattCallback mockCallback = Mock RxBleGattCallback
+    int queuedOperationsCount = 0
+    long gattEventsCount = 0
+    ConnectionPriorityGovernor objectUnderTest
+
+    def setup() {
+        mockGattProvider.getBluetoothGatt() >> mockGatt
+        mockOperationQueue.getQueuedOperationsCount() >> { queuedOperationsCount }
+        mockCallback.getGattEventsCount() >> { gattEventsCount }
+    }
+
+    def "should raise the priority once the queued operations count reaches the threshold"() {
+
+        given:
+        createGovernor()
+        objectUnderTest.onConnectionSubscribed()
+        queuedOperationsCount = 3
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_HIGH) >> true
+    }
+
+    def "should raise the priority once the GATT events rate reaches the threshold"() {
+
+        given:
+        createGovernor()
+        objectUnderTest.onConnectionSubscribed()
+
+        when:
+        gattEventsCount = 10
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+
+        when:
+        gattEventsCount += 20
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_HIGH) >> true
+    }
+
+    def "should keep the priority while the traffic stays above half of the threshold and lower it after the idle timeout"() {
+
+        given:
+        createGovernor()
+        objectUnderTest.onConnectionSubscribed()
+        queuedOperationsCount = 3
+        mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_HIGH) >> true
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        when:
+        queuedOperationsCount = 2
+        testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+
+        when:
+        queuedOperationsCount = 1
+        testScheduler.advanceTimeBy(4, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_BALANCED) >> true
+    }
+
+    def "should request the low power priority of a connection once it stays idle for the idle timeout if it is the idle priority"() {
+
+        given:
+        createGovernor(BluetoothGatt.CONNECTION_PRIORITY_LOW_POWER)
+        objectUnderTest.onConnectionSubscribed()
+
+        when:
+        testScheduler.advanceTimeBy(4, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_LOW_POWER) >> true
+    }
+
+    def "should keep the balanced priority while the traffic stays above half of the threshold if the idle priority is low power"() {
+
+        given:
+        createGovernor(BluetoothGatt.CONNECTION_PRIORITY_LOW_POWER)
+        objectUnderTest.onConnectionSubscribed()
+
+        when:
+        queuedOperationsCount = 2
+        testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+
+        when:
+        queuedOperationsCount = 0
+        testScheduler.advanceTimeBy(5, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_LOW_POWER) >> true
+    }
+
+    def "should treat the priority requested while bringing up the connection as the current one"() {
+
+        given:
+        createGovernor(BluetoothGatt.CONNECTION_PRIORITY_BALANCED, true, 21, BluetoothGatt.CONNECTION_PRIORITY_HIGH)
+        objectUnderTest.onConnectionSubscribed()
+
+        when:
+        testScheduler.advanceTimeBy(4, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_BALANCED) >> true
+    }
+
+    def "should retry the priority request if it could not be started"() {
+
+        given:
+        createGovernor()
+        objectUnderTest.onConnectionSubscribed()
+        queuedOperationsCount = 3
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_HIGH) >> false
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_HIGH) >> true
+    }
+
+    def "should stop sampling when the connection is unsubscribed"() {
+
+        given:
+        createGovernor()
+        objectUnderTest.onConnectionSubscribed()
+
+        when:
+        objectUnderTest.onConnectionUnsubscribed()
+        queuedOperationsCount = 3
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+    }
+
+    def "should not sample if the governor is not enabled or the device is below Android 5.0"() {
+
+        given:
+        createGovernor(BluetoothGatt.CONNECTION_PRIORITY_BALANCED, governorEnabled, deviceSdk)
+        objectUnderTest.onConnectionSubscribed()
+        queuedOperationsCount = 3
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+
+        where:
+        governorEnabled | deviceSdk
+        false           | 21
+        true            | 19
+    }
+
+    private void createGovernor(int idlePriority = BluetoothGatt.CONNECTION_PRIORITY_BALANCED, boolean governorEnabled = true,
+                                int deviceSdk = 21, int connectionPriority = ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED) {
+        def governorSetup = new ConnectionPriorityGovernorSetup.Builder()
+                .setQueuedOperationsThreshold(3)
+                .setGattEventsPerSecondThreshold(20)
+                .setIdleTimeout(new Timeout(5, TimeUnit.SECONDS))
+                .setSamplingInterval(new Timeout(1, TimeUnit.SECONDS))
+                .setIdlePriority(idlePriority)
+                .build()
+        def connectionSetup = new ConnectionSetup.Builder()
+                .setConnectionPriorityGovernor(governorEnabled ? governorSetup : null)
+                .setConnectionPriority(connectionPriority)
+                .build()
+        objectUnderTest = new ConnectionPriorityGovernor(connectionSetup, mockGattProvider, mockOperationQueue, mockCallback,
+                testScheduler, deviceSdk)
+    }
+}
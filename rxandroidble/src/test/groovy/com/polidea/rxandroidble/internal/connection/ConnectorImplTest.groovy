@@ -200,4 +200,39 @@ public class ConnectorImplTest extends Specification {
         then:
         1 * mockConnectionComponent.rxBleConnection() >> mockConnection
     }
-}
\ No newline at end of file
+
+    def "should emit RxBleConnection only after the bring-up if the ConnectionSetup requests it"() {
+
+        given:
+        def bringUpPublishSubject = PublishSubject.<RxBleConnection> create()
+        def mockConnectionBringUp = Mock ConnectionBringUp
+        mockConnectionComponent.connectionBringUp() >> mockConnectionBringUp
+        mockConnectionBringUp.bringUp(mockConnection) >> bringUpPublishSubject
+        clientOperationQueueMock.queue(mockConnect) >> Observable.just(mockGatt)
+        def connectionSetup = new ConnectionSetup.Builder().setRequestedMtu(100).build()
+
+        when:
+        objectUnderTest.prepareConnection(connectionSetup).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertNoValues()
+
+        when:
+        bringUpPublishSubject.onNext(mockConnection)
+
+        then:
+        testSubscriber.assertValue(mockConnection)
+    }
+
+    def "should not bring up the connection if the ConnectionSetup does not request it"() {
+
+        given:
+        clientOperationQueueMock.queue(mockConnect) >> Observable.just(mockGatt)
+
+        when:
+        objectUnderTest.prepareConnection(defaultConnectionSetup).subscribe(testSubscriber)
+
+        then:
+        0 * mockConnectionComponent.connectionBringUp()
+    }
+}
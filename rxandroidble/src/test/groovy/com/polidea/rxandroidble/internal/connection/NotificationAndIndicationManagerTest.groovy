@@ -9,7 +9,7 @@ import android.bluetooth.BluetoothGattDescriptor
 import com.polidea.rxandroidble.NotificationSetupMode
 import com.polidea.rxandroidble.exceptions.BleCannotSetCharacteristicNotificationException
 import com.polidea.rxandroidble.exceptions.BleConflictingNotificationAlreadySetException
-import com.polidea.rxandroidble.internal.util.CharacteristicChangedEvent
+import com.polidea.rxandroidble.internal.util.CharacteristicNotificationId
 import org.robolectric.annotation.Config
 import org.robospock.RoboSpecification
 import rx.Observable
@@ -25,10 +25,6 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
 
     public static final CHARACTERISTIC_INSTANCE_ID = 1
 
-    public static final OTHER_UUID = UUID.fromString("ab906173-5daa-4d6b-8604-c2be69122d57")
-
-    public static final OTHER_INSTANCE_ID = 2
-
     public static final byte[] EMPTY_DATA = [] as byte[]
 
     public static final byte[] NOT_EMPTY_DATA = [1, 2, 3] as byte[]
@@ -51,6 +47,8 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
 
     def descriptorWriterMock = Mock(DescriptorWriter)
 
+    def characteristicNotificationId = new CharacteristicNotificationId(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
+
     NotificationAndIndicationManager objectUnderTest
 
     def testSubscriber = new TestSubscriber()
@@ -74,7 +72,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         given:
         descriptorWriterMock.writeDescriptor(_, _) >> just(new byte[0])
         bluetoothGattMock.setCharacteristicNotification(_, _) >> true
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.empty()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.empty()
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: EMPTY_DATA)
         characteristic.getDescriptor(_) >> null
 
@@ -95,7 +93,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
 
         given:
         descriptorWriterMock.writeDescriptor(_, _) >> just(new byte[0])
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.empty()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.empty()
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: EMPTY_DATA)
         characteristic.getDescriptor(_) >> null
 
@@ -115,7 +113,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         given:
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: EMPTY_DATA)
         descriptorWriterMock.writeDescriptor(_, _) >> Observable.empty()
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.empty()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.empty()
         mockDescriptorAndAttachToCharacteristic(characteristic)
         bluetoothGattMock.setCharacteristicNotification(characteristic, true) >> false
 
@@ -136,7 +134,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         given:
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: EMPTY_DATA)
         def descriptor = mockDescriptorAndAttachToCharacteristic(characteristic)
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.empty()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.empty()
         bluetoothGattMock.setCharacteristicNotification(characteristic, true) >> true
         def testExceptionCause = new RuntimeException()
         descriptorWriterMock.writeDescriptor(descriptor, _) >> Observable.error(testExceptionCause)
@@ -160,7 +158,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
         def testException = new RuntimeException("test")
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.never()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.never()
         disconnectedErrorBehaviourSubject.onError(testException)
 
         when:
@@ -178,7 +176,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
         def testException = new RuntimeException("test")
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.never()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.never()
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).subscribe(testSubscriber)
 
         when:
@@ -214,9 +212,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
     def "should notify about value change and stay subscribed"() {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> from(changeNotificationsAndExpectedValues.collect {
-            new CharacteristicChangedEvent(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID, it)
-        })
+        rxBleGattCallbackMock.getOnCharacteristicChanged(characteristicNotificationId) >> from(changeNotificationsAndExpectedValues)
 
         when:
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).flatMap({ it }).subscribe(testSubscriber)
@@ -234,28 +230,23 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
     }
 
     @Unroll
-    def "should not notify about value change if UUID and / or instanceId is not matching"() {
+    def "should observe value changes of the characteristic with matching UUID and instanceId only"() {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
-        bluetoothGattMock.getOnCharacteristicChanged() >> just(otherCharacteristicNotificationId)
 
         when:
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).flatMap({ it }).subscribe(testSubscriber)
 
         then:
+        1 * rxBleGattCallbackMock.getOnCharacteristicChanged(characteristicNotificationId) >> Observable.never()
+        0 * rxBleGattCallbackMock.getOnCharacteristicChanged({ it != characteristicNotificationId })
+
+        and:
         testSubscriber.assertNoValues()
         testSubscriber.assertNotCompleted()
 
         where:
-        [mode, ack, otherCharacteristicNotificationId] << [
-                MODES,
-                ACK_VALUES,
-                [
-                        new CharacteristicChangedEvent(CHARACTERISTIC_UUID, OTHER_INSTANCE_ID, NOT_EMPTY_DATA),
-                        new CharacteristicChangedEvent(OTHER_UUID, CHARACTERISTIC_INSTANCE_ID, NOT_EMPTY_DATA),
-                        new CharacteristicChangedEvent(OTHER_UUID, OTHER_INSTANCE_ID, NOT_EMPTY_DATA)
-                ]
-        ].combinations()
+        [mode, ack] << [MODES, ACK_VALUES].combinations()
     }
 
     @Unroll
@@ -265,7 +256,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: EMPTY_DATA)
         def descriptor = mockDescriptorAndAttachToCharacteristic(characteristic)
         bluetoothGattMock.setCharacteristicNotification(characteristic, true) >> true
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> PublishSubject.create()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> PublishSubject.create()
         descriptorWriterMock.writeDescriptor(descriptor, _) >> just(new byte[0])
 
         when:
@@ -292,7 +283,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: EMPTY_DATA)
         def descriptor = mockDescriptorAndAttachToCharacteristic(characteristic)
         bluetoothGattMock.setCharacteristicNotification(characteristic, true) >> true
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> PublishSubject.create()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> PublishSubject.create()
         descriptorWriterMock.writeDescriptor(descriptor, _) >> just(new byte[0])
         def firstObservable = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack)
         def secondObservable = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack)
@@ -319,13 +310,13 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
         def characteristicChangeSubject = PublishSubject.create()
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangeSubject
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> characteristicChangeSubject
         def secondSubscriber = new TestSubscriber()
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).flatMap({ it }).subscribe(testSubscriber)
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).flatMap({ it }).subscribe(secondSubscriber)
 
         when:
-        characteristicChangeSubject.onNext(new CharacteristicChangedEvent(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID, NOT_EMPTY_DATA))
+        characteristicChangeSubject.onNext(NOT_EMPTY_DATA)
 
         then:
         testSubscriber.assertValue(NOT_EMPTY_DATA)
@@ -341,7 +332,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: EMPTY_DATA)
         def descriptor = mockDescriptorAndAttachToCharacteristic(characteristic)
         1 * bluetoothGattMock.setCharacteristicNotification(characteristic, true) >> true
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> PublishSubject.create()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> PublishSubject.create()
         def secondSubscriber = new TestSubscriber()
 
         when:
@@ -377,7 +368,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
     def "should emit BleCharacteristicNotificationOfOtherTypeAlreadySetException if notification is set up after indication on the same characteristic"() {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> PublishSubject.create()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> PublishSubject.create()
         def secondSubscriber = new TestSubscriber()
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode0, acks[0]).subscribe(testSubscriber)
 
@@ -400,7 +391,7 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
     def "should complete the emitted Observable<byte> when unsubscribed"() {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.never()
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.never()
         def emittedObservableSubscriber = new TestSubscriber()
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack)
                 .doOnNext { it.subscribe(emittedObservableSubscriber) }
@@ -417,11 +408,11 @@ class NotificationAndIndicationManagerTest extends RoboSpecification {
     }
 
     @Unroll
-    def "should proxy the error emitted by RxBleGattCallback.getOnCharacteristicChanged() to emitted Observable<byte>"() {
+    def "should proxy the error emitted by RxBleGattCallback.getOnCharacteristicChanged(CharacteristicNotificationId) to emitted Observable<byte>"() {
         given:
         def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
         def testException = new RuntimeException("test")
-        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.error(testException)
+        rxBleGattCallbackMock.getOnCharacteristicChanged(_) >> Observable.error(testException)
         objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack)
                 .doOnNext { it.subscribe(testSubscriber) }
                 .subscribe(new TestSubscriber<Observable<byte[]>>())
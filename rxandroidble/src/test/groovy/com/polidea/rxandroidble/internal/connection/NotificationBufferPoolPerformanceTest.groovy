@@ -0,0 +1,68 @@
+package com.polidea.rxandroidble.internal.connection
+
+import java.lang.management.ManagementFactory
+import spock.lang.Ignore
+import spock.lang.Specification
+
+class NotificationBufferPoolPerformanceTest extends Specification {
+
+    def iterationsCount = 1000000
+    def value = new byte[20]
+
+    def "sanity check"() {
+
+        expect:
+        new NotificationBufferPool().obtain(value).getValue().remaining() == value.length
+    }
+
+    /*
+     * Android allocates a new array for every notification before BluetoothGattCallback.onCharacteristicChanged() is called so both
+     * of the paths below allocate it. setupNotification() delivers that array as is while setupPooledNotification() additionally copies
+     * it into a pooled buffer.
+     */
+
+    @Ignore // not needed to be performed each time
+    def "performance test notification values delivered as arrays allocated by the framework"() {
+        given:
+        def startedAllocatedBytes = allocatedBytes()
+        def startedTimestamp = System.currentTimeMillis()
+        long checksum = 0
+
+        when:
+        for (int i = 0; i < iterationsCount; i++) {
+            byte[] frameworkValue = new byte[value.length]
+            checksum += frameworkValue.length
+        }
+
+        then:
+        println("Delivering $iterationsCount arrays took ${System.currentTimeMillis() - startedTimestamp}ms and allocated " +
+                "${(allocatedBytes() - startedAllocatedBytes) / iterationsCount} bytes per notification (checksum $checksum)")
+    }
+
+    @Ignore // not needed to be performed each time
+    def "performance test notification values copied from arrays allocated by the framework into pooled buffers"() {
+        given:
+        def objectUnderTest = new NotificationBufferPool()
+        objectUnderTest.obtain(value).release() // allocates the pool
+        def startedAllocatedBytes = allocatedBytes()
+        def startedTimestamp = System.currentTimeMillis()
+        long checksum = 0
+
+        when:
+        for (int i = 0; i < iterationsCount; i++) {
+            byte[] frameworkValue = new byte[value.length]
+            def buffer = objectUnderTest.obtain(frameworkValue)
+            checksum += buffer.getValue().remaining()
+            buffer.release()
+        }
+
+        then:
+        println("Pooling $iterationsCount values took ${System.currentTimeMillis() - startedTimestamp}ms and allocated " +
+                "${(allocatedBytes() - startedAllocatedBytes) / iterationsCount} bytes per notification (checksum $checksum)")
+    }
+
+    private static long allocatedBytes() {
+        def threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId())
+    }
+}
@@ -0,0 +1,98 @@
+package com.polidea.rxandroidble.internal.connection
+
+import java.nio.ReadOnlyBufferException
+import spock.lang.Specification
+
+class NotificationBufferPoolTest extends Specification {
+
+    def objectUnderTest = new NotificationBufferPool()
+
+    def "should return a buffer with a copy of the value"() {
+        given:
+        byte[] value = [1, 2, 3]
+
+        when:
+        def buffer = objectUnderTest.obtain(value)
+        value[0] = 7
+
+        then:
+        readValue(buffer) == [1, 2, 3] as byte[]
+    }
+
+    def "should return a read-only buffer"() {
+
+        when:
+        objectUnderTest.obtain([1, 2, 3] as byte[]).getValue().put(0, (byte) 5)
+
+        then:
+        thrown ReadOnlyBufferException
+    }
+
+    def "should reuse a released buffer"() {
+        given:
+        def firstBuffer = objectUnderTest.obtain([1, 2, 3] as byte[])
+        firstBuffer.release()
+
+        when:
+        def secondBuffer = objectUnderTest.obtain([4, 5] as byte[])
+
+        then:
+        secondBuffer.is(firstBuffer)
+        readValue(secondBuffer) == [4, 5] as byte[]
+    }
+
+    def "should throw IllegalStateException when a buffer is released twice"() {
+        given:
+        def buffer = objectUnderTest.obtain([1, 2, 3] as byte[])
+        buffer.release()
+
+        when:
+        buffer.release()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    def "should return a non-pooled buffer when the pool is exhausted"() {
+        given:
+        NotificationBufferPool.BUFFERS_COUNT.times { objectUnderTest.obtain([1] as byte[]) }
+
+        when:
+        def buffer = objectUnderTest.obtain([1, 2, 3] as byte[])
+
+        then:
+        readValue(buffer) == [1, 2, 3] as byte[]
+    }
+
+    def "should throw IllegalStateException when a non-pooled buffer is released twice"() {
+        given:
+        NotificationBufferPool.BUFFERS_COUNT.times { objectUnderTest.obtain([1] as byte[]) }
+        def buffer = objectUnderTest.obtain([1, 2, 3] as byte[])
+        buffer.release()
+
+        when:
+        buffer.release()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    def "should return a non-pooled buffer when the value is longer than the pooled buffer"() {
+        given:
+        def value = new byte[NotificationBufferPool.BUFFER_SIZE + 1]
+        value[NotificationBufferPool.BUFFER_SIZE] = 1
+
+        when:
+        def buffer = objectUnderTest.obtain(value)
+
+        then:
+        readValue(buffer) == value
+    }
+
+    private static byte[] readValue(buffer) {
+        def byteBuffer = buffer.getValue().duplicate()
+        def result = new byte[byteBuffer.remaining()]
+        byteBuffer.get(result)
+        return result
+    }
+}
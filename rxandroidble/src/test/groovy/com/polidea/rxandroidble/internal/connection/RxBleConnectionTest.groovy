@@ -11,22 +11,22 @@ import com.polidea.rxandroidble.*
 import com.polidea.rxandroidble.exceptions.*
 import com.polidea.rxandroidble.internal.operations.OperationsProviderImpl
 import com.polidea.rxandroidble.internal.operations.ReadRssiOperation
-import com.polidea.rxandroidble.internal.util.ByteAssociation
 import rx.Completable
 
 import java.util.concurrent.TimeUnit
 import com.polidea.rxandroidble.internal.util.MockOperationTimeoutConfiguration
 import rx.Observable
 import rx.Scheduler
+import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
 import rx.schedulers.TestScheduler
 import rx.subjects.BehaviorSubject
 import rx.subjects.PublishSubject
+import rx.subscriptions.Subscriptions
 import spock.lang.Specification
 import spock.lang.Unroll
 
 import static rx.Observable.error
-import static rx.Observable.from
 import static rx.Observable.just
 
 class RxBleConnectionTest extends Specification {
@@ -46,20 +46,30 @@ class RxBleConnectionTest extends Specification {
     def illegalOperationChecker = Mock IllegalOperationChecker
     def timeoutConfig = new MockOperationTimeoutConfiguration(testScheduler)
     def operationsProviderMock = new OperationsProviderImpl(gattCallback, bluetoothGattMock, timeoutConfig, testScheduler,
-            testScheduler, { new ReadRssiOperation(gattCallback, bluetoothGattMock, timeoutConfig) })
+            testScheduler, ImmediateScheduler.INSTANCE, { new ReadRssiOperation(gattCallback, bluetoothGattMock, timeoutConfig) })
     def notificationAndIndicationManagerMock = Mock NotificationAndIndicationManager
     def descriptorWriterMock = Mock DescriptorWriter
     def mtuProvider = Mock MtuProvider
     def objectUnderTest = new RxBleConnectionImpl(dummyQueue, gattCallback, bluetoothGattMock, mockServiceDiscoveryManager,
             notificationAndIndicationManagerMock, mtuProvider, descriptorWriterMock, operationsProviderMock,
-            { new LongWriteOperationBuilderImpl(dummyQueue, { 20 }, Mock(RxBleConnection)) }, testScheduler, illegalOperationChecker
+            { new LongWriteOperationBuilderImpl(dummyQueue, { 20 }, Mock(RxBleConnection)) },
+            { Mock(RxBleConnection.StreamingWriteOperationBuilder) }, { Mock(RxBleConnection.TransactionBuilder) }, testScheduler,
+            illegalOperationChecker,
+            new NotificationBufferPool(),
+            new CharacteristicReadCoalescer(dummyQueue, operationsProviderMock, testScheduler, ImmediateScheduler.INSTANCE,
+                    new Timeout(0, TimeUnit.SECONDS))
     )
     def connectionStateChange = BehaviorSubject.create()
     def TestSubscriber testSubscriber
+    GattCallbackSlot currentCallbackSlot
 
     def setup() {
         testSubscriber = new TestSubscriber()
         gattCallback.getOnConnectionStateChange() >> connectionStateChange
+        gattCallback.setCallbackSlot(_) >> { GattCallbackSlot slot ->
+            currentCallbackSlot = slot
+            Subscriptions.empty()
+        }
         illegalOperationChecker.checkAnyPropertyMatches(_, _) >> Completable.complete()
     }
 
@@ -69,7 +79,7 @@ class RxBleConnectionTest extends Specification {
         invokationClosure.call(objectUnderTest)
 
         then:
-        1 * mockServiceDiscoveryManager.getDiscoverServicesObservable(timeout, timeoutTimeUnit) >> Observable.empty()
+        1 * mockServiceDiscoveryManager.getCachedOrDiscoverServicesObservable(timeout, timeoutTimeUnit) >> Observable.empty()
 
         where:
         timeout | timeoutTimeUnit  | invokationClosure
@@ -84,7 +94,6 @@ class RxBleConnectionTest extends Specification {
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: OTHER_DATA)
         shouldGattContainServiceWithCharacteristic(characteristic, CHARACTERISTIC_UUID)
 
-        gattCallback.getOnCharacteristicWrite() >> PublishSubject.create()
         shouldFailStartingCharacteristicWrite()
 
         when:
@@ -106,7 +115,6 @@ class RxBleConnectionTest extends Specification {
         given:
         def characteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: OTHER_DATA)
         shouldGattContainServiceWithCharacteristic(characteristic, CHARACTERISTIC_UUID)
-        gattCallback.getOnCharacteristicRead() >> PublishSubject.create()
         shouldFailStartingCharacteristicRead()
 
         when:
@@ -148,7 +156,7 @@ class RxBleConnectionTest extends Specification {
         given:
         def service = Mock BluetoothGattService
         shouldDiscoverServices([service])
-        service.getCharacteristic(_) >> null
+        service.getCharacteristics() >> []
 
         when:
         objectUnderTest.readCharacteristic(CHARACTERISTIC_UUID).subscribe(testSubscriber)
@@ -160,8 +168,9 @@ class RxBleConnectionTest extends Specification {
     def "should read first found characteristic with matching UUID"() {
         given:
         def service = Mock BluetoothGattService
-        shouldServiceContainCharacteristic(service, CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID, NOT_EMPTY_DATA)
-        shouldServiceContainCharacteristic(service, OTHER_UUID, OTHER_INSTANCE_ID, OTHER_DATA)
+        shouldServiceContainCharacteristics(service,
+                [uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: NOT_EMPTY_DATA],
+                [uuid: OTHER_UUID, instanceId: OTHER_INSTANCE_ID, value: OTHER_DATA])
         shouldDiscoverServices([service])
         shouldGattCallbackReturnDataOnRead(
                 [uuid: OTHER_UUID, value: OTHER_DATA],
@@ -171,7 +180,7 @@ class RxBleConnectionTest extends Specification {
         objectUnderTest.readCharacteristic(CHARACTERISTIC_UUID).subscribe(testSubscriber)
 
         then:
-        testSubscriber.assertValue NOT_EMPTY_DATA
+        testSubscriber.onNextEvents == [NOT_EMPTY_DATA]
     }
 
     def "should emit BleCharacteristicNotFoundException if there are no services during write operation"() {
@@ -201,8 +210,6 @@ class RxBleConnectionTest extends Specification {
         given:
         def mockedCharacteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: OTHER_DATA)
         shouldGattContainServiceWithCharacteristic(mockedCharacteristic, CHARACTERISTIC_UUID)
-        def onWriteSubject = PublishSubject.create()
-        gattCallback.getOnCharacteristicWrite() >> onWriteSubject
 
         when:
         setupWriteClosure.call(objectUnderTest, mockedCharacteristic, OTHER_DATA).subscribe(testSubscriber)
@@ -213,7 +220,7 @@ class RxBleConnectionTest extends Specification {
         and:
         1 * bluetoothGattMock.writeCharacteristic({ it.getValue() == OTHER_DATA }) >> {
             BluetoothGattCharacteristic characteristic ->
-                onWriteSubject.onNext(ByteAssociation.create(characteristic.getUuid(), characteristic.getValue()))
+                currentCallbackSlot.onCharacteristicWrite(bluetoothGattMock, characteristic, BluetoothGatt.GATT_SUCCESS)
                 true
         }
 
@@ -496,11 +503,16 @@ class RxBleConnectionTest extends Specification {
 
     public shouldGattContainServiceWithCharacteristic(BluetoothGattCharacteristic characteristic, UUID characteristicUUID = CHARACTERISTIC_UUID) {
         characteristic.getUuid() >> characteristicUUID
-        shouldContainOneServiceWithoutCharacteristics().getCharacteristic(characteristicUUID) >> characteristic
+        shouldContainOneServiceWithCharacteristics(characteristic != null ? [characteristic] : [])
     }
 
     public shouldContainOneServiceWithoutCharacteristics() {
+        shouldContainOneServiceWithCharacteristics([])
+    }
+
+    public shouldContainOneServiceWithCharacteristics(List<BluetoothGattCharacteristic> characteristics) {
         def service = Mock BluetoothGattService
+        service.getCharacteristics() >> characteristics
         shouldDiscoverServices([service])
         service
     }
@@ -511,12 +523,18 @@ class RxBleConnectionTest extends Specification {
         bluetoothGattMock.readRemoteRssi() >> { closure?.call(rssiSubject) }
     }
 
-    public shouldServiceContainCharacteristic(BluetoothGattService service, UUID uuid, int instanceId, byte[] characteristicValue) {
-        service.getCharacteristic(uuid) >> mockCharacteristicWithValue(uuid: uuid, instanceId: instanceId, value: characteristicValue)
+    public shouldServiceContainCharacteristics(BluetoothGattService service, Map... characteristicsData) {
+        service.getCharacteristics() >> characteristicsData.collect { mockCharacteristicWithValue(it) }
     }
 
     public shouldGattCallbackReturnDataOnRead(Map... parameters) {
-        gattCallback.getOnCharacteristicRead() >> { from(parameters.collect { ByteAssociation.create it['uuid'], it['value'] }) }
+        def readCharacteristics = parameters.collect { mockCharacteristicWithValue(uuid: it['uuid'], value: it['value']) }
+        bluetoothGattMock.readCharacteristic(_) >> {
+            readCharacteristics.each {
+                currentCallbackSlot.onCharacteristicRead(bluetoothGattMock, it, BluetoothGatt.GATT_SUCCESS)
+            }
+            true
+        }
     }
 
     public mockCharacteristicWithValue(Map characteristicData) {
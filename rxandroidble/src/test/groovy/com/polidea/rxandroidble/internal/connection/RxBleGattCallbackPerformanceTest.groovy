@@ -4,6 +4,9 @@ import android.bluetooth.BluetoothDevice
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCallback
 import android.bluetooth.BluetoothGattCharacteristic
+import android.bluetooth.BluetoothGattDescriptor
+import com.polidea.rxandroidble.exceptions.BleException
+import java.lang.management.ManagementFactory
 import rx.Observable
 import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
@@ -33,6 +36,9 @@ class RxBleGattCallbackPerformanceTest extends Specification {
 
     def setupSpec() {
         mockDisconnectionRouter.asObservable() >> Observable.empty()
+        mockDisconnectionRouter.asErrorOnlyObservable() >> Observable.never()
+        mockDisconnectionRouter.asValueOnlyObservable() >> Observable.never()
+        mockBluetoothGattCharacteristic.getUuid() >> UUID.randomUUID()
         mockBluetoothGatt.getDevice() >> mockBluetoothDevice
         mockBluetoothDevice.getAddress() >> mockBluetoothDeviceMacAddress
     }
@@ -72,6 +78,56 @@ class RxBleGattCallbackPerformanceTest extends Specification {
         println("Test read callbacks with $iterationsCount took ${System.currentTimeMillis() - startedTimestamp}ms (Native API)")
     }
 
+    @Ignore // not needed to be performed each time
+    def "performance test completing read operations by filtering RxJava API"() {
+        given:
+        def characteristicUuid = mockBluetoothGattCharacteristic.getUuid()
+        def startedAllocatedBytes = allocatedBytes()
+        def startedTimestamp = System.currentTimeMillis()
+        def completedCount = 0
+
+        when:
+        for (int i = 0; i < iterationsCount; i++) {
+            objectUnderTest.onCharacteristicRead
+                    .filter { it.first == characteristicUuid }
+                    .map { it.second }
+                    .first()
+                    .subscribe { completedCount++ }
+            invokeCharacteristicReadCallback()
+        }
+
+        then:
+        completedCount == iterationsCount
+        println("Completing $iterationsCount reads took ${System.currentTimeMillis() - startedTimestamp}ms and allocated " +
+                "${(allocatedBytes() - startedAllocatedBytes) / iterationsCount} bytes per read (Rx API)")
+    }
+
+    @Ignore // not needed to be performed each time
+    def "performance test completing read operations through the callback slot"() {
+        given:
+        def testSlot = new TestCallbackSlot()
+        def startedAllocatedBytes = allocatedBytes()
+        def startedTimestamp = System.currentTimeMillis()
+
+        when:
+        for (int i = 0; i < iterationsCount; i++) {
+            def disconnectionSubscription = objectUnderTest.setCallbackSlot(testSlot)
+            invokeCharacteristicReadCallback()
+            objectUnderTest.clearCallbackSlot(testSlot)
+            disconnectionSubscription.unsubscribe()
+        }
+
+        then:
+        testSlot.readCount == iterationsCount
+        println("Completing $iterationsCount reads took ${System.currentTimeMillis() - startedTimestamp}ms and allocated " +
+                "${(allocatedBytes() - startedAllocatedBytes) / iterationsCount} bytes per read (callback slot)")
+    }
+
+    private static long allocatedBytes() {
+        def threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId())
+    }
+
     private invokeCharacteristicReadCallback(int iterationCount = 1) {
         iterationCount.times {
             objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, mockBluetoothGattCharacteristic, GATT_SUCCESS)
@@ -86,4 +142,29 @@ class RxBleGattCallbackPerformanceTest extends Specification {
             readCount++
         }
     }
+
+    static class TestCallbackSlot implements GattCallbackSlot {
+        int readCount = 0
+
+        @Override
+        void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+            readCount++
+        }
+
+        @Override
+        void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+        }
+
+        @Override
+        void onDescriptorRead(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+        }
+
+        @Override
+        void onDescriptorWrite(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+        }
+
+        @Override
+        void onDisconnected(BleException disconnectionException) {
+        }
+    }
 }
@@ -14,14 +14,17 @@ import android.bluetooth.BluetoothGattCallback
 import android.bluetooth.BluetoothGattCharacteristic
 import android.bluetooth.BluetoothGattDescriptor
 import com.polidea.rxandroidble.exceptions.BleDisconnectedException
+import com.polidea.rxandroidble.exceptions.BleException
 import com.polidea.rxandroidble.exceptions.BleGattCharacteristicException
 import com.polidea.rxandroidble.exceptions.BleGattDescriptorException
 import com.polidea.rxandroidble.exceptions.BleGattException
 import com.polidea.rxandroidble.exceptions.BleGattOperationType
+import com.polidea.rxandroidble.internal.util.CharacteristicNotificationId
 import org.robospock.RoboSpecification
 import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
 import rx.subjects.PublishSubject
+import rx.subjects.ReplaySubject
 import spock.lang.Shared
 import spock.lang.Unroll
 
@@ -29,6 +32,7 @@ class RxBleGattCallbackTest extends RoboSpecification {
 
     DisconnectionRouter mockDisconnectionRouter
     PublishSubject mockDisconnectionSubject
+    ReplaySubject<BleException> mockDisconnectionValueSubject
     RxBleGattCallback objectUnderTest
     def testSubscriber = new TestSubscriber()
     @Shared def mockBluetoothGatt = Mock BluetoothGatt
@@ -45,7 +49,9 @@ class RxBleGattCallbackTest extends RoboSpecification {
     def setup() {
         mockDisconnectionRouter = Mock DisconnectionRouter
         mockDisconnectionSubject = PublishSubject.create()
+        mockDisconnectionValueSubject = ReplaySubject.create()
         mockDisconnectionRouter.asErrorOnlyObservable() >> mockDisconnectionSubject
+        mockDisconnectionRouter.asValueOnlyObservable() >> mockDisconnectionValueSubject
         objectUnderTest = new RxBleGattCallback(ImmediateScheduler.INSTANCE, Mock(BluetoothGattProvider), mockDisconnectionRouter, new NativeCallbackDispatcher())
     }
 
@@ -195,12 +201,72 @@ class RxBleGattCallbackTest extends RoboSpecification {
                 { return (it as RxBleGattCallback).getOnCharacteristicRead() },
                 { return (it as RxBleGattCallback).getOnCharacteristicWrite() },
                 { return (it as RxBleGattCallback).getOnCharacteristicChanged() },
+                { return (it as RxBleGattCallback).getOnCharacteristicChanged(new CharacteristicNotificationId(UUID.randomUUID(), 0)) },
                 { return (it as RxBleGattCallback).getOnDescriptorRead() },
                 { return (it as RxBleGattCallback).getOnDescriptorWrite() },
                 { return (it as RxBleGattCallback).getOnRssiRead() }
         ]
     }
 
+    def "getOnCharacteristicChanged(CharacteristicNotificationId) should emit only values of the characteristic with matching UUID and instanceId"() {
+
+        given:
+        def characteristicUuid = UUID.randomUUID()
+        def value = [1, 2, 3] as byte[]
+        objectUnderTest.getOnCharacteristicChanged(new CharacteristicNotificationId(characteristicUuid, 1)).subscribe(testSubscriber)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(UUID.randomUUID(), 1, value))
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(characteristicUuid, 2, value))
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(characteristicUuid, 1, value))
+
+        then:
+        testSubscriber.assertValue(value)
+    }
+
+    def "getOnCharacteristicChanged(CharacteristicNotificationId) should emit values to all observers of the same characteristic"() {
+
+        given:
+        def characteristicUuid = UUID.randomUUID()
+        def value = [1, 2, 3] as byte[]
+        def secondTestSubscriber = new TestSubscriber()
+        def firstSubscription = objectUnderTest.getOnCharacteristicChanged(new CharacteristicNotificationId(characteristicUuid, 1))
+                .subscribe(testSubscriber)
+        objectUnderTest.getOnCharacteristicChanged(new CharacteristicNotificationId(characteristicUuid, 1)).subscribe(secondTestSubscriber)
+
+        when:
+        firstSubscription.unsubscribe()
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(characteristicUuid, 1, value))
+
+        then:
+        testSubscriber.assertNoValues()
+        secondTestSubscriber.assertValue(value)
+    }
+
+    def "getOnCharacteristicChanged(CharacteristicNotificationId) should route values of characteristics sharing UUID by instanceId"() {
+
+        given:
+        def characteristicUuid = UUID.randomUUID()
+        def firstValue = [1] as byte[]
+        def secondValue = [2] as byte[]
+        def thirdValue = [3] as byte[]
+        def secondTestSubscriber = new TestSubscriber()
+        def firstSubscription = objectUnderTest.getOnCharacteristicChanged(new CharacteristicNotificationId(characteristicUuid, 1))
+                .subscribe(testSubscriber)
+        objectUnderTest.getOnCharacteristicChanged(new CharacteristicNotificationId(characteristicUuid, 2)).subscribe(secondTestSubscriber)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(characteristicUuid, 1, firstValue))
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(characteristicUuid, 2, secondValue))
+        firstSubscription.unsubscribe()
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(characteristicUuid, 1, thirdValue))
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristic(characteristicUuid, 2, thirdValue))
+
+        then:
+        testSubscriber.assertValue(firstValue)
+        secondTestSubscriber.assertValues(secondValue, thirdValue)
+    }
+
     @Unroll
     def "callbacks should emit error if their respective BluetoothGatt.on*() callbacks received status != GATT_SUCCESS"() {
 
@@ -278,4 +344,104 @@ class RxBleGattCallbackTest extends RoboSpecification {
                 { BluetoothGattCallback callback, int status -> callback.onServicesDiscovered(Mock(BluetoothGatt), status) }
         ]
     }
+
+    @Unroll
+    def "should pass BluetoothGattCallback callbacks to the set GattCallbackSlot"() {
+
+        given:
+        def slot = Mock GattCallbackSlot
+        objectUnderTest.setCallbackSlot(slot)
+
+        when:
+        callbackCaller.call(objectUnderTest.getBluetoothGattCallback())
+
+        then:
+        1 * slot."$slotCallback"(mockBluetoothGatt, _, GATT_SUCCESS)
+
+        where:
+        slotCallback            | callbackCaller
+        "onCharacteristicRead"  | { (it as BluetoothGattCallback).onCharacteristicRead(mockBluetoothGatt, mockBluetoothGattCharacteristic, GATT_SUCCESS) }
+        "onCharacteristicWrite" | { (it as BluetoothGattCallback).onCharacteristicWrite(mockBluetoothGatt, mockBluetoothGattCharacteristic, GATT_SUCCESS) }
+        "onDescriptorRead"      | { (it as BluetoothGattCallback).onDescriptorRead(mockBluetoothGatt, mockBluetoothGattDescriptor, GATT_SUCCESS) }
+        "onDescriptorWrite"     | { (it as BluetoothGattCallback).onDescriptorWrite(mockBluetoothGatt, mockBluetoothGattDescriptor, GATT_SUCCESS) }
+    }
+
+    def "should not pass callbacks to GattCallbackSlot after it was cleared"() {
+
+        given:
+        def slot = Mock GattCallbackSlot
+        objectUnderTest.setCallbackSlot(slot)
+        objectUnderTest.clearCallbackSlot(slot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, mockBluetoothGattCharacteristic, GATT_SUCCESS)
+
+        then:
+        0 * slot.onCharacteristicRead(_, _, _)
+    }
+
+    def "should not clear GattCallbackSlot if a different one is set"() {
+
+        given:
+        def previousSlot = Mock GattCallbackSlot
+        def currentSlot = Mock GattCallbackSlot
+        objectUnderTest.setCallbackSlot(previousSlot)
+        objectUnderTest.setCallbackSlot(currentSlot)
+        objectUnderTest.clearCallbackSlot(previousSlot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, mockBluetoothGattCharacteristic, GATT_SUCCESS)
+
+        then:
+        1 * currentSlot.onCharacteristicRead(mockBluetoothGatt, mockBluetoothGattCharacteristic, GATT_SUCCESS)
+    }
+
+    def "should notify GattCallbackSlot when the connection is lost"() {
+
+        given:
+        def slot = Mock GattCallbackSlot
+        def disconnectionException = new BleDisconnectedException(mockBluetoothDeviceMacAddress)
+        objectUnderTest.setCallbackSlot(slot)
+
+        when:
+        mockDisconnectionValueSubject.onNext(disconnectionException)
+
+        then:
+        1 * slot.onDisconnected(disconnectionException)
+    }
+
+    def "should not notify GattCallbackSlot about the lost connection after the returned Subscription was unsubscribed"() {
+
+        given:
+        def slot = Mock GattCallbackSlot
+        objectUnderTest.setCallbackSlot(slot).unsubscribe()
+
+        when:
+        mockDisconnectionValueSubject.onNext(new BleDisconnectedException(mockBluetoothDeviceMacAddress))
+
+        then:
+        0 * slot.onDisconnected(_)
+    }
+
+    def "should notify GattCallbackSlot immediately if the connection was lost before it was set"() {
+
+        given:
+        def slot = Mock GattCallbackSlot
+        def disconnectionException = new BleDisconnectedException(mockBluetoothDeviceMacAddress)
+        mockDisconnectionValueSubject.onNext(disconnectionException)
+
+        when:
+        objectUnderTest.setCallbackSlot(slot)
+
+        then:
+        1 * slot.onDisconnected(disconnectionException)
+    }
+
+    private BluetoothGattCharacteristic mockCharacteristic(UUID uuid, int instanceId, byte[] value) {
+        def characteristic = Mock BluetoothGattCharacteristic
+        characteristic.getUuid() >> uuid
+        characteristic.getInstanceId() >> instanceId
+        characteristic.getValue() >> value
+        characteristic
+    }
 }
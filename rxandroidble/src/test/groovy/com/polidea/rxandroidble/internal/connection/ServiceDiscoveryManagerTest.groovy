@@ -1,14 +1,18 @@
 package com.polidea.rxandroidble.internal.connection
 
 import android.bluetooth.BluetoothGatt
+import android.bluetooth.BluetoothGattCharacteristic
 import android.bluetooth.BluetoothGattService
 import com.polidea.rxandroidble.RxBleDeviceServices
+import com.polidea.rxandroidble.internal.cache.GattSchemaCache
 import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue
 import com.polidea.rxandroidble.internal.operations.OperationsProvider
 import com.polidea.rxandroidble.internal.operations.ServiceDiscoveryOperation
 import java.util.concurrent.TimeUnit
 import rx.Observable
+import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
 import rx.subjects.PublishSubject
 import spock.lang.Specification
 
@@ -16,9 +20,11 @@ class ServiceDiscoveryManagerTest extends Specification {
     def mockQueue = Mock ConnectionOperationQueue
     def mockBluetoothGatt = Mock BluetoothGatt
     def mockServiceDiscoveryOperationProvider = Mock OperationsProvider
+    def mockGattSchemaCache = Mock GattSchemaCache
     def TestSubscriber testSubscriber = new TestSubscriber()
     def TestSubscriber testSubscriber1 = new TestSubscriber()
-    ServiceDiscoveryManager objectUnderTest = new ServiceDiscoveryManager(mockQueue, mockBluetoothGatt, mockServiceDiscoveryOperationProvider)
+    ServiceDiscoveryManager objectUnderTest = new ServiceDiscoveryManager(mockQueue, mockBluetoothGatt, mockServiceDiscoveryOperationProvider,
+            mockGattSchemaCache, "AA:BB:CC:DD:EE:FF", ImmediateScheduler.INSTANCE)
 
     def "should return services instantly if they were already discovered and are in BluetoothGatt cache"() {
 
@@ -149,6 +155,146 @@ class ServiceDiscoveryManagerTest extends Specification {
         testSubscriber1.assertValue(result)
     }
 
+    def "should emit the persisted services immediately and discover the services in the background"() {
+
+        given:
+        bluetoothGattContainsNoServices()
+        operationProviderProvidesOperation()
+        def cachedSchema = gattSchemaCacheContainsSchema()
+        PublishSubject<RxBleDeviceServices> resultSubject = PublishSubject.create()
+
+        when:
+        objectUnderTest.getCachedOrDiscoverServicesObservable(5, TimeUnit.MILLISECONDS).subscribe(testSubscriber)
+
+        then:
+        1 * mockQueue.queue(_) >> resultSubject
+        testSubscriber.assertValue(cachedSchema.getDeviceServices())
+        testSubscriber.assertCompleted()
+    }
+
+    def "should load the persisted schema on the I/O scheduler"() {
+
+        given:
+        def ioScheduler = new TestScheduler()
+        objectUnderTest = new ServiceDiscoveryManager(mockQueue, mockBluetoothGatt, mockServiceDiscoveryOperationProvider,
+                mockGattSchemaCache, "AA:BB:CC:DD:EE:FF", ioScheduler)
+        bluetoothGattContainsNoServices()
+        operationProviderProvidesOperation()
+        mockQueue.queue(_) >> Observable.never()
+        def cachedSchema = gattSchemaCacheContainsSchema()
+
+        when:
+        objectUnderTest.getCachedOrDiscoverServicesObservable(5, TimeUnit.MILLISECONDS).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertNoValues()
+
+        when:
+        ioScheduler.triggerActions()
+
+        then:
+        testSubscriber.assertValue(cachedSchema.getDeviceServices())
+    }
+
+    def "should emit the discovered services once the discovery has finished even if a schema is persisted"() {
+
+        given:
+        bluetoothGattContainsNoServices()
+        operationProviderProvidesOperation()
+        gattSchemaCacheContainsSchema()
+        RxBleDeviceServices result = Mock(RxBleDeviceServices)
+        mockQueue.queue(_) >> Observable.just(result)
+        objectUnderTest.getCachedOrDiscoverServicesObservable(5, TimeUnit.MILLISECONDS).subscribe()
+
+        when:
+        objectUnderTest.getCachedOrDiscoverServicesObservable(5, TimeUnit.MILLISECONDS).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertValue(result)
+    }
+
+    def "should persist the discovered services"() {
+
+        given:
+        bluetoothGattContainsNoServices()
+        operationProviderProvidesOperation()
+        RxBleDeviceServices result = Mock(RxBleDeviceServices)
+        mockQueue.queue(_) >> Observable.just(result)
+
+        when:
+        objectUnderTest.getDiscoverServicesObservable(5, TimeUnit.MILLISECONDS).subscribe()
+
+        then:
+        1 * mockGattSchemaCache.store("AA:BB:CC:DD:EE:FF", result, null)
+    }
+
+    def "should attach a persisted characteristic to the discovered one"() {
+
+        given:
+        bluetoothGattContainsNoServices()
+        operationProviderProvidesOperation()
+        def cachedSchema = gattSchemaCacheContainsSchema()
+        def persistedCharacteristic = Mock BluetoothGattCharacteristic
+        def discoveredCharacteristic = Mock BluetoothGattCharacteristic
+        def discoveredServices = [Mock(BluetoothGattService)]
+        cachedSchema.contains(persistedCharacteristic) >> true
+        cachedSchema.attach(persistedCharacteristic, discoveredServices) >> discoveredCharacteristic
+        mockQueue.queue(_) >> Observable.just(new RxBleDeviceServices(discoveredServices))
+        objectUnderTest.getCachedOrDiscoverServicesObservable(5, TimeUnit.MILLISECONDS).subscribe()
+
+        when:
+        objectUnderTest.attach(persistedCharacteristic).subscribe(testSubscriber)
+
+        then:
+        objectUnderTest.isDetached(persistedCharacteristic)
+        testSubscriber.assertValue(discoveredCharacteristic)
+    }
+
+    def "should attach a persisted characteristic with the discovery timeout requested together with the persisted schema"() {
+
+        given:
+        bluetoothGattContainsNoServices()
+        def cachedSchema = gattSchemaCacheContainsSchema()
+        def persistedCharacteristic = Mock BluetoothGattCharacteristic
+        def discoveredServices = [Mock(BluetoothGattService)]
+        cachedSchema.contains(persistedCharacteristic) >> true
+        cachedSchema.attach(persistedCharacteristic, discoveredServices) >> Mock(BluetoothGattCharacteristic)
+        mockQueue.queue(_) >>> [Observable.error(new Throwable("test")), Observable.just(new RxBleDeviceServices(discoveredServices))]
+
+        when:
+        objectUnderTest.getCachedOrDiscoverServicesObservable(7, TimeUnit.SECONDS).subscribe(testSubscriber1)
+        objectUnderTest.attach(persistedCharacteristic).subscribe(testSubscriber)
+
+        then:
+        2 * mockServiceDiscoveryOperationProvider.provideServiceDiscoveryOperation(7, TimeUnit.SECONDS) >> Mock(ServiceDiscoveryOperation)
+        0 * mockServiceDiscoveryOperationProvider.provideServiceDiscoveryOperation(_, _)
+
+        and:
+        testSubscriber.assertValueCount(1)
+    }
+
+    def "should not attach a characteristic which is not persisted"() {
+
+        given:
+        def characteristic = Mock BluetoothGattCharacteristic
+
+        when:
+        objectUnderTest.attach(characteristic).subscribe(testSubscriber)
+
+        then:
+        !objectUnderTest.isDetached(characteristic)
+        testSubscriber.assertValue(characteristic)
+        0 * mockQueue.queue(_)
+    }
+
+    private GattSchemaCache.CachedGattSchema gattSchemaCacheContainsSchema() {
+        def cachedSchema = Mock GattSchemaCache.CachedGattSchema
+        cachedSchema.getDeviceServices() >> Mock(RxBleDeviceServices)
+        mockGattSchemaCache.isEnabled() >> true
+        mockGattSchemaCache.load("AA:BB:CC:DD:EE:FF") >> cachedSchema
+        return cachedSchema
+    }
+
     private List<BluetoothGattService> bluetoothGattContainsServices() {
         def servicesList = Arrays.asList(Mock(BluetoothGattService))
         mockBluetoothGatt.getServices() >> servicesList
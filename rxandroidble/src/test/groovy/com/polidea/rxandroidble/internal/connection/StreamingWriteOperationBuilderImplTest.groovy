@@ -0,0 +1,72 @@
+package com.polidea.rxandroidble.internal.connection
+
+import android.bluetooth.BluetoothGattCharacteristic
+import com.polidea.rxandroidble.RxBleConnection
+import com.polidea.rxandroidble.internal.operations.OperationsProvider
+import com.polidea.rxandroidble.internal.serialization.ConnectionOperationQueue
+import rx.Completable
+import rx.Observable
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class StreamingWriteOperationBuilderImplTest extends Specification {
+
+    ConnectionOperationQueue mockOperationQueue = Mock ConnectionOperationQueue
+    RxBleConnection mockConnection = Mock RxBleConnection
+    OperationsProvider mockOperationsProvider = Mock OperationsProvider
+    IllegalOperationChecker mockIllegalOperationChecker = Mock IllegalOperationChecker
+    CharacteristicReadCoalescer mockCharacteristicReadCoalescer = Mock CharacteristicReadCoalescer
+    BluetoothGattCharacteristic mockCharacteristic = Mock BluetoothGattCharacteristic
+    TestScheduler ioScheduler = new TestScheduler()
+    StreamingWriteOperationBuilderImpl objectUnderTest
+
+    def setup() {
+        mockConnection.getCharacteristic(_ as UUID) >> Observable.just(mockCharacteristic)
+        mockIllegalOperationChecker.checkAnyPropertyMatches(_, _) >> Completable.complete()
+        mockOperationQueue.queue(_) >> Observable.empty()
+        objectUnderTest = new StreamingWriteOperationBuilderImpl(mockOperationQueue, Mock(MtuBasedPayloadSizeLimit), mockConnection,
+                mockOperationsProvider, mockIllegalOperationChecker, mockCharacteristicReadCoalescer, Mock(ServiceDiscoveryManager),
+                ioScheduler)
+    }
+
+    @Unroll
+    def "should throw IllegalArgumentException when maxPacketsInFlight is #maxPacketsInFlight"() {
+
+        when:
+        objectUnderTest.setMaxPacketsInFlight(maxPacketsInFlight)
+
+        then:
+        thrown IllegalArgumentException
+
+        where:
+        maxPacketsInFlight << [0, -1]
+    }
+
+    def "should read the packets from the InputStream on the I/O scheduler"() {
+
+        given:
+        Observable<byte[]> packets = null
+        def testSubscriber = new TestSubscriber()
+        mockOperationsProvider.provideStreamingWriteOperation(mockCharacteristic, _, _) >> { packets = it[1]; null }
+        objectUnderTest.setCharacteristicUuid(UUID.randomUUID())
+                .setInputStream(new ByteArrayInputStream([1, 2, 3] as byte[]))
+                .setMaxPacketSize(2)
+                .build()
+                .subscribe()
+
+        when:
+        packets.subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertNoValues()
+
+        when:
+        ioScheduler.triggerActions()
+
+        then:
+        testSubscriber.assertValueCount(2)
+        testSubscriber.assertCompleted()
+    }
+}
@@ -9,6 +9,7 @@ import com.polidea.rxandroidble.exceptions.BleGattCannotStartException
 import com.polidea.rxandroidble.exceptions.BleGattOperationType
 import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
 import com.polidea.rxandroidble.internal.connection.ImmediateSerializedBatchAckStrategy
+import com.polidea.rxandroidble.internal.connection.LongWriteBatchMonitor
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback
 import com.polidea.rxandroidble.internal.util.ByteAssociation
 import com.polidea.rxandroidble.internal.util.MockOperationTimeoutConfiguration
@@ -99,6 +100,49 @@ public class OperationCharacteristicLongWriteTest extends Specification {
         1000         | 46532              | 47
     }
 
+    def "should write batches of the ByteBuffer content between its position and limit without moving its position"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        givenEachCharacteristicWriteOkAfterDefaultDelay()
+        byte[] writtenBytes = byteArray(60)
+        ByteBuffer byteBuffer = ByteBuffer.wrap(writtenBytes)
+        byteBuffer.position(10).limit(50)
+        byte[][] expectedBatches = expectedBatches(subSequence(writtenBytes, 10, 50), 20)
+        AtomicInteger batch = new AtomicInteger(0)
+        prepareObjectUnderTest(20, byteBuffer)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+        advanceTimeForWrites(2)
+
+        then:
+        2 * mockCharacteristic.setValue({ byte[] bytes -> bytes == expectedBatches[batch.getAndIncrement()] }) >> true
+
+        and:
+        byteBuffer.position() == 10
+    }
+
+    def "should reuse the same array for every full size batch"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        givenEachCharacteristicWriteOkAfterDefaultDelay()
+        def writtenArrays = []
+        prepareObjectUnderTest(20, byteArray(60))
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+        advanceTimeForWrites(3)
+
+        then:
+        3 * mockCharacteristic.setValue(_) >> { byte[] bytes -> writtenArrays.add(bytes); true }
+
+        and:
+        writtenArrays[0].is(writtenArrays[1])
+        writtenArrays[1].is(writtenArrays[2])
+    }
+
     def "asObservable() should not emit error when BluetoothGatt.writeCharacteristic() returns true every time"() {
 
         given:
@@ -363,6 +407,31 @@ public class OperationCharacteristicLongWriteTest extends Specification {
         ]
     }
 
+    def "should write batches of the size and the write type chosen by the LongWriteBatchMonitor and report their acknowledgements"() {
+
+        given:
+        def batchMonitor = new RecordingBatchMonitor()
+        writeOperationAckStrategy = batchMonitor
+        givenEachCharacteristicWriteOkAfterDefaultDelay()
+        mockCharacteristic.getWriteType() >> BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT
+        prepareObjectUnderTest(20, byteArray(30))
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+        advanceTimeForWritesToComplete(3)
+
+        then:
+        3 * mockCharacteristic.setValue({ byte[] bytes -> bytes.length == 10 }) >> true
+        3 * mockCharacteristic.setWriteType(BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE)
+        3 * mockCharacteristic.setWriteType(BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT)
+
+        and:
+        batchMonitor.maxBatchSizes == [20, 20, 20]
+        batchMonitor.acknowledgedBatchSizes == [10, 10, 10]
+        batchMonitor.acknowledgedWriteTypes == [BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE] * 3
+        testSubscriber.assertCompleted()
+    }
+
     private void givenWillWriteNextBatchImmediatelyAfterPrevious() {
         writeOperationAckStrategy = new ImmediateSerializedBatchAckStrategy();
     }
@@ -395,6 +464,35 @@ public class OperationCharacteristicLongWriteTest extends Specification {
         }
     }
 
+    class RecordingBatchMonitor implements RxBleConnection.WriteOperationAckStrategy, LongWriteBatchMonitor {
+
+        final List<Integer> maxBatchSizes = []
+        final List<Integer> acknowledgedBatchSizes = []
+        final List<Integer> acknowledgedWriteTypes = []
+
+        @Override
+        Observable<Boolean> call(Observable<Boolean> writeAck) {
+            return writeAck
+        }
+
+        @Override
+        int getBatchSize(int maxBatchSize) {
+            maxBatchSizes.add(maxBatchSize)
+            return 10
+        }
+
+        @Override
+        int getWriteType(BluetoothGattCharacteristic characteristic) {
+            return BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE
+        }
+
+        @Override
+        void onBatchAcknowledged(int batchSize, int writeType, long latencyNanos) {
+            acknowledgedBatchSizes.add(batchSize)
+            acknowledgedWriteTypes.add(writeType)
+        }
+    }
+
     private static byte[] byteArray(int size) {
         byte[] bytes = new byte[size];
         for (int i = 0; i < size; i++) {
@@ -516,6 +614,20 @@ public class OperationCharacteristicLongWriteTest extends Specification {
         }
     }
 
+    private prepareObjectUnderTest(int maxBatchSize, ByteBuffer testData) {
+        objectUnderTest = new CharacteristicLongWriteOperation(
+                mockGatt,
+                mockCallback,
+                immediateScheduler,
+                new MockOperationTimeoutConfiguration(10, timeoutScheduler),
+                mockCharacteristic,
+                { maxBatchSize },
+                writeOperationAckStrategy,
+                testData,
+                new byte[0]
+        )
+    }
+
     private prepareObjectUnderTest(int maxBatchSize, byte[] testData) {
         objectUnderTest = new CharacteristicLongWriteOperation(
                 mockGatt,
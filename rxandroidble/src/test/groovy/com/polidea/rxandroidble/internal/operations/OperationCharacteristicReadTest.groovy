@@ -2,17 +2,21 @@ package com.polidea.rxandroidble.internal.operations
 
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCharacteristic
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException
 import com.polidea.rxandroidble.exceptions.BleGattCannotStartException
 import com.polidea.rxandroidble.exceptions.BleGattCallbackTimeoutException
+import com.polidea.rxandroidble.exceptions.BleGattCharacteristicException
 import com.polidea.rxandroidble.exceptions.BleGattOperationType
 import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
+import com.polidea.rxandroidble.internal.connection.GattCallbackSlot
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback
-import com.polidea.rxandroidble.internal.util.ByteAssociation
 import com.polidea.rxandroidble.internal.util.MockOperationTimeoutConfiguration
 import java.util.concurrent.TimeUnit
+import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
 import rx.schedulers.TestScheduler
-import rx.subjects.PublishSubject
+import rx.subscriptions.BooleanSubscription
+import rx.subscriptions.Subscriptions
 import spock.lang.Specification
 
 public class OperationCharacteristicReadTest extends Specification {
@@ -23,16 +27,16 @@ public class OperationCharacteristicReadTest extends Specification {
     RxBleGattCallback mockCallback = Mock RxBleGattCallback
     BluetoothGattCharacteristic mockCharacteristic = Mock BluetoothGattCharacteristic
     TestSubscriber<byte[]> testSubscriber = new TestSubscriber()
-    PublishSubject<ByteAssociation<UUID>> onCharacteristicReadSubject = PublishSubject.create()
     QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
     TestScheduler testScheduler = new TestScheduler()
+    BooleanSubscription disconnectionSubscription = new BooleanSubscription()
     CharacteristicReadOperation objectUnderTest
 
     def setup() {
+        mockCallback.setCallbackSlot(_) >> disconnectionSubscription
         objectUnderTest = new CharacteristicReadOperation(mockCallback, mockGatt,
-                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic)
+                new MockOperationTimeoutConfiguration(testScheduler), ImmediateScheduler.INSTANCE, mockCharacteristic)
         mockCharacteristic.getUuid() >> mockCharacteristicUUID
-        mockCallback.getOnCharacteristicRead() >> onCharacteristicReadSubject
     }
 
     def "should call BluetoothGatt.readCharacteristic() only once on single read when run()"() {
@@ -73,11 +77,11 @@ public class OperationCharacteristicReadTest extends Specification {
         }
     }
 
-    def "asObservable() should emit error when RxBleGattCallback.getOnCharacteristicRead() emits error"() {
+    def "asObservable() should emit error when the connection is lost"() {
 
         given:
-        Throwable testException = new Throwable("test")
-        shouldEmitErrorOnCharacteristicRead(testException)
+        def testException = new BleDisconnectedException("test")
+        shouldDisconnectOnCharacteristicRead(testException)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -86,11 +90,64 @@ public class OperationCharacteristicReadTest extends Specification {
         testSubscriber.assertError testException
     }
 
-    def "asObservable() should not emit when RxBleGattCallback.getOnCharacteristicRead() emits before run()"() {
+    def "should not call BluetoothGatt.readCharacteristic() if the connection was lost before run()"() {
+
+        given:
+        def testException = new BleDisconnectedException("test")
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        1 * mockCallback.setCallbackSlot(_) >> { GattCallbackSlot slot ->
+            slot.onDisconnected(testException)
+            Subscriptions.empty()
+        }
+
+        and:
+        0 * mockGatt.readCharacteristic(_)
+
+        and:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        testSubscriber.assertError testException
+    }
+
+    def "should unsubscribe from the disconnection after the read has finished"() {
+
+        given:
+        givenCharacteristicWithUUIDContainData([uuid: mockCharacteristicUUID, value: []])
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        disconnectionSubscription.isUnsubscribed()
+    }
+
+    def "asObservable() should emit error when RxBleGattCallback calls onCharacteristicRead() with a failure status"() {
+
+        given:
+        mockGatt.readCharacteristic(mockCharacteristic) >> {
+            objectUnderTest.onCharacteristicRead(mockGatt, mockCharacteristic, BluetoothGatt.GATT_FAILURE)
+            true
+        }
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertError {
+            ((BleGattCharacteristicException) it).getBleGattOperationType() == BleGattOperationType.CHARACTERISTIC_READ
+        }
+    }
+
+    def "asObservable() should not emit when RxBleGattCallback calls onCharacteristicRead() before run()"() {
         // XXX [PU] I'm not sure if it is really desired
         given:
         mockGatt.readCharacteristic(mockCharacteristic) >> true
-        onCharacteristicReadSubject.onNext(new ByteAssociation(mockCharacteristicUUID, new byte[0]))
+        objectUnderTest.onCharacteristicRead(mockGatt, characteristicWith(mockCharacteristicUUID, new byte[0]), BluetoothGatt.GATT_SUCCESS)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -102,7 +159,7 @@ public class OperationCharacteristicReadTest extends Specification {
         testSubscriber.assertNoErrors()
     }
 
-    def "asObservable() should emit next when RxBleGattCallback.getOnCharacteristicRead() emits next"() {
+    def "asObservable() should emit next when RxBleGattCallback calls onCharacteristicRead()"() {
 
         given:
         byte[] dataFromCharacteristic = []
@@ -191,7 +248,7 @@ public class OperationCharacteristicReadTest extends Specification {
 
     def "should release QueueReleaseInterface when read failed"() {
         given:
-        shouldEmitErrorOnCharacteristicRead(new Throwable("test"))
+        shouldDisconnectOnCharacteristicRead(new BleDisconnectedException("test"))
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -219,22 +276,30 @@ public class OperationCharacteristicReadTest extends Specification {
     }
 
     private givenCharacteristicWithUUIDContainData(Map... returnedDataOnRead) {
+        def readCharacteristics = returnedDataOnRead.collect { characteristicWith(it['uuid'] as UUID, it['value'] as byte[]) }
         mockGatt.readCharacteristic(mockCharacteristic) >> {
-            returnedDataOnRead.each {
-                onCharacteristicReadSubject.onNext(new ByteAssociation(it['uuid'], it['value'] as byte[]))
+            readCharacteristics.each {
+                objectUnderTest.onCharacteristicRead(mockGatt, it, BluetoothGatt.GATT_SUCCESS)
             }
 
             true
         }
     }
 
-    private shouldEmitErrorOnCharacteristicRead(Throwable testException) {
+    private shouldDisconnectOnCharacteristicRead(BleDisconnectedException testException) {
         mockGatt.readCharacteristic(mockCharacteristic) >> {
-            onCharacteristicReadSubject.onError(testException)
+            objectUnderTest.onDisconnected(testException)
             true
         }
     }
 
+    private BluetoothGattCharacteristic characteristicWith(UUID uuid, byte[] value) {
+        BluetoothGattCharacteristic characteristic = Mock BluetoothGattCharacteristic
+        characteristic.getUuid() >> uuid
+        characteristic.getValue() >> value
+        characteristic
+    }
+
     private givenCharacteristicReadFailToStart() {
         mockGatt.readCharacteristic(mockCharacteristic) >> false
     }
@@ -0,0 +1,242 @@
+package com.polidea.rxandroidble.internal.operations
+
+import android.bluetooth.BluetoothDevice
+import android.bluetooth.BluetoothGatt
+import android.bluetooth.BluetoothGattCharacteristic
+import com.polidea.rxandroidble.exceptions.BleGattCallbackTimeoutException
+import com.polidea.rxandroidble.exceptions.BleGattCannotStartException
+import com.polidea.rxandroidble.exceptions.BleGattOperationType
+import com.polidea.rxandroidble.internal.connection.RxBleGattCallback
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
+import com.polidea.rxandroidble.internal.util.ByteAssociation
+import com.polidea.rxandroidble.internal.util.MockOperationTimeoutConfiguration
+import java.util.concurrent.TimeUnit
+import rx.Observable
+import rx.internal.schedulers.ImmediateScheduler
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class OperationCharacteristicStreamingWriteTest extends Specification {
+
+    UUID mockCharacteristicUUID = UUID.randomUUID()
+    UUID differentCharacteristicUUID = UUID.randomUUID()
+    BluetoothGatt mockGatt = Mock BluetoothGatt
+    BluetoothDevice mockDevice = Mock BluetoothDevice
+    RxBleGattCallback mockCallback = Mock RxBleGattCallback
+    BluetoothGattCharacteristic mockCharacteristic = Mock BluetoothGattCharacteristic
+    def testSubscriber = new TestSubscriber()
+    TestScheduler timeoutScheduler = new TestScheduler()
+    PublishSubject<ByteAssociation<UUID>> onCharacteristicWriteSubject = PublishSubject.create()
+    QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
+    CharacteristicStreamingWriteOperation objectUnderTest
+
+    def setup() {
+        mockCharacteristic.getUuid() >> mockCharacteristicUUID
+        mockCharacteristic.getWriteType() >> BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT
+        mockCallback.getOnCharacteristicWrite() >> onCharacteristicWriteSubject
+        mockGatt.getDevice() >> mockDevice
+        mockDevice.getAddress() >> "test"
+    }
+
+    def "should write no more than maxPacketsInFlight packets before they are acknowledged"() {
+
+        given:
+        prepareObjectUnderTest(packets(5), 2)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        2 * mockGatt.writeCharacteristic(mockCharacteristic) >> true
+    }
+
+    def "should write the next packet and emit progress when a packet is acknowledged"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        prepareObjectUnderTest(packets(5), 2)
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        when:
+        acknowledge(mockCharacteristicUUID)
+
+        then:
+        1 * mockCharacteristic.setValue(packet(3))
+
+        and:
+        testSubscriber.assertValueCount(1)
+        testSubscriber.onNextEvents[0].bytesWritten == 1
+        testSubscriber.onNextEvents[0].packetsWritten == 1
+    }
+
+    def "should ignore acknowledgements of other characteristics"() {
+
+        given:
+        prepareObjectUnderTest(packets(5), 2)
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        when:
+        acknowledge(differentCharacteristicUUID)
+
+        then:
+        0 * mockGatt.writeCharacteristic(mockCharacteristic)
+
+        and:
+        testSubscriber.assertNoValues()
+    }
+
+    def "should complete and release the queue after all packets are acknowledged"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        prepareObjectUnderTest(packets(3), 2)
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        when:
+        3.times { acknowledge(mockCharacteristicUUID) }
+
+        then:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        testSubscriber.assertValueCount(3)
+        testSubscriber.assertCompleted()
+    }
+
+    def "should write packets using WRITE_TYPE_NO_RESPONSE and restore the previous write type afterwards"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        prepareObjectUnderTest(packets(1), 2)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        1 * mockCharacteristic.setWriteType(BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE)
+
+        when:
+        acknowledge(mockCharacteristicUUID)
+
+        then:
+        1 * mockCharacteristic.setWriteType(BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT)
+    }
+
+    def "should retry the write on the next acknowledgement if BluetoothGatt.writeCharacteristic() returns false while packets are in flight"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >>> [true, false, true, true]
+        prepareObjectUnderTest(packets(2), 2)
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        when:
+        acknowledge(mockCharacteristicUUID)
+        acknowledge(mockCharacteristicUUID)
+
+        then:
+        testSubscriber.assertNoErrors()
+        testSubscriber.assertValueCount(2)
+        testSubscriber.assertCompleted()
+    }
+
+    def "should emit error and release the queue if BluetoothGatt.writeCharacteristic() returns false when no packets are in flight"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >> false
+        prepareObjectUnderTest(packets(2), 2)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        testSubscriber.assertError({ exception ->
+            exception instanceof BleGattCannotStartException &&
+                    ((BleGattCannotStartException) exception).bleGattOperationType == BleGattOperationType.CHARACTERISTIC_STREAMING_WRITE
+        })
+    }
+
+    def "should emit error if the packets observable emits error"() {
+
+        given:
+        def testException = new Exception("testException")
+        prepareObjectUnderTest(Observable.error(testException), 2)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        testSubscriber.assertError(testException)
+    }
+
+    def "should timeout if RxBleGattCallback.onCharacteristicWrite() won't trigger in 30 seconds after the last acknowledgement"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        prepareObjectUnderTest(packets(3), 2)
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+        timeoutScheduler.advanceTimeBy(20, TimeUnit.SECONDS)
+        acknowledge(mockCharacteristicUUID)
+
+        when:
+        timeoutScheduler.advanceTimeBy(20, TimeUnit.SECONDS)
+
+        then:
+        testSubscriber.assertNoErrors()
+
+        when:
+        timeoutScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+        then:
+        testSubscriber.assertError(BleGattCallbackTimeoutException)
+    }
+
+    def "should stop requesting packets and release the queue when unsubscribed"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        def packetsSubject = PublishSubject.create()
+        prepareObjectUnderTest(packetsSubject, 2)
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        when:
+        testSubscriber.unsubscribe()
+
+        then:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        !packetsSubject.hasObservers()
+    }
+
+    private acknowledge(UUID characteristicUuid) {
+        onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(characteristicUuid, new byte[0]))
+    }
+
+    private static byte[] packet(int index) {
+        return [index] as byte[]
+    }
+
+    private static Observable<byte[]> packets(int count) {
+        return Observable.range(1, count).map({ Integer index -> packet(index) })
+    }
+
+    private prepareObjectUnderTest(Observable<byte[]> packets, int maxPacketsInFlight) {
+        objectUnderTest = new CharacteristicStreamingWriteOperation(
+                mockGatt,
+                mockCallback,
+                ImmediateScheduler.INSTANCE,
+                new MockOperationTimeoutConfiguration(timeoutScheduler),
+                mockCharacteristic,
+                packets,
+                maxPacketsInFlight
+        )
+    }
+}
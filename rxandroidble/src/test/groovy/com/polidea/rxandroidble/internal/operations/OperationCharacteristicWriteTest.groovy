@@ -2,16 +2,18 @@ package com.polidea.rxandroidble.internal.operations
 
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCharacteristic
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException
 import com.polidea.rxandroidble.exceptions.BleGattCallbackTimeoutException
 import com.polidea.rxandroidble.exceptions.BleGattCannotStartException
+import com.polidea.rxandroidble.exceptions.BleGattCharacteristicException
 import com.polidea.rxandroidble.exceptions.BleGattOperationType
 import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback
-import com.polidea.rxandroidble.internal.util.ByteAssociation
 import com.polidea.rxandroidble.internal.util.MockOperationTimeoutConfiguration
+import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
 import rx.schedulers.TestScheduler
-import rx.subjects.PublishSubject
+import rx.subscriptions.Subscriptions
 import spock.lang.Specification
 
 import java.util.concurrent.TimeUnit
@@ -25,14 +27,13 @@ public class OperationCharacteristicWriteTest extends Specification {
     BluetoothGattCharacteristic mockCharacteristic = Mock BluetoothGattCharacteristic
     def testSubscriber = new TestSubscriber()
     TestScheduler testScheduler = new TestScheduler()
-    PublishSubject<ByteAssociation<UUID>> onCharacteristicWriteSubject = PublishSubject.create()
     QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
     CharacteristicWriteOperation objectUnderTest
     byte[] testData = ['t', 'e', 's', 't']
 
     def setup() {
+        mockCallback.setCallbackSlot(_) >> Subscriptions.empty()
         mockCharacteristic.getUuid() >> mockCharacteristicUUID
-        mockCallback.getOnCharacteristicWrite() >> onCharacteristicWriteSubject
         prepareObjectUnderTest()
     }
 
@@ -77,11 +78,11 @@ public class OperationCharacteristicWriteTest extends Specification {
         }
     }
 
-    def "asObservable() should emit error when RxBleGattCallback.getOnCharacteristicWrite() emits error"() {
+    def "asObservable() should emit error when the connection is lost"() {
 
         given:
-        Throwable testException = new Throwable("test")
-        shouldEmitErrorOnCharacteristicWrite(testException)
+        def testException = new BleDisconnectedException("test")
+        shouldDisconnectOnCharacteristicWrite(testException)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -90,11 +91,28 @@ public class OperationCharacteristicWriteTest extends Specification {
         testSubscriber.assertError testException
     }
 
-    def "asObservable() should not emit when RxBleGattCallback.getOnCharacteristicWrite() emits before run()"() {
+    def "asObservable() should emit error when RxBleGattCallback calls onCharacteristicWrite() with a failure status"() {
+
+        given:
+        mockGatt.writeCharacteristic(mockCharacteristic) >> {
+            objectUnderTest.onCharacteristicWrite(mockGatt, mockCharacteristic, BluetoothGatt.GATT_FAILURE)
+            true
+        }
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertError {
+            ((BleGattCharacteristicException) it).getBleGattOperationType() == BleGattOperationType.CHARACTERISTIC_WRITE
+        }
+    }
+
+    def "asObservable() should not emit when RxBleGattCallback calls onCharacteristicWrite() before run()"() {
 
         given:
         mockGatt.writeCharacteristic(mockCharacteristic) >> true
-        onCharacteristicWriteSubject.onNext(new ByteAssociation(mockCharacteristicUUID, new byte[0]))
+        objectUnderTest.onCharacteristicWrite(mockGatt, characteristicWith(mockCharacteristicUUID, new byte[0]), BluetoothGatt.GATT_SUCCESS)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -106,7 +124,7 @@ public class OperationCharacteristicWriteTest extends Specification {
         testSubscriber.assertNoErrors()
     }
 
-    def "asObservable() should emit next when RxBleGattCallback.getOnCharacteristicWrite() emits next"() {
+    def "asObservable() should emit next when RxBleGattCallback calls onCharacteristicWrite()"() {
 
         given:
         byte[] dataFromCharacteristic = []
@@ -198,7 +216,7 @@ public class OperationCharacteristicWriteTest extends Specification {
 
     def "should release QueueReleaseInterface when write failed"() {
         given:
-        shouldEmitErrorOnCharacteristicWrite(new Throwable("test"))
+        shouldDisconnectOnCharacteristicWrite(new BleDisconnectedException("test"))
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -226,22 +244,30 @@ public class OperationCharacteristicWriteTest extends Specification {
     }
 
     private givenCharacteristicWithUUIDWritesData(Map... returnedDataOnWrite) {
+        def writtenCharacteristics = returnedDataOnWrite.collect { characteristicWith(it['uuid'] as UUID, it['value'] as byte[]) }
         mockGatt.writeCharacteristic(mockCharacteristic) >> {
-            returnedDataOnWrite.each {
-                onCharacteristicWriteSubject.onNext(new ByteAssociation(it['uuid'], it['value'] as byte[]))
+            writtenCharacteristics.each {
+                objectUnderTest.onCharacteristicWrite(mockGatt, it, BluetoothGatt.GATT_SUCCESS)
             }
 
             true
         }
     }
 
-    private shouldEmitErrorOnCharacteristicWrite(Throwable testException) {
+    private shouldDisconnectOnCharacteristicWrite(BleDisconnectedException testException) {
         mockGatt.writeCharacteristic(mockCharacteristic) >> {
-            onCharacteristicWriteSubject.onError(testException)
+            objectUnderTest.onDisconnected(testException)
             true
         }
     }
 
+    private BluetoothGattCharacteristic characteristicWith(UUID uuid, byte[] value) {
+        BluetoothGattCharacteristic characteristic = Mock BluetoothGattCharacteristic
+        characteristic.getUuid() >> uuid
+        characteristic.getValue() >> value
+        characteristic
+    }
+
     private givenCharacteristicWriteFailToStart() {
         mockGatt.writeCharacteristic(mockCharacteristic) >> false
     }
@@ -252,6 +278,6 @@ public class OperationCharacteristicWriteTest extends Specification {
 
     private prepareObjectUnderTest() {
         objectUnderTest = new CharacteristicWriteOperation(mockCallback, mockGatt,
-                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic, testData)
+                new MockOperationTimeoutConfiguration(testScheduler), ImmediateScheduler.INSTANCE, mockCharacteristic, testData)
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.polidea.rxandroidble.internal.operations
+
+import android.bluetooth.BluetoothGatt
+import com.polidea.rxandroidble.ConnectionSetup
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
+import rx.Observable
+import rx.observers.TestSubscriber
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class OperationConnectionBringUpTest extends Specification {
+
+    BluetoothGatt mockGatt = Mock BluetoothGatt
+    QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
+    def testSubscriber = new TestSubscriber()
+    Operation<Integer> mtuStep = Mock Operation
+    Operation<Object> discoveryStep = Mock Operation
+
+    def "should request the connection priority before running the steps"() {
+
+        given:
+        def objectUnderTest = new ConnectionBringUpOperation(mockGatt, BluetoothGatt.CONNECTION_PRIORITY_HIGH, [mtuStep])
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        1 * mockGatt.requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_HIGH) >> true
+
+        then:
+        1 * mtuStep.run(_) >> Observable.just(100)
+    }
+
+    def "should not request the connection priority if it is unchanged"() {
+
+        given:
+        def objectUnderTest = new ConnectionBringUpOperation(mockGatt, ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED, [mtuStep])
+        mtuStep.run(_) >> Observable.just(100)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        0 * mockGatt.requestConnectionPriority(_)
+    }
+
+    def "should continue with the steps if the connection priority request could not be started"() {
+
+        given:
+        def objectUnderTest = new ConnectionBringUpOperation(mockGatt, BluetoothGatt.CONNECTION_PRIORITY_HIGH, [mtuStep])
+        mockGatt.requestConnectionPriority(_) >> false
+        mtuStep.run(_) >> Observable.just(100)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertNoValues()
+        testSubscriber.assertCompleted()
+    }
+
+    def "should run the steps one after another, complete without values and release the queue once"() {
+
+        given:
+        def objectUnderTest = new ConnectionBringUpOperation(mockGatt, ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED,
+                [mtuStep, discoveryStep])
+        def mtuStepSubject = PublishSubject.create()
+        mtuStep.run(_) >> { QueueReleaseInterface queueReleaseInterface ->
+            queueReleaseInterface.release()
+            mtuStepSubject
+        }
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        when:
+        mtuStepSubject.onNext(100)
+        mtuStepSubject.onCompleted()
+
+        then:
+        1 * discoveryStep.run(_) >> Observable.just(new Object())
+
+        and:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        testSubscriber.assertNoValues()
+        testSubscriber.assertCompleted()
+    }
+
+    def "should emit error, release the queue and not run the following steps if a step fails"() {
+
+        given:
+        def objectUnderTest = new ConnectionBringUpOperation(mockGatt, ConnectionSetup.CONNECTION_PRIORITY_UNCHANGED,
+                [mtuStep, discoveryStep])
+        def testException = new Exception("testException")
+        mtuStep.run(_) >> Observable.error(testException)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        0 * discoveryStep.run(_)
+
+        and:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        testSubscriber.assertError(testException)
+    }
+}
@@ -3,7 +3,9 @@ package com.polidea.rxandroidble.internal.operations
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattDescriptor
 import com.polidea.rxandroidble.exceptions.BleGattCannotStartException
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException
 import com.polidea.rxandroidble.exceptions.BleGattCallbackTimeoutException
+import com.polidea.rxandroidble.exceptions.BleGattDescriptorException
 import com.polidea.rxandroidble.exceptions.BleGattOperationType
 import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback
@@ -11,9 +13,10 @@ import com.polidea.rxandroidble.internal.util.ByteAssociation
 import com.polidea.rxandroidble.internal.util.MockOperationTimeoutConfiguration
 
 import java.util.concurrent.TimeUnit
+import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
 import rx.schedulers.TestScheduler
-import rx.subjects.PublishSubject
+import rx.subscriptions.Subscriptions
 import spock.lang.Specification
 
 public class OperationDescriptorReadTest extends Specification {
@@ -30,16 +33,14 @@ public class OperationDescriptorReadTest extends Specification {
 
     TestScheduler testScheduler = new TestScheduler()
 
-    PublishSubject<ByteAssociation<BluetoothGattDescriptor>> onDescriptorReadSubject = PublishSubject.create()
-
     QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
 
     DescriptorReadOperation objectUnderTest
 
     def setup() {
+        mockCallback.setCallbackSlot(_) >> Subscriptions.empty()
         objectUnderTest = new DescriptorReadOperation(mockCallback, mockGatt,
-                new MockOperationTimeoutConfiguration(testScheduler), mockDescriptor)
-        mockCallback.getOnDescriptorRead() >> onDescriptorReadSubject
+                new MockOperationTimeoutConfiguration(testScheduler), ImmediateScheduler.INSTANCE, mockDescriptor)
     }
 
     def "should call BluetoothGatt.readDescriptor() only once on single read when run()"() {
@@ -80,11 +81,11 @@ public class OperationDescriptorReadTest extends Specification {
         }
     }
 
-    def "asObservable() should emit error when RxBleGattCallback.getOnDescriptorRead() emits error"() {
+    def "asObservable() should emit error when the connection is lost"() {
 
         given:
-        Throwable testException = new Throwable("test")
-        shouldEmitErrorOnDescriptorRead(testException)
+        def testException = new BleDisconnectedException("test")
+        shouldDisconnectOnDescriptorRead(testException)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -93,11 +94,28 @@ public class OperationDescriptorReadTest extends Specification {
         testSubscriber.assertError testException
     }
 
-    def "asObservable() should not emit when RxBleGattCallback.getOnDescriptorRead() emits before run()"() {
+    def "asObservable() should emit error when RxBleGattCallback calls onDescriptorRead() with a failure status"() {
+
+        given:
+        mockGatt.readDescriptor(mockDescriptor) >> {
+            objectUnderTest.onDescriptorRead(mockGatt, mockDescriptor, BluetoothGatt.GATT_FAILURE)
+            true
+        }
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertError {
+            ((BleGattDescriptorException) it).getBleGattOperationType() == BleGattOperationType.DESCRIPTOR_READ
+        }
+    }
+
+    def "asObservable() should not emit when RxBleGattCallback calls onDescriptorRead() before run()"() {
         // XXX [PU] I'm not sure if it is really desired
         given:
         mockGatt.readDescriptor(mockDescriptor) >> true
-        onDescriptorReadSubject.onNext(ByteAssociation.create(mockDescriptor, new byte[0]))
+        objectUnderTest.onDescriptorRead(mockGatt, mockDescriptor, BluetoothGatt.GATT_SUCCESS)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -109,7 +127,7 @@ public class OperationDescriptorReadTest extends Specification {
         testSubscriber.assertNoErrors()
     }
 
-    def "asObservable() should emit next when RxBleGattCallback.getOnDescriptorRead() emits next"() {
+    def "asObservable() should emit next when RxBleGattCallback calls onDescriptorRead()"() {
 
         given:
         byte[] dataFromDescriptor = []
@@ -198,7 +216,7 @@ public class OperationDescriptorReadTest extends Specification {
 
     def "should release QueueReleaseInterface when read failed"() {
         given:
-        shouldEmitErrorOnDescriptorRead(new Throwable("test"))
+        shouldDisconnectOnDescriptorRead(new BleDisconnectedException("test"))
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -226,18 +244,21 @@ public class OperationDescriptorReadTest extends Specification {
     }
 
     private givenDescriptorWithUUIDContainData(Map... returnedDataOnRead) {
+        returnedDataOnRead.groupBy { it['descriptor'] }.each { descriptor, entries ->
+            (descriptor as BluetoothGattDescriptor).getValue() >>> entries.collect { it['value'] as byte[] }
+        }
         mockGatt.readDescriptor(mockDescriptor) >> {
             returnedDataOnRead.each {
-                onDescriptorReadSubject.onNext(new ByteAssociation(it['descriptor'], it['value'] as byte[]))
+                objectUnderTest.onDescriptorRead(mockGatt, it['descriptor'] as BluetoothGattDescriptor, BluetoothGatt.GATT_SUCCESS)
             }
 
             true
         }
     }
 
-    private shouldEmitErrorOnDescriptorRead(Throwable testException) {
+    private shouldDisconnectOnDescriptorRead(BleDisconnectedException testException) {
         mockGatt.readDescriptor(mockDescriptor) >> {
-            onDescriptorReadSubject.onError(testException)
+            objectUnderTest.onDisconnected(testException)
             true
         }
     }
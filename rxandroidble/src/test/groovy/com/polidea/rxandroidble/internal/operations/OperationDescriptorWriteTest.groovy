@@ -3,16 +3,18 @@ package com.polidea.rxandroidble.internal.operations
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCharacteristic
 import android.bluetooth.BluetoothGattDescriptor
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException
 import com.polidea.rxandroidble.exceptions.BleGattCallbackTimeoutException
+import com.polidea.rxandroidble.exceptions.BleGattDescriptorException
 import com.polidea.rxandroidble.exceptions.BleGattCannotStartException
 import com.polidea.rxandroidble.exceptions.BleGattOperationType
 import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
 import com.polidea.rxandroidble.internal.connection.RxBleGattCallback
-import com.polidea.rxandroidble.internal.util.ByteAssociation
 import com.polidea.rxandroidble.internal.util.MockOperationTimeoutConfiguration
+import rx.internal.schedulers.ImmediateScheduler
 import rx.observers.TestSubscriber
 import rx.schedulers.TestScheduler
-import rx.subjects.PublishSubject
+import rx.subscriptions.Subscriptions
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -27,7 +29,6 @@ public class OperationDescriptorWriteTest extends Specification {
     BluetoothGattCharacteristic mockParentCharacteristic = Mock BluetoothGattCharacteristic
     def testSubscriber = new TestSubscriber()
     TestScheduler testScheduler = new TestScheduler()
-    PublishSubject<ByteAssociation<BluetoothGattDescriptor>> onDescriptorWriteSubject = PublishSubject.create()
     QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
     DescriptorWriteOperation objectUnderTest
     byte[] testData = ['t', 'e', 's', 't']
@@ -35,7 +36,7 @@ public class OperationDescriptorWriteTest extends Specification {
     int originalParentBluetoothGattCharacteristicWriteType = 1337
 
     def setup() {
-        mockCallback.getOnDescriptorWrite() >> onDescriptorWriteSubject
+        mockCallback.setCallbackSlot(_) >> Subscriptions.empty()
         mockDescriptor.getCharacteristic() >> mockParentCharacteristic
         mockParentCharacteristic.getWriteType() >> originalParentBluetoothGattCharacteristicWriteType
         prepareObjectUnderTest()
@@ -82,11 +83,11 @@ public class OperationDescriptorWriteTest extends Specification {
         }
     }
 
-    def "asObservable() should emit error when RxBleGattCallback.getOnDescriptorWrite() emits error"() {
+    def "asObservable() should emit error when the connection is lost"() {
 
         given:
-        Throwable testException = new Throwable("test")
-        shouldEmitErrorOnDescriptorWrite(testException)
+        def testException = new BleDisconnectedException("test")
+        shouldDisconnectOnDescriptorWrite(testException)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -95,11 +96,28 @@ public class OperationDescriptorWriteTest extends Specification {
         testSubscriber.assertError testException
     }
 
-    def "asObservable() should not emit when RxBleGattCallback.getOnDescriptorWrite() emits before run()"() {
+    def "asObservable() should emit error when RxBleGattCallback calls onDescriptorWrite() with a failure status"() {
+
+        given:
+        mockGatt.writeDescriptor(mockDescriptor) >> {
+            objectUnderTest.onDescriptorWrite(mockGatt, mockDescriptor, BluetoothGatt.GATT_FAILURE)
+            true
+        }
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertError {
+            ((BleGattDescriptorException) it).getBleGattOperationType() == BleGattOperationType.DESCRIPTOR_WRITE
+        }
+    }
+
+    def "asObservable() should not emit when RxBleGattCallback calls onDescriptorWrite() before run()"() {
 
         given:
         mockGatt.writeDescriptor(mockDescriptor) >> true
-        onDescriptorWriteSubject.onNext(new ByteAssociation<BluetoothGattDescriptor>(mockDescriptor, new byte[0]))
+        objectUnderTest.onDescriptorWrite(mockGatt, mockDescriptor, BluetoothGatt.GATT_SUCCESS)
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -111,7 +129,7 @@ public class OperationDescriptorWriteTest extends Specification {
         testSubscriber.assertNoErrors()
     }
 
-    def "asObservable() should emit next when RxBleGattCallback.getOnDescriptorWrite() emits next"() {
+    def "asObservable() should emit next when RxBleGattCallback calls onDescriptorWrite()"() {
 
         given:
         byte[] dataFromCharacteristic = []
@@ -203,7 +221,7 @@ public class OperationDescriptorWriteTest extends Specification {
 
     def "should release QueueReleaseInterface when write failed"() {
         given:
-        shouldEmitErrorOnDescriptorWrite(new Throwable("test"))
+        shouldDisconnectOnDescriptorWrite(new BleDisconnectedException("test"))
 
         when:
         objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
@@ -250,18 +268,21 @@ public class OperationDescriptorWriteTest extends Specification {
     }
 
     private givenDescriptorWithUUIDWritesData(Map... returnedDataOnWrite) {
+        returnedDataOnWrite.groupBy { it['descriptor'] }.each { descriptor, entries ->
+            (descriptor as BluetoothGattDescriptor).getValue() >>> entries.collect { it['value'] as byte[] }
+        }
         mockGatt.writeDescriptor(mockDescriptor) >> {
             returnedDataOnWrite.each {
-                onDescriptorWriteSubject.onNext(ByteAssociation.create(it['descriptor'] as BluetoothGattDescriptor, it['value'] as byte[]))
+                objectUnderTest.onDescriptorWrite(mockGatt, it['descriptor'] as BluetoothGattDescriptor, BluetoothGatt.GATT_SUCCESS)
             }
 
             true
         }
     }
 
-    private shouldEmitErrorOnDescriptorWrite(Throwable testException) {
+    private shouldDisconnectOnDescriptorWrite(BleDisconnectedException testException) {
         mockGatt.writeDescriptor(mockDescriptor) >> {
-            onDescriptorWriteSubject.onError(testException)
+            objectUnderTest.onDisconnected(testException)
             true
         }
     }
@@ -276,6 +297,6 @@ public class OperationDescriptorWriteTest extends Specification {
 
     private prepareObjectUnderTest() {
         objectUnderTest = new DescriptorWriteOperation(mockCallback, mockGatt,
-                new MockOperationTimeoutConfiguration(testScheduler), bluetoothGattCharacteristicDefaultWriteType, mockDescriptor, testData)
+                new MockOperationTimeoutConfiguration(testScheduler), ImmediateScheduler.INSTANCE, bluetoothGattCharacteristicDefaultWriteType, mockDescriptor, testData)
     }
 }
\ No newline at end of file
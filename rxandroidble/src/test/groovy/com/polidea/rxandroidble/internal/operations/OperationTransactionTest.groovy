@@ -0,0 +1,121 @@
+package com.polidea.rxandroidble.internal.operations
+
+import android.bluetooth.BluetoothGatt
+import com.polidea.rxandroidble.internal.serialization.QueueReleaseInterface
+import rx.Observable
+import rx.observers.TestSubscriber
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class OperationTransactionTest extends Specification {
+
+    BluetoothGatt mockGatt = Mock BluetoothGatt
+    QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
+    def testSubscriber = new TestSubscriber()
+    Operation<byte[]> firstStep = Mock Operation
+    Operation<byte[]> secondStep = Mock Operation
+    byte[] firstValue = [1] as byte[]
+    byte[] secondValue = [2] as byte[]
+    TransactionOperation objectUnderTest
+
+    def setup() {
+        objectUnderTest = new TransactionOperation(mockGatt, [firstStep, secondStep])
+    }
+
+    def "should emit the values of all the steps as a single list in order of the steps"() {
+
+        given:
+        firstStep.run(_) >> Observable.just(firstValue)
+        secondStep.run(_) >> Observable.just(secondValue)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertValueCount(1)
+        testSubscriber.onNextEvents[0] == [firstValue, secondValue]
+        testSubscriber.assertCompleted()
+    }
+
+    def "should not run the next step before the previous one has finished"() {
+
+        given:
+        def firstStepSubject = PublishSubject.create()
+        firstStep.run(_) >> firstStepSubject
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        0 * secondStep.run(_)
+
+        when:
+        firstStepSubject.onNext(firstValue)
+        firstStepSubject.onCompleted()
+
+        then:
+        1 * secondStep.run(_) >> Observable.just(secondValue)
+    }
+
+    def "should release the queue only once after all the steps have finished"() {
+
+        given:
+        firstStep.run(_) >> { QueueReleaseInterface queueReleaseInterface ->
+            queueReleaseInterface.release()
+            Observable.just(firstValue)
+        }
+        secondStep.run(_) >> { QueueReleaseInterface queueReleaseInterface ->
+            queueReleaseInterface.release()
+            Observable.just(secondValue)
+        }
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        1 * mockQueueReleaseInterface.release()
+    }
+
+    def "should emit error, release the queue and not run the following steps if a step fails"() {
+
+        given:
+        def testException = new Exception("testException")
+        firstStep.run(_) >> Observable.error(testException)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        then:
+        0 * secondStep.run(_)
+
+        and:
+        1 * mockQueueReleaseInterface.release()
+
+        and:
+        testSubscriber.assertError(testException)
+    }
+
+    def "should not run the following steps and release the queue after the current step if unsubscribed"() {
+
+        given:
+        def firstStepSubject = PublishSubject.create()
+        firstStep.run(_) >> firstStepSubject
+        objectUnderTest.run(mockQueueReleaseInterface).subscribe(testSubscriber)
+
+        when:
+        testSubscriber.unsubscribe()
+
+        then:
+        0 * mockQueueReleaseInterface.release()
+
+        when:
+        firstStepSubject.onNext(firstValue)
+        firstStepSubject.onCompleted()
+
+        then:
+        0 * secondStep.run(_)
+
+        and:
+        1 * mockQueueReleaseInterface.release()
+    }
+}
@@ -0,0 +1,125 @@
+package com.polidea.rxandroidble.internal.scan
+
+import android.bluetooth.BluetoothDevice
+import android.util.SparseArray
+import com.polidea.rxandroidble.scan.ScanFilter
+import com.polidea.rxandroidble.scan.ScanRecord
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class EmulatedScanFilterMatcherTest extends Specification {
+
+    RxBleInternalScanResult mockInternalScanResult = Mock RxBleInternalScanResult
+    BluetoothDevice mockBluetoothDevice = Mock BluetoothDevice
+    ScanRecord mockScanRecord = Mock ScanRecord
+    SparseArray<byte[]> mockManufacturerSpecificData = Mock SparseArray
+
+    def setup() {
+        mockInternalScanResult.getBluetoothDevice() >> mockBluetoothDevice
+        mockInternalScanResult.getScanRecord() >> mockScanRecord
+        mockScanRecord.getManufacturerSpecificData() >> mockManufacturerSpecificData
+        mockScanRecord.getServiceData() >> [:]
+    }
+
+    @Unroll
+    def "should match all scan results if there are no filters #scanFilters"() {
+
+        expect:
+        new EmulatedScanFilterMatcher(scanFilters as ScanFilter[]).matches(mockInternalScanResult)
+
+        where:
+        scanFilters << [null, []]
+    }
+
+    def "should match a scan result with a filter without criteria"() {
+
+        given:
+        def objectUnderTest = new EmulatedScanFilterMatcher(new ScanFilter.Builder().build())
+
+        expect:
+        objectUnderTest.matches(mockInternalScanResult)
+    }
+
+    @Unroll
+    def "should match only the scan result of a device with an address from the filters #address"() {
+
+        given:
+        def objectUnderTest = new EmulatedScanFilterMatcher(addressFilters(500))
+        mockBluetoothDevice.getAddress() >> address
+
+        expect:
+        objectUnderTest.matches(mockInternalScanResult) == expectedResult
+
+        where:
+        address         | expectedResult
+        macAddress(0)   | true
+        macAddress(499) | true
+        macAddress(500) | false
+    }
+
+    @Unroll
+    def "should match by manufacturer data when advertised manufacturer IDs are #manufacturerIds"() {
+
+        given:
+        def objectUnderTest = new EmulatedScanFilterMatcher(
+                new ScanFilter.Builder().setManufacturerData(0x0059, [0x01] as byte[]).build(),
+                new ScanFilter.Builder().setManufacturerData(0x004C, [0x02, 0x15] as byte[]).build()
+        )
+        mockManufacturerSpecificData.size() >> manufacturerIds.size()
+        mockManufacturerSpecificData.keyAt(_) >> { int index -> manufacturerIds[index] }
+        mockScanRecord.getManufacturerSpecificData(0x004C) >> ([0x02, 0x15, 0x00] as byte[])
+        mockScanRecord.getManufacturerSpecificData(0x0059) >> ([0x02] as byte[])
+
+        expect:
+        objectUnderTest.matches(mockInternalScanResult) == expectedResult
+
+        where:
+        manufacturerIds  | expectedResult
+        [0x004C]         | true
+        [0x0059]         | false
+        [0x0059, 0x004C] | true
+        []               | false
+    }
+
+    @Unroll
+    def "should match by the name from #nameSource"() {
+
+        given:
+        def objectUnderTest = new EmulatedScanFilterMatcher(
+                new ScanFilter.Builder().setDeviceName("other").build(),
+                new ScanFilter.Builder().setDeviceName("xxx").build()
+        )
+        mockScanRecord.getDeviceName() >> advertisedName
+        mockBluetoothDevice.getName() >> deviceName
+
+        expect:
+        objectUnderTest.matches(mockInternalScanResult) == expectedResult
+
+        where:
+        advertisedName | deviceName | expectedResult | nameSource
+        "xxx"          | null       | true           | "the advertisement"
+        null           | "xxx"      | true           | "the device"
+        "yyy"          | "yyy"      | false          | "nowhere"
+    }
+
+    def "should not match filters with scan record criteria if the scan record is not available"() {
+
+        given:
+        def internalScanResult = Mock RxBleInternalScanResult
+        internalScanResult.getBluetoothDevice() >> mockBluetoothDevice
+        mockBluetoothDevice.getName() >> "xxx"
+        def objectUnderTest = new EmulatedScanFilterMatcher(new ScanFilter.Builder().setDeviceName("xxx").build())
+
+        expect:
+        !objectUnderTest.matches(internalScanResult)
+    }
+
+    private static ScanFilter[] addressFilters(int count) {
+        // ScanFilter.Builder validates the address with BluetoothAdapter which is not available in unit tests
+        (0..<count).collect { new ScanFilter(null, macAddress(it), null, null, null, null, null, -1, null, null) } as ScanFilter[]
+    }
+
+    private static String macAddress(int index) {
+        String.format("AA:BB:CC:DD:%02X:%02X", (index >> 8) & 0xFF, index & 0xFF)
+    }
+}
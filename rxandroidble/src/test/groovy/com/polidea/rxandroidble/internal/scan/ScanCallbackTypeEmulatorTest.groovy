@@ -0,0 +1,142 @@
+package com.polidea.rxandroidble.internal.scan
+
+import android.bluetooth.BluetoothDevice
+import com.polidea.rxandroidble.scan.ScanCallbackType
+import java.util.concurrent.TimeUnit
+import rx.Observer
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class ScanCallbackTypeEmulatorTest extends Specification {
+
+    TestScheduler testScheduler = new TestScheduler()
+    TestSubscriber<RxBleInternalScanResult> testSubscriber = new TestSubscriber()
+    PublishSubject<RxBleInternalScanResult> subject = PublishSubject.create()
+
+    def setup() {
+        subject.lift(new ScanCallbackTypeEmulator(testScheduler, true, true, 10, TimeUnit.SECONDS, 2)).subscribe(testSubscriber)
+    }
+
+    def "should treat the least recently scanned device as lost when too many devices are tracked"() {
+
+        given:
+        def scanResult0 = mockScan("0")
+        def scanResult1 = mockScan("1")
+        def scanResult2 = mockScan("2")
+        subject.onNext(scanResult0)
+        subject.onNext(scanResult1)
+        subject.onNext(scanResult0)
+
+        when:
+        subject.onNext(scanResult2)
+
+        then:
+        callbackTypesOf(testSubscriber) == [
+                ["0", ScanCallbackType.CALLBACK_TYPE_FIRST_MATCH],
+                ["1", ScanCallbackType.CALLBACK_TYPE_FIRST_MATCH],
+                ["1", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST],
+                ["2", ScanCallbackType.CALLBACK_TYPE_FIRST_MATCH],
+        ]
+
+        when:
+        subject.onNext(scanResult1)
+
+        then:
+        callbackTypesOf(testSubscriber).takeRight(2) == [
+                ["0", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST],
+                ["1", ScanCallbackType.CALLBACK_TYPE_FIRST_MATCH],
+        ]
+    }
+
+    def "should emit match lost of each device at its own deadline"() {
+
+        given:
+        subject.onNext(mockScan("0"))
+        testScheduler.advanceTimeBy(3, TimeUnit.SECONDS)
+        subject.onNext(mockScan("1"))
+        testScheduler.advanceTimeBy(3, TimeUnit.SECONDS)
+        subject.onNext(mockScan("0"))
+
+        when:
+        testScheduler.advanceTimeBy(7, TimeUnit.SECONDS)
+
+        then:
+        callbackTypesOf(testSubscriber).takeRight(1) == [["1", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST]]
+
+        when:
+        testScheduler.advanceTimeBy(2999, TimeUnit.MILLISECONDS)
+
+        then:
+        testSubscriber.assertValueCount(3)
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+
+        then:
+        callbackTypesOf(testSubscriber).takeRight(1) == [["0", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST]]
+    }
+
+    def "should emit match lost of all tracked devices when the scan completes"() {
+
+        given:
+        subject.onNext(mockScan("0"))
+        subject.onNext(mockScan("1"))
+
+        when:
+        subject.onCompleted()
+
+        then:
+        callbackTypesOf(testSubscriber).takeRight(2) == [
+                ["0", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST],
+                ["1", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST],
+        ]
+
+        and:
+        testSubscriber.assertCompleted()
+    }
+
+    def "should not emit match lost of a device after it was matched again while the lost devices were emitted"() {
+
+        given:
+        def racingSubject = PublishSubject.create()
+        def device1Scan = mockScan("1")
+        def racingSubscriber = new TestSubscriber<RxBleInternalScanResult>([
+                onNext     : { RxBleInternalScanResult scanResult ->
+                    // the scan callback matches device 1 again right after the timer has removed it
+                    if (scanResult.getBluetoothDevice().getAddress() == "0"
+                            && scanResult.getScanCallbackType() == ScanCallbackType.CALLBACK_TYPE_MATCH_LOST) {
+                        racingSubject.onNext(device1Scan)
+                    }
+                },
+                onCompleted: {},
+                onError    : {}
+        ] as Observer)
+        racingSubject.lift(new ScanCallbackTypeEmulator(testScheduler, true, true, 10, TimeUnit.SECONDS, 2)).subscribe(racingSubscriber)
+        racingSubject.onNext(mockScan("0"))
+        racingSubject.onNext(device1Scan)
+
+        when:
+        testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+        then:
+        callbackTypesOf(racingSubscriber).takeRight(3) == [
+                ["0", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST],
+                ["1", ScanCallbackType.CALLBACK_TYPE_MATCH_LOST],
+                ["1", ScanCallbackType.CALLBACK_TYPE_FIRST_MATCH],
+        ]
+    }
+
+    private static List callbackTypesOf(TestSubscriber<RxBleInternalScanResult> testSubscriber) {
+        testSubscriber.getOnNextEvents().collect { [it.getBluetoothDevice().getAddress(), it.getScanCallbackType()] }
+    }
+
+    private def mockScan(String address) {
+        def scanResult = Mock(RxBleInternalScanResult)
+        def device = Mock(BluetoothDevice)
+        device.getAddress() >> address
+        scanResult.getBluetoothDevice() >> device
+        return scanResult
+    }
+}
@@ -0,0 +1,83 @@
+package com.polidea.rxandroidble.internal.scan
+
+import android.bluetooth.BluetoothDevice
+import android.os.ParcelUuid
+import com.polidea.rxandroidble.scan.ScanFilter
+import org.robospock.RoboSpecification
+import spock.lang.Unroll
+
+import static com.polidea.rxandroidble.internal.scan.ScanRecordImplLazyTest.BATTERY_SERVICE
+import static com.polidea.rxandroidble.internal.scan.ScanRecordImplLazyTest.CUSTOM_SERVICES
+import static com.polidea.rxandroidble.internal.scan.ScanRecordImplLazyTest.HEART_RATE_SERVICE
+import static com.polidea.rxandroidble.internal.scan.ScanRecordImplLazyTest.SERVICES_AND_NAME
+
+class ScanFilterIndexTest extends RoboSpecification {
+
+    RxBleInternalScanResult mockInternalScanResult = Mock RxBleInternalScanResult
+
+    def setup() {
+        mockInternalScanResult.getBluetoothDevice() >> Mock(BluetoothDevice)
+    }
+
+    @Unroll
+    def "should match a raw scan record by #criterion without decoding it"() {
+
+        given:
+        def scanRecord = new ScanRecordImplLazy(bytes)
+        mockInternalScanResult.getScanRecord() >> scanRecord
+        def objectUnderTest = new ScanFilterIndex([scanFilter] as ScanFilter[])
+
+        expect:
+        objectUnderTest.matchesAny(mockInternalScanResult) == expectedResult
+
+        and:
+        scanRecord.@manufacturerSpecificData == null
+        scanRecord.@serviceData == null
+        !scanRecord.@serviceUuidsDecoded
+
+        where:
+        criterion                   | bytes             | scanFilter                                                            | expectedResult
+        "manufacturer data"         | CUSTOM_SERVICES   | manufacturerDataFilter(0x004C, [0x02, 0x15])                          | true
+        "other manufacturer data"   | CUSTOM_SERVICES   | manufacturerDataFilter(0x0059, [0x02, 0x15])                          | false
+        "service data"              | SERVICES_AND_NAME | serviceDataFilter(BATTERY_SERVICE, [0x64])                            | true
+        "other service data"        | SERVICES_AND_NAME | serviceDataFilter(HEART_RATE_SERVICE, [0x64])                         | false
+        "16 bit service UUID"       | SERVICES_AND_NAME | serviceUuidFilter("0000180d-0000-1000-8000-00805f9b34fb", null)       | true
+        "32 bit service UUID"       | CUSTOM_SERVICES   | serviceUuidFilter("deadbeef-0000-1000-8000-00805f9b34fb", null)       | true
+        "other service UUID"        | CUSTOM_SERVICES   | serviceUuidFilter("0000180d-0000-1000-8000-00805f9b34fb", null)       | false
+        "masked service UUID"       | CUSTOM_SERVICES   | serviceUuidFilter("6e400001-0000-0000-0000-000000000000", UUID_PREFIX) | true
+        "other masked service UUID" | CUSTOM_SERVICES   | serviceUuidFilter("6e400002-0000-0000-0000-000000000000", UUID_PREFIX) | false
+    }
+
+    @Unroll
+    def "should find the service UUID #serviceUuid among many indexed ones"() {
+
+        given:
+        def scanFilters = (0..<100).collect { serviceUuidFilter(UUID.randomUUID().toString(), null) }
+        scanFilters.add(serviceUuidFilter(serviceUuid, null))
+        Collections.shuffle(scanFilters)
+        mockInternalScanResult.getScanRecord() >> new ScanRecordImplLazy(SERVICES_AND_NAME)
+        def objectUnderTest = new ScanFilterIndex(scanFilters as ScanFilter[])
+
+        expect:
+        objectUnderTest.matchesAny(mockInternalScanResult)
+
+        where:
+        serviceUuid << ["0000180d-0000-1000-8000-00805f9b34fb", "0000180f-0000-1000-8000-00805f9b34fb"]
+    }
+
+    static final String UUID_PREFIX = "ffffffff-0000-0000-0000-000000000000"
+
+    private static ScanFilter manufacturerDataFilter(int manufacturerId, List<Integer> data) {
+        new ScanFilter.Builder().setManufacturerData(manufacturerId, data as byte[]).build()
+    }
+
+    private static ScanFilter serviceDataFilter(UUID serviceDataUuid, List<Integer> data) {
+        new ScanFilter.Builder().setServiceData(new ParcelUuid(serviceDataUuid), data as byte[]).build()
+    }
+
+    private static ScanFilter serviceUuidFilter(String serviceUuid, String mask) {
+        mask == null
+                ? new ScanFilter.Builder().setServiceUuid(ParcelUuid.fromString(serviceUuid)).build()
+                : new ScanFilter.Builder().setServiceUuid(ParcelUuid.fromString(serviceUuid), ParcelUuid.fromString(mask)).build()
+    }
+}
@@ -0,0 +1,190 @@
+package com.polidea.rxandroidble.internal.scan
+
+import android.bluetooth.BluetoothDevice
+import com.polidea.rxandroidble.internal.operations.Operation
+import com.polidea.rxandroidble.internal.serialization.ClientOperationQueue
+import com.polidea.rxandroidble.scan.ScanFilter
+import com.polidea.rxandroidble.scan.ScanSettings
+import rx.Observable
+import rx.internal.schedulers.ImmediateScheduler
+import rx.observers.TestSubscriber
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class ScanMultiplexerTest extends Specification {
+
+    ScanSetupBuilder mockScanSetupBuilder = Mock ScanSetupBuilder
+    ClientOperationQueue mockOperationQueue = Mock ClientOperationQueue
+    List<ScanSettings> nativeScanSettings = []
+    List<ScanFilter[]> nativeScanFilters = []
+    List<PublishSubject<RxBleInternalScanResult>> nativeScans = []
+    ScanMultiplexer objectUnderTest
+
+    def setup() {
+        mockScanSetupBuilder.build(_, _) >> { arguments ->
+            nativeScanSettings << arguments[0]
+            nativeScanFilters << arguments[1]
+            new ScanSetup(Mock(Operation), { Observable observable -> observable } as Observable.Transformer)
+        }
+        mockOperationQueue.queue(_) >> {
+            def nativeScan = PublishSubject.create()
+            nativeScans << nativeScan
+            nativeScan
+        }
+        objectUnderTest = new ScanMultiplexer(
+                mockScanSetupBuilder,
+                mockOperationQueue,
+                new ScanSettingsEmulator(ImmediateScheduler.INSTANCE),
+                new ScanStartScheduler(0, 0, ImmediateScheduler.INSTANCE),
+                ImmediateScheduler.INSTANCE
+        )
+    }
+
+    def "should share one native scan between subscribers with the same settings"() {
+
+        when:
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_BALANCED)).subscribe()
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_BALANCED)).subscribe()
+
+        then:
+        nativeScans.size() == 1
+    }
+
+    def "should restart the native scan only when the most aggressive scan mode changes"() {
+
+        given:
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe()
+
+        when:
+        def lowLatencySubscription = objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_LATENCY)).subscribe()
+
+        then:
+        nativeScans.size() == 2
+        !nativeScans[0].hasObservers()
+        nativeScanSettings[1].scanMode == ScanSettings.SCAN_MODE_LOW_LATENCY
+
+        when:
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_BALANCED)).subscribe()
+
+        then:
+        nativeScans.size() == 2
+
+        when:
+        lowLatencySubscription.unsubscribe()
+
+        then:
+        nativeScans.size() == 3
+        nativeScanSettings[2].scanMode == ScanSettings.SCAN_MODE_BALANCED
+    }
+
+    def "should not restart the native scan when a subscriber with already requested filters leaves"() {
+
+        given:
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER), addressFilter("AA:AA:AA:AA:AA:AA")).subscribe()
+        def subscription = objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER), addressFilter("AA:AA:AA:AA:AA:AA"))
+                .subscribe()
+
+        when:
+        subscription.unsubscribe()
+
+        then:
+        nativeScans.size() == 1
+        nativeScans[0].hasObservers()
+    }
+
+    def "should scan natively with the union of the filters or with no filters if any subscriber needs all scan results"() {
+
+        when:
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER), addressFilter("AA:AA:AA:AA:AA:AA")).subscribe()
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER), addressFilter("BB:BB:BB:BB:BB:BB")).subscribe()
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe()
+
+        then:
+        nativeScanFilters.collect { it.collect { it.deviceAddress } } == [
+                ["AA:AA:AA:AA:AA:AA"],
+                ["AA:AA:AA:AA:AA:AA", "BB:BB:BB:BB:BB:BB"],
+                [],
+        ]
+    }
+
+    def "should demultiplex the native scan results by the filters of each subscriber"() {
+
+        given:
+        TestSubscriber firstSubscriber = new TestSubscriber()
+        TestSubscriber secondSubscriber = new TestSubscriber()
+        TestSubscriber allResultsSubscriber = new TestSubscriber()
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER), addressFilter("AA:AA:AA:AA:AA:AA")).subscribe(firstSubscriber)
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER), addressFilter("BB:BB:BB:BB:BB:BB")).subscribe(secondSubscriber)
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe(allResultsSubscriber)
+        def firstScanResult = mockScan("AA:AA:AA:AA:AA:AA")
+        def secondScanResult = mockScan("BB:BB:BB:BB:BB:BB")
+
+        when:
+        nativeScans.last().onNext(firstScanResult)
+        nativeScans.last().onNext(secondScanResult)
+
+        then:
+        firstSubscriber.assertValues(firstScanResult)
+        secondSubscriber.assertValues(secondScanResult)
+        allResultsSubscriber.assertValues(firstScanResult, secondScanResult)
+    }
+
+    def "should emit an error of the native scan to all subscribers and start a new native scan for the next subscriber"() {
+
+        given:
+        TestSubscriber firstSubscriber = new TestSubscriber()
+        TestSubscriber secondSubscriber = new TestSubscriber()
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe(firstSubscriber)
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe(secondSubscriber)
+        def testThrowable = new Throwable("test")
+
+        when:
+        nativeScans[0].onError(testThrowable)
+
+        then:
+        firstSubscriber.assertError(testThrowable)
+        secondSubscriber.assertError(testThrowable)
+
+        when:
+        objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe()
+
+        then:
+        nativeScans.size() == 2
+    }
+
+    def "should stop the native scan when the last subscriber leaves"() {
+
+        given:
+        def firstSubscription = objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe()
+        def secondSubscription = objectUnderTest.scan(scanSettings(ScanSettings.SCAN_MODE_LOW_POWER)).subscribe()
+
+        when:
+        firstSubscription.unsubscribe()
+
+        then:
+        nativeScans[0].hasObservers()
+
+        when:
+        secondSubscription.unsubscribe()
+
+        then:
+        !nativeScans[0].hasObservers()
+    }
+
+    private static ScanSettings scanSettings(int scanMode) {
+        new ScanSettings.Builder().setScanMode(scanMode).build()
+    }
+
+    private static ScanFilter addressFilter(String address) {
+        // ScanFilter.Builder validates the address with BluetoothAdapter which is not available in unit tests
+        new ScanFilter(null, address, null, null, null, null, null, -1, null, null)
+    }
+
+    private def mockScan(String address) {
+        def scanResult = Mock(RxBleInternalScanResult)
+        def device = Mock(BluetoothDevice)
+        device.getAddress() >> address
+        scanResult.getBluetoothDevice() >> device
+        return scanResult
+    }
+}
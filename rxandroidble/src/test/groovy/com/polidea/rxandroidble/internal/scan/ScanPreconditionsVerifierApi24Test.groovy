@@ -2,7 +2,7 @@ package com.polidea.rxandroidble.internal.scan
 
 import com.polidea.rxandroidble.exceptions.BleScanException
 import java.util.concurrent.TimeUnit
-import rx.Scheduler
+import rx.Observable
 import rx.schedulers.TestScheduler
 import spock.lang.Specification
 
@@ -12,26 +12,25 @@ public class ScanPreconditionsVerifierApi24Test extends Specification {
 
     private ScanPreconditionsVerifierApi18 mockScanPreconditionVerifierApi18 = Mock ScanPreconditionsVerifierApi18
 
-    private ScanPreconditionsVerifierApi24 objectUnderTest = new ScanPreconditionsVerifierApi24(mockScanPreconditionVerifierApi18, testScheduler)
+    private ScanStartScheduler scanStartScheduler = new ScanStartScheduler(5, TimeUnit.SECONDS.toMillis(30), testScheduler)
+
+    private ScanPreconditionsVerifierApi24 objectUnderTest = new ScanPreconditionsVerifierApi24(
+            mockScanPreconditionVerifierApi18,
+            scanStartScheduler,
+            testScheduler
+    )
 
     def setup() {
         testScheduler.advanceTimeTo(1, TimeUnit.MINUTES)
     }
 
-    def "should perform checks in proper order"() {
-
-        given:
-        Scheduler scheduler = Mock Scheduler
-        objectUnderTest = new ScanPreconditionsVerifierApi24(mockScanPreconditionVerifierApi18, scheduler)
+    def "should call ScanPreconditionsVerifierApi18"() {
 
         when:
         objectUnderTest.verify()
 
         then:
         1 * mockScanPreconditionVerifierApi18.verify()
-
-        then:
-        1 * scheduler.now() >> TimeUnit.MINUTES.toMillis(1)
     }
 
     def "should proxy exception thrown by ScanPreconditionsVerifierApi18"() {
@@ -47,33 +46,10 @@ public class ScanPreconditionsVerifierApi24Test extends Specification {
         thrown(BleScanException)
     }
 
-    def "should throw BleScanException.UNDOCUMENTED_SCAN_THROTTLE if called 6th time during a 30 second window"() {
-
-        given:
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-
-        when:
-        objectUnderTest.verify()
-
-        then:
-        BleScanException e = thrown BleScanException
-        e.getReason() == BleScanException.UNDOCUMENTED_SCAN_THROTTLE
-        e.getRetryDateSuggestion() == (new Date(testScheduler.now() + TimeUnit.SECONDS.toMillis(30)))
-    }
-
-    def "should not throw BleScanException.UNDOCUMENTED_SCAN_THROTTLE if called 6th time after a 30 second window"() {
+    def "should not throw BleScanException.UNDOCUMENTED_SCAN_THROTTLE if more than 5 scans were started during a 30 second window"() {
 
         given:
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-        objectUnderTest.verify()
-        testScheduler.advanceTimeBy(31, TimeUnit.SECONDS)
+        6.times { scanStartScheduler.schedule(Observable.never()).subscribe() }
 
         when:
         objectUnderTest.verify()
@@ -81,4 +57,4 @@ public class ScanPreconditionsVerifierApi24Test extends Specification {
         then:
         notThrown Throwable
     }
-}
\ No newline at end of file
+}
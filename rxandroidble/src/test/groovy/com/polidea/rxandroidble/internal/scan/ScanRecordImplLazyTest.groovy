@@ -0,0 +1,195 @@
+package com.polidea.rxandroidble.internal.scan
+
+import android.os.ParcelUuid
+import org.robospock.RoboSpecification
+import spock.lang.Unroll
+
+class ScanRecordImplLazyTest extends RoboSpecification {
+
+    static final UUID HEART_RATE_SERVICE = UUID.fromString("0000180d-0000-1000-8000-00805f9b34fb")
+    static final UUID BATTERY_SERVICE = UUID.fromString("0000180f-0000-1000-8000-00805f9b34fb")
+    static final UUID CUSTOM_SERVICE = UUID.fromString("6e400001-b5a3-f393-e0a9-e50e24dcca9e")
+
+    // flags, two 16 bit service UUIDs, battery level service data, tx power and the complete local name
+    static final byte[] SERVICES_AND_NAME = bytes(
+            0x02, 0x01, 0x06,
+            0x05, 0x03, 0x0D, 0x18, 0x0F, 0x18,
+            0x04, 0x16, 0x0F, 0x18, 0x64,
+            0x02, 0x0A, 0xF4,
+            0x07, 0x09, 'S', 'e', 'n', 's', 'o', 'r'
+    )
+
+    // a 32 bit and a 128 bit service UUID and iBeacon manufacturer specific data
+    static final byte[] CUSTOM_SERVICES = bytes(
+            0x05, 0x05, 0xEF, 0xBE, 0xAD, 0xDE,
+            0x11, 0x07, 0x9E, 0xCA, 0xDC, 0x24, 0x0E, 0xE5, 0xA9, 0xE0, 0x93, 0xF3, 0xA3, 0xB5, 0x01, 0x00, 0x40, 0x6E,
+            0x06, 0xFF, 0x4C, 0x00, 0x02, 0x15, 0x01,
+            0x00, 0x00, 0x00
+    )
+
+    def "should decode all the fields"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(SERVICES_AND_NAME)
+
+        expect:
+        objectUnderTest.getAdvertiseFlags() == 0x06
+        objectUnderTest.getServiceUuids() == [new ParcelUuid(HEART_RATE_SERVICE), new ParcelUuid(BATTERY_SERVICE)]
+        objectUnderTest.getServiceData(new ParcelUuid(BATTERY_SERVICE)) == [0x64] as byte[]
+        objectUnderTest.getServiceData().size() == 1
+        objectUnderTest.getManufacturerSpecificData().size() == 0
+        objectUnderTest.getTxPowerLevel() == -12
+        objectUnderTest.getDeviceName() == "Sensor"
+        objectUnderTest.getBytes().is(SERVICES_AND_NAME)
+    }
+
+    def "should decode 32 and 128 bit service UUIDs and manufacturer specific data"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(CUSTOM_SERVICES)
+
+        expect:
+        objectUnderTest.getServiceUuids() == [
+                ParcelUuid.fromString("deadbeef-0000-1000-8000-00805f9b34fb"),
+                new ParcelUuid(CUSTOM_SERVICE)
+        ]
+        objectUnderTest.getManufacturerSpecificData(0x004C) == [0x02, 0x15, 0x01] as byte[]
+        objectUnderTest.getAdvertiseFlags() == -1
+        objectUnderTest.getTxPowerLevel() == Integer.MIN_VALUE
+        objectUnderTest.getDeviceName() == null
+    }
+
+    def "should return the same decoded fields on subsequent calls"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(SERVICES_AND_NAME)
+
+        expect:
+        objectUnderTest.getServiceUuids().is(objectUnderTest.getServiceUuids())
+        objectUnderTest.getServiceData().is(objectUnderTest.getServiceData())
+        objectUnderTest.getManufacturerSpecificData().is(objectUnderTest.getManufacturerSpecificData())
+        objectUnderTest.getDeviceName().is(objectUnderTest.getDeviceName())
+    }
+
+    def "should use the last occurrence of a repeated field"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(bytes(0x02, 0x09, 'A', 0x02, 0x08, 'B', 0x03, 0xFF, 0x01, 0x00, 0x04, 0xFF, 0x01, 0x00, 0x07))
+
+        expect:
+        objectUnderTest.getDeviceName() == "B"
+        objectUnderTest.matchesDeviceName("B")
+        !objectUnderTest.matchesDeviceName("A")
+        objectUnderTest.getManufacturerSpecificData(0x0001) == [0x07] as byte[]
+        objectUnderTest.matchesManufacturerData(0x0001, [0x07] as byte[], null)
+    }
+
+    @Unroll
+    def "should return an empty record with raw bytes if a known structure is malformed #description"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(advertisement)
+
+        expect:
+        objectUnderTest.getServiceUuids() == null
+        objectUnderTest.getServiceData().isEmpty()
+        objectUnderTest.getManufacturerSpecificData().size() == 0
+        !objectUnderTest.matchesManufacturerData(0x004C, new byte[0], null)
+        objectUnderTest.getAdvertiseFlags() == -1
+        objectUnderTest.getDeviceName() == null
+        objectUnderTest.getBytes().is(advertisement)
+
+        where:
+        advertisement                                       | description
+        bytes(0x02, 0x01, 0x06, 0x05, 0x03, 0x0D, 0x18)     | "(exceeding the record)"
+        bytes(0x02, 0x01, 0x06, 0x02, 0x16, 0x0F)           | "(service data without UUID)"
+        bytes(0x02, 0x01, 0x06, 0x02, 0xFF, 0x4C)           | "(manufacturer data without id)"
+    }
+
+    def "should ignore an unknown structure exceeding the record"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(bytes(0x02, 0x01, 0x06, 0x05, 0x20, 0x00))
+
+        expect:
+        objectUnderTest.getAdvertiseFlags() == 0x06
+    }
+
+    @Unroll
+    def "should match service UUID #uuid with mask #mask: #expectedResult"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(CUSTOM_SERVICES)
+
+        expect:
+        objectUnderTest.matchesServiceUuid(uuid, mask) == expectedResult
+
+        where:
+        uuid                                                        | mask                                                        | expectedResult
+        UUID.fromString("deadbeef-0000-1000-8000-00805f9b34fb")     | null                                                        | true
+        CUSTOM_SERVICE                                              | null                                                        | true
+        HEART_RATE_SERVICE                                          | null                                                        | false
+        UUID.fromString("6e400002-b5a3-f393-e0a9-e50e24dcca9e")     | null                                                        | false
+        UUID.fromString("6e400002-b5a3-f393-e0a9-e50e24dcca9e")     | UUID.fromString("ffff0000-ffff-ffff-ffff-ffffffffffff")     | true
+    }
+
+    @Unroll
+    def "should match service data #data with mask #mask: #expectedResult"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(SERVICES_AND_NAME)
+
+        expect:
+        objectUnderTest.matchesServiceData(uuid, data as byte[], mask as byte[]) == expectedResult
+
+        where:
+        uuid               | data         | mask   | expectedResult
+        BATTERY_SERVICE    | [0x64]       | null   | true
+        BATTERY_SERVICE    | []           | null   | true
+        BATTERY_SERVICE    | [0x65]       | null   | false
+        BATTERY_SERVICE    | [0x65]       | [0xF0] | true
+        BATTERY_SERVICE    | [0x64, 0x00] | null   | false
+        HEART_RATE_SERVICE | [0x64]       | null   | false
+    }
+
+    @Unroll
+    def "should match manufacturer data #data with mask #mask: #expectedResult"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(CUSTOM_SERVICES)
+
+        expect:
+        objectUnderTest.matchesManufacturerData(manufacturerId, data as byte[], mask as byte[]) == expectedResult
+
+        where:
+        manufacturerId | data                     | mask         | expectedResult
+        0x004C         | [0x02, 0x15]             | null         | true
+        0x004C         | [0x02, 0x16]             | null         | false
+        0x004C         | [0x02, 0x16]             | [0xFF, 0x00] | true
+        0x004C         | [0x02, 0x15, 0x01, 0x00] | null         | false
+        0x0059         | [0x02, 0x15]             | null         | false
+    }
+
+    @Unroll
+    def "should match device name #name: #expectedResult"() {
+
+        given:
+        def objectUnderTest = new ScanRecordImplLazy(advertisement)
+
+        expect:
+        objectUnderTest.matchesDeviceName(name) == expectedResult
+
+        where:
+        advertisement                      | name        | expectedResult
+        SERVICES_AND_NAME                  | "Sensor"    | true
+        SERVICES_AND_NAME                  | "Sensors"   | false
+        SERVICES_AND_NAME                  | "Sensos"    | false
+        CUSTOM_SERVICES                    | "Sensor"    | false
+        bytes(0x04, 0x09, 0xC5, 0xBB, 'a') | "\u017Ba"   | true
+        bytes(0x04, 0x09, 0xC5, 0xBB, 'a') | "Za"        | false
+    }
+
+    private static byte[] bytes(Object... values) {
+        values.collect { it instanceof String ? (byte) it.charAt(0) : (byte) it } as byte[]
+    }
+}
@@ -0,0 +1,86 @@
+package com.polidea.rxandroidble.internal.scan
+
+import java.util.concurrent.TimeUnit
+import rx.Observable
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+
+class ScanStartSchedulerTest extends Specification {
+
+    TestScheduler testScheduler = new TestScheduler()
+    ScanStartScheduler objectUnderTest = new ScanStartScheduler(5, TimeUnit.SECONDS.toMillis(30), testScheduler)
+    int scanStarts = 0
+    Observable<Object> scanStart = Observable.never().doOnSubscribe({ scanStarts++ })
+
+    def setup() {
+        testScheduler.advanceTimeTo(1, TimeUnit.MINUTES)
+    }
+
+    def "should start the scans within the quota immediately"() {
+
+        when:
+        5.times { objectUnderTest.schedule(scanStart).subscribe() }
+
+        then:
+        scanStarts == 5
+    }
+
+    def "should delay the scan start which exceeds the quota until the oldest start leaves the window"() {
+
+        given:
+        objectUnderTest.schedule(scanStart).subscribe()
+        testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+        4.times { objectUnderTest.schedule(scanStart).subscribe() }
+
+        when:
+        objectUnderTest.schedule(scanStart).subscribe()
+
+        then:
+        scanStarts == 5
+        objectUnderTest.getExpectedStartDate().time == TimeUnit.SECONDS.toMillis(100)
+
+        when:
+        testScheduler.advanceTimeBy(19999, TimeUnit.MILLISECONDS)
+
+        then:
+        scanStarts == 5
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+
+        then:
+        scanStarts == 6
+    }
+
+    def "should give the start time of a cancelled delayed scan start to the next one"() {
+
+        given:
+        5.times { objectUnderTest.schedule(scanStart).subscribe() }
+        def delayedSubscription = objectUnderTest.schedule(scanStart).subscribe()
+        testScheduler.advanceTimeBy(5, TimeUnit.SECONDS)
+
+        when:
+        delayedSubscription.unsubscribe()
+        objectUnderTest.schedule(scanStart).subscribe()
+        testScheduler.advanceTimeBy(25, TimeUnit.SECONDS)
+
+        then:
+        scanStarts == 6
+
+        and:
+        objectUnderTest.getExpectedStartDate().time == TimeUnit.SECONDS.toMillis(90)
+    }
+
+    def "should not delay scan starts if there is no quota"() {
+
+        given:
+        objectUnderTest = new ScanStartScheduler(0, TimeUnit.SECONDS.toMillis(30), testScheduler)
+
+        when:
+        10.times { objectUnderTest.schedule(scanStart).subscribe() }
+
+        then:
+        scanStarts == 10
+        objectUnderTest.getExpectedStartDate().time == testScheduler.now()
+    }
+}
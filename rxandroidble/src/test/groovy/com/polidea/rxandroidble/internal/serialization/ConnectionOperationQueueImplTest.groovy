@@ -0,0 +1,137 @@
+package com.polidea.rxandroidble.internal.serialization
+
+import com.polidea.rxandroidble.ClientSetup
+import com.polidea.rxandroidble.MockOperation
+import com.polidea.rxandroidble.exceptions.BleDisconnectedException
+import com.polidea.rxandroidble.internal.connection.DisconnectionRouterOutput
+import rx.observers.TestSubscriber
+import rx.schedulers.Schedulers
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
+
+import static com.polidea.rxandroidble.internal.Priority.NORMAL
+
+class ConnectionOperationQueueImplTest extends Specification {
+
+    ExecutorService sharedExecutorService = Executors.newSingleThreadExecutor()
+    ConnectionOperationQueueImpl objectUnderTest = createQueue("AA:BB:CC:DD:EE:FF")
+
+    void cleanup() {
+        sharedExecutorService.shutdownNow()
+    }
+
+    def "should run operation if queue is empty"() {
+        given:
+        def operation = MockOperation.mockOperation(NORMAL)
+
+        when:
+        objectUnderTest.queue(operation).subscribe()
+        waitForOperationsToFinishRunning(operation)
+
+        then:
+        operation.executionCount == 1
+    }
+
+    def "should not run second operation until first releases the queue"() {
+        given:
+        Semaphore semaphore = new Semaphore(0)
+        def firstOperation = operationReleasingQueueAfterSemaphoreIsReleased(semaphore)
+        def secondOperation = MockOperation.mockOperation(NORMAL)
+
+        when:
+        objectUnderTest.queue(firstOperation).subscribe()
+        objectUnderTest.queue(secondOperation).subscribe()
+        waitForThreadsToCompleteWork()
+
+        then:
+        firstOperation.wasRan()
+        !secondOperation.wasRan()
+
+        when:
+        semaphore.release()
+        waitForOperationsToFinishRunning(secondOperation)
+
+        then:
+        secondOperation.wasRan()
+    }
+
+    def "should run operations of other connections while an operation is in progress and the executor has a single thread"() {
+        given:
+        Semaphore semaphore = new Semaphore(0)
+        def otherQueue = createQueue("11:22:33:44:55:66")
+        def blockingOperation = operationReleasingQueueAfterSemaphoreIsReleased(semaphore)
+        def otherConnectionOperation = MockOperation.mockOperation(NORMAL)
+
+        when:
+        objectUnderTest.queue(blockingOperation).subscribe()
+        waitForThreadsToCompleteWork()
+        otherQueue.queue(otherConnectionOperation).subscribe()
+        waitForOperationsToFinishRunning(otherConnectionOperation)
+
+        then:
+        otherConnectionOperation.wasRan()
+
+        cleanup:
+        semaphore.release()
+    }
+
+    def "should emit the termination exception to queued operations"() {
+        given:
+        Semaphore semaphore = new Semaphore(0)
+        def testSubscriber = new TestSubscriber()
+        def terminationException = new BleDisconnectedException("AA:BB:CC:DD:EE:FF")
+        objectUnderTest.queue(operationReleasingQueueAfterSemaphoreIsReleased(semaphore)).subscribe()
+        objectUnderTest.queue(MockOperation.mockOperation(NORMAL)).subscribe(testSubscriber)
+        waitForThreadsToCompleteWork()
+
+        when:
+        objectUnderTest.terminate(terminationException)
+        testSubscriber.awaitTerminalEvent(1, TimeUnit.SECONDS)
+
+        then:
+        testSubscriber.assertError(terminationException)
+
+        cleanup:
+        semaphore.release()
+    }
+
+    def "should emit the termination exception to operations queued after termination"() {
+        given:
+        def testSubscriber = new TestSubscriber()
+        def terminationException = new BleDisconnectedException("AA:BB:CC:DD:EE:FF")
+        objectUnderTest.terminate(terminationException)
+
+        when:
+        objectUnderTest.queue(MockOperation.mockOperation(NORMAL)).subscribe(testSubscriber)
+
+        then:
+        testSubscriber.assertError(terminationException)
+    }
+
+    private ConnectionOperationQueueImpl createQueue(String macAddress) {
+        new ConnectionOperationQueueImpl(macAddress, Mock(DisconnectionRouterOutput), sharedExecutorService, Schedulers.io(),
+                new ClientSetup.Builder().build())
+    }
+
+    private static waitForThreadsToCompleteWork() {
+        Thread.sleep(200) // Nasty :<
+        true
+    }
+
+    private static operationReleasingQueueAfterSemaphoreIsReleased(Semaphore semaphore) {
+        MockOperation.mockOperation(NORMAL, {
+            semaphore.acquire()
+            it.onCompleted()
+        })
+    }
+
+    private static void waitForOperationsToFinishRunning(MockOperation... operations) {
+        for (MockOperation mockOperation : operations) {
+            mockOperation.getFinishedRunningObservable().timeout(1, TimeUnit.SECONDS).toBlocking().first()
+        }
+    }
+}
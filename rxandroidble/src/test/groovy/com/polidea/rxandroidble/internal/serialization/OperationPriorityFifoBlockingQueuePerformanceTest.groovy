@@ -0,0 +1,69 @@
+package com.polidea.rxandroidble.internal.serialization
+
+import com.polidea.rxandroidble.MockOperation
+import com.polidea.rxandroidble.internal.Priority
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.PriorityBlockingQueue
+import spock.lang.Ignore
+import spock.lang.Specification
+
+class OperationPriorityFifoBlockingQueuePerformanceTest extends Specification {
+
+    def producersCount = 8
+    def entriesPerProducer = 100000
+    def priorities = [Priority.LOW, Priority.NORMAL, Priority.HIGH]
+
+    def "sanity check"() {
+
+        expect:
+        producersCount * entriesPerProducer > 0
+    }
+
+    @Ignore // not needed to be performed each time
+    def "performance test OperationPriorityFifoBlockingQueue under contention"() {
+        given:
+        def queue = new OperationPriorityFifoBlockingQueue()
+
+        when:
+        def tookMillis = measureContended({ FIFORunnableEntry entry -> queue.add(entry) }, { queue.take() })
+
+        then:
+        queue.isEmpty()
+        println("Queued and taken ${producersCount * entriesPerProducer} entries from $producersCount threads in ${tookMillis}ms (lanes)")
+    }
+
+    @Ignore // not needed to be performed each time
+    def "performance test PriorityBlockingQueue under contention"() {
+        given:
+        def queue = new PriorityBlockingQueue<FIFORunnableEntry>()
+
+        when:
+        def tookMillis = measureContended({ FIFORunnableEntry entry -> queue.add(entry) }, { queue.take() })
+
+        then:
+        queue.isEmpty()
+        println("Queued and taken ${producersCount * entriesPerProducer} entries from $producersCount threads in ${tookMillis}ms "
+                + "(PriorityBlockingQueue)")
+    }
+
+    private long measureContended(Closure producer, Closure consumer) {
+        def operations = priorities.collect { MockOperation.mockOperation(it) }
+        def totalCount = producersCount * entriesPerProducer
+        def startLatch = new CountDownLatch(1)
+        def threads = (1..producersCount).collect {
+            Thread.start {
+                startLatch.await()
+                for (int i = 0; i < entriesPerProducer; i++) {
+                    producer(new FIFORunnableEntry(operations[i % operations.size()], null))
+                }
+            }
+        }
+        def startedTimestamp = System.currentTimeMillis()
+        startLatch.countDown()
+        for (int i = 0; i < totalCount; i++) {
+            consumer()
+        }
+        threads*.join()
+        System.currentTimeMillis() - startedTimestamp
+    }
+}
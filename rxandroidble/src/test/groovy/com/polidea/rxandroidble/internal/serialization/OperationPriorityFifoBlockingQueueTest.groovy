@@ -82,6 +82,43 @@ public class OperationPriorityFifoBlockingQueueTest extends Specification {
         [entryOperation0, entryOperation1] | [entryOperation1, entryOperation0] | []
     }
 
+    def "should report removal only once"() {
+        given:
+        def entry = new FIFORunnableEntry(MockOperation.mockOperation(NORMAL), null)
+        objectUnderTest.add(entry)
+
+        expect:
+        objectUnderTest.remove(entry)
+
+        and:
+        !objectUnderTest.remove(entry)
+
+        and:
+        objectUnderTest.isEmpty()
+    }
+
+    def "should not allow removing an entry that was already taken"() {
+        given:
+        def entry = new FIFORunnableEntry(MockOperation.mockOperation(NORMAL), null)
+        objectUnderTest.add(entry)
+
+        when:
+        objectUnderTest.take()
+
+        then:
+        !objectUnderTest.remove(entry)
+    }
+
+    def "takeNow() should return null if only removed entries are left"() {
+        given:
+        def entry = new FIFORunnableEntry(MockOperation.mockOperation(NORMAL), null)
+        objectUnderTest.add(entry)
+        objectUnderTest.remove(entry)
+
+        expect:
+        objectUnderTest.takeNow() == null
+    }
+
     private List<Operation> dumpQueueOperations() {
         def operationsQueueList = new ArrayList<Operation>()
 
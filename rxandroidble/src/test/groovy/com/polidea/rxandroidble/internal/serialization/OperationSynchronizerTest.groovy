@@ -1,5 +1,6 @@
 package com.polidea.rxandroidble.internal.serialization
 
+import com.polidea.rxandroidble.ClientSetup
 import com.polidea.rxandroidble.MockOperation
 import rx.Emitter
 import rx.Observable
@@ -21,7 +22,7 @@ class OperationSynchronizerTest extends Specification {
     ClientOperationQueueImpl objectUnderTest
 
     void setup() {
-        objectUnderTest = new ClientOperationQueueImpl(createSchedulerWithNamedThread(THREAD_NAME))
+        objectUnderTest = new ClientOperationQueueImpl(createSchedulerWithNamedThread(THREAD_NAME), new ClientSetup.Builder().build())
     }
 
     def "should run operation instantly if queue is empty and no operation is in progress"() {
@@ -159,6 +160,61 @@ class OperationSynchronizerTest extends Specification {
         }
     }
 
+    def "should start next operation once the previous one is released when handing off on release"() {
+        given:
+        objectUnderTest = new ClientOperationQueueImpl(createSchedulerWithNamedThread(THREAD_NAME), handOffClientSetup())
+        Semaphore semaphore = new Semaphore(0)
+        MockOperation firstOperation = operationReleasingQueueAfterSemaphoreIsReleased(semaphore)
+        def secondOperation = MockOperation.mockOperation(NORMAL)
+
+        when:
+        objectUnderTest.queue(firstOperation).subscribe()
+        objectUnderTest.queue(secondOperation).subscribe()
+        waitForThreadsToCompleteWork()
+
+        then:
+        firstOperation.wasRan()
+
+        and:
+        !secondOperation.wasRan()
+
+        when:
+        semaphore.release()
+        waitForOperationsToFinishRunning(secondOperation)
+
+        then:
+        secondOperation.wasRan()
+
+        and:
+        secondOperation.lastExecutedOnThread == THREAD_NAME
+    }
+
+    def "should not run operation if it was unsubscribed before it was started when handing off on release"() {
+        given:
+        objectUnderTest = new ClientOperationQueueImpl(createSchedulerWithNamedThread(THREAD_NAME), handOffClientSetup())
+        Semaphore semaphore = new Semaphore(0)
+        MockOperation firstOperation = operationReleasingQueueAfterSemaphoreIsReleased(semaphore)
+        MockOperation secondOperation = MockOperation.mockOperation(NORMAL)
+        MockOperation thirdOperation = MockOperation.mockOperation(NORMAL)
+
+        when:
+        objectUnderTest.queue(firstOperation).subscribe()
+        objectUnderTest.queue(secondOperation).subscribe().unsubscribe()
+        objectUnderTest.queue(thirdOperation).subscribe()
+        semaphore.release()
+        waitForOperationsToFinishRunning(thirdOperation)
+
+        then:
+        !secondOperation.wasRan()
+
+        and:
+        thirdOperation.wasRan()
+    }
+
+    private static ClientSetup handOffClientSetup() {
+        new ClientSetup.Builder().setOperationHandOffOnRelease(true).build()
+    }
+
     public waitForThreadsToCompleteWork() {
         Thread.sleep(200) // Nasty :<
         true
@@ -0,0 +1,60 @@
+package com.polidea.rxandroidble.internal.util
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ShortUUIDsTest extends Specification {
+
+    @Unroll
+    def "should expand 16-bit UUID #shortUuid"() {
+
+        expect:
+        ShortUUIDs.from16Bit(shortUuid) == UUID.fromString(expectedUuid)
+
+        where:
+        shortUuid | expectedUuid
+        0x180F    | "0000180f-0000-1000-8000-00805f9b34fb"
+        0x0001    | "00000001-0000-1000-8000-00805f9b34fb"
+        0xFEAA    | "0000feaa-0000-1000-8000-00805f9b34fb"
+        -1        | "0000ffff-0000-1000-8000-00805f9b34fb"
+    }
+
+    @Unroll
+    def "should expand 32-bit UUID #shortUuid"() {
+
+        expect:
+        ShortUUIDs.from32Bit(shortUuid) == UUID.fromString(expectedUuid)
+
+        where:
+        shortUuid   | expectedUuid
+        0xDEADBEEFL | "deadbeef-0000-1000-8000-00805f9b34fb"
+        0x0000180FL | "0000180f-0000-1000-8000-00805f9b34fb"
+        -1L         | "ffffffff-0000-1000-8000-00805f9b34fb"
+    }
+
+    @Unroll
+    def "should return shared instances of assigned 16-bit UUID #shortUuid"() {
+
+        expect:
+        ShortUUIDs.from16Bit(shortUuid).is(ShortUUIDs.from16Bit(shortUuid))
+        ShortUUIDs.from32Bit(shortUuid).is(ShortUUIDs.from16Bit(shortUuid))
+
+        where:
+        shortUuid << [0x1800, 0x180D, 0x2A19, 0x2902, 0xFEAA]
+    }
+
+    @Unroll
+    def "should convert #uuid to 16-bit UUID #expectedResult"() {
+
+        expect:
+        ShortUUIDs.to16Bit(UUID.fromString(uuid)) == expectedResult
+
+        where:
+        uuid                                   | expectedResult
+        "0000180f-0000-1000-8000-00805f9b34fb" | 0x180F
+        "0000ffff-0000-1000-8000-00805f9b34fb" | 0xFFFF
+        "deadbeef-0000-1000-8000-00805f9b34fb" | -1
+        "0000180f-0000-1000-8000-00805f9b34fc" | -1
+        "6e400001-b5a3-f393-e0a9-e50e24dcca9e" | -1
+    }
+}
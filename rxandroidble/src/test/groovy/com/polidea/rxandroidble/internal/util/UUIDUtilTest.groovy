@@ -17,4 +17,31 @@ class UUIDUtilTest extends Specification {
         then:
         result.get(0).toString() == "deadbeef-0000-1000-8000-00805f9b34fb"
     }
+
+    def "should extract 16-bit UUIDs"() {
+
+        given:
+        def advertisement = [0x05, 0x03, 0x0d, 0x18, 0x0f, 0x18] as byte[]
+
+        when:
+        def result = objectUnderTest.extractUUIDs(advertisement)
+
+        then:
+        result*.toString() == ["0000180d-0000-1000-8000-00805f9b34fb", "0000180f-0000-1000-8000-00805f9b34fb"]
+    }
+
+    def "should not read the following 128-bit UUID list as a part of 32-bit UUID list"() {
+
+        given:
+        def advertisement = [
+                0x05, 0x05, 0xef, 0xbe, 0xad, 0xde,
+                0x11, 0x07, 0x9e, 0xca, 0xdc, 0x24, 0x0e, 0xe5, 0xa9, 0xe0, 0x93, 0xf3, 0xa3, 0xb5, 0x01, 0x00, 0x40, 0x6e
+        ] as byte[]
+
+        when:
+        def result = objectUnderTest.extractUUIDs(advertisement)
+
+        then:
+        result*.toString() == ["deadbeef-0000-1000-8000-00805f9b34fb", "6e400001-b5a3-f393-e0a9-e50e24dcca9e"]
+    }
 }
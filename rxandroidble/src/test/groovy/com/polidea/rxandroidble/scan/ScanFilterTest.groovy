@@ -1,10 +1,13 @@
 package com.polidea.rxandroidble.scan
 
 import android.bluetooth.BluetoothDevice
+import android.os.ParcelUuid
 import com.polidea.rxandroidble.internal.scan.RxBleInternalScanResult
-import spock.lang.Specification
+import com.polidea.rxandroidble.internal.scan.ScanRecordImplLazy
+import org.robospock.RoboSpecification
+import spock.lang.Unroll
 
-class ScanFilterTest extends Specification {
+class ScanFilterTest extends RoboSpecification {
 
     RxBleInternalScanResult mockInternalScanResult = Mock RxBleInternalScanResult
 
@@ -51,6 +54,36 @@ class ScanFilterTest extends Specification {
         !objectUnderTest.matches(mockInternalScanResult)
     }
 
+    @Unroll
+    def "should match the raw bytes of a lazily parsed ScanRecord #description"() {
+
+        given:
+        RxBleInternalScanResult internalScanResult = Mock RxBleInternalScanResult
+        internalScanResult.getBluetoothDevice() >> mockBluetoothDevice
+        // flags, a 16 bit service UUID with its service data, manufacturer specific data and the complete local name
+        internalScanResult.getScanRecord() >> new ScanRecordImplLazy([
+                0x02, 0x01, 0x06,
+                0x03, 0x03, 0x0F, 0x18,
+                0x04, 0x16, 0x0F, 0x18, 0x64,
+                0x05, 0xFF, 0x4C, 0x00, 0x02, 0x15,
+                0x04, 0x09, 0x78, 0x78, 0x78
+        ] as byte[])
+
+        expect:
+        filterBuilder.build().matches(internalScanResult) == expectedResult
+
+        where:
+        filterBuilder                                                                                           | expectedResult | description
+        new ScanFilter.Builder().setDeviceName("xxx")                                                           | true           | "by name"
+        new ScanFilter.Builder().setDeviceName("yyy")                                                           | false          | "by other name"
+        new ScanFilter.Builder().setServiceUuid(ParcelUuid.fromString("0000180f-0000-1000-8000-00805f9b34fb"))  | true           | "by service UUID"
+        new ScanFilter.Builder().setServiceUuid(ParcelUuid.fromString("0000180d-0000-1000-8000-00805f9b34fb"))  | false          | "by other service UUID"
+        new ScanFilter.Builder().setServiceData(ParcelUuid.fromString("0000180f-0000-1000-8000-00805f9b34fb"), [0x64] as byte[]) | true | "by service data"
+        new ScanFilter.Builder().setServiceData(ParcelUuid.fromString("0000180f-0000-1000-8000-00805f9b34fb"), [0x65] as byte[]) | false | "by other service data"
+        new ScanFilter.Builder().setManufacturerData(0x004C, [0x02, 0x15] as byte[])                            | true           | "by manufacturer data"
+        new ScanFilter.Builder().setManufacturerData(0x004C, [0x02, 0x16] as byte[])                            | false          | "by other manufacturer data"
+    }
+
     private void givenScanRecordWith(Map scanRecordMap) {
         mockScanRecord.getDeviceName() >> (scanRecordMap['deviceName'] ?: null)
         mockScanRecord.getServiceUuids() >> (scanRecordMap['serviceUuids'] ?: null)
@@ -0,0 +1,155 @@
+package com.polidea.rxandroidble.utils
+
+import android.bluetooth.BluetoothGattCharacteristic
+import java.util.concurrent.TimeUnit
+import spock.lang.Specification
+
+class AdaptiveLongWriteStrategyTest extends Specification {
+
+    static final int NO_RESPONSE = BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE
+    static final int WITH_RESPONSE = BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT
+    BluetoothGattCharacteristic mockCharacteristic = Mock BluetoothGattCharacteristic
+
+    def "should use the batch size limit of the long write while the latency is steady"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().build()
+
+        when:
+        objectUnderTest.onBatchAcknowledged(100, NO_RESPONSE, 1000)
+        objectUnderTest.onBatchAcknowledged(100, NO_RESPONSE, 1200)
+
+        then:
+        objectUnderTest.getBatchSize(100) == 100
+    }
+
+    def "should decrease the batch size on a latency spike and increase it back after steady batches"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().build()
+        objectUnderTest.getBatchSize(100)
+        objectUnderTest.onBatchAcknowledged(100, NO_RESPONSE, 1000)
+
+        when:
+        objectUnderTest.onBatchAcknowledged(100, NO_RESPONSE, 10000)
+
+        then:
+        objectUnderTest.getBatchSize(100) == 75
+
+        when:
+        8.times { objectUnderTest.onBatchAcknowledged(75, NO_RESPONSE, 750) }
+
+        then:
+        objectUnderTest.getBatchSize(100) == 87
+    }
+
+    def "should not treat the shorter last batch of a long write as a latency spike"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().build()
+
+        when:
+        3.times {
+            // a long write of 220 bytes — the latency of every batch is the same regardless of its size
+            [100, 100, 20].each { int batchSize ->
+                objectUnderTest.getBatchSize(100)
+                objectUnderTest.onBatchAcknowledged(batchSize, NO_RESPONSE, 1000)
+            }
+        }
+
+        then:
+        objectUnderTest.getBatchSize(100) == 100
+        objectUnderTest.getThroughput() == 100000000
+    }
+
+    def "should not decrease the batch size below the minimum"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().setMinBatchSize(18).build()
+        objectUnderTest.getBatchSize(20)
+        objectUnderTest.onBatchAcknowledged(20, NO_RESPONSE, 1000)
+
+        when:
+        objectUnderTest.onBatchAcknowledged(20, NO_RESPONSE, 100000)
+
+        then:
+        objectUnderTest.getBatchSize(20) == 18
+    }
+
+    def "should write every n-th batch with response if the characteristic supports both write types"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().setResponseInterval(4, 16).build()
+        mockCharacteristic.getProperties() >> (BluetoothGattCharacteristic.PROPERTY_WRITE | BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE)
+
+        expect:
+        (1..8).collect { objectUnderTest.getWriteType(mockCharacteristic) } ==
+                [NO_RESPONSE, NO_RESPONSE, NO_RESPONSE, WITH_RESPONSE, NO_RESPONSE, NO_RESPONSE, NO_RESPONSE, WITH_RESPONSE]
+    }
+
+    def "should keep the write type of the characteristic if it does not support both write types or switching is disabled"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().setWriteTypeSwitchingEnabled(switchingEnabled).build()
+        mockCharacteristic.getProperties() >> properties
+        mockCharacteristic.getWriteType() >> WITH_RESPONSE
+
+        expect:
+        (1..8).every { objectUnderTest.getWriteType(mockCharacteristic) == WITH_RESPONSE }
+
+        where:
+        properties                                                                                        | switchingEnabled
+        BluetoothGattCharacteristic.PROPERTY_WRITE                                                        | true
+        BluetoothGattCharacteristic.PROPERTY_WRITE | BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE | false
+    }
+
+    def "should halve the response interval on a latency spike of a batch written with response and increase it after steady batches"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().setResponseInterval(8, 16).build()
+        objectUnderTest.onBatchAcknowledged(100, WITH_RESPONSE, 10000)
+
+        when:
+        objectUnderTest.onBatchAcknowledged(100, WITH_RESPONSE, 100000)
+
+        then:
+        objectUnderTest.getResponseInterval() == 4
+
+        when:
+        8.times { objectUnderTest.onBatchAcknowledged(100, NO_RESPONSE, 1000) }
+
+        then:
+        objectUnderTest.getResponseInterval() == 5
+    }
+
+    def "should not treat a slower batch written with response as a spike of the batches written without response"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().build()
+        objectUnderTest.getBatchSize(100)
+        objectUnderTest.onBatchAcknowledged(100, NO_RESPONSE, 1000)
+
+        when:
+        objectUnderTest.onBatchAcknowledged(100, WITH_RESPONSE, 10000)
+
+        then:
+        objectUnderTest.getBatchSize(100) == 100
+    }
+
+    def "should estimate the throughput and the remaining time"() {
+
+        given:
+        def objectUnderTest = new AdaptiveLongWriteStrategy.Builder().build()
+
+        expect:
+        objectUnderTest.getThroughput() == 0
+        objectUnderTest.estimateRemainingTime(1000, TimeUnit.SECONDS) == -1
+
+        when:
+        objectUnderTest.onBatchAcknowledged(100, NO_RESPONSE, TimeUnit.MILLISECONDS.toNanos(1))
+
+        then:
+        objectUnderTest.getThroughput() == 100000
+        objectUnderTest.estimateRemainingTime(200000, TimeUnit.SECONDS) == 2
+    }
+}
@@ -0,0 +1,184 @@
+package com.polidea.rxandroidble.utils
+
+import com.polidea.rxandroidble.RxBleConnection
+import com.polidea.rxandroidble.RxBleDevice
+import java.util.concurrent.TimeUnit
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class ConnectionPoolTest extends Specification {
+
+    TestScheduler testScheduler = new TestScheduler()
+    Map<String, List<PublishSubject<RxBleConnection>>> connections = [:]
+
+    def "should share one connection between the leases of a device"() {
+
+        given:
+        def objectUnderTest = pool(2)
+        def device = mockDevice("AA:AA:AA:AA:AA:AA")
+        def firstSubscriber = new TestSubscriber()
+        def secondSubscriber = new TestSubscriber()
+        def rxBleConnection = Mock RxBleConnection
+
+        when:
+        objectUnderTest.connect(device).subscribe(firstSubscriber)
+        connections["AA:AA:AA:AA:AA:AA"][0].onNext(rxBleConnection)
+        objectUnderTest.connect(device).subscribe(secondSubscriber)
+
+        then:
+        connections["AA:AA:AA:AA:AA:AA"].size() == 1
+        firstSubscriber.assertValue(rxBleConnection)
+        secondSubscriber.assertValue(rxBleConnection)
+    }
+
+    def "should reuse an idle connection"() {
+
+        given:
+        def objectUnderTest = pool(2)
+        def device = mockDevice("AA:AA:AA:AA:AA:AA")
+        objectUnderTest.connect(device).subscribe().unsubscribe()
+
+        when:
+        objectUnderTest.connect(device).subscribe()
+
+        then:
+        connections["AA:AA:AA:AA:AA:AA"].size() == 1
+        connections["AA:AA:AA:AA:AA:AA"][0].hasObservers()
+    }
+
+    def "should close an idle connection after the idle timeout"() {
+
+        given:
+        def objectUnderTest = pool(2)
+        objectUnderTest.connect(mockDevice("AA:AA:AA:AA:AA:AA")).subscribe().unsubscribe()
+
+        when:
+        testScheduler.advanceTimeBy(9, TimeUnit.SECONDS)
+
+        then:
+        connections["AA:AA:AA:AA:AA:AA"][0].hasObservers()
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        !connections["AA:AA:AA:AA:AA:AA"][0].hasObservers()
+        objectUnderTest.getConnectionsCount() == 0
+    }
+
+    def "should close the least recently released idle connection to free a slot"() {
+
+        given:
+        def objectUnderTest = pool(2)
+        def firstSubscription = objectUnderTest.connect(mockDevice("AA:AA:AA:AA:AA:AA")).subscribe()
+        def secondSubscription = objectUnderTest.connect(mockDevice("BB:BB:BB:BB:BB:BB")).subscribe()
+        firstSubscription.unsubscribe()
+        secondSubscription.unsubscribe()
+
+        when:
+        objectUnderTest.connect(mockDevice("CC:CC:CC:CC:CC:CC")).subscribe()
+
+        then:
+        !connections["AA:AA:AA:AA:AA:AA"][0].hasObservers()
+        connections["BB:BB:BB:BB:BB:BB"][0].hasObservers()
+        connections["CC:CC:CC:CC:CC:CC"][0].hasObservers()
+    }
+
+    def "should close the lowest priority idle connection to free a slot if the eviction policy is PRIORITY"() {
+
+        given:
+        def objectUnderTest = pool(2, ConnectionPool.EvictionPolicy.PRIORITY)
+        def firstSubscription = objectUnderTest.connect(mockDevice("AA:AA:AA:AA:AA:AA"), 10).subscribe()
+        def secondSubscription = objectUnderTest.connect(mockDevice("BB:BB:BB:BB:BB:BB"), 1).subscribe()
+        firstSubscription.unsubscribe()
+        secondSubscription.unsubscribe()
+
+        when:
+        objectUnderTest.connect(mockDevice("CC:CC:CC:CC:CC:CC")).subscribe()
+
+        then:
+        connections["AA:AA:AA:AA:AA:AA"][0].hasObservers()
+        !connections["BB:BB:BB:BB:BB:BB"][0].hasObservers()
+    }
+
+    def "should queue the requests while all connections are leased and serve them by priority"() {
+
+        given:
+        def objectUnderTest = pool(1)
+        def leasedSubscription = objectUnderTest.connect(mockDevice("AA:AA:AA:AA:AA:AA")).subscribe()
+        objectUnderTest.connect(mockDevice("BB:BB:BB:BB:BB:BB"), 1).subscribe()
+        objectUnderTest.connect(mockDevice("CC:CC:CC:CC:CC:CC"), 5).subscribe()
+
+        expect:
+        objectUnderTest.getPendingRequestsCount() == 2
+        connections["BB:BB:BB:BB:BB:BB"] == null
+        connections["CC:CC:CC:CC:CC:CC"] == null
+
+        when:
+        leasedSubscription.unsubscribe()
+
+        then:
+        !connections["AA:AA:AA:AA:AA:AA"][0].hasObservers()
+        connections["CC:CC:CC:CC:CC:CC"][0].hasObservers()
+        connections["BB:BB:BB:BB:BB:BB"] == null
+        objectUnderTest.getPendingRequestsCount() == 1
+    }
+
+    def "should drop a cancelled queued request"() {
+
+        given:
+        def objectUnderTest = pool(1)
+        def leasedSubscription = objectUnderTest.connect(mockDevice("AA:AA:AA:AA:AA:AA")).subscribe()
+        objectUnderTest.connect(mockDevice("BB:BB:BB:BB:BB:BB")).subscribe().unsubscribe()
+
+        when:
+        leasedSubscription.unsubscribe()
+
+        then:
+        objectUnderTest.getPendingRequestsCount() == 0
+        connections["BB:BB:BB:BB:BB:BB"] == null
+    }
+
+    def "should pass a connection error to all the leases and free the slot"() {
+
+        given:
+        def objectUnderTest = pool(1)
+        def firstSubscriber = new TestSubscriber()
+        def secondSubscriber = new TestSubscriber()
+        def testThrowable = new Throwable("test")
+        objectUnderTest.connect(mockDevice("AA:AA:AA:AA:AA:AA")).subscribe(firstSubscriber)
+        objectUnderTest.connect(mockDevice("AA:AA:AA:AA:AA:AA")).subscribe(secondSubscriber)
+        objectUnderTest.connect(mockDevice("BB:BB:BB:BB:BB:BB")).subscribe()
+
+        when:
+        connections["AA:AA:AA:AA:AA:AA"][0].onError(testThrowable)
+
+        then:
+        firstSubscriber.assertError(testThrowable)
+        secondSubscriber.assertError(testThrowable)
+        connections["BB:BB:BB:BB:BB:BB"][0].hasObservers()
+        objectUnderTest.getConnectionsCount() == 1
+    }
+
+    private ConnectionPool pool(int maxConnections, ConnectionPool.EvictionPolicy evictionPolicy = ConnectionPool.EvictionPolicy.LRU) {
+        new ConnectionPool.Builder()
+                .setMaxConnections(maxConnections)
+                .setIdleTimeout(10, TimeUnit.SECONDS)
+                .setEvictionPolicy(evictionPolicy)
+                .setScheduler(testScheduler)
+                .build()
+    }
+
+    private RxBleDevice mockDevice(String macAddress) {
+        def device = Mock RxBleDevice
+        device.getMacAddress() >> macAddress
+        device.establishConnection(false) >> {
+            def connection = PublishSubject.<RxBleConnection> create()
+            connections.get(macAddress, []) << connection
+            connection
+        }
+        return device
+    }
+}
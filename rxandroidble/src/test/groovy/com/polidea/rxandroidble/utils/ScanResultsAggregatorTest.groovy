@@ -0,0 +1,152 @@
+package com.polidea.rxandroidble.utils
+
+import com.polidea.rxandroidble.RxBleDevice
+import com.polidea.rxandroidble.scan.ScanRecord
+import com.polidea.rxandroidble.scan.ScanResult
+import java.util.concurrent.TimeUnit
+import rx.Observable
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+import static com.polidea.rxandroidble.utils.ScanResultsAggregator.DeviceChange.Type.ADDED
+import static com.polidea.rxandroidble.utils.ScanResultsAggregator.DeviceChange.Type.CHANGED
+import static com.polidea.rxandroidble.utils.ScanResultsAggregator.DeviceChange.Type.LOST
+
+class ScanResultsAggregatorTest extends Specification {
+
+    TestScheduler testScheduler = new TestScheduler()
+    TestSubscriber<List<ScanResultsAggregator.DeviceChange>> testSubscriber = new TestSubscriber()
+    PublishSubject<ScanResult> subject = PublishSubject.create()
+
+    def setup() {
+        subject.compose(new ScanResultsAggregator.Builder()
+                .setTickInterval(1, TimeUnit.SECONDS)
+                .setLostTimeout(5, TimeUnit.SECONDS)
+                .setRssiSmoothingFactor(0.5)
+                .setRssiChangeThreshold(10)
+                .setScheduler(testScheduler)
+                .build()
+        ).subscribe(testSubscriber)
+    }
+
+    def "should emit an added device once per tick regardless of the number of its advertisements"() {
+
+        given:
+        10.times { subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01, 0x02])) }
+        subject.onNext(scanResult("BB:BB:BB:BB:BB:BB", -60, [0x03]))
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        changesOf(testSubscriber) == [[["AA:AA:AA:AA:AA:AA", ADDED], ["BB:BB:BB:BB:BB:BB", ADDED]]]
+    }
+
+    def "should not emit anything for unchanged advertisements"() {
+
+        given:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01, 0x02]))
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        when:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -52, [0x01, 0x02]))
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        testSubscriber.assertValueCount(1)
+    }
+
+    def "should emit a changed device when its payload changes"() {
+
+        given:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01, 0x02]))
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        when:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01, 0x03]))
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        changesOf(testSubscriber).last() == [["AA:AA:AA:AA:AA:AA", CHANGED]]
+    }
+
+    def "should smooth the RSSI and emit a changed device when the smoothed RSSI moves by the threshold"() {
+
+        given:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01]))
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        when:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -70, [0x01]))
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        changesOf(testSubscriber).last() == [["AA:AA:AA:AA:AA:AA", CHANGED]]
+        testSubscriber.onNextEvents.last()[0].smoothedRssi == -60
+    }
+
+    def "should emit a lost device when it was not scanned for the lost timeout"() {
+
+        given:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01]))
+        testScheduler.advanceTimeBy(4, TimeUnit.SECONDS)
+        testSubscriber.assertValueCount(1)
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        changesOf(testSubscriber).last() == [["AA:AA:AA:AA:AA:AA", LOST]]
+
+        when:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01]))
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        changesOf(testSubscriber).last() == [["AA:AA:AA:AA:AA:AA", ADDED]]
+    }
+
+    def "should emit the pending changes when the scan completes"() {
+
+        given:
+        subject.onNext(scanResult("AA:AA:AA:AA:AA:AA", -50, [0x01]))
+
+        when:
+        subject.onCompleted()
+
+        then:
+        changesOf(testSubscriber) == [[["AA:AA:AA:AA:AA:AA", ADDED]]]
+        testSubscriber.assertCompleted()
+    }
+
+    def "should consume all the scan results of a backpressured source regardless of the demand for the changes"() {
+
+        given:
+        def backpressuredTestSubscriber = new TestSubscriber<List<ScanResultsAggregator.DeviceChange>>(1)
+        def scanResults = (0..<10).collect { scanResult("AA:AA:AA:AA:AA:0$it", -50, [0x01]) }
+        Observable.from(scanResults).compose(new ScanResultsAggregator.Builder()
+                .setTickInterval(1, TimeUnit.SECONDS)
+                .setScheduler(testScheduler)
+                .build()
+        ).subscribe(backpressuredTestSubscriber)
+
+        expect:
+        backpressuredTestSubscriber.assertValueCount(1)
+        changesOf(backpressuredTestSubscriber) == [scanResults.collect { [it.bleDevice.macAddress, ADDED] }]
+        backpressuredTestSubscriber.assertCompleted()
+    }
+
+    private static List changesOf(TestSubscriber<List<ScanResultsAggregator.DeviceChange>> testSubscriber) {
+        testSubscriber.getOnNextEvents().collect { changes -> changes.collect { [it.scanResult.bleDevice.macAddress, it.type] } }
+    }
+
+    private ScanResult scanResult(String macAddress, int rssi, List<Integer> payload) {
+        def device = Mock(RxBleDevice)
+        device.getMacAddress() >> macAddress
+        def scanRecord = Mock(ScanRecord)
+        scanRecord.getBytes() >> (payload as byte[])
+        new ScanResult(device, rssi, 0, null, scanRecord)
+    }
+}